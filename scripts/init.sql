@@ -144,7 +144,7 @@ CREATE INDEX IF NOT EXISTS idx_inventario_area_area ON inventario_area(area_id);
 CREATE INDEX IF NOT EXISTS idx_instancia_estado ON instancia_epp(estado_id);
 CREATE INDEX IF NOT EXISTS idx_solicitud_estado ON solicitud_reposicion(estado_solicitud);
 CREATE INDEX IF NOT EXISTS idx_entrega_trabajador ON entrega_epp(trabajador_id);
-CREATE INDEX IF NOT EXISTS idx_entrega_fecha ON entrega_epp(fecha_entrega);
+CREATE INDEX IF NOT EXISTS idx_entrega_fecha_id ON entrega_epp(fecha_entrega, entrega_id);
 
 -- ====================
 -- FUNCIÓN PARA AUDITORÍA
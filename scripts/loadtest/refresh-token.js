@@ -0,0 +1,55 @@
+// ============================================
+// PRUEBA DE CARGA - ROTACIÓN DE REFRESH TOKENS
+// Simula el inicio de turno: miles de refresh por minuto.
+// Uso: k6 run -e BASE_URL=http://localhost:8080 -e USUARIO=admin -e PASSWORD='Admin123!' scripts/loadtest/refresh-token.js
+// Todos los VUs usan el mismo usuario: levantar el servidor con AUTH_RATE_LIMIT_ENABLED=false.
+// ============================================
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        inicio_turno: {
+            executor: 'ramping-arrival-rate',
+            startRate: 10,
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            stages: [
+                { target: 100, duration: '1m' },  // ~6000 refresh/min
+                { target: 100, duration: '3m' },
+                { target: 0, duration: '30s' },
+            ],
+        },
+    },
+    thresholds: {
+        'http_req_duration{endpoint:refresh}': ['p(95)<100', 'p(99)<250'],
+        'checks': ['rate>0.99'],
+    },
+};
+
+const headers = { 'Content-Type': 'application/json' };
+
+// Cada VU mantiene su propia familia de refresh tokens
+let refreshToken = null;
+
+function login() {
+    const res = http.post(`${BASE_URL}/api/v1/auth/login`, JSON.stringify({
+        nombreUsuario: __ENV.USUARIO || 'admin',
+        contrasena: __ENV.PASSWORD || 'Admin123!',
+    }), { headers, tags: { endpoint: 'login' } });
+    check(res, { 'login 200': (r) => r.status === 200 });
+    return res.status === 200 ? res.json('refreshToken') : null;
+}
+
+export default function () {
+    if (!refreshToken) {
+        refreshToken = login();
+        return;
+    }
+    const res = http.post(`${BASE_URL}/api/v1/auth/refresh`, JSON.stringify({ refreshToken }),
+        { headers, tags: { endpoint: 'refresh' } });
+    check(res, { 'refresh 200': (r) => r.status === 200 });
+    refreshToken = res.status === 200 ? res.json('refreshToken') : null;
+}
@@ -0,0 +1,68 @@
+// ============================================
+// PRUEBA DE CARGA - HILOS DE PLATAFORMA VS HILOS VIRTUALES
+// Mide throughput y p99 con 200, 1000 y 5000 clientes concurrentes sobre
+// endpoints que pasan la mayor parte del tiempo en JDBC.
+//
+// Ejecutar dos veces contra el mismo servidor y comparar el resumen:
+//   VIRTUAL_THREADS=false java -jar target/sst-epp-backend.jar   (hilos de plataforma)
+//   VIRTUAL_THREADS=true  java -jar target/sst-epp-backend.jar   (JDK 21+)
+//   k6 run -e BASE_URL=http://localhost:8080 -e USUARIO=admin -e PASSWORD='Admin123!' \
+//          -e MODO=plataforma --summary-export=resultado-plataforma.json scripts/loadtest/virtual-threads.js
+// El login se hace una sola vez en setup() y todos los VUs comparten el access token:
+// con un login por VU los 5000 clientes saturan el pool de BCrypt y el resultado mide 503.
+// ENDPOINT debe ser un GET autenticado (no /auth/refresh: rotar un token compartido
+// se detecta como reuso y revoca la familia).
+// ============================================
+import http from 'k6/http';
+import { check, fail } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MODO = __ENV.MODO || 'plataforma';
+const ENDPOINT = __ENV.ENDPOINT || '/api/v1/entregas?tamano=50';
+
+function escenario(vus, inicio) {
+    return {
+        executor: 'constant-vus',
+        vus,
+        duration: '2m',
+        startTime: inicio,
+        tags: { clientes: String(vus), modo: MODO },
+    };
+}
+
+export const options = {
+    setupTimeout: '2m',
+    scenarios: {
+        c200: escenario(200, '0s'),
+        c1000: escenario(1000, '2m30s'),
+        c5000: escenario(5000, '5m'),
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        // Un umbral por escenario para que el resumen muestre p99 y throughput de cada nivel
+        'http_req_duration{clientes:200}': ['p(99)<1000'],
+        'http_req_duration{clientes:1000}': ['p(99)<2000'],
+        'http_req_duration{clientes:5000}': ['p(99)<5000'],
+        'http_reqs{clientes:200}': ['count>0'],
+        'http_reqs{clientes:1000}': ['count>0'],
+        'http_reqs{clientes:5000}': ['count>0'],
+    },
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/api/v1/auth/login`, JSON.stringify({
+        nombreUsuario: __ENV.USUARIO || 'admin',
+        contrasena: __ENV.PASSWORD || 'Admin123!',
+    }), { headers: { 'Content-Type': 'application/json' }, tags: { endpoint: 'login' } });
+    if (res.status !== 200) {
+        fail(`login falló con estado ${res.status}`);
+    }
+    // El access token dura 24 h, más que la prueba completa
+    return { token: res.json('token') };
+}
+
+export default function (data) {
+    const res = http.get(`${BASE_URL}${ENDPOINT}`,
+        { headers: { Authorization: `Bearer ${data.token}` }, tags: { endpoint: 'consulta' } });
+    check(res, { 'status 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,75 @@
+package pe.edu.upeu.epp.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import pe.edu.upeu.epp.SstEppBackendApplication;
+import pe.edu.upeu.epp.entity.Rol;
+import pe.edu.upeu.epp.entity.Usuario;
+import pe.edu.upeu.epp.repository.RolRepository;
+import pe.edu.upeu.epp.repository.UsuarioRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contexto completo de la aplicación sobre H2 en memoria (modo PostgreSQL)
+ * para los benchmarks que necesitan BD. Sin tareas programadas: usan SQL de
+ * PostgreSQL y sus errores y consultas se mezclarían con la medición.
+ */
+final class BenchmarkContext {
+
+    static final String USUARIO = "bench.admin";
+    static final String PASSWORD = "Bench123!";
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext iniciar(Map<String, Object> propiedadesExtra) {
+        Map<String, Object> propiedades = new HashMap<>();
+        propiedades.put("spring.datasource.url", "jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;INIT=CREATE SCHEMA IF NOT EXISTS epp\\;CREATE DOMAIN IF NOT EXISTS jsonb AS JSON");
+        propiedades.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        propiedades.put("spring.datasource.username", "sa");
+        propiedades.put("spring.datasource.password", "");
+        propiedades.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        propiedades.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        propiedades.put("spring.jpa.show-sql", "false");
+        propiedades.put("spring.flyway.enabled", "false");
+        propiedades.put("server.port", "0");
+        propiedades.put("scheduling.enabled", "false");
+        propiedades.put("logging.level.root", "WARN");
+        propiedades.put("logging.level.pe.edu.upeu.epp", "WARN");
+        propiedades.put("logging.level.org.hibernate.SQL", "WARN");
+        propiedades.put("logging.level.org.springframework.security", "WARN");
+        propiedades.putAll(propiedadesExtra);
+
+        // Como argumentos de línea de comandos para que prevalezcan sobre application.yml
+        String[] args = propiedades.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SstEppBackendApplication.class)
+                .run(args);
+        crearUsuario(context);
+        return context;
+    }
+
+    private static void crearUsuario(ConfigurableApplicationContext context) {
+        RolRepository rolRepository = context.getBean(RolRepository.class);
+        UsuarioRepository usuarioRepository = context.getBean(UsuarioRepository.class);
+        PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+
+        Rol rol = rolRepository.findByNombreRol("SUPERVISOR_SST").orElseGet(() -> {
+            Rol nuevo = new Rol();
+            nuevo.setNombreRol("SUPERVISOR_SST");
+            return rolRepository.save(nuevo);
+        });
+        usuarioRepository.save(Usuario.builder()
+                .nombreUsuario(USUARIO)
+                .contrasenaHash(passwordEncoder.encode(PASSWORD))
+                .email("bench@upeu.edu.pe")
+                .roles(Set.of(rol))
+                .build());
+    }
+}
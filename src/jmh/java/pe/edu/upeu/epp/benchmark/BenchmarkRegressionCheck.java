@@ -0,0 +1,75 @@
+package pe.edu.upeu.epp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara el reporte JSON de JMH con la línea base y falla si algún benchmark
+ * es más lento que la tolerancia indicada. Todos los benchmarks miden tiempo
+ * por operación, así que un score mayor es peor.
+ *
+ * Uso: BenchmarkRegressionCheck resultado.json linea-base.json 0.15
+ */
+public final class BenchmarkRegressionCheck {
+
+    private BenchmarkRegressionCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File resultado = new File(args[0]);
+        File lineaBase = new File(args[1]);
+        double tolerancia = Double.parseDouble(args[2]);
+
+        if (!lineaBase.exists()) {
+            System.out.printf("Sin línea base en %s; copie %s allí para registrarla.%n", lineaBase, resultado);
+            return;
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> base = indexar(mapper.readTree(lineaBase));
+        Map<String, JsonNode> actual = indexar(mapper.readTree(resultado));
+
+        int regresiones = 0;
+        for (Map.Entry<String, JsonNode> entry : actual.entrySet()) {
+            JsonNode anterior = base.get(entry.getKey());
+            if (anterior == null) {
+                System.out.printf("NUEVO     %s%n", entry.getKey());
+                continue;
+            }
+            double scoreBase = anterior.path("score").asDouble();
+            double score = entry.getValue().path("score").asDouble();
+            double variacion = (score - scoreBase) / scoreBase;
+            boolean regresion = variacion > tolerancia;
+            if (regresion) {
+                regresiones++;
+            }
+            System.out.printf("%-9s %s: %.3f -> %.3f %s (%+.1f%%)%n", regresion ? "REGRESIÓN" : "OK",
+                    entry.getKey(), scoreBase, score, entry.getValue().path("scoreUnit").asText(), variacion * 100);
+        }
+
+        if (regresiones > 0) {
+            System.err.printf("%d benchmarks superan la tolerancia de %.0f%%%n", regresiones, tolerancia * 100);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Clave: benchmark + parámetros; valor: primaryMetric
+     */
+    private static Map<String, JsonNode> indexar(JsonNode resultados) {
+        Map<String, JsonNode> indice = new HashMap<>();
+        for (JsonNode resultado : resultados) {
+            Map<String, String> params = new TreeMap<>();
+            resultado.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+            String clave = resultado.path("benchmark").asText() + (params.isEmpty() ? "" : params);
+            indice.put(clave, resultado.path("primaryMetric"));
+        }
+        return indice;
+    }
+}
@@ -0,0 +1,60 @@
+package pe.edu.upeu.epp.benchmark;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import pe.edu.upeu.epp.security.JwtAuthenticationFilter;
+import pe.edu.upeu.epp.security.JwtService;
+import pe.edu.upeu.epp.security.UserDetailsServiceImpl;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead del filtro JWT por petición autenticada, con una cadena de filtros vacía.
+ * Se mide con carga del usuario (cache de UserDetails) y en modo stateless.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    private ConfigurableApplicationContext context;
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setup() {
+        context = BenchmarkContext.iniciar(Map.of("jwt.stateless.enabled", String.valueOf(stateless)));
+        filter = context.getBean(JwtAuthenticationFilter.class);
+        UserDetails usuario = context.getBean(UserDetailsServiceImpl.class)
+                .loadUserByUsername(BenchmarkContext.USUARIO);
+        authorization = "Bearer " + context.getBean(JwtService.class).generateToken(usuario);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void doFilter(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/entregas");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,76 @@
+package pe.edu.upeu.epp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import pe.edu.upeu.epp.security.JwtService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de emitir y validar access tokens.
+ * "cache" repite el mismo token (caso de un cliente que hace varias peticiones);
+ * "sinCache" rota sobre más tokens de los que admite la cache, así mide la
+ * verificación de firma completa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final int TOKENS_SIN_CACHE = 4096;
+
+    private JwtService jwtService;
+    private JwtService jwtServiceSinCache;
+    private UserDetails usuario;
+    private String token;
+    private String[] tokensRotativos;
+    private int siguiente;
+
+    @Setup
+    public void setup() {
+        jwtService = crear(10_000);
+        jwtServiceSinCache = crear(64);
+        usuario = User.withUsername("admin").password("x").roles("ADMINISTRADOR_SISTEMA").build();
+        token = jwtService.generateToken(usuario);
+        tokensRotativos = new String[TOKENS_SIN_CACHE];
+        for (int i = 0; i < TOKENS_SIN_CACHE; i++) {
+            tokensRotativos[i] = jwtServiceSinCache.generateToken(usuario);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(usuario);
+    }
+
+    @Benchmark
+    public String extractUsernameCache() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public String extractUsernameSinCache() {
+        siguiente = (siguiente + 1) % TOKENS_SIN_CACHE;
+        return jwtServiceSinCache.extractUsername(tokensRotativos[siguiente]);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, usuario);
+    }
+
+    private static JwtService crear(long cacheMaxSize) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(service, "cacheMaxSize", cacheMaxSize);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+}
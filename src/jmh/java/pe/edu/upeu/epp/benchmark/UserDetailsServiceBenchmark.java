@@ -0,0 +1,49 @@
+package pe.edu.upeu.epp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+import pe.edu.upeu.epp.security.CachingUserDetailsService;
+import pe.edu.upeu.epp.security.UserDetailsServiceImpl;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de UserDetails: consulta a la BD (H2 en memoria, sin latencia de red)
+ * frente a la cache usada por el filtro JWT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDetailsServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserDetailsServiceImpl userDetailsService;
+    private CachingUserDetailsService cachingUserDetailsService;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkContext.iniciar(Map.of());
+        userDetailsService = context.getBean(UserDetailsServiceImpl.class);
+        cachingUserDetailsService = context.getBean(CachingUserDetailsService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsernameBd() {
+        return userDetailsService.loadUserByUsername(BenchmarkContext.USUARIO);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsernameCache() {
+        return cachingUserDetailsService.loadUserByUsername(BenchmarkContext.USUARIO);
+    }
+}
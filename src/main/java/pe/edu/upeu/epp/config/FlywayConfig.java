@@ -0,0 +1,38 @@
+package pe.edu.upeu.epp.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Migraciones Flyway sobre el esquema que genera Hibernate (ddl-auto=update).
+ * Spring Boot ejecuta Flyway antes de crear el EntityManagerFactory; aquí se difiere
+ * hasta que Hibernate haya creado o actualizado las tablas, porque las migraciones
+ * (p. ej. hypertables de TimescaleDB) operan sobre ellas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.flyway.enabled", havingValue = "true", matchIfMissing = true)
+public class FlywayConfig {
+
+    /**
+     * No migrar en el arranque de Flyway
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+        };
+    }
+
+    /**
+     * Migrar una vez inicializado JPA
+     */
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean flywayMigracionPosteriorAJpa(Flyway flyway) {
+        return () -> flyway.migrate();
+    }
+}
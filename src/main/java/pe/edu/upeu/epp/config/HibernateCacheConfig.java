@@ -0,0 +1,35 @@
+package pe.edu.upeu.epp.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+/**
+ * CacheManager JCache (Caffeine) del cache de segundo nivel de Hibernate.
+ * Se crea aquí y no con hibernate.javax.cache.uri porque Hibernate resuelve esa URI
+ * como URL del classpath (jar:...!/BOOT-INF/classes!/...) y Caffeine solo lee la
+ * configuración con URIs classpath: o file:; con cualquier otra usa sus valores por defecto.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${hibernate-cache.config:classpath:caffeine-jcache.conf}") String config) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider)
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create(config), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -0,0 +1,16 @@
+package pe.edu.upeu.epp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tareas programadas (@Scheduled). scheduling.enabled=false las desactiva todas,
+ * p. ej. en los benchmarks, donde el contexto corre sobre H2 y las tareas que usan
+ * SQL propio de PostgreSQL fallarían durante la medición.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
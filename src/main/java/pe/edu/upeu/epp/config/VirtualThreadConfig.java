@@ -0,0 +1,83 @@
+package pe.edu.upeu.epp.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Ejecución sobre hilos virtuales (JDK 21+): peticiones de Tomcat, tareas @Async
+ * y tareas @Scheduled. Casi todo el tiempo de una petición se pasa bloqueado en
+ * JDBC; con hilos virtuales el hilo libera su carrier mientras espera y el límite
+ * real de concurrencia pasa a ser el pool de Hikari.
+ *
+ * Se activa con spring.threads.virtual.enabled=true (misma propiedad que usa
+ * Spring Boot 3.2+, que lo soporta de forma nativa). El proyecto compila con
+ * Java 17, por eso los hilos virtuales se crean por reflexión.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    public VirtualThreadConfig() {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("spring.threads.virtual.enabled requiere JDK 21 o superior (actual: "
+                    + Runtime.version() + ")");
+        }
+        log.info("Ejecución con hilos virtuales habilitada");
+    }
+
+    /**
+     * Tomcat atiende cada petición en un hilo virtual nuevo
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor("tomcat-handler-"));
+    }
+
+    /**
+     * Executor de @Async (reemplaza al ThreadPoolTaskExecutor por defecto)
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return virtualThreadExecutor("async-");
+    }
+
+    /**
+     * Scheduler de @Scheduled con hilos virtuales
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Runtime.getRuntime().availableProcessors());
+        scheduler.setThreadFactory(virtualThreadFactory("scheduling-"));
+        return scheduler;
+    }
+
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(String prefijo) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(virtualThreadFactory(prefijo));
+        executor.setThreadNamePrefix(prefijo);
+        return executor;
+    }
+
+    /**
+     * Thread.ofVirtual().name(prefijo, 0).factory()
+     */
+    static ThreadFactory virtualThreadFactory(String prefijo) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = ofVirtual.getMethod("name", String.class, long.class).invoke(builder, prefijo, 0L);
+            return (ThreadFactory) ofVirtual.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear la fábrica de hilos virtuales", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package pe.edu.upeu.epp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnóstico de hilos virtuales anclados a su carrier (pinning).
+ * Escucha el evento JFR jdk.VirtualThreadPinned, que se emite cuando un hilo
+ * virtual se bloquea dentro de un bloque synchronized o código nativo. Si el
+ * stack incluye el driver JDBC o Hikari se marca como origen "jdbc": son los
+ * casos que terminan ocupando carriers mientras se espera a la BD.
+ *
+ * Métrica: threads.virtual.pinned{origen=jdbc|otro}
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final List<String> PAQUETES_JDBC = List.of("org.postgresql.", "com.zaxxer.hikari.");
+    private static final int FRAMES_LOG = 12;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${diagnostics.virtual-threads.pinned-threshold:20ms}")
+    private Duration umbral;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    void iniciar() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(umbral).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        log.info("Monitor de pinning de hilos virtuales iniciado (umbral {})", umbral);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void registrar(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        boolean jdbc = frames.stream()
+                .map(frame -> frame.getMethod().getType().getName())
+                .anyMatch(tipo -> PAQUETES_JDBC.stream().anyMatch(tipo::startsWith));
+
+        Counter.builder("threads.virtual.pinned")
+                .description("Hilos virtuales anclados a su carrier más allá del umbral")
+                .tag("origen", jdbc ? "jdbc" : "otro")
+                .register(meterRegistry)
+                .increment();
+
+        log.warn("Hilo virtual anclado {} ms (origen {}):\n{}",
+                event.getDuration().toMillis(), jdbc ? "jdbc" : "otro",
+                frames.stream()
+                        .limit(FRAMES_LOG)
+                        .map(frame -> "    at " + frame.getMethod().getType().getName() + "."
+                                + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                        .collect(Collectors.joining("\n")));
+    }
+}
@@ -0,0 +1,46 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.dto.response.PaginaResponseDTO;
+import pe.edu.upeu.epp.repository.projection.AuditoriaResumen;
+import pe.edu.upeu.epp.service.ListadoService;
+import java.time.LocalDate;
+/**
+
+ Controller de consulta de la auditoría.
+ Solo accesible para ADMINISTRADOR_SISTEMA (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/auditoria")
+@RequiredArgsConstructor
+@Tag(name = "Auditoría", description = "Consulta del registro de auditoría")
+public class AdminAuditoriaController {
+    private final ListadoService listadoService;
+    /**
+
+     Lista las operaciones auditadas de la más reciente a la más antigua, paginadas por cursor.
+
+     @param tabla Tabla afectada (opcional)
+     @param registroId Registro afectado (opcional)
+     @param desde Primer día (inclusive); por defecto 90 días antes de hasta
+     @param hasta Último día (inclusive); por defecto hoy
+     @param cursor siguienteCursor de la página anterior
+     @param tamano Filas por página (máximo 200)
+     @return Página de auditoría
+     */
+    @GetMapping
+    @Operation(summary = "Listar auditoría", description = "Paginación por cursor sobre (fecha, id)")
+    public ResponseEntity<PaginaResponseDTO<AuditoriaResumen>> listar(
+            @RequestParam(required = false) String tabla,
+            @RequestParam(required = false) Integer registroId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(listadoService.auditoria(tabla, registroId, desde, hasta, cursor, tamano));
+    }
+}
@@ -0,0 +1,44 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.service.CacheReferenciaService;
+import pe.edu.upeu.epp.service.CacheReferenciaService.EntidadReferencia;
+/**
+
+ Controller de administración del cache de datos de referencia.
+ Solo accesible para ADMINISTRADOR_SISTEMA (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/cache")
+@RequiredArgsConstructor
+@Tag(name = "Administración de cache", description = "Invalidación del cache de roles, estados, áreas y catálogo")
+public class AdminCacheController {
+    private final CacheReferenciaService cacheReferenciaService;
+    /**
+
+     Invalida el cache de todos los datos de referencia.
+     */
+    @DeleteMapping
+    @Operation(summary = "Invalidar cache de referencia",
+            description = "Usar tras modificar roles, estados, áreas o catálogo fuera de la aplicación")
+    public ResponseEntity<Void> invalidarTodo() {
+        cacheReferenciaService.invalidarTodo();
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+    /**
+
+     Invalida el cache de una entidad de referencia.
+
+     @param entidad ROL, ESTADO_EPP, AREA o CATALOGO_EPP
+     */
+    @DeleteMapping("/{entidad}")
+    @Operation(summary = "Invalidar cache de una entidad", description = "Incluye los resultados de consultas en cache")
+    public ResponseEntity<Void> invalidar(@PathVariable EntidadReferencia entidad) {
+        cacheReferenciaService.invalidar(entidad);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
@@ -0,0 +1,52 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import pe.edu.upeu.epp.dto.response.ImportacionResponseDTO;
+import pe.edu.upeu.epp.service.ImportacionService;
+/**
+
+ Controller de importación masiva de trabajadores y del catálogo de EPP.
+ Recibe archivos .csv o .xlsx con fila de encabezado; las filas inválidas o
+ repetidas se omiten y se reportan en la respuesta.
+ Solo accesible para ADMINISTRADOR_SISTEMA (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/importaciones")
+@RequiredArgsConstructor
+@Tag(name = "Importación masiva", description = "Carga de trabajadores y catálogo de EPP desde CSV o Excel")
+public class AdminImportacionController {
+    private final ImportacionService importacionService;
+    /**
+
+     Importa trabajadores. Columnas: dni, nombres, apellidos, area (id, código o nombre)
+     y opcionales codigo_qr, puesto, fecha_ingreso, telefono, email.
+
+     @param archivo Archivo .csv o .xlsx (primera hoja)
+     @return Filas insertadas y filas rechazadas con su motivo
+     */
+    @PostMapping(value = "/trabajadores", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Importar trabajadores",
+            description = "Se rechazan las filas con DNI o código QR ya registrado o repetido en el archivo")
+    public ResponseEntity<ImportacionResponseDTO> importarTrabajadores(@RequestParam("archivo") MultipartFile archivo) {
+        return ResponseEntity.ok(importacionService.importarTrabajadores(archivo));
+    }
+    /**
+
+     Importa EPP al catálogo. Columnas: nombre, tipo_uso (CONSUMIBLE o DURADERO) y
+     opcionales codigo, vida_util_meses, nivel_proteccion, especificaciones.
+
+     @param archivo Archivo .csv o .xlsx (primera hoja)
+     @return Filas insertadas y filas rechazadas con su motivo
+     */
+    @PostMapping(value = "/catalogo-epp", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Importar catálogo de EPP",
+            description = "Se rechazan las filas con código ya registrado o repetido en el archivo")
+    public ResponseEntity<ImportacionResponseDTO> importarCatalogo(@RequestParam("archivo") MultipartFile archivo) {
+        return ResponseEntity.ok(importacionService.importarCatalogo(archivo));
+    }
+}
@@ -0,0 +1,37 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.dto.request.ConfigurarFranjasRequestDTO;
+import pe.edu.upeu.epp.service.StockEngine;
+/**
+
+ Controller de administración del inventario.
+ Solo accesible para ADMINISTRADOR_SISTEMA (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/inventario")
+@RequiredArgsConstructor
+@Tag(name = "Administración de inventario", description = "Ajustes de concurrencia del inventario")
+public class AdminInventarioController {
+    private final StockEngine stockEngine;
+    /**
+
+     Reparte el stock de un inventario de área en franjas para los EPP de mayor demanda.
+
+     @param inventarioAreaId Inventario de área
+     @param request Número de franjas
+     */
+    @PostMapping("/{inventarioAreaId}/franjas")
+    @Operation(summary = "Configurar franjas de stock",
+            description = "Reparte el stock en franjas para que las salidas concurrentes no compitan por una fila")
+    public ResponseEntity<Void> configurarFranjas(@PathVariable Integer inventarioAreaId,
+                                                  @Valid @RequestBody ConfigurarFranjasRequestDTO request) {
+        stockEngine.configurarFranjas(inventarioAreaId, request.getFranjas());
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
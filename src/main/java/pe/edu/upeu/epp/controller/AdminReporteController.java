@@ -0,0 +1,38 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.service.ConsumoRollupService;
+import java.time.LocalDate;
+import java.util.Map;
+/**
+
+ Controller de administración de reportes.
+ Solo accesible para ADMINISTRADOR_SISTEMA (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/reportes")
+@RequiredArgsConstructor
+@Tag(name = "Administración de reportes", description = "Mantenimiento de los rollups de reportes")
+public class AdminReporteController {
+    private final ConsumoRollupService consumoRollupService;
+    /**
+
+     Recalcula el rollup de consumo para un rango de días ya materializado.
+
+     @param desde Primer día (inclusive)
+     @param hasta Último día (inclusive)
+     @return Filas del rollup regeneradas
+     */
+    @PostMapping("/consumo/recalcular")
+    @Operation(summary = "Recalcular rollup de consumo",
+            description = "Regenera los días indicados (p. ej. tras corregir entregas antiguas)")
+    public ResponseEntity<Map<String, Integer>> recalcularConsumo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(Map.of("filas", consumoRollupService.recalcular(desde, hasta)));
+    }
+}
@@ -0,0 +1,34 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.dto.request.RevocarTokenRequestDTO;
+import pe.edu.upeu.epp.service.AuthService;
+/**
+
+ Controller de administración de sesiones.
+ Solo accesible para ADMINISTRADOR_SISTEMA (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/sesiones")
+@RequiredArgsConstructor
+@Tag(name = "Administración de sesiones", description = "Cierre forzado de sesiones")
+public class AdminSesionController {
+    private final AuthService authService;
+    /**
+
+     Revoca un access token antes de su expiración.
+
+     @param request Token a revocar
+     */
+    @PostMapping("/revocar")
+    @Operation(summary = "Forzar cierre de sesión", description = "Revoca un access token hasta su expiración")
+    public ResponseEntity<Void> revocar(@Valid @RequestBody RevocarTokenRequestDTO request) {
+        authService.forzarLogout(request.getToken());
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+}
@@ -0,0 +1,54 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.dto.response.AlertaResponseDTO;
+import pe.edu.upeu.epp.dto.response.AlertaResumenResponseDTO;
+import pe.edu.upeu.epp.entity.Alerta.TipoAlerta;
+import pe.edu.upeu.epp.service.AlertaService;
+import java.util.List;
+/**
+
+ Controller de alertas de vencimiento e inspección para los tableros.
+ Lee las alertas precalculadas por AlertaService; no recorre instancias ni lotes.
+ Accesible para JEFE_AREA, SUPERVISOR_SST y COORDINADOR_SST (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/alertas")
+@RequiredArgsConstructor
+@Tag(name = "Alertas", description = "EPP y lotes por vencer o con inspección próxima")
+public class AlertaController {
+    private final AlertaService alertaService;
+    /**
+
+     Alertas activas, las de fecha límite más cercana (o ya vencida) primero.
+
+     @param tipo VENCIMIENTO_EPP, INSPECCION_EPP o VENCIMIENTO_LOTE; si se omite, todos
+     @param areaId Área; si se omite, todas (los lotes del almacén central no tienen área)
+     @param limite Máximo de alertas
+     @return Alertas activas
+     */
+    @GetMapping
+    @Operation(summary = "Listar alertas activas",
+            description = "Alertas precalculadas; se actualizan periódicamente en segundo plano")
+    public ResponseEntity<List<AlertaResponseDTO>> listar(
+            @RequestParam(required = false) TipoAlerta tipo,
+            @RequestParam(required = false) Integer areaId,
+            @RequestParam(defaultValue = "100") int limite) {
+        return ResponseEntity.ok(alertaService.listar(tipo, areaId, limite));
+    }
+    /**
+
+     Alertas activas por tipo: vencidas y por vencer.
+
+     @param areaId Área; si se omite, todas
+     @return Conteos por tipo
+     */
+    @GetMapping("/resumen")
+    @Operation(summary = "Resumen de alertas activas")
+    public ResponseEntity<List<AlertaResumenResponseDTO>> resumen(@RequestParam(required = false) Integer areaId) {
+        return ResponseEntity.ok(alertaService.resumen(areaId));
+    }
+}
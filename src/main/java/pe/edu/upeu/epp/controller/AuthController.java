@@ -1,6 +1,7 @@
 package pe.edu.upeu.epp.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -27,12 +28,14 @@ public class AuthController {
      Endpoint de login.
 
      @param request Credenciales del usuario
+     @param httpRequest Petición HTTP (IP del cliente para el límite de intentos)
      @return Tokens JWT y datos del usuario
      */
     @PostMapping("/login")
     @Operation(summary = "Iniciar sesión", description = "Autentica un usuario y retorna tokens JWT")
-    public ResponseEntity<AuthResponseDTO> login(@Valid @RequestBody LoginRequestDTO request) {
-        AuthResponseDTO response = authService.login(request);
+    public ResponseEntity<AuthResponseDTO> login(@Valid @RequestBody LoginRequestDTO request,
+                                                 HttpServletRequest httpRequest) {
+        AuthResponseDTO response = authService.login(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
 
@@ -53,14 +56,15 @@ public class AuthController {
     /**
 
      Endpoint de logout.
-     Nota: En JWT, el logout se maneja principalmente en el cliente eliminando los tokens.
-     Este endpoint es opcional y puede usarse para registro de auditoría.
+     Revoca el access token enviado; el cliente debe descartar también sus tokens.
      */
     @PostMapping("/logout")
     @Operation(summary = "Cerrar sesión", description = "Cierra la sesión del usuario actual")
-    public ResponseEntity<Void> logout(Authentication authentication) {
+    public ResponseEntity<Void> logout(Authentication authentication,
+                                       @RequestHeader(value = "Authorization", required = false) String authHeader) {
         if (authentication != null && authentication.isAuthenticated()) {
-            authService.logout(authentication.getName());
+            String token = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+            authService.logout(authentication.getName(), token);
         }
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
@@ -0,0 +1,49 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.dto.response.CatalogoBusquedaResponseDTO;
+import pe.edu.upeu.epp.service.BusquedaService;
+import java.util.List;
+/**
+
+ Controller del catálogo de EPP.
+ Consulta: cualquier usuario autenticado; escritura: ADMINISTRADOR_SISTEMA (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/catalogo-epp")
+@RequiredArgsConstructor
+@Tag(name = "Catálogo de EPP", description = "Búsqueda en el catálogo de EPP")
+public class CatalogoEppController {
+    private final BusquedaService busquedaService;
+    /**
+
+     Busca EPP activos por nombre tolerando errores de tipeo, ordenados por similitud.
+
+     @param q Texto a buscar (mínimo 3 caracteres)
+     @param limite Máximo de resultados (hasta 50)
+     @return EPP con su puntaje
+     */
+    @GetMapping("/buscar")
+    @Operation(summary = "Buscar EPP", description = "Similitud de trigramas sin distinguir tildes")
+    public ResponseEntity<List<CatalogoBusquedaResponseDTO>> buscar(@RequestParam String q,
+                                                                    @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(busquedaService.buscarCatalogo(q, limite));
+    }
+    /**
+
+     Sugiere EPP activos cuyas palabras (nombre o código) empiezan con el texto escrito.
+
+     @param prefijo Texto escrito
+     @param limite Máximo de resultados (hasta 50)
+     @return EPP que coinciden, primero los que empiezan con el texto completo
+     */
+    @GetMapping("/sugerencias")
+    @Operation(summary = "Autocompletar EPP", description = "Índice de trigramas en memoria para la pantalla de entregas")
+    public ResponseEntity<List<CatalogoBusquedaResponseDTO>> sugerir(@RequestParam String prefijo,
+                                                                     @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(busquedaService.sugerirCatalogo(prefijo, limite));
+    }
+}
@@ -0,0 +1,87 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.dto.request.EntregaMasivaRequestDTO;
+import pe.edu.upeu.epp.dto.response.EntregaMasivaResponseDTO;
+import pe.edu.upeu.epp.dto.response.HistorialEntregaResponseDTO;
+import pe.edu.upeu.epp.dto.response.PaginaResponseDTO;
+import pe.edu.upeu.epp.repository.projection.EntregaResumen;
+import pe.edu.upeu.epp.service.EntregaMasivaService;
+import pe.edu.upeu.epp.service.ListadoService;
+import java.time.LocalDate;
+/**
+
+ Controller de entregas de EPP.
+ Registro: JEFE_AREA y SUPERVISOR_SST; consulta: además COORDINADOR_SST (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/entregas")
+@RequiredArgsConstructor
+@Tag(name = "Entregas", description = "Registro de entregas de EPP a trabajadores")
+public class EntregaController {
+    private final EntregaMasivaService entregaMasivaService;
+    private final ListadoService listadoService;
+    /**
+
+     Registro masivo de entregas (una cuadrilla completa en una sola solicitud).
+
+     @param request Área que entrega y entregas con sus detalles
+     @return Ids de las entregas registradas
+     */
+    @PostMapping("/masivo")
+    @Operation(summary = "Registrar entregas masivas",
+            description = "Registra muchas entregas en una transacción y descuenta el stock del área")
+    public ResponseEntity<EntregaMasivaResponseDTO> registrarMasivo(@Valid @RequestBody EntregaMasivaRequestDTO request,
+                                                                    Authentication authentication) {
+        EntregaMasivaResponseDTO response = entregaMasivaService.registrar(request, authentication.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    /**
+
+     Lista las entregas de la más reciente a la más antigua, paginadas por cursor.
+
+     @param areaId Área del trabajador (opcional)
+     @param trabajadorId Trabajador (opcional)
+     @param desde Primer día (inclusive); por defecto 90 días antes de hasta
+     @param hasta Último día (inclusive); por defecto hoy
+     @param cursor siguienteCursor de la página anterior
+     @param tamano Filas por página (máximo 200)
+     @return Página de entregas
+     */
+    @GetMapping
+    @Operation(summary = "Listar entregas", description = "Paginación por cursor sobre (fecha, id)")
+    public ResponseEntity<PaginaResponseDTO<EntregaResumen>> listar(
+            @RequestParam(required = false) Integer areaId,
+            @RequestParam(required = false) Integer trabajadorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(listadoService.entregas(areaId, trabajadorId, desde, hasta, cursor, tamano));
+    }
+    /**
+
+     Historial de entregas de un trabajador con sus detalles, de la más reciente a la más antigua.
+
+     @param trabajadorId Trabajador
+     @param cursor siguienteCursor de la página anterior
+     @param tamano Entregas por página (máximo 200)
+     @return Página de entregas con detalles
+     */
+    @GetMapping("/trabajador/{trabajadorId}/historial")
+    @Operation(summary = "Historial de entregas de un trabajador",
+            description = "Entregas con EPP e instancias entregadas, paginadas por cursor")
+    public ResponseEntity<PaginaResponseDTO<HistorialEntregaResponseDTO>> historial(
+            @PathVariable Integer trabajadorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int tamano) {
+        return ResponseEntity.ok(listadoService.historialTrabajador(trabajadorId, cursor, tamano));
+    }
+}
@@ -0,0 +1,46 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.dto.response.PaginaResponseDTO;
+import pe.edu.upeu.epp.entity.Inspeccion;
+import pe.edu.upeu.epp.repository.projection.InspeccionResumen;
+import pe.edu.upeu.epp.service.ListadoService;
+import java.time.LocalDate;
+/**
+
+ Controller de consulta de inspecciones de EPP.
+ */
+@RestController
+@RequestMapping("/api/v1/inspecciones")
+@RequiredArgsConstructor
+@Tag(name = "Inspecciones", description = "Consulta de inspecciones de EPP")
+public class InspeccionController {
+    private final ListadoService listadoService;
+    /**
+
+     Lista las inspecciones de la más reciente a la más antigua, paginadas por cursor.
+
+     @param instanciaEppId EPP inspeccionado (opcional)
+     @param resultado Resultado de la inspección (opcional)
+     @param desde Primer día (inclusive); por defecto 90 días antes de hasta
+     @param hasta Último día (inclusive); por defecto hoy
+     @param cursor siguienteCursor de la página anterior
+     @param tamano Filas por página (máximo 200)
+     @return Página de inspecciones
+     */
+    @GetMapping
+    @Operation(summary = "Listar inspecciones", description = "Paginación por cursor sobre (fecha, id)")
+    public ResponseEntity<PaginaResponseDTO<InspeccionResumen>> listar(
+            @RequestParam(required = false) Integer instanciaEppId,
+            @RequestParam(required = false) Inspeccion.ResultadoInspeccion resultado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(listadoService.inspecciones(instanciaEppId, resultado, desde, hasta, cursor, tamano));
+    }
+}
@@ -0,0 +1,57 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.dto.request.BajaInventarioRequestDTO;
+import pe.edu.upeu.epp.dto.response.PaginaResponseDTO;
+import pe.edu.upeu.epp.repository.projection.InventarioAreaResumen;
+import pe.edu.upeu.epp.service.InventarioService;
+import pe.edu.upeu.epp.service.ListadoService;
+/**
+
+ Controller de operaciones de inventario.
+ Bajas: SUPERVISOR_SST y ADMINISTRADOR_SISTEMA (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/inventario")
+@RequiredArgsConstructor
+@Tag(name = "Inventario", description = "Consulta de stock, bajas y ajustes")
+public class InventarioController {
+    private final InventarioService inventarioService;
+    private final ListadoService listadoService;
+    /**
+
+     Da de baja stock de un área o de un lote del inventario central.
+
+     @param request Ubicación, cantidad y motivo
+     */
+    @PostMapping("/bajas")
+    @Operation(summary = "Registrar baja de stock", description = "Descuenta el stock y registra el movimiento en el libro")
+    public ResponseEntity<Void> registrarBaja(@Valid @RequestBody BajaInventarioRequestDTO request) {
+        inventarioService.registrarBaja(request);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+    /**
+
+     Stock por área, paginado por cursor.
+
+     @param areaId Área (opcional; todas si se omite)
+     @param soloCritico Solo EPP en o bajo el stock mínimo
+     @param cursor siguienteCursor de la página anterior
+     @param tamano Filas por página (máximo 200)
+     @return Página de stock
+     */
+    @GetMapping("/areas")
+    @Operation(summary = "Listar stock por área", description = "Con soloCritico=true lista el stock crítico")
+    public ResponseEntity<PaginaResponseDTO<InventarioAreaResumen>> listarAreas(
+            @RequestParam(required = false) Integer areaId,
+            @RequestParam(defaultValue = "false") boolean soloCritico,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(listadoService.inventarioArea(areaId, soloCritico, cursor, tamano));
+    }
+}
@@ -0,0 +1,119 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import pe.edu.upeu.epp.dto.response.ConsumoResponseDTO;
+import pe.edu.upeu.epp.dto.response.StockHistoricoResponseDTO;
+import pe.edu.upeu.epp.service.ConsumoRollupService;
+import pe.edu.upeu.epp.service.ConsumoRollupService.Dimension;
+import pe.edu.upeu.epp.service.ConsumoRollupService.Granularidad;
+import pe.edu.upeu.epp.service.ExportacionService;
+import pe.edu.upeu.epp.service.ExportacionService.TipoExportacion;
+import pe.edu.upeu.epp.service.MovimientoInventarioService;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+/**
+
+ Controller de reportes.
+ Accesible para SUPERVISOR_SST, COORDINADOR_SST y ADMINISTRADOR_SISTEMA (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/reportes")
+@RequiredArgsConstructor
+@Tag(name = "Reportes", description = "Consultas de stock e historial")
+public class ReporteController {
+    private static final MediaType XLSX =
+            MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+    private final MovimientoInventarioService movimientoInventarioService;
+    private final ConsumoRollupService consumoRollupService;
+    private final ExportacionService exportacionService;
+    /**
+
+     Stock de un EPP en un área (o en el inventario central) a una fecha.
+
+     @param eppId EPP
+     @param areaId Área; si se omite, inventario central
+     @param fecha Fecha y hora de la consulta
+     @return Stock a la fecha y snapshot usado
+     */
+    @GetMapping("/stock-historico")
+    @Operation(summary = "Stock a una fecha",
+            description = "Parte del snapshot más cercano y aplica los movimientos hasta la fecha")
+    public ResponseEntity<StockHistoricoResponseDTO> stockHistorico(
+            @RequestParam Integer eppId,
+            @RequestParam(required = false) Integer areaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fecha) {
+        return ResponseEntity.ok(movimientoInventarioService.stockEn(eppId, areaId, fecha));
+    }
+    /**
+
+     Consumo de EPP por día, semana o mes, por EPP, área o tipo de entrega.
+
+     @param granularidad DIA, SEMANA, MES o TOTAL
+     @param dimension EPP, AREA o TIPO_ENTREGA
+     @param desde Primer día (inclusive)
+     @param hasta Último día (inclusive)
+     @param limite Máximo de filas por período
+     @return Consumo por período, ordenado por cantidad dentro de cada período
+     */
+    @GetMapping("/consumo")
+    @Operation(summary = "Consumo de EPP",
+            description = "Lee el rollup diario y agrega al vuelo solo los días aún no materializados")
+    public ResponseEntity<List<ConsumoResponseDTO>> consumo(
+            @RequestParam(defaultValue = "MES") Granularidad granularidad,
+            @RequestParam(defaultValue = "EPP") Dimension dimension,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "1000") int limite) {
+        return ResponseEntity.ok(consumoRollupService.consumo(granularidad, dimension, desde, hasta, limite));
+    }
+    /**
+
+     EPP más entregados en un rango de días.
+
+     @param desde Primer día (inclusive)
+     @param hasta Último día (inclusive)
+     @param limite Cantidad de EPP
+     @return EPP ordenados por unidades entregadas
+     */
+    @GetMapping("/epps-mas-entregados")
+    @Operation(summary = "EPP más entregados", description = "Ranking de EPP por unidades entregadas en el rango")
+    public ResponseEntity<List<ConsumoResponseDTO>> eppsMasEntregados(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(consumoRollupService.consumo(Granularidad.TOTAL, Dimension.EPP, desde, hasta, limite));
+    }
+    /**
+
+     Exportar un reporte a Excel (.xlsx). El archivo se genera en streaming
+     mientras se envía, sin cargar las filas en memoria.
+
+     @param tipo ENTREGAS, INSPECCIONES, STOCK o AUDITORIA
+     @param desde Primer día (inclusive); no aplica a STOCK
+     @param hasta Último día (inclusive); no aplica a STOCK
+     @return Archivo .xlsx
+     */
+    @GetMapping("/exportar/{tipo}")
+    @Operation(summary = "Exportar a Excel",
+            description = "Genera el .xlsx en streaming; STOCK exporta el stock actual de áreas y central")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @PathVariable TipoExportacion tipo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        exportacionService.validar(tipo, desde, hasta);
+        String archivo = tipo.name().toLowerCase() + "_" + LocalDate.now() + ".xlsx";
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportar(tipo, desde, hasta, salida);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archivo + "\"")
+                .contentType(XLSX)
+                .body(cuerpo);
+    }
+}
@@ -0,0 +1,91 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.dto.request.ReporteJobRequestDTO;
+import pe.edu.upeu.epp.dto.response.ReporteJobResponseDTO;
+import pe.edu.upeu.epp.service.ReporteJobService;
+import java.util.List;
+/**
+
+ Controller de exportaciones en segundo plano.
+ El reporte se solicita, se consulta su avance y se descarga al completarse.
+ Accesible para los roles de reportes (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/reportes/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Reportes en segundo plano", description = "Cola de exportaciones a Excel")
+public class ReporteJobController {
+    private static final MediaType XLSX =
+            MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+    private final ReporteJobService reporteJobService;
+    /**
+
+     Solicita una exportación. Si hay un job reciente con los mismos parámetros se
+     retorna ese job en lugar de generar el reporte otra vez.
+
+     @param request Tipo de reporte y rango de días
+     @param authentication Usuario autenticado
+     @return Job registrado (202)
+     */
+    @PostMapping
+    @Operation(summary = "Solicitar exportación",
+            description = "Encola la exportación; responde 429 si el usuario ya tiene el máximo de reportes en proceso")
+    public ResponseEntity<ReporteJobResponseDTO> enviar(@Valid @RequestBody ReporteJobRequestDTO request,
+                                                        Authentication authentication) {
+        return ResponseEntity.accepted().body(reporteJobService.enviar(request, authentication.getName()));
+    }
+    /**
+
+     Reportes solicitados por el usuario autenticado (los 50 más recientes).
+
+     @param authentication Usuario autenticado
+     @return Jobs del usuario
+     */
+    @GetMapping
+    @Operation(summary = "Mis exportaciones")
+    public ResponseEntity<List<ReporteJobResponseDTO>> listar(Authentication authentication) {
+        return ResponseEntity.ok(reporteJobService.listar(authentication.getName()));
+    }
+    /**
+
+     Estado y avance de un job del usuario autenticado.
+
+     @param jobId Job
+     @param authentication Usuario autenticado
+     @return Estado, filas procesadas y URL de descarga si está completado
+     */
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Estado de una exportación")
+    public ResponseEntity<ReporteJobResponseDTO> consultar(@PathVariable Long jobId, Authentication authentication) {
+        return ResponseEntity.ok(reporteJobService.consultar(jobId, authentication.getName()));
+    }
+    /**
+
+     Descarga el archivo de un job completado del usuario autenticado. Admite
+     peticiones con Range para reanudar descargas interrumpidas.
+
+     @param jobId Job
+     @param authentication Usuario autenticado
+     @return Archivo .xlsx (200 o 206)
+     */
+    @GetMapping("/{jobId}/archivo")
+    @Operation(summary = "Descargar exportación", description = "Soporta el header Range (respuestas 206)")
+    public ResponseEntity<Resource> descargar(@PathVariable Long jobId, Authentication authentication) {
+        ReporteJobResponseDTO job = reporteJobService.consultar(jobId, authentication.getName());
+        String archivo = job.getTipo().name().toLowerCase()
+                + (job.getDesde() != null ? "_" + job.getDesde() + "_" + job.getHasta() : "") + ".xlsx";
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archivo + "\"")
+                .contentType(XLSX)
+                .body(reporteJobService.archivo(jobId, authentication.getName()));
+    }
+}
@@ -0,0 +1,63 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.dto.request.AprobarSolicitudRequestDTO;
+import pe.edu.upeu.epp.dto.response.PaginaResponseDTO;
+import pe.edu.upeu.epp.entity.SolicitudReposicion;
+import pe.edu.upeu.epp.repository.projection.SolicitudReposicionResumen;
+import pe.edu.upeu.epp.service.ListadoService;
+import pe.edu.upeu.epp.service.SolicitudReposicionService;
+/**
+
+ Controller de solicitudes de reposición.
+ Aprobación: SUPERVISOR_SST (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/solicitudes-reposicion")
+@RequiredArgsConstructor
+@Tag(name = "Solicitudes de reposición", description = "Reposición de stock de las áreas desde el inventario central")
+public class SolicitudReposicionController {
+    private final SolicitudReposicionService solicitudReposicionService;
+    private final ListadoService listadoService;
+    /**
+
+     Aprueba una solicitud y transfiere el stock del inventario central al área.
+
+     @param solicitudId Solicitud pendiente
+     @param request Cantidad aprobada y comentarios
+     */
+    @PutMapping("/{solicitudId}/aprobar")
+    @Operation(summary = "Aprobar solicitud de reposición",
+            description = "Descuenta los lotes del inventario central (FEFO) e ingresa el stock al área")
+    public ResponseEntity<Void> aprobar(@PathVariable Integer solicitudId,
+                                        @Valid @RequestBody AprobarSolicitudRequestDTO request,
+                                        Authentication authentication) {
+        solicitudReposicionService.aprobar(solicitudId, request, authentication.getName());
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+    /**
+
+     Lista las solicitudes de la más reciente a la más antigua, paginadas por cursor.
+
+     @param estado Estado de la solicitud (opcional)
+     @param areaId Área solicitante (opcional)
+     @param cursor siguienteCursor de la página anterior
+     @param tamano Filas por página (máximo 200)
+     @return Página de solicitudes
+     */
+    @GetMapping
+    @Operation(summary = "Listar solicitudes de reposición", description = "Paginación por cursor sobre (fecha, id)")
+    public ResponseEntity<PaginaResponseDTO<SolicitudReposicionResumen>> listar(
+            @RequestParam(required = false) SolicitudReposicion.EstadoSolicitud estado,
+            @RequestParam(required = false) Integer areaId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(listadoService.solicitudes(estado, areaId, cursor, tamano));
+    }
+}
@@ -0,0 +1,80 @@
+package pe.edu.upeu.epp.controller;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.edu.upeu.epp.dto.request.EscaneoLoteRequestDTO;
+import pe.edu.upeu.epp.dto.response.EscaneoResponseDTO;
+import pe.edu.upeu.epp.dto.response.TrabajadorBusquedaResponseDTO;
+import pe.edu.upeu.epp.service.BusquedaService;
+import pe.edu.upeu.epp.service.IndiceTrabajadorService;
+import java.time.LocalDateTime;
+import java.util.List;
+/**
+
+ Controller de trabajadores.
+ Escaneo de photochecks y búsqueda: JEFE_AREA, SUPERVISOR_SST y COORDINADOR_SST (ver SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/v1/trabajadores")
+@RequiredArgsConstructor
+@Tag(name = "Trabajadores", description = "Identificación de trabajadores por photocheck y búsqueda por nombre")
+public class TrabajadorController {
+    private final IndiceTrabajadorService indiceTrabajadorService;
+    private final BusquedaService busquedaService;
+    /**
+
+     Identifica al trabajador de un código escaneado (QR del photocheck o DNI).
+
+     @param codigo Código leído
+     @return Trabajador, área y si está habilitado
+     */
+    @GetMapping("/escaneo")
+    @Operation(summary = "Escanear photocheck", description = "Resuelve el código desde el índice en memoria")
+    public ResponseEntity<EscaneoResponseDTO> escanear(@RequestParam String codigo) {
+        return ResponseEntity.ok(indiceTrabajadorService.escanear(codigo, LocalDateTime.now()));
+    }
+    /**
+
+     Identifica un lote de escaneos sincronizados por un lector sin conexión.
+
+     @param request Escaneos con su fecha en el lector
+     @return Resultados en el mismo orden
+     */
+    @PostMapping("/escaneos")
+    @Operation(summary = "Escanear lote de photochecks",
+            description = "Para lectores sin conexión que sincronizan muchos escaneos a la vez")
+    public ResponseEntity<List<EscaneoResponseDTO>> escanearLote(@Valid @RequestBody EscaneoLoteRequestDTO request) {
+        return ResponseEntity.ok(indiceTrabajadorService.escanearLote(request));
+    }
+    /**
+
+     Busca trabajadores por nombre tolerando errores de tipeo, ordenados por similitud.
+
+     @param q Texto a buscar (mínimo 3 caracteres)
+     @param limite Máximo de resultados (hasta 50)
+     @return Trabajadores con su puntaje
+     */
+    @GetMapping("/buscar")
+    @Operation(summary = "Buscar trabajadores", description = "Similitud de trigramas sin distinguir tildes")
+    public ResponseEntity<List<TrabajadorBusquedaResponseDTO>> buscar(@RequestParam String q,
+                                                                      @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(busquedaService.buscarTrabajadores(q, limite));
+    }
+    /**
+
+     Sugiere trabajadores cuyo nombre o apellido empieza con el texto, o cuyo DNI empieza con los dígitos.
+
+     @param prefijo Texto escrito (mínimo 3 caracteres)
+     @param limite Máximo de resultados (hasta 50)
+     @return Trabajadores ordenados por apellidos
+     */
+    @GetMapping("/sugerencias")
+    @Operation(summary = "Autocompletar trabajadores", description = "Prefijo de palabra del nombre o prefijo de DNI")
+    public ResponseEntity<List<TrabajadorBusquedaResponseDTO>> sugerir(@RequestParam String prefijo,
+                                                                       @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(busquedaService.sugerirTrabajadores(prefijo, limite));
+    }
+}
@@ -0,0 +1,17 @@
+package pe.edu.upeu.epp.dto.request;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AprobarSolicitudRequestDTO {
+    @NotNull(message = "La cantidad aprobada es obligatoria")
+    @Min(value = 1, message = "La cantidad aprobada debe ser al menos 1")
+    private Integer cantidadAprobada;
+    private String comentarios;
+}
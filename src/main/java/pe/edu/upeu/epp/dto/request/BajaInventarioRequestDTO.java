@@ -0,0 +1,25 @@
+package pe.edu.upeu.epp.dto.request;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+/**
+ * Baja de stock: de un área (areaId + eppId) o de un lote del inventario central (inventarioCentralId)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BajaInventarioRequestDTO {
+    private Integer areaId;
+    private Integer eppId;
+    private Integer inventarioCentralId;
+    @NotNull(message = "La cantidad es obligatoria")
+    @Min(value = 1, message = "La cantidad debe ser al menos 1")
+    private Integer cantidad;
+    @NotBlank(message = "El motivo es obligatorio")
+    private String motivo;
+}
@@ -0,0 +1,21 @@
+package pe.edu.upeu.epp.dto.request;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfigurarFranjasRequestDTO {
+    /**
+     * Número de franjas (0 o 1 deshabilita el reparto)
+     */
+    @NotNull(message = "El número de franjas es obligatorio")
+    @Min(value = 0, message = "El número de franjas no puede ser negativo")
+    @Max(value = 64, message = "El número de franjas no puede superar 64")
+    private Integer franjas;
+}
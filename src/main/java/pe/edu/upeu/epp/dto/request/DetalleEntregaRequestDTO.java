@@ -0,0 +1,25 @@
+package pe.edu.upeu.epp.dto.request;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetalleEntregaRequestDTO {
+    @NotNull(message = "El EPP es obligatorio")
+    private Integer eppId;
+
+    private Integer instanciaEppId;
+
+    @NotNull(message = "La cantidad es obligatoria")
+    @Min(value = 1, message = "La cantidad debe ser al menos 1")
+    private Integer cantidad;
+
+    @Size(max = 50, message = "El motivo no debe exceder 50 caracteres")
+    private String motivo;
+}
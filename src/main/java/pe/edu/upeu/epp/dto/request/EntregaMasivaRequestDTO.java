@@ -0,0 +1,23 @@
+package pe.edu.upeu.epp.dto.request;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntregaMasivaRequestDTO {
+    @NotNull(message = "El área es obligatoria")
+    private Integer areaId;
+
+    @NotEmpty(message = "Debe incluir al menos una entrega")
+    @Size(max = 1000, message = "Máximo 1000 entregas por solicitud")
+    @Valid
+    private List<EntregaRequestDTO> entregas;
+}
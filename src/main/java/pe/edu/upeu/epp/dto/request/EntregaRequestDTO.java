@@ -0,0 +1,32 @@
+package pe.edu.upeu.epp.dto.request;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pe.edu.upeu.epp.entity.EntregaEpp;
+import java.time.LocalDateTime;
+import java.util.List;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntregaRequestDTO {
+    @NotNull(message = "El trabajador es obligatorio")
+    private Integer trabajadorId;
+
+    @NotNull(message = "El tipo de entrega es obligatorio")
+    private EntregaEpp.TipoEntrega tipoEntrega;
+
+    private LocalDateTime fechaEntrega;
+
+    private String observaciones;
+
+    private String firmaDigital;
+
+    @NotEmpty(message = "La entrega debe tener al menos un detalle")
+    @Valid
+    private List<DetalleEntregaRequestDTO> detalles;
+}
@@ -0,0 +1,19 @@
+package pe.edu.upeu.epp.dto.request;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EscaneoLoteRequestDTO {
+    @NotEmpty(message = "Debe incluir al menos un escaneo")
+    @Size(max = 5000, message = "Máximo 5000 escaneos por solicitud")
+    @Valid
+    private List<EscaneoRequestDTO> escaneos;
+}
@@ -0,0 +1,22 @@
+package pe.edu.upeu.epp.dto.request;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EscaneoRequestDTO {
+    @NotBlank(message = "El código es obligatorio")
+    @Size(max = 50, message = "El código no puede exceder 50 caracteres")
+    private String codigo;
+
+    /**
+     * Momento del escaneo en el lector (lectores sin conexión que sincronizan después)
+     */
+    private LocalDateTime fechaEscaneo;
+}
@@ -0,0 +1,21 @@
+package pe.edu.upeu.epp.dto.request;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pe.edu.upeu.epp.service.ExportacionService.TipoExportacion;
+import java.time.LocalDate;
+/**
+ * Exportación en segundo plano; desde y hasta (inclusivos) no aplican a STOCK
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteJobRequestDTO {
+    @NotNull(message = "El tipo de reporte es obligatorio")
+    private TipoExportacion tipo;
+    private LocalDate desde;
+    private LocalDate hasta;
+}
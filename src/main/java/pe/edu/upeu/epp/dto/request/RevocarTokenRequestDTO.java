@@ -0,0 +1,14 @@
+package pe.edu.upeu.epp.dto.request;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevocarTokenRequestDTO {
+    @NotBlank(message = "El token es obligatorio")
+    private String token;
+}
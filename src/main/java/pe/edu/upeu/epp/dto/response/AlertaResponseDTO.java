@@ -0,0 +1,38 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pe.edu.upeu.epp.entity.Alerta.TipoAlerta;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertaResponseDTO {
+    private Long alertaId;
+    private TipoAlerta tipo;
+    /**
+     * instancia_epp_id o inventario_central_id según el tipo
+     */
+    private Integer referenciaId;
+    private LocalDate fechaLimite;
+    /**
+     * Negativo si la fecha límite ya pasó
+     */
+    private Long diasRestantes;
+    private Boolean vencida;
+    private Integer eppId;
+    private String nombreEpp;
+    /**
+     * Null en lotes del inventario central
+     */
+    private Integer areaId;
+    private String nombreArea;
+    /**
+     * Código de serie o lote
+     */
+    private String descripcion;
+    private LocalDateTime fechaCreacion;
+}
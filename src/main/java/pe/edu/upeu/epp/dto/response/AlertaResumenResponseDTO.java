@@ -0,0 +1,15 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pe.edu.upeu.epp.entity.Alerta.TipoAlerta;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertaResumenResponseDTO {
+    private TipoAlerta tipo;
+    private Long vencidas;
+    private Long porVencer;
+}
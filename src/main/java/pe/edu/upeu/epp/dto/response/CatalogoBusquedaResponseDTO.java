@@ -0,0 +1,19 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogoBusquedaResponseDTO {
+    private Integer eppId;
+    private String codigoIdentificacion;
+    private String nombreEpp;
+    private String tipoUso;
+    /**
+     * Similitud con la búsqueda (0 a 1); null en sugerencias por prefijo
+     */
+    private Double puntaje;
+}
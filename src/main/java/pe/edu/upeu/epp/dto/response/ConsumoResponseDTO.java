@@ -0,0 +1,23 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumoResponseDTO {
+    /**
+     * Inicio del día, semana o mes (null en totales del rango)
+     */
+    private LocalDate periodo;
+    /**
+     * epp_id, area_id o tipo de entrega según la dimensión
+     */
+    private String clave;
+    private String nombre;
+    private Long cantidad;
+    private Long detalles;
+}
@@ -0,0 +1,22 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetalleEntregaResponseDTO {
+    private Integer detalleId;
+    private Integer eppId;
+    private String nombreEpp;
+    private String codigoIdentificacion;
+    /**
+     * Solo en EPP duraderos entregados por instancia
+     */
+    private Integer instanciaEppId;
+    private String codigoSerie;
+    private Integer cantidad;
+    private String motivo;
+}
@@ -0,0 +1,15 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntregaMasivaResponseDTO {
+    private Integer entregasRegistradas;
+    private Integer detallesRegistrados;
+    private List<Integer> entregaIds;
+}
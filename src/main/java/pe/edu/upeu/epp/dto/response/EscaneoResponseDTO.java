@@ -0,0 +1,22 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EscaneoResponseDTO {
+    private String codigo;
+    private LocalDateTime fechaEscaneo;
+    private boolean reconocido;
+    /**
+     * Reconocido y en estado ACTIVO
+     */
+    private boolean habilitado;
+    private Integer trabajadorId;
+    private Integer areaId;
+    private String estado;
+}
@@ -0,0 +1,23 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistorialEntregaResponseDTO {
+    private Integer entregaId;
+    private LocalDateTime fechaEntrega;
+    private String tipoEntrega;
+    private String status;
+    private String observaciones;
+    private Integer trabajadorId;
+    private String trabajador;
+    private Integer jefeAreaId;
+    private String jefeArea;
+    private List<DetalleEntregaResponseDTO> detalles;
+}
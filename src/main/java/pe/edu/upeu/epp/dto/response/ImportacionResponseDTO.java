@@ -0,0 +1,19 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacionResponseDTO {
+    private String tipo;
+    private String archivo;
+    private Integer filasLeidas;
+    private Integer insertadas;
+    private Integer rechazadas;
+    private Long duracionMs;
+    private List<RechazoImportacionDTO> rechazos;
+}
@@ -0,0 +1,19 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+/**
+ * Página de un listado con cursor (keyset). Para la siguiente página se envía
+ * siguienteCursor; es null en la última página.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaResponseDTO<T> {
+    private List<T> contenido;
+    private String siguienteCursor;
+    private Integer tamano;
+}
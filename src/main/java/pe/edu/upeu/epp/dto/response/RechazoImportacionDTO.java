@@ -0,0 +1,14 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RechazoImportacionDTO {
+    private Integer fila;
+    private String clave;
+    private String motivo;
+}
@@ -0,0 +1,35 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pe.edu.upeu.epp.entity.ReporteJob;
+import pe.edu.upeu.epp.service.ExportacionService.TipoExportacion;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReporteJobResponseDTO {
+    private Long reporteJobId;
+    private TipoExportacion tipo;
+    private LocalDate desde;
+    private LocalDate hasta;
+    private ReporteJob.Estado estado;
+    private Long filasProcesadas;
+    private Long tamanoBytes;
+    private String mensajeError;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private LocalDateTime fechaExpiracion;
+    /**
+     * true si se reutilizó un job reciente con los mismos parámetros
+     */
+    private Boolean reutilizado;
+    /**
+     * Ruta de descarga, solo cuando el job está COMPLETADO
+     */
+    private String urlDescarga;
+}
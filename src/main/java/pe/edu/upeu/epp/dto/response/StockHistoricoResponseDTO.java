@@ -0,0 +1,24 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHistoricoResponseDTO {
+    private Integer eppId;
+    /**
+     * null = inventario central
+     */
+    private Integer areaId;
+    private LocalDateTime fecha;
+    private Long cantidad;
+    /**
+     * Snapshot usado como punto de partida (null si aún no hay snapshots)
+     */
+    private LocalDateTime fechaSnapshot;
+    private Long movimientosAplicados;
+}
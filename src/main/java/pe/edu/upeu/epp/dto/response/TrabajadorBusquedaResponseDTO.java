@@ -0,0 +1,22 @@
+package pe.edu.upeu.epp.dto.response;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrabajadorBusquedaResponseDTO {
+    private Integer trabajadorId;
+    private String dni;
+    private String nombres;
+    private String apellidos;
+    private Integer areaId;
+    private String nombreArea;
+    private String estado;
+    /**
+     * Similitud con la búsqueda (0 a 1); null en sugerencias por prefijo
+     */
+    private Double puntaje;
+}
@@ -0,0 +1,71 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Alerta precalculada por AlertaService: EPP por vencer o con inspección próxima y
+ * lotes del almacén central por vencer. Una alerta por (tipo, referencia, fecha límite);
+ * se resuelve sola cuando la condición deja de cumplirse.
+ * Índices parciales sobre las activas en V3__alertas_indices_parciales.sql.
+ */
+@Entity
+@Table(name = "alerta", schema = "epp",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_alerta_tipo_referencia_fecha",
+                columnNames = {"tipo", "referencia_id", "fecha_limite"}
+        ))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class Alerta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "alerta_id")
+    private Long alertaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 30)
+    private TipoAlerta tipo;
+
+    /**
+     * instancia_epp_id o inventario_central_id según el tipo
+     */
+    @Column(name = "referencia_id", nullable = false)
+    private Integer referenciaId;
+
+    @Column(name = "fecha_limite", nullable = false)
+    private LocalDate fechaLimite;
+
+    @Column(name = "epp_id")
+    private Integer eppId;
+
+    @Column(name = "area_id")
+    private Integer areaId;
+
+    /**
+     * Código de serie de la instancia o lote del inventario central
+     */
+    @Column(name = "descripcion", length = 50)
+    private String descripcion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoAlerta estado;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_resolucion")
+    private LocalDateTime fechaResolucion;
+
+    public enum TipoAlerta {
+        VENCIMIENTO_EPP, INSPECCION_EPP, VENCIMIENTO_LOTE
+    }
+
+    public enum EstadoAlerta {
+        ACTIVA, RESUELTA
+    }
+}
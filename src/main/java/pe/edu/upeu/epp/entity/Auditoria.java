@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "auditoria", schema = "epp", indexes = {
         @Index(name = "idx_auditoria_tabla", columnList = "tabla_afectada"),
-        @Index(name = "idx_auditoria_fecha", columnList = "fecha_operacion"),
+        @Index(name = "idx_auditoria_fecha_id", columnList = "fecha_operacion, auditoria_id"),
         @Index(name = "idx_auditoria_usuario", columnList = "usuario_id")
 })
 @Getter
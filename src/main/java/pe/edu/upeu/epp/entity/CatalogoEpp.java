@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -15,6 +17,9 @@ import java.time.LocalDateTime;
         @Index(name = "idx_catalogo_epp_tipo_uso", columnList = "tipo_uso"),
         @Index(name = "idx_catalogo_epp_activo", columnList = "activo")
 })
+@EntityListeners(CatalogoEppEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalogo_epp")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class CatalogoEpp {
 
@@ -0,0 +1,27 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import pe.edu.upeu.epp.event.CatalogoEppModificadoEvent;
+
+/**
+ * Listener JPA que notifica los cambios del catálogo de EPP hechos con JPA,
+ * para reconstruir el índice de autocompletado.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogoEppEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(CatalogoEpp epp) {
+        eventPublisher.publishEvent(new CatalogoEppModificadoEvent(epp.getEppId()));
+    }
+}
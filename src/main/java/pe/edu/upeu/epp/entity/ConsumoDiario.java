@@ -0,0 +1,59 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Consumo diario de EPP por área y tipo de entrega (rollup de detalle_entrega_epp).
+ * Lo mantiene ConsumoRollupService; los reportes semanales y mensuales se agregan
+ * sobre esta tabla.
+ */
+@Entity
+@Table(name = "consumo_diario", schema = "epp", indexes = {
+        @Index(name = "idx_consumo_epp_dia", columnList = "epp_id, dia"),
+        @Index(name = "idx_consumo_area_dia", columnList = "area_id, dia")
+})
+@IdClass(ConsumoDiario.ConsumoDiarioId.class)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ConsumoDiario {
+
+    @Id
+    @Column(name = "dia")
+    private LocalDate dia;
+
+    @Id
+    @Column(name = "epp_id")
+    private Integer eppId;
+
+    @Id
+    @Column(name = "area_id")
+    private Integer areaId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_entrega", length = 30)
+    private EntregaEpp.TipoEntrega tipoEntrega;
+
+    /**
+     * Unidades entregadas
+     */
+    @Column(name = "cantidad", nullable = false)
+    private Long cantidad;
+
+    /**
+     * Líneas de detalle de entrega
+     */
+    @Column(name = "detalles", nullable = false)
+    private Long detalles;
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class ConsumoDiarioId implements Serializable {
+        private LocalDate dia;
+        private Integer eppId;
+        private Integer areaId;
+        private EntregaEpp.TipoEntrega tipoEntrega;
+    }
+}
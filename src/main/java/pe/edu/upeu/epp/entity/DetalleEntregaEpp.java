@@ -9,6 +9,11 @@ import lombok.*;
         @Index(name = "idx_detalle_entrega", columnList = "entrega_id"),
         @Index(name = "idx_detalle_epp", columnList = "epp_id")
 })
+@NamedEntityGraph(name = DetalleEntregaEpp.GRAFO_CON_EPP, attributeNodes = {
+        @NamedAttributeNode("entrega"),
+        @NamedAttributeNode("epp"),
+        @NamedAttributeNode("instanciaEpp")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,13 +21,21 @@ import lombok.*;
 @Builder
 public class DetalleEntregaEpp {
 
+    /**
+     * Detalle con su entrega, EPP e instancia
+     */
+    public static final String GRAFO_CON_EPP = "DetalleEntregaEpp.conEpp";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "detalle_id")
     private Integer detalleId;
 
+    /**
+     * Sin clave foránea: entrega_epp es una hypertable de TimescaleDB (ver db/migration)
+     */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "entrega_id", nullable = false)
+    @JoinColumn(name = "entrega_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private EntregaEpp entrega;
 
     @ManyToOne(fetch = FetchType.LAZY)
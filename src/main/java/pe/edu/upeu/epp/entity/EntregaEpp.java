@@ -10,12 +10,25 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "entrega_epp", schema = "epp", indexes = {
         @Index(name = "idx_entrega_trabajador", columnList = "trabajador_id"),
-        @Index(name = "idx_entrega_fecha", columnList = "fecha_entrega"),
+        @Index(name = "idx_entrega_fecha_id", columnList = "fecha_entrega, entrega_id"),
         @Index(name = "idx_entrega_tipo", columnList = "tipo_entrega")
 })
+@NamedEntityGraph(name = EntregaEpp.GRAFO_HISTORIAL, attributeNodes = {
+        @NamedAttributeNode("trabajador"),
+        @NamedAttributeNode("jefeArea"),
+        @NamedAttributeNode(value = "detalles", subgraph = "detalle")
+}, subgraphs = @NamedSubgraph(name = "detalle", attributeNodes = {
+        @NamedAttributeNode("epp"),
+        @NamedAttributeNode("instanciaEpp")
+}))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class EntregaEpp {
 
+    /**
+     * Entrega con trabajador, jefe de área y detalles con su EPP e instancia, en una sola consulta
+     */
+    public static final String GRAFO_HISTORIAL = "EntregaEpp.historial";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "entrega_id")
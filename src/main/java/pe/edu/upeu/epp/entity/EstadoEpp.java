@@ -3,9 +3,13 @@ package pe.edu.upeu.epp.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "estado_epp", schema = "epp")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "estado_epp")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class EstadoEpp {
 
@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "inspeccion", schema = "epp", indexes = {
         @Index(name = "idx_inspeccion_instancia", columnList = "instancia_epp_id"),
-        @Index(name = "idx_inspeccion_fecha", columnList = "fecha_inspeccion"),
+        @Index(name = "idx_inspeccion_fecha_id", columnList = "fecha_inspeccion, inspeccion_id"),
         @Index(name = "idx_inspeccion_resultado", columnList = "resultado"),
         @Index(name = "idx_inspeccion_proxima", columnList = "fecha_proxima_inspeccion")
 })
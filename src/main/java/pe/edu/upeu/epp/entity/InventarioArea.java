@@ -50,6 +50,13 @@ public class InventarioArea {
     @Column(name = "ubicacion", length = 100)
     private String ubicacion;
 
+    /**
+     * Número de franjas (sub-contadores) para ítems muy concurrentes; null = sin franjas.
+     * Con franjas, cantidadActual incluye salidas aún no consolidadas (ver StockEngine).
+     */
+    @Column(name = "franjas")
+    private Integer franjas;
+
     @Column(name = "ultima_actualizacion", nullable = false)
     private LocalDateTime ultimaActualizacion;
 
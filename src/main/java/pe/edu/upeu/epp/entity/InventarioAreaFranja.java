@@ -0,0 +1,40 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Sub-contador (franja) del stock de un InventarioArea de alta concurrencia.
+ * Cada franja tiene asignada una parte del stock; las salidas se descuentan de
+ * cualquier franja libre y se acumulan en "consumido" hasta que la consolidación
+ * las aplica a inventario_area.cantidad_actual y redistribuye el stock.
+ * Invariante: cantidad + consumido solo cambia al consolidar.
+ */
+@Entity
+@Table(name = "inventario_area_franja", schema = "epp")
+@IdClass(InventarioAreaFranja.FranjaId.class)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class InventarioAreaFranja {
+
+    @Id
+    @Column(name = "inventario_area_id")
+    private Integer inventarioAreaId;
+
+    @Id
+    @Column(name = "franja")
+    private Integer franja;
+
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+
+    @Column(name = "consumido", nullable = false)
+    private Integer consumido;
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class FranjaId implements Serializable {
+        private Integer inventarioAreaId;
+        private Integer franja;
+    }
+}
@@ -0,0 +1,38 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock de un EPP en una ubicación (área o, si area es null, inventario central)
+ * a la fecha de corte. Lo genera la compactación del libro de movimientos.
+ */
+@Entity
+@Table(name = "inventario_snapshot", schema = "epp", indexes = {
+        @Index(name = "idx_snapshot_epp_area_corte", columnList = "epp_id, area_id, fecha_corte"),
+        @Index(name = "idx_snapshot_corte", columnList = "fecha_corte")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class InventarioSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "snapshot_id")
+    private Long snapshotId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "epp_id", nullable = false)
+    private CatalogoEpp epp;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "area_id")
+    private Area area;
+
+    @Column(name = "fecha_corte", nullable = false)
+    private LocalDateTime fechaCorte;
+
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+}
@@ -0,0 +1,74 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento del libro de inventario (solo inserción).
+ * cantidad es el delta con signo sobre la ubicación: area (inventario de área) o,
+ * si area es null, el inventario central (inventarioCentral indica el lote).
+ */
+@Entity
+@Table(name = "movimiento_inventario", schema = "epp", indexes = {
+        @Index(name = "idx_movimiento_epp_area_fecha", columnList = "epp_id, area_id, fecha_movimiento"),
+        @Index(name = "idx_movimiento_fecha", columnList = "fecha_movimiento"),
+        @Index(name = "idx_movimiento_referencia", columnList = "origen, referencia_id")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class MovimientoInventario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "movimiento_id")
+    private Long movimientoId;
+
+    @Column(name = "fecha_movimiento", nullable = false, updatable = false)
+    private LocalDateTime fechaMovimiento;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_movimiento", nullable = false, length = 20, updatable = false)
+    private TipoMovimiento tipoMovimiento;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "origen", nullable = false, length = 30, updatable = false)
+    private Origen origen;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "epp_id", nullable = false, updatable = false)
+    private CatalogoEpp epp;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "area_id", updatable = false)
+    private Area area;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "inventario_central_id", updatable = false)
+    private InventarioCentral inventarioCentral;
+
+    @Column(name = "cantidad", nullable = false, updatable = false)
+    private Integer cantidad;
+
+    /**
+     * Id del registro que originó el movimiento (entrega, solicitud de reposición)
+     */
+    @Column(name = "referencia_id", updatable = false)
+    private Integer referenciaId;
+
+    @Column(name = "observaciones", columnDefinition = "TEXT", updatable = false)
+    private String observaciones;
+
+    @PrePersist
+    protected void onCreate() {
+        if (fechaMovimiento == null) fechaMovimiento = LocalDateTime.now();
+    }
+
+    public enum TipoMovimiento {
+        ENTRADA, SALIDA, TRANSFERENCIA, AJUSTE
+    }
+
+    public enum Origen {
+        ENTREGA, SOLICITUD_REPOSICION, BAJA, AJUSTE_MANUAL
+    }
+}
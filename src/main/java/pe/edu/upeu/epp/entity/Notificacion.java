@@ -0,0 +1,77 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bandeja de salida de notificaciones por correo (una fila por aviso y destinatario).
+ * Se escribe en la misma transacción que el evento que la origina; NotificacionDispatcher
+ * la envía en segundo plano agrupando los avisos de cada destinatario en un resumen.
+ * Índice parcial sobre las pendientes en V4__notificacion_pendientes.sql.
+ */
+@Entity
+@Table(name = "notificacion", schema = "epp",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_notificacion_clave_destinatario",
+                columnNames = {"clave", "destinatario"}
+        ))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class Notificacion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "notificacion_id")
+    private Long notificacionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 30)
+    private TipoNotificacion tipo;
+
+    /**
+     * Identifica el evento (p. ej. alerta:15, solicitud:7, stock_bajo:3:2026-10-17) para no avisar dos veces;
+     * null si no aplica
+     */
+    @Column(name = "clave", length = 50)
+    private String clave;
+
+    @Column(name = "destinatario", nullable = false, length = 100)
+    private String destinatario;
+
+    /**
+     * Línea del aviso tal como aparece en el resumen
+     */
+    @Column(name = "texto", nullable = false, length = 500)
+    private String texto;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoNotificacion estado;
+
+    @Column(name = "intentos", nullable = false)
+    private Integer intentos;
+
+    /**
+     * No enviar antes de esta fecha (reintento con espera o envío en curso)
+     */
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_envio")
+    private LocalDateTime fechaEnvio;
+
+    public enum TipoNotificacion {
+        STOCK_BAJO, VENCIMIENTO, INSPECCION, SOLICITUD_PENDIENTE
+    }
+
+    public enum EstadoNotificacion {
+        PENDIENTE, ENVIADA, FALLIDA
+    }
+}
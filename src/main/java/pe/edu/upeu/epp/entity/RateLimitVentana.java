@@ -0,0 +1,40 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Contador de intentos de login por clave (usuario o IP) y ventana de tiempo.
+ * Lo usa PostgresRateLimitBackend para compartir el límite entre nodos.
+ */
+@Entity
+@Table(name = "rate_limit_ventana", schema = "epp", indexes = {
+        @Index(name = "idx_rate_limit_ventana_expiracion", columnList = "fecha_expiracion")
+})
+@IdClass(RateLimitVentana.VentanaId.class)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class RateLimitVentana {
+
+    @Id
+    @Column(name = "clave", length = 150)
+    private String clave;
+
+    @Id
+    @Column(name = "ventana")
+    private Long ventana;
+
+    @Column(name = "contador", nullable = false)
+    private Integer contador;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class VentanaId implements Serializable {
+        private String clave;
+        private Long ventana;
+    }
+}
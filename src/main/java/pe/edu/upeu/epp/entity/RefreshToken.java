@@ -0,0 +1,66 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh token opaco. Solo se guarda el SHA-256 del token.
+ * Todos los tokens obtenidos por rotación desde un mismo login comparten familia
+ * y la fecha de inicio de sesión, que limita la edad máxima de la sesión.
+ */
+@Entity
+@Table(name = "refresh_token", schema = "epp", indexes = {
+        @Index(name = "idx_refresh_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_token_familia", columnList = "familia_id"),
+        @Index(name = "idx_refresh_token_usuario", columnList = "usuario_id"),
+        @Index(name = "idx_refresh_token_expiracion", columnList = "fecha_expiracion")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "refresh_token_id")
+    private Long refreshTokenId;
+
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "familia_id", nullable = false, length = 36)
+    private String familiaId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    /**
+     * Login que originó la familia; se copia en cada rotación.
+     * Nulo en tokens emitidos antes de la columna (se usa fecha_creacion).
+     */
+    @Column(name = "fecha_inicio_sesion")
+    private LocalDateTime fechaInicioSesion;
+
+    @Column(name = "usado", nullable = false)
+    @Builder.Default
+    private Boolean usado = false;
+
+    @Column(name = "revocado", nullable = false)
+    @Builder.Default
+    private Boolean revocado = false;
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+        if (fechaInicioSesion == null) fechaInicioSesion = fechaCreacion;
+        if (usado == null) usado = false;
+        if (revocado == null) revocado = false;
+    }
+}
@@ -0,0 +1,91 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import pe.edu.upeu.epp.service.ExportacionService.TipoExportacion;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Exportación de reporte ejecutada en segundo plano. El archivo generado queda en
+ * disco local hasta fecha_expiracion; clave identifica los parámetros para
+ * reutilizar un job idéntico reciente del mismo usuario.
+ */
+@Entity
+@Table(name = "reporte_job", schema = "epp", indexes = {
+        @Index(name = "idx_reporte_job_clave", columnList = "clave, fecha_creacion"),
+        @Index(name = "idx_reporte_job_usuario", columnList = "usuario_id, estado"),
+        @Index(name = "idx_reporte_job_expiracion", columnList = "estado, fecha_expiracion")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ReporteJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "reporte_job_id")
+    private Long reporteJobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 20)
+    private TipoExportacion tipo;
+
+    @Column(name = "desde")
+    private LocalDate desde;
+
+    @Column(name = "hasta")
+    private LocalDate hasta;
+
+    /**
+     * SHA-256 de tipo, desde y hasta
+     */
+    @Column(name = "clave", nullable = false, length = 64)
+    private String clave;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private Estado estado;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private Usuario usuario;
+
+    @Column(name = "filas_procesadas", nullable = false)
+    @Builder.Default
+    private Long filasProcesadas = 0L;
+
+    /**
+     * Nombre del archivo dentro del directorio de reportes
+     */
+    @Column(name = "archivo", length = 255)
+    private String archivo;
+
+    @Column(name = "tamano_bytes")
+    private Long tamanoBytes;
+
+    @Column(name = "mensaje_error", length = 500)
+    private String mensajeError;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_inicio")
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private LocalDateTime fechaFin;
+
+    @Column(name = "fecha_expiracion")
+    private LocalDateTime fechaExpiracion;
+
+    public enum Estado {
+        PENDIENTE, EN_PROCESO, COMPLETADO, ERROR, EXPIRADO
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        fechaCreacion = LocalDateTime.now();
+        if (estado == null) estado = Estado.PENDIENTE;
+        if (filasProcesadas == null) filasProcesadas = 0L;
+    }
+}
@@ -3,11 +3,15 @@ package pe.edu.upeu.epp.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "rol", schema = "epp")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "rol")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Rol {
 
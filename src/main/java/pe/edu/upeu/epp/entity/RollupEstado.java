@@ -0,0 +1,27 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Hasta dónde está materializado un rollup (exclusivo); lo posterior se calcula
+ * sobre las tablas de origen al consultar
+ */
+@Entity
+@Table(name = "rollup_estado", schema = "epp")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class RollupEstado {
+
+    @Id
+    @Column(name = "rollup", length = 50)
+    private String rollup;
+
+    @Column(name = "materializado_hasta")
+    private LocalDate materializadoHasta;
+
+    @Column(name = "ultima_actualizacion")
+    private LocalDateTime ultimaActualizacion;
+}
@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
         @Index(name = "idx_solicitud_estado", columnList = "estado_solicitud"),
         @Index(name = "idx_solicitud_prioridad", columnList = "prioridad"),
         @Index(name = "idx_solicitud_area", columnList = "area_id"),
-        @Index(name = "idx_solicitud_fecha", columnList = "fecha_solicitud")
+        @Index(name = "idx_solicitud_fecha_id", columnList = "fecha_solicitud, solicitud_id")
 })
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class SolicitudReposicion {
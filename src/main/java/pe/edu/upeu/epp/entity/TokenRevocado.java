@@ -0,0 +1,35 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "token_revocado", schema = "epp", indexes = {
+        @Index(name = "idx_token_revocado_expiracion", columnList = "fecha_expiracion"),
+        @Index(name = "idx_token_revocado_revocacion", columnList = "fecha_revocacion")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class TokenRevocado {
+
+    @Id
+    @Column(name = "jti", length = 36)
+    private String jti;
+
+    @Column(name = "nombre_usuario", length = 50)
+    private String nombreUsuario;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+
+    @Column(name = "fecha_revocacion", nullable = false)
+    private LocalDateTime fechaRevocacion;
+
+    @PrePersist
+    protected void onCreate() {
+        if (fechaRevocacion == null) {
+            fechaRevocacion = LocalDateTime.now();
+        }
+    }
+}
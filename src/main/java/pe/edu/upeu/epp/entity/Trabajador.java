@@ -15,6 +15,7 @@ import java.time.LocalDateTime;
         @Index(name = "idx_trabajador_area", columnList = "area_id"),
         @Index(name = "idx_trabajador_estado", columnList = "estado")
 })
+@EntityListeners(TrabajadorEntityListener.class)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Trabajador {
 
@@ -0,0 +1,38 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import pe.edu.upeu.epp.event.TrabajadorModificadoEvent;
+
+/**
+ * Listener JPA que notifica las altas, cambios y bajas de Trabajador hechas con JPA,
+ * para que el índice de escaneo de photochecks se mantenga al día.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrabajadorEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onChange(Trabajador trabajador) {
+        eventPublisher.publishEvent(evento(trabajador, false));
+    }
+
+    @PostRemove
+    public void onRemove(Trabajador trabajador) {
+        eventPublisher.publishEvent(evento(trabajador, true));
+    }
+
+    private static TrabajadorModificadoEvent evento(Trabajador trabajador, boolean eliminado) {
+        // getAreaId sobre el proxy LAZY no lo inicializa
+        return new TrabajadorModificadoEvent(trabajador.getTrabajadorId(), trabajador.getCodigoQrPhotocheck(),
+                trabajador.getDni(), trabajador.getArea() != null ? trabajador.getArea().getAreaId() : null,
+                trabajador.getEstado(), eliminado);
+    }
+}
@@ -5,6 +5,10 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.time.LocalDateTime;
 
@@ -13,6 +17,7 @@ import java.time.LocalDateTime;
         @Index(name = "idx_usuario_nombre", columnList = "nombre_usuario"),
         @Index(name = "idx_usuario_activo", columnList = "activo")
 })
+@EntityListeners(UsuarioEntityListener.class)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Usuario {
 
@@ -53,7 +58,25 @@ public class Usuario {
     @Column(name = "bloqueado_hasta")
     private LocalDateTime bloqueadoHasta;
 
+    /**
+     * Sello de versión embebido en los JWT. Al incrementarse, los tokens
+     * emitidos antes dejan de ser válidos.
+     */
+    @Column(name = "version_token")
+    @Builder.Default
+    private Integer versionToken = 0;
+
+    /**
+     * Los ids de roles quedan en cache de segundo nivel y cada Rol se resuelve desde
+     * la región rol, sin consultar usuario_rol ni rol al cargar el usuario (FetchMode.SELECT:
+     * con el JOIN por defecto de EAGER la colección siempre se leería por SQL).
+     * Cambiar roles con setRoles invalida la entrada al confirmar; tras un cambio por
+     * SQL directo, el rol anterior puede seguir vigente hasta 10 minutos
+     * (expiración de la región más la de la cache de usuarios)
+     */
     @ManyToMany(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SELECT)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuario_roles")
     @JoinTable(
             name = "usuario_rol",
             schema = "epp",
@@ -68,5 +91,26 @@ public class Usuario {
         fechaCreacion = LocalDateTime.now();
         if (activo == null) activo = true;
         if (intentosFallidos == null) intentosFallidos = 0;
+        if (versionToken == null) versionToken = 0;
+    }
+
+    public void setActivo(Boolean activo) {
+        if (this.activo != null && !this.activo.equals(activo)) {
+            invalidarTokens();
+        }
+        this.activo = activo;
+    }
+
+    public void setRoles(java.util.Set<Rol> roles) {
+        this.roles = roles;
+        invalidarTokens();
+    }
+
+    /**
+     * Invalida los tokens emitidos hasta ahora.
+     * Debe llamarse si se modifica la colección de roles sin pasar por setRoles.
+     */
+    public void invalidarTokens() {
+        versionToken = (versionToken == null ? 0 : versionToken) + 1;
     }
 }
\ No newline at end of file
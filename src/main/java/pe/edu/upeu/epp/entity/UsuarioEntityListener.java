@@ -0,0 +1,25 @@
+package pe.edu.upeu.epp.entity;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import pe.edu.upeu.epp.event.UsuarioModificadoEvent;
+
+/**
+ * Listener JPA que notifica las modificaciones de Usuario hechas con JPA,
+ * para que las caches de autenticación descarten sus entradas.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsuarioEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Usuario usuario) {
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(usuario.getNombreUsuario()));
+    }
+}
@@ -0,0 +1,8 @@
+package pe.edu.upeu.epp.event;
+
+/**
+ * Evento publicado al crear, modificar o eliminar un EPP del catálogo con JPA
+ * (ver BusquedaService: índice de autocompletado en memoria).
+ */
+public record CatalogoEppModificadoEvent(Integer eppId) {
+}
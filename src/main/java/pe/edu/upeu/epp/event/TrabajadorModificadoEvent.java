@@ -0,0 +1,15 @@
+package pe.edu.upeu.epp.event;
+
+import pe.edu.upeu.epp.entity.Trabajador;
+
+/**
+ * Evento publicado al crear, modificar o eliminar un trabajador con JPA,
+ * con los datos que usa el índice de escaneo (ver IndiceTrabajadorService).
+ */
+public record TrabajadorModificadoEvent(Integer trabajadorId,
+                                        String codigoQrPhotocheck,
+                                        String dni,
+                                        Integer areaId,
+                                        Trabajador.EstadoTrabajador estado,
+                                        boolean eliminado) {
+}
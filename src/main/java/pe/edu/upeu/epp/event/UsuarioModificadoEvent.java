@@ -0,0 +1,8 @@
+package pe.edu.upeu.epp.event;
+
+/**
+ * Evento publicado cuando cambian datos de un usuario que afectan su autenticación
+ * (intentos fallidos, bloqueo, logout, roles o estado activo).
+ */
+public record UsuarioModificadoEvent(String nombreUsuario) {
+}
@@ -0,0 +1,52 @@
+package pe.edu.upeu.epp.exception;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+/**
+
+ Manejo centralizado de excepciones que requieren un código HTTP o headers específicos.
+ */
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+    /**
+
+     Servicio saturado: 503 con Retry-After para que el cliente reintente más tarde.
+     */
+    @ExceptionHandler(ServicioSaturadoException.class)
+    public ResponseEntity<ProblemDetail> handleServicioSaturado(ServicioSaturadoException e) {
+        log.warn("Petición rechazada por saturación: {}", e.getMessage());
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(problem);
+    }
+
+    /**
+
+     Límite de intentos excedido: 429 con Retry-After.
+     */
+    @ExceptionHandler(LimiteTasaExcedidoException.class)
+    public ResponseEntity<ProblemDetail> handleLimiteTasaExcedido(LimiteTasaExcedidoException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(problem);
+    }
+
+    /**
+
+     Stock insuficiente: 409 con los EPP que no alcanzan.
+     */
+    @ExceptionHandler(StockInsuficienteException.class)
+    public ResponseEntity<ProblemDetail> handleStockInsuficiente(StockInsuficienteException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+        problem.setProperty("areaId", e.getAreaId());
+        problem.setProperty("eppIds", e.getEppIds());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(problem);
+    }
+}
@@ -0,0 +1,13 @@
+package pe.edu.upeu.epp.exception;
+
+/**
+
+ Excepción lanzada cuando un cliente excede el límite de intentos permitido.
+ Se responde con 429 y el header Retry-After.
+ */
+public class LimiteTasaExcedidoException extends ServicioSaturadoException {
+
+    public LimiteTasaExcedidoException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,18 @@
+package pe.edu.upeu.epp.exception;
+
+import lombok.Getter;
+
+/**
+
+ Excepción lanzada cuando un recurso acotado (pool de hashing, límites de tasa)
+ no admite más trabajo. Se responde con el código indicado y el header Retry-After.
+ */
+@Getter
+public class ServicioSaturadoException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServicioSaturadoException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
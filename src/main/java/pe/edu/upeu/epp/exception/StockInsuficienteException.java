@@ -0,0 +1,22 @@
+package pe.edu.upeu.epp.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+
+ Excepción lanzada cuando el inventario de un área no alcanza para una salida.
+ Se responde con 409 indicando los EPP sin stock suficiente.
+ */
+@Getter
+public class StockInsuficienteException extends BusinessException {
+    private final Integer areaId;
+    private final List<Integer> eppIds;
+
+    public StockInsuficienteException(Integer areaId, List<Integer> eppIds) {
+        super("Stock insuficiente en el área " + areaId + " para los EPP: " + eppIds);
+        this.areaId = areaId;
+        this.eppIds = eppIds;
+    }
+}
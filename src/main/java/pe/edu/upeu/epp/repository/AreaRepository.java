@@ -1,6 +1,9 @@
 package pe.edu.upeu.epp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.Area;
 
@@ -10,7 +13,9 @@ import java.util.Optional;
 // ==================== AREA REPOSITORY ====================
 @Repository
 public interface AreaRepository extends JpaRepository<Area, Integer> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Area> findByCodigoArea(String codigoArea);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<Area> findByActivoTrue();
     boolean existsByNombreArea(String nombreArea);
     boolean existsByCodigoArea(String codigoArea);
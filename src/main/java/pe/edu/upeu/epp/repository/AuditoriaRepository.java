@@ -1,14 +1,20 @@
 package pe.edu.upeu.epp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.Auditoria;
 import pe.edu.upeu.epp.entity.Usuario;
+import pe.edu.upeu.epp.repository.projection.AuditoriaResumen;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AuditoriaRepository extends JpaRepository<Auditoria, Integer> {
@@ -23,4 +29,37 @@ public interface AuditoriaRepository extends JpaRepository<Auditoria, Integer> {
     @Query("SELECT a FROM Auditoria a WHERE a.tablaAfectada = :tabla AND a.registroId = :registroId ORDER BY a.fechaOperacion DESC")
     List<Auditoria> findHistorialPorRegistro(@Param("tabla") String tabla,
                                              @Param("registroId") Integer registroId);
+
+    /**
+     * Registros de auditoría del rango para exportación (cursor con fetch size, sin entidades)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.fechaOperacion, a.auditoriaId, a.tablaAfectada, a.operacion, a.registroId, u.nombreUsuario, " +
+            "a.ipOrigen, a.datosAnteriores, a.datosNuevos " +
+            "FROM Auditoria a LEFT JOIN a.usuario u " +
+            "WHERE a.fechaOperacion >= :desde AND a.fechaOperacion < :hasta ORDER BY a.fechaOperacion, a.auditoriaId")
+    Stream<Object[]> streamParaExportacion(@Param("desde") LocalDateTime desde,
+                                           @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Página del listado de auditoría por (fecha, id) descendente, después del cursor
+     */
+    @Query("SELECT new pe.edu.upeu.epp.repository.projection.AuditoriaResumen(" +
+            "a.auditoriaId, a.fechaOperacion, a.tablaAfectada, a.operacion, a.registroId, u.nombreUsuario, a.ipOrigen) " +
+            "FROM Auditoria a LEFT JOIN a.usuario u " +
+            "WHERE a.fechaOperacion >= :desde AND a.fechaOperacion < :hasta " +
+            "AND (a.fechaOperacion, a.auditoriaId) < (:cursorFecha, :cursorId) " +
+            "AND (:tabla IS NULL OR a.tablaAfectada = :tabla) " +
+            "AND (:registroId IS NULL OR a.registroId = :registroId) " +
+            "ORDER BY a.fechaOperacion DESC, a.auditoriaId DESC")
+    List<AuditoriaResumen> findPagina(@Param("desde") LocalDateTime desde,
+                                      @Param("hasta") LocalDateTime hasta,
+                                      @Param("cursorFecha") LocalDateTime cursorFecha,
+                                      @Param("cursorId") Integer cursorId,
+                                      @Param("tabla") String tabla,
+                                      @Param("registroId") Integer registroId,
+                                      Pageable pagina);
 }
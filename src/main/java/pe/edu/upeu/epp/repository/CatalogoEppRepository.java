@@ -1,12 +1,16 @@
 package pe.edu.upeu.epp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.CatalogoEpp;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,11 +18,19 @@ import java.util.Optional;
 @Repository
 public interface CatalogoEppRepository extends JpaRepository<CatalogoEpp, Integer>,
         JpaSpecificationExecutor<CatalogoEpp> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<CatalogoEpp> findByCodigoIdentificacion(String codigoIdentificacion);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<CatalogoEpp> findByTipoUso(CatalogoEpp.TipoUso tipoUso);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<CatalogoEpp> findByActivoTrue();
     boolean existsByCodigoIdentificacion(String codigoIdentificacion);
+    long countByEppIdIn(Collection<Integer> eppIds);
 
-    @Query("SELECT c FROM CatalogoEpp c WHERE LOWER(c.nombreEpp) LIKE LOWER(CONCAT('%', :nombre, '%')) AND c.activo = true")
+    /**
+     * Sin distinguir mayúsculas ni tildes; usa el índice de trigramas (ver V2__busqueda_trigram.sql)
+     */
+    @Query(value = "SELECT * FROM epp.catalogo_epp c WHERE epp.normalizar(c.nombre_epp) " +
+            "LIKE '%' || epp.normalizar(:nombre) || '%' AND c.activo = true", nativeQuery = true)
     List<CatalogoEpp> buscarPorNombreActivo(@Param("nombre") String nombre);
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package pe.edu.upeu.epp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.CatalogoEpp;
@@ -10,13 +14,16 @@ import pe.edu.upeu.epp.entity.EntregaEpp;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 // ==================== DETALLE ENTREGA REPOSITORY ====================
 @Repository
 public interface DetalleEntregaEppRepository extends JpaRepository<DetalleEntregaEpp, Integer> {
+    @EntityGraph(DetalleEntregaEpp.GRAFO_CON_EPP)
     List<DetalleEntregaEpp> findByEntrega(EntregaEpp entrega);
     List<DetalleEntregaEpp> findByEpp(CatalogoEpp epp);
 
+    @EntityGraph(DetalleEntregaEpp.GRAFO_CON_EPP)
     @Query("SELECT dee FROM DetalleEntregaEpp dee WHERE dee.entrega.trabajador.trabajadorId = :trabajadorId")
     List<DetalleEntregaEpp> findByTrabajadorId(@Param("trabajadorId") Integer trabajadorId);
 
@@ -25,4 +32,20 @@ public interface DetalleEntregaEppRepository extends JpaRepository<DetalleEntreg
             "GROUP BY dee.epp.nombreEpp ORDER BY cantidad DESC")
     List<Object[]> findEppsMasEntregados(@Param("fechaInicio") LocalDateTime fechaInicio,
                                          @Param("fechaFin") LocalDateTime fechaFin);
-}
\ No newline at end of file
+
+    /**
+     * Detalles de entrega del rango para exportación (cursor con fetch size, sin entidades).
+     * LEFT JOIN al área: una entrega no se omite del reporte por un trabajador sin área.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.fechaEntrega, e.entregaId, e.tipoEntrega, e.status, t.dni, t.apellidos, t.nombres, " +
+            "a.nombreArea, c.codigoIdentificacion, c.nombreEpp, d.cantidad, d.motivo, j.apellidos, j.nombres " +
+            "FROM DetalleEntregaEpp d JOIN d.entrega e JOIN e.trabajador t LEFT JOIN t.area a JOIN d.epp c " +
+            "JOIN e.jefeArea j " +
+            "WHERE e.fechaEntrega >= :desde AND e.fechaEntrega < :hasta ORDER BY e.fechaEntrega, e.entregaId")
+    Stream<Object[]> streamParaExportacion(@Param("desde") LocalDateTime desde,
+                                           @Param("hasta") LocalDateTime hasta);
+}
@@ -1,13 +1,18 @@
 package pe.edu.upeu.epp.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.EntregaEpp;
 import pe.edu.upeu.epp.entity.Trabajador;
+import pe.edu.upeu.epp.repository.projection.EntregaClave;
+import pe.edu.upeu.epp.repository.projection.EntregaResumen;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 // ==================== ENTREGA EPP REPOSITORY ====================
@@ -17,9 +22,34 @@ public interface EntregaEppRepository extends JpaRepository<EntregaEpp, Integer>
     List<EntregaEpp> findByJefeArea(Trabajador jefeArea);
     List<EntregaEpp> findByFechaEntregaBetween(LocalDateTime inicio, LocalDateTime fin);
 
-    @Query("SELECT e FROM EntregaEpp e JOIN FETCH e.detalles WHERE e.trabajador.trabajadorId = :trabajadorId ORDER BY e.fechaEntrega DESC")
+    @EntityGraph(EntregaEpp.GRAFO_HISTORIAL)
+    @Query("SELECT e FROM EntregaEpp e WHERE e.trabajador.trabajadorId = :trabajadorId ORDER BY e.fechaEntrega DESC")
     List<EntregaEpp> findHistorialByTrabajadorId(@Param("trabajadorId") Integer trabajadorId);
 
+    /**
+     * Historial, fase 1: claves de una página de entregas del trabajador (paginable en SQL)
+     */
+    @Query("SELECT new pe.edu.upeu.epp.repository.projection.EntregaClave(e.entregaId, e.fechaEntrega) " +
+            "FROM EntregaEpp e WHERE e.trabajador.trabajadorId = :trabajadorId " +
+            "AND (e.fechaEntrega, e.entregaId) < (:cursorFecha, :cursorId) " +
+            "ORDER BY e.fechaEntrega DESC, e.entregaId DESC")
+    List<EntregaClave> findClavesHistorial(@Param("trabajadorId") Integer trabajadorId,
+                                           @Param("cursorFecha") LocalDateTime cursorFecha,
+                                           @Param("cursorId") Integer cursorId,
+                                           Pageable pagina);
+
+    /**
+     * Historial, fase 2: las entregas de la página con su grafo completo.
+     * El rango de fechas de la página permite descartar chunks de la hypertable.
+     */
+    @EntityGraph(EntregaEpp.GRAFO_HISTORIAL)
+    @Query("SELECT e FROM EntregaEpp e WHERE e.entregaId IN :ids " +
+            "AND e.fechaEntrega BETWEEN :desde AND :hasta " +
+            "ORDER BY e.fechaEntrega DESC, e.entregaId DESC")
+    List<EntregaEpp> findConHistorial(@Param("ids") Collection<Integer> ids,
+                                      @Param("desde") LocalDateTime desde,
+                                      @Param("hasta") LocalDateTime hasta);
+
     @Query("SELECT e FROM EntregaEpp e WHERE e.trabajador.area.areaId = :areaId AND e.fechaEntrega BETWEEN :fechaInicio AND :fechaFin")
     List<EntregaEpp> findByAreaAndFechaRange(@Param("areaId") Integer areaId,
                                              @Param("fechaInicio") LocalDateTime fechaInicio,
@@ -31,4 +61,24 @@ public interface EntregaEppRepository extends JpaRepository<EntregaEpp, Integer>
 
     @Query("SELECT COUNT(e) FROM EntregaEpp e WHERE DATE(e.fechaEntrega) = CURRENT_DATE")
     long countEntregasHoy();
-}
\ No newline at end of file
+
+    /**
+     * Página del listado de entregas por (fecha, id) descendente, después del cursor
+     */
+    @Query("SELECT new pe.edu.upeu.epp.repository.projection.EntregaResumen(" +
+            "e.entregaId, e.fechaEntrega, e.tipoEntrega, e.status, t.trabajadorId, t.dni, t.apellidos, t.nombres, " +
+            "a.areaId, a.nombreArea, j.apellidos, j.nombres) " +
+            "FROM EntregaEpp e JOIN e.trabajador t JOIN t.area a JOIN e.jefeArea j " +
+            "WHERE e.fechaEntrega >= :desde AND e.fechaEntrega < :hasta " +
+            "AND (e.fechaEntrega, e.entregaId) < (:cursorFecha, :cursorId) " +
+            "AND (:areaId IS NULL OR a.areaId = :areaId) " +
+            "AND (:trabajadorId IS NULL OR t.trabajadorId = :trabajadorId) " +
+            "ORDER BY e.fechaEntrega DESC, e.entregaId DESC")
+    List<EntregaResumen> findPagina(@Param("desde") LocalDateTime desde,
+                                    @Param("hasta") LocalDateTime hasta,
+                                    @Param("cursorFecha") LocalDateTime cursorFecha,
+                                    @Param("cursorId") Integer cursorId,
+                                    @Param("areaId") Integer areaId,
+                                    @Param("trabajadorId") Integer trabajadorId,
+                                    Pageable pagina);
+}
@@ -1,6 +1,9 @@
 package pe.edu.upeu.epp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.Area;
 import pe.edu.upeu.epp.entity.EstadoEpp;
@@ -11,6 +14,8 @@ import java.util.Optional;
 // ==================== ESTADO EPP REPOSITORY ====================
 @Repository
 public interface EstadoEppRepository extends JpaRepository<EstadoEpp, Integer> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<EstadoEpp> findByNombre(String nombre);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<EstadoEpp> findByPermiteUsoTrue();
 }
\ No newline at end of file
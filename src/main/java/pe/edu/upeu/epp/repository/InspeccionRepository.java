@@ -1,16 +1,22 @@
 package pe.edu.upeu.epp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.Inspeccion;
 import pe.edu.upeu.epp.entity.InstanciaEpp;
 import pe.edu.upeu.epp.entity.Trabajador;
+import pe.edu.upeu.epp.repository.projection.InspeccionResumen;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 // ==================== INSPECCION REPOSITORY ====================
 @Repository
@@ -29,4 +35,38 @@ public interface InspeccionRepository extends JpaRepository<Inspeccion, Integer>
 
     @Query("SELECT i FROM Inspeccion i WHERE i.instanciaEpp.instanciaEppId = :instanciaId ORDER BY i.fechaInspeccion DESC")
     List<Inspeccion> findByInstanciaEppIdOrderByFechaDesc(@Param("instanciaId") Integer instanciaId);
-}
\ No newline at end of file
+
+    /**
+     * Inspecciones del rango para exportación (cursor con fetch size, sin entidades)
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i.fechaInspeccion, i.inspeccionId, ie.codigoSerie, c.codigoIdentificacion, c.nombreEpp, " +
+            "ins.apellidos, ins.nombres, i.resultado, i.observaciones, i.accionCorrectiva, i.fechaProximaInspeccion " +
+            "FROM Inspeccion i JOIN i.instanciaEpp ie JOIN ie.epp c JOIN i.inspector ins " +
+            "WHERE i.fechaInspeccion >= :desde AND i.fechaInspeccion < :hasta ORDER BY i.fechaInspeccion, i.inspeccionId")
+    Stream<Object[]> streamParaExportacion(@Param("desde") LocalDateTime desde,
+                                           @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Página del listado de inspecciones por (fecha, id) descendente, después del cursor
+     */
+    @Query("SELECT new pe.edu.upeu.epp.repository.projection.InspeccionResumen(" +
+            "i.inspeccionId, i.fechaInspeccion, i.resultado, ie.instanciaEppId, ie.codigoSerie, c.nombreEpp, " +
+            "ins.trabajadorId, ins.apellidos, ins.nombres, i.observaciones, i.fechaProximaInspeccion) " +
+            "FROM Inspeccion i JOIN i.instanciaEpp ie JOIN ie.epp c JOIN i.inspector ins " +
+            "WHERE i.fechaInspeccion >= :desde AND i.fechaInspeccion < :hasta " +
+            "AND (i.fechaInspeccion, i.inspeccionId) < (:cursorFecha, :cursorId) " +
+            "AND (:instanciaEppId IS NULL OR ie.instanciaEppId = :instanciaEppId) " +
+            "AND (:resultado IS NULL OR i.resultado = :resultado) " +
+            "ORDER BY i.fechaInspeccion DESC, i.inspeccionId DESC")
+    List<InspeccionResumen> findPagina(@Param("desde") LocalDateTime desde,
+                                       @Param("hasta") LocalDateTime hasta,
+                                       @Param("cursorFecha") LocalDateTime cursorFecha,
+                                       @Param("cursorId") Integer cursorId,
+                                       @Param("instanciaEppId") Integer instanciaEppId,
+                                       @Param("resultado") Inspeccion.ResultadoInspeccion resultado,
+                                       Pageable pagina);
+}
@@ -1,15 +1,22 @@
 package pe.edu.upeu.epp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.Area;
 import pe.edu.upeu.epp.entity.CatalogoEpp;
 import pe.edu.upeu.epp.entity.InventarioArea;
+import pe.edu.upeu.epp.repository.projection.InventarioAreaResumen;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 // ==================== INVENTARIO AREA REPOSITORY ====================
 @Repository
@@ -29,4 +36,48 @@ public interface InventarioAreaRepository extends JpaRepository<InventarioArea,
 
     @Query("SELECT ia FROM InventarioArea ia WHERE ia.cantidadActual <= ia.cantidadMinima")
     List<InventarioArea> findAllStockCritico();
-}
\ No newline at end of file
+
+    @Query("SELECT ia.inventarioAreaId FROM InventarioArea ia WHERE ia.franjas IS NOT NULL")
+    List<Integer> findIdsConFranjas();
+
+    /**
+     * Descuento atómico; retorna 0 si el stock no alcanza
+     */
+    @Modifying
+    @Query("UPDATE InventarioArea ia SET ia.cantidadActual = ia.cantidadActual - :cantidad, " +
+            "ia.ultimaActualizacion = CURRENT_TIMESTAMP " +
+            "WHERE ia.area.areaId = :areaId AND ia.epp.eppId = :eppId " +
+            "AND ia.franjas IS NULL AND ia.cantidadActual >= :cantidad")
+    int descontar(@Param("areaId") Integer areaId,
+                  @Param("eppId") Integer eppId,
+                  @Param("cantidad") int cantidad);
+
+    /**
+     * Stock actual de las áreas para exportación
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a.nombreArea, c.codigoIdentificacion, c.nombreEpp, ia.cantidadActual, ia.cantidadMinima, " +
+            "ia.cantidadMaxima, ia.ubicacion, ia.ultimaActualizacion " +
+            "FROM InventarioArea ia JOIN ia.area a JOIN ia.epp c ORDER BY a.nombreArea, c.nombreEpp")
+    Stream<Object[]> streamParaExportacion();
+
+    /**
+     * Página del stock por área ordenada por id, después del cursor.
+     * Con soloCritico = true solo se listan los EPP en o bajo el mínimo.
+     */
+    @Query("SELECT new pe.edu.upeu.epp.repository.projection.InventarioAreaResumen(" +
+            "ia.inventarioAreaId, a.areaId, a.nombreArea, c.eppId, c.codigoIdentificacion, c.nombreEpp, " +
+            "ia.cantidadActual, ia.cantidadMinima, ia.cantidadMaxima, ia.ubicacion, ia.ultimaActualizacion) " +
+            "FROM InventarioArea ia JOIN ia.area a JOIN ia.epp c " +
+            "WHERE ia.inventarioAreaId > :cursorId " +
+            "AND (:areaId IS NULL OR a.areaId = :areaId) " +
+            "AND (:soloCritico = false OR ia.cantidadActual <= ia.cantidadMinima) " +
+            "ORDER BY ia.inventarioAreaId")
+    List<InventarioAreaResumen> findPagina(@Param("cursorId") Integer cursorId,
+                                           @Param("areaId") Integer areaId,
+                                           @Param("soloCritico") boolean soloCritico,
+                                           Pageable pagina);
+}
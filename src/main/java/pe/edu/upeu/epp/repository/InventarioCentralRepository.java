@@ -1,7 +1,11 @@
 package pe.edu.upeu.epp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.CatalogoEpp;
@@ -10,6 +14,7 @@ import pe.edu.upeu.epp.entity.InventarioCentral;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 // ==================== INVENTARIO CENTRAL REPOSITORY ====================
 @Repository
@@ -20,10 +25,42 @@ public interface InventarioCentralRepository extends JpaRepository<InventarioCen
     @Query("SELECT ic FROM InventarioCentral ic WHERE ic.epp.eppId = :eppId")
     Optional<InventarioCentral> findByEppId(@Param("eppId") Integer eppId);
 
+    @Query("SELECT ic.epp.eppId FROM InventarioCentral ic WHERE ic.inventarioCentralId = :inventarioCentralId")
+    Optional<Integer> findEppIdById(@Param("inventarioCentralId") Integer inventarioCentralId);
+
     @Query("SELECT ic FROM InventarioCentral ic WHERE ic.cantidadActual <= ic.cantidadMinima")
     List<InventarioCentral> findStockBajo();
 
     @Query("SELECT ic FROM InventarioCentral ic WHERE ic.fechaVencimiento BETWEEN :fechaInicio AND :fechaFin")
     List<InventarioCentral> findProximosAVencer(@Param("fechaInicio") LocalDate fechaInicio,
                                                 @Param("fechaFin") LocalDate fechaFin);
-}
\ No newline at end of file
+
+    /**
+     * Descuento atómico; retorna 0 si el stock del lote no alcanza
+     */
+    @Modifying
+    @Query("UPDATE InventarioCentral ic SET ic.cantidadActual = ic.cantidadActual - :cantidad, " +
+            "ic.ultimaActualizacion = CURRENT_TIMESTAMP " +
+            "WHERE ic.inventarioCentralId = :inventarioCentralId AND ic.cantidadActual >= :cantidad")
+    int descontar(@Param("inventarioCentralId") Integer inventarioCentralId,
+                  @Param("cantidad") int cantidad);
+
+    @Modifying
+    @Query("UPDATE InventarioCentral ic SET ic.cantidadActual = ic.cantidadActual + :cantidad, " +
+            "ic.ultimaActualizacion = CURRENT_TIMESTAMP " +
+            "WHERE ic.inventarioCentralId = :inventarioCentralId")
+    int incrementar(@Param("inventarioCentralId") Integer inventarioCentralId,
+                    @Param("cantidad") int cantidad);
+
+    /**
+     * Stock actual del inventario central por lote para exportación
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.codigoIdentificacion, c.nombreEpp, ic.lote, ic.cantidadActual, ic.cantidadMinima, " +
+            "ic.ubicacionBodega, ic.fechaVencimiento, ic.proveedor, ic.costoUnitario, ic.ultimaActualizacion " +
+            "FROM InventarioCentral ic JOIN ic.epp c ORDER BY c.nombreEpp, ic.fechaVencimiento")
+    Stream<Object[]> streamParaExportacion();
+}
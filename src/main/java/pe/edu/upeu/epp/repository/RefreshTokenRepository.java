@@ -0,0 +1,53 @@
+package pe.edu.upeu.epp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pe.edu.upeu.epp.entity.RefreshToken;
+import pe.edu.upeu.epp.repository.projection.RefreshTokenInfo;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// ==================== REFRESH TOKEN REPOSITORY ====================
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Query("SELECT new pe.edu.upeu.epp.repository.projection.RefreshTokenInfo(" +
+            "rt.refreshTokenId, rt.familiaId, u.usuarioId, u.nombreUsuario, u.activo, " +
+            "rt.fechaExpiracion, COALESCE(rt.fechaInicioSesion, rt.fechaCreacion), rt.usado, rt.revocado) " +
+            "FROM RefreshToken rt JOIN rt.usuario u WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshTokenInfo> findInfoByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Marca el token como usado e inserta su reemplazo en la misma familia y con el mismo
+     * inicio de sesión, en una sola sentencia. Retorna 0 si el token ya había sido usado o revocado (uso concurrente).
+     */
+    @Modifying
+    @Query(value = "WITH usado AS (" +
+            "  UPDATE epp.refresh_token SET usado = true " +
+            "  WHERE refresh_token_id = :refreshTokenId AND usado = false AND revocado = false " +
+            "  RETURNING familia_id, usuario_id, COALESCE(fecha_inicio_sesion, fecha_creacion) AS fecha_inicio_sesion) " +
+            "INSERT INTO epp.refresh_token (token_hash, familia_id, usuario_id, fecha_creacion, fecha_expiracion, " +
+            "fecha_inicio_sesion, usado, revocado) " +
+            "SELECT :nuevoHash, familia_id, usuario_id, :ahora, :expiracion, fecha_inicio_sesion, false, false FROM usado",
+            nativeQuery = true)
+    int rotar(@Param("refreshTokenId") Long refreshTokenId,
+              @Param("nuevoHash") String nuevoHash,
+              @Param("ahora") LocalDateTime ahora,
+              @Param("expiracion") LocalDateTime expiracion);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revocado = true WHERE rt.familiaId = :familiaId AND rt.revocado = false")
+    int revocarFamilia(@Param("familiaId") String familiaId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revocado = true WHERE rt.usuario.usuarioId = :usuarioId AND rt.revocado = false")
+    int revocarPorUsuario(@Param("usuarioId") Integer usuarioId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.fechaExpiracion <= :ahora")
+    int deleteExpirados(@Param("ahora") LocalDateTime ahora);
+}
@@ -0,0 +1,79 @@
+package pe.edu.upeu.epp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pe.edu.upeu.epp.entity.ReporteJob;
+import pe.edu.upeu.epp.entity.ReporteJob.Estado;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// ==================== REPORTE JOB REPOSITORY ====================
+@Repository
+public interface ReporteJobRepository extends JpaRepository<ReporteJob, Long> {
+
+    /**
+     * Job del usuario con los mismos parámetros creado después de la fecha indicada
+     */
+    Optional<ReporteJob> findFirstByUsuarioUsuarioIdAndClaveAndEstadoInAndFechaCreacionAfterOrderByFechaCreacionDesc(
+            Integer usuarioId, String clave, Collection<Estado> estados, LocalDateTime desde);
+
+    Optional<ReporteJob> findByReporteJobIdAndUsuarioNombreUsuario(Long reporteJobId, String nombreUsuario);
+
+    long countByUsuarioUsuarioIdAndEstadoIn(Integer usuarioId, Collection<Estado> estados);
+
+    List<ReporteJob> findTop50ByUsuarioNombreUsuarioOrderByFechaCreacionDesc(String nombreUsuario);
+
+    List<ReporteJob> findByEstadoAndFechaExpiracionLessThanEqual(Estado estado, LocalDateTime ahora);
+
+    /**
+     * Pasa el job de PENDIENTE a EN_PROCESO; retorna 0 si ya no estaba pendiente
+     */
+    @Modifying
+    @Query("UPDATE ReporteJob j SET j.estado = :enProceso, j.fechaInicio = :ahora " +
+            "WHERE j.reporteJobId = :id AND j.estado = :pendiente")
+    int iniciar(@Param("id") Long id,
+                @Param("pendiente") Estado pendiente,
+                @Param("enProceso") Estado enProceso,
+                @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("UPDATE ReporteJob j SET j.filasProcesadas = :filas WHERE j.reporteJobId = :id")
+    int actualizarProgreso(@Param("id") Long id, @Param("filas") long filas);
+
+    @Modifying
+    @Query("UPDATE ReporteJob j SET j.estado = :estado, j.filasProcesadas = :filas, j.archivo = :archivo, " +
+            "j.tamanoBytes = :tamano, j.fechaFin = :ahora, j.fechaExpiracion = :expiracion " +
+            "WHERE j.reporteJobId = :id")
+    int completar(@Param("id") Long id,
+                  @Param("estado") Estado estado,
+                  @Param("filas") long filas,
+                  @Param("archivo") String archivo,
+                  @Param("tamano") long tamano,
+                  @Param("ahora") LocalDateTime ahora,
+                  @Param("expiracion") LocalDateTime expiracion);
+
+    @Modifying
+    @Query("UPDATE ReporteJob j SET j.estado = :estado, j.mensajeError = :mensaje, j.fechaFin = :ahora " +
+            "WHERE j.reporteJobId = :id")
+    int fallar(@Param("id") Long id,
+               @Param("estado") Estado estado,
+               @Param("mensaje") String mensaje,
+               @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Marca como fallidos los jobs que quedaron sin terminar (reinicio del servidor)
+     */
+    @Modifying
+    @Query("UPDATE ReporteJob j SET j.estado = :estado, j.mensajeError = :mensaje, j.fechaFin = :ahora " +
+            "WHERE j.estado IN :activos")
+    int interrumpir(@Param("activos") Collection<Estado> activos,
+                    @Param("estado") Estado estado,
+                    @Param("mensaje") String mensaje,
+                    @Param("ahora") LocalDateTime ahora);
+}
@@ -1,7 +1,10 @@
 package pe.edu.upeu.epp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.*;
@@ -13,6 +16,7 @@ import java.util.Optional;
 // ==================== ROL REPOSITORY ====================
 @Repository
 public interface RolRepository extends JpaRepository<Rol, Integer> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Rol> findByNombreRol(String nombreRol);
     boolean existsByNombreRol(String nombreRol);
 }
\ No newline at end of file
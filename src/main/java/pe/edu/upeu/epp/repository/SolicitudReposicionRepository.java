@@ -1,14 +1,19 @@
 package pe.edu.upeu.epp.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.Area;
 import pe.edu.upeu.epp.entity.SolicitudReposicion;
 import pe.edu.upeu.epp.entity.Trabajador;
+import pe.edu.upeu.epp.repository.projection.SolicitudReposicionResumen;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +25,13 @@ public interface SolicitudReposicionRepository extends JpaRepository<SolicitudRe
     List<SolicitudReposicion> findByArea(Area area);
     List<SolicitudReposicion> findBySolicitante(Trabajador solicitante);
 
+    /**
+     * Solicitud bloqueada para cambiar su estado (evita aprobarla dos veces)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT sr FROM SolicitudReposicion sr WHERE sr.solicitudId = :solicitudId")
+    Optional<SolicitudReposicion> findByIdParaActualizar(@Param("solicitudId") Integer solicitudId);
+
     @Query("SELECT sr FROM SolicitudReposicion sr WHERE sr.area.areaId = :areaId AND sr.estadoSolicitud = :estado ORDER BY sr.prioridad DESC, sr.fechaSolicitud ASC")
     List<SolicitudReposicion> findByAreaIdAndEstado(@Param("areaId") Integer areaId,
                                                     @Param("estado") SolicitudReposicion.EstadoSolicitud estado);
@@ -33,4 +45,21 @@ public interface SolicitudReposicionRepository extends JpaRepository<SolicitudRe
     @Query("SELECT sr FROM SolicitudReposicion sr WHERE sr.area.areaId IN :areaIds AND sr.estadoSolicitud IN :estados")
     List<SolicitudReposicion> findByAreasAndEstados(@Param("areaIds") List<Integer> areaIds,
                                                     @Param("estados") List<SolicitudReposicion.EstadoSolicitud> estados);
-}
\ No newline at end of file
+
+    /**
+     * Página del listado de solicitudes por (fecha, id) descendente, después del cursor
+     */
+    @Query("SELECT new pe.edu.upeu.epp.repository.projection.SolicitudReposicionResumen(" +
+            "s.solicitudId, s.fechaSolicitud, s.estadoSolicitud, s.prioridad, c.eppId, c.nombreEpp, " +
+            "a.areaId, a.nombreArea, sol.apellidos, sol.nombres, s.cantidadSolicitada, s.cantidadAprobada) " +
+            "FROM SolicitudReposicion s JOIN s.epp c JOIN s.area a JOIN s.solicitante sol " +
+            "WHERE (s.fechaSolicitud, s.solicitudId) < (:cursorFecha, :cursorId) " +
+            "AND (:estado IS NULL OR s.estadoSolicitud = :estado) " +
+            "AND (:areaId IS NULL OR a.areaId = :areaId) " +
+            "ORDER BY s.fechaSolicitud DESC, s.solicitudId DESC")
+    List<SolicitudReposicionResumen> findPagina(@Param("cursorFecha") LocalDateTime cursorFecha,
+                                                @Param("cursorId") Integer cursorId,
+                                                @Param("estado") SolicitudReposicion.EstadoSolicitud estado,
+                                                @Param("areaId") Integer areaId,
+                                                Pageable pagina);
+}
@@ -0,0 +1,25 @@
+package pe.edu.upeu.epp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import pe.edu.upeu.epp.entity.TokenRevocado;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// ==================== TOKEN REVOCADO REPOSITORY ====================
+@Repository
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, String> {
+    List<TokenRevocado> findByFechaExpiracionAfter(LocalDateTime fecha);
+
+    @Query("SELECT t FROM TokenRevocado t WHERE t.fechaRevocacion > :desde AND t.fechaExpiracion > :ahora")
+    List<TokenRevocado> findRevocadosDesde(@Param("desde") LocalDateTime desde,
+                                           @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("DELETE FROM TokenRevocado t WHERE t.fechaExpiracion <= :ahora")
+    int deleteExpirados(@Param("ahora") LocalDateTime ahora);
+}
@@ -1,14 +1,20 @@
 package pe.edu.upeu.epp.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.Area;
 import pe.edu.upeu.epp.entity.Trabajador;
+import pe.edu.upeu.epp.repository.projection.TrabajadorIndice;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 // ==================== TRABAJADOR REPOSITORY ====================
 @Repository
@@ -20,9 +26,25 @@ public interface TrabajadorRepository extends JpaRepository<Trabajador, Integer>
     @Query("SELECT t FROM Trabajador t WHERE t.area.areaId = :areaId AND t.estado = 'ACTIVO'")
     List<Trabajador> findTrabajadoresActivosPorArea(@Param("areaId") Integer areaId);
 
-    @Query("SELECT t FROM Trabajador t WHERE LOWER(t.nombres || ' ' || t.apellidos) LIKE LOWER(CONCAT('%', :nombre, '%'))")
+    /**
+     * Sin distinguir mayúsculas ni tildes; usa el índice de trigramas (ver V2__busqueda_trigram.sql)
+     */
+    @Query(value = "SELECT * FROM epp.trabajador t WHERE epp.normalizar(t.nombres || ' ' || t.apellidos) " +
+            "LIKE '%' || epp.normalizar(:nombre) || '%'", nativeQuery = true)
     List<Trabajador> buscarPorNombre(@Param("nombre") String nombre);
 
     boolean existsByDni(String dni);
     boolean existsByCodigoQrPhotocheck(String codigoQr);
-}
\ No newline at end of file
+    long countByTrabajadorIdIn(Collection<Integer> trabajadorIds);
+
+    /**
+     * Todos los trabajadores con los datos del índice de escaneo
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new pe.edu.upeu.epp.repository.projection.TrabajadorIndice(" +
+            "t.trabajadorId, t.codigoQrPhotocheck, t.dni, t.area.areaId, t.estado) FROM Trabajador t")
+    Stream<TrabajadorIndice> streamParaIndice();
+}
@@ -1,12 +1,14 @@
 package pe.edu.upeu.epp.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pe.edu.upeu.epp.entity.Trabajador;
 import pe.edu.upeu.epp.entity.Usuario;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +25,49 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
             "AND u.activo = true")
     Optional<Usuario> findByNombreUsuarioWithRoles(@Param("nombreUsuario") String nombreUsuario);
 
+    @Query("SELECT u FROM Usuario u " +
+            "LEFT JOIN FETCH u.roles " +
+            "LEFT JOIN FETCH u.trabajador t " +
+            "LEFT JOIN FETCH t.area " +
+            "WHERE u.usuarioId = :usuarioId")
+    Optional<Usuario> findByIdWithRolesAndTrabajador(@Param("usuarioId") Integer usuarioId);
+
+    @Query("SELECT COALESCE(u.versionToken, 0) FROM Usuario u " +
+            "WHERE u.nombreUsuario = :nombreUsuario " +
+            "AND u.activo = true " +
+            "AND (u.bloqueadoHasta IS NULL OR u.bloqueadoHasta <= :ahora)")
+    Optional<Integer> findVersionTokenVigente(@Param("nombreUsuario") String nombreUsuario,
+                                              @Param("ahora") LocalDateTime ahora);
+
+    @Query("SELECT u.usuarioId FROM Usuario u WHERE u.nombreUsuario = :nombreUsuario")
+    Optional<Integer> findIdByNombreUsuario(@Param("nombreUsuario") String nombreUsuario);
+
+    @Query("SELECT u.trabajador.trabajadorId FROM Usuario u WHERE u.nombreUsuario = :nombreUsuario")
+    Optional<Integer> findTrabajadorIdByNombreUsuario(@Param("nombreUsuario") String nombreUsuario);
+
+    /**
+     * Incrementa de forma atómica los intentos fallidos y bloquea al alcanzar el máximo.
+     * Retorna el nuevo número de intentos.
+     */
+    @Query(value = "UPDATE epp.usuario SET " +
+            "intentos_fallidos = COALESCE(intentos_fallidos, 0) + 1, " +
+            "bloqueado_hasta = CASE WHEN COALESCE(intentos_fallidos, 0) + 1 >= :maxIntentos " +
+            "THEN :bloqueadoHasta ELSE bloqueado_hasta END " +
+            "WHERE usuario_id = :usuarioId " +
+            "RETURNING intentos_fallidos", nativeQuery = true)
+    Integer registrarIntentoFallido(@Param("usuarioId") Integer usuarioId,
+                                    @Param("maxIntentos") int maxIntentos,
+                                    @Param("bloqueadoHasta") LocalDateTime bloqueadoHasta);
+
+    /**
+     * Reinicia intentos fallidos y bloqueo; no escribe si ya estaban limpios
+     */
+    @Modifying
+    @Query("UPDATE Usuario u SET u.intentosFallidos = 0, u.bloqueadoHasta = NULL " +
+            "WHERE u.usuarioId = :usuarioId " +
+            "AND (COALESCE(u.intentosFallidos, 0) <> 0 OR u.bloqueadoHasta IS NOT NULL)")
+    int reiniciarIntentosFallidos(@Param("usuarioId") Integer usuarioId);
+
     @Query("SELECT u FROM Usuario u JOIN u.roles r WHERE r.nombreRol = :nombreRol AND u.activo = true")
     List<Usuario> findByRoles_NombreRol(@Param("nombreRol") String nombreRol);
 
@@ -0,0 +1,19 @@
+package pe.edu.upeu.epp.repository.projection;
+
+import pe.edu.upeu.epp.entity.Auditoria;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de auditoría (sin los datos anteriores/nuevos ni el user agent)
+ */
+public record AuditoriaResumen(
+        Integer auditoriaId,
+        LocalDateTime fechaOperacion,
+        String tablaAfectada,
+        Auditoria.TipoOperacion operacion,
+        Integer registroId,
+        String nombreUsuario,
+        String ipOrigen
+) {
+}
@@ -0,0 +1,9 @@
+package pe.edu.upeu.epp.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clave de una entrega en el orden (fecha, id) de los listados
+ */
+public record EntregaClave(Integer entregaId, LocalDateTime fechaEntrega) {
+}
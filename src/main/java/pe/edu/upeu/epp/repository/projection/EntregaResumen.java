@@ -0,0 +1,24 @@
+package pe.edu.upeu.epp.repository.projection;
+
+import pe.edu.upeu.epp.entity.EntregaEpp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de entregas (sin detalles ni firma)
+ */
+public record EntregaResumen(
+        Integer entregaId,
+        LocalDateTime fechaEntrega,
+        EntregaEpp.TipoEntrega tipoEntrega,
+        String status,
+        Integer trabajadorId,
+        String dni,
+        String trabajadorApellidos,
+        String trabajadorNombres,
+        Integer areaId,
+        String nombreArea,
+        String jefeAreaApellidos,
+        String jefeAreaNombres
+) {
+}
@@ -0,0 +1,24 @@
+package pe.edu.upeu.epp.repository.projection;
+
+import pe.edu.upeu.epp.entity.Inspeccion;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de inspecciones (sin foto)
+ */
+public record InspeccionResumen(
+        Integer inspeccionId,
+        LocalDateTime fechaInspeccion,
+        Inspeccion.ResultadoInspeccion resultado,
+        Integer instanciaEppId,
+        String codigoSerie,
+        String nombreEpp,
+        Integer inspectorId,
+        String inspectorApellidos,
+        String inspectorNombres,
+        String observaciones,
+        LocalDate fechaProximaInspeccion
+) {
+}
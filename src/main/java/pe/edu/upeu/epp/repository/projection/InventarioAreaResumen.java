@@ -0,0 +1,21 @@
+package pe.edu.upeu.epp.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de stock por área
+ */
+public record InventarioAreaResumen(
+        Integer inventarioAreaId,
+        Integer areaId,
+        String nombreArea,
+        Integer eppId,
+        String codigoIdentificacion,
+        String nombreEpp,
+        Integer cantidadActual,
+        Integer cantidadMinima,
+        Integer cantidadMaxima,
+        String ubicacion,
+        LocalDateTime ultimaActualizacion
+) {
+}
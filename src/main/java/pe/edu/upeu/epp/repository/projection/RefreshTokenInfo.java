@@ -0,0 +1,19 @@
+package pe.edu.upeu.epp.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Datos necesarios para validar un refresh token, sin cargar el Usuario ni sus roles
+ */
+public record RefreshTokenInfo(
+        Long refreshTokenId,
+        String familiaId,
+        Integer usuarioId,
+        String nombreUsuario,
+        Boolean usuarioActivo,
+        LocalDateTime fechaExpiracion,
+        LocalDateTime fechaInicioSesion,
+        Boolean usado,
+        Boolean revocado
+) {
+}
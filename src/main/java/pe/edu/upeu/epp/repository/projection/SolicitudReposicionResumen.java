@@ -0,0 +1,24 @@
+package pe.edu.upeu.epp.repository.projection;
+
+import pe.edu.upeu.epp.entity.SolicitudReposicion;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de solicitudes de reposición (sin justificación ni comentarios)
+ */
+public record SolicitudReposicionResumen(
+        Integer solicitudId,
+        LocalDateTime fechaSolicitud,
+        SolicitudReposicion.EstadoSolicitud estadoSolicitud,
+        SolicitudReposicion.Prioridad prioridad,
+        Integer eppId,
+        String nombreEpp,
+        Integer areaId,
+        String nombreArea,
+        String solicitanteApellidos,
+        String solicitanteNombres,
+        Integer cantidadSolicitada,
+        Integer cantidadAprobada
+) {
+}
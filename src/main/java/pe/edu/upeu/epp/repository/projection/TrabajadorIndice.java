@@ -0,0 +1,10 @@
+package pe.edu.upeu.epp.repository.projection;
+
+import pe.edu.upeu.epp.entity.Trabajador;
+
+/**
+ * Datos de un trabajador que guarda el índice de escaneo de photochecks
+ */
+public record TrabajadorIndice(Integer trabajadorId, String codigoQrPhotocheck, String dni,
+                               Integer areaId, Trabajador.EstadoTrabajador estado) {
+}
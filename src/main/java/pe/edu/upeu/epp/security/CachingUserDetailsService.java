@@ -0,0 +1,62 @@
+package pe.edu.upeu.epp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pe.edu.upeu.epp.event.UsuarioModificadoEvent;
+
+import java.time.Duration;
+
+/**
+ * Decorador con cache de UserDetailsServiceImpl para las peticiones autenticadas con JWT.
+ * Las entradas se descartan al modificarse el usuario (login, bloqueo, logout,
+ * cambios por JPA) y como máximo tras auth.user-cache.ttl.
+ *
+ * No se usa en el login: el AuthenticationProvider borra la contraseña del
+ * principal autenticado, por eso trabaja directamente con UserDetailsServiceImpl.
+ */
+@Service
+@Primary
+@Slf4j
+public class CachingUserDetailsService implements UserDetailsService {
+
+    private final UserDetailsServiceImpl delegate;
+    private final Cache<String, UserDetails> usuarios;
+
+    public CachingUserDetailsService(UserDetailsServiceImpl delegate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${auth.user-cache.enabled:true}") boolean enabled,
+                                     @Value("${auth.user-cache.max-size:5000}") long maxSize,
+                                     @Value("${auth.user-cache.ttl:5m}") Duration ttl) {
+        this.delegate = delegate;
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(enabled ? maxSize : 0)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuarios, "usuarios");
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return usuarios.get(username, delegate::loadUserByUsername);
+    }
+
+    /**
+     * Descartar la entrada del usuario una vez confirmada la transacción que lo modificó
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioModificado(UsuarioModificadoEvent event) {
+        log.debug("Invalidando cache de usuario: {}", event.nombreUsuario());
+        usuarios.invalidate(event.nombreUsuario());
+    }
+}
@@ -5,9 +5,11 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,6 +21,8 @@ import java.io.IOException;
  Filtro de autenticación JWT que intercepta todas las peticiones HTTP.
  Extrae y valida el token JWT del header Authorization.
  Si el token es válido, establece el contexto de seguridad.
+ Con jwt.stateless.enabled construye la autenticación a partir de los claims
+ del token y solo verifica la versión de token del usuario.
  */
 @Component
 @RequiredArgsConstructor
@@ -26,6 +30,12 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -44,17 +54,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extraer el token JWT (quitar el prefijo "Bearer ")
             final String jwt = authHeader.substring(7);
 
-            // Extraer el username del token
-            final String username = jwtService.extractUsername(jwt);
+            // Verificar la firma una sola vez y extraer el username del token
+            final JwtClaims claims = jwtService.parseToken(jwt);
+            final String username = claims.subject();
 
-            // Si el username existe y no hay autenticación previa en el contexto
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Si el username existe, el token no fue revocado y no hay autenticación previa en el contexto
+            if (username != null
+                    && !tokenRevocationService.isRevocado(claims.id())
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                // Cargar detalles del usuario desde la BD
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                // Construir el usuario desde el token (modo stateless) o cargarlo desde la BD
+                UserDetails userDetails = statelessEnabled && claims.hasSecurityClaims()
+                        ? buildStatelessUser(claims)
+                        : this.userDetailsService.loadUserByUsername(username);
 
                 // Validar el token
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null && jwtService.isTokenValid(claims, userDetails)) {
 
                     // Crear el objeto de autenticación
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -83,4 +98,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Continuar con la cadena de filtros
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Construye el usuario a partir de los claims del token.
+     * Retorna null si la cuenta estaba bloqueada o si la versión de token ya no es la vigente
+     * (usuario desactivado, bloqueado o con roles modificados).
+     */
+    private UserDetails buildStatelessUser(JwtClaims claims) {
+        if (claims.locked() || !tokenVersionService.isVigente(claims.subject(), claims.version())) {
+            log.debug("Token con versión no vigente para usuario: {}", claims.subject());
+            return null;
+        }
+        return User.withUsername(claims.subject())
+                .password("")
+                .authorities(claims.roles().toArray(String[]::new))
+                .build();
+    }
 }
\ No newline at end of file
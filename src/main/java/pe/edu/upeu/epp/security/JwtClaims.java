@@ -0,0 +1,89 @@
+package pe.edu.upeu.epp.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claims verificados de un token JWT.
+ * Es inmutable para poder compartirse entre peticiones desde la cache de JwtService.
+ */
+public record JwtClaims(
+        String subject,
+        Instant issuedAt,
+        Instant expiration,
+        Map<String, Object> claims
+) {
+
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_VERSION = "ver";
+    public static final String CLAIM_LOCKED = "locked";
+
+    /**
+     * Construir a partir del cuerpo ya verificado por el parser de jjwt
+     */
+    static JwtClaims from(Claims body) {
+        return new JwtClaims(
+                body.getSubject(),
+                body.getIssuedAt() != null ? body.getIssuedAt().toInstant() : null,
+                body.getExpiration() != null ? body.getExpiration().toInstant() : null,
+                Collections.unmodifiableMap(new HashMap<>(body))
+        );
+    }
+
+    /**
+     * Verificar si el token ha expirado en el instante indicado
+     */
+    public boolean isExpired(Instant now) {
+        return expiration != null && !expiration.isAfter(now);
+    }
+
+    /**
+     * Obtener un claim adicional con el tipo indicado
+     */
+    public <T> T get(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    /**
+     * Identificador único del token (jti)
+     */
+    public String id() {
+        return get(Claims.ID, String.class);
+    }
+
+    /**
+     * Authorities embebidas por JwtService al emitir el token
+     */
+    public List<String> roles() {
+        List<?> roles = get(CLAIM_ROLES, List.class);
+        return roles == null ? List.of() : roles.stream().map(String::valueOf).toList();
+    }
+
+    /**
+     * Versión de token del usuario al momento de la emisión
+     */
+    public Integer version() {
+        Number version = get(CLAIM_VERSION, Number.class);
+        return version != null ? version.intValue() : null;
+    }
+
+    /**
+     * Estado de bloqueo de la cuenta al momento de la emisión
+     */
+    public boolean locked() {
+        return Boolean.TRUE.equals(get(CLAIM_LOCKED, Boolean.class));
+    }
+
+    /**
+     * Indica si el token trae los claims necesarios para autenticar sin consultar la BD
+     */
+    public boolean hasSecurityClaims() {
+        return claims.containsKey(CLAIM_ROLES) && claims.containsKey(CLAIM_VERSION);
+    }
+}
@@ -1,18 +1,31 @@
 package pe.edu.upeu.epp.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -27,29 +40,89 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    @Value("${jwt.refresh-expiration}")
-    private long refreshExpiration;
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    private Key signInKey;
+
+    private JwtParser jwtParser;
+
+    /**
+     * Tokens ya verificados, indexados por el SHA-256 del token.
+     * Cada entrada vive hasta la expiración del propio token.
+     */
+    private Cache<String, JwtClaims> claimsCache;
+
+    /**
+     * Construir la clave de firma, el parser y la cache una sola vez
+     */
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, JwtClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtClaims value, long currentTime) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtClaims value, long currentTime, long currentDuration) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtClaims value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verificar la firma del token y obtener sus claims.
+     * La verificación HMAC se hace una sola vez por token mientras siga en cache.
+     */
+    public JwtClaims parseToken(String token) {
+        return claimsCache.get(digest(token),
+                key -> JwtClaims.from(jwtParser.parseClaimsJws(token).getBody()));
+    }
 
     /**
      * Extraer el username (subject) del token
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).subject();
     }
 
     /**
      * Extraer un claim específico del token
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = Jwts.claims(parseToken(token).claims());
         return claimsResolver.apply(claims);
     }
 
     /**
-     * Generar token con claims adicionales
+     * Generar token con claims adicionales.
+     * Incluye las authorities, la versión de token y el estado de bloqueo
+     * para que el filtro pueda autenticar sin cargar el usuario (modo stateless).
      */
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        claims.put(JwtClaims.CLAIM_ROLES, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        claims.put(JwtClaims.CLAIM_LOCKED, !userDetails.isAccountNonLocked());
+        if (userDetails instanceof UsuarioPrincipal principal) {
+            claims.put(JwtClaims.CLAIM_VERSION, principal.getVersionToken());
+        }
+        return buildToken(claims, userDetails, jwtExpiration);
     }
 
     /**
@@ -60,14 +133,8 @@ public class JwtService {
     }
 
     /**
-     * Generar refresh token
-     */
-    public String generateRefreshToken(UserDetails userDetails) {
-        return buildToken(new HashMap<>(), userDetails, refreshExpiration);
-    }
-
-    /**
-     * Construir el token JWT
+     * Construir el token JWT.
+     * Cada token lleva un jti propio para poder revocarlo individualmente.
      */
     private String buildToken(
             Map<String, Object> extraClaims,
@@ -77,10 +144,11 @@ public class JwtService {
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -88,41 +156,43 @@ public class JwtService {
      * Validar si el token es válido
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseToken(token), userDetails);
     }
 
     /**
-     * Verificar si el token ha expirado
+     * Validar claims ya verificados contra el usuario cargado.
+     * Si el usuario trae versión de token, el token debe haberse emitido con la misma.
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(JwtClaims claims, UserDetails userDetails) {
+        if (userDetails instanceof UsuarioPrincipal principal
+                && claims.version() != null
+                && claims.version() != principal.getVersionToken()) {
+            return false;
+        }
+        return claims.subject() != null
+                && claims.subject().equals(userDetails.getUsername())
+                && !claims.isExpired(Instant.now());
     }
 
     /**
-     * Extraer fecha de expiración del token
+     * Tiempo de vida restante de una entrada de la cache
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private long remainingNanos(JwtClaims claims) {
+        Instant expiration = claims.expiration() != null
+                ? claims.expiration()
+                : Instant.now().plusMillis(jwtExpiration);
+        return Math.max(0L, Duration.between(Instant.now(), expiration).toNanos());
     }
 
     /**
-     * Extraer todos los claims del token
+     * Resumen SHA-256 del token, para no guardar el token completo como clave
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * Obtener la clave de firma
-     */
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
-}
\ No newline at end of file
+}
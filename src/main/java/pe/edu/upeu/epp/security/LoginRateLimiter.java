@@ -0,0 +1,76 @@
+package pe.edu.upeu.epp.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import pe.edu.upeu.epp.exception.LimiteTasaExcedidoException;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Límite de intentos de login por nombre de usuario y por IP del cliente.
+ * Se evalúa antes de consultar la BD y de calcular el hash de la contraseña.
+ * Primero se consulta el token bucket local del nodo; solo si lo supera se
+ * consulta el backend compartido (si está configurado), de modo que el
+ * tráfico abusivo se descarta sin E/S.
+ */
+@Service
+@Slf4j
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final int limiteUsuario;
+    private final Duration ventanaUsuario;
+    private final int limiteIp;
+    private final Duration ventanaIp;
+    private final RateLimitBackend local;
+    private final RateLimitBackend compartido;
+
+    public LoginRateLimiter(ObjectProvider<RateLimitBackend> backendCompartido,
+                            @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${auth.rate-limit.usuario.limite:10}") int limiteUsuario,
+                            @Value("${auth.rate-limit.usuario.ventana:5m}") Duration ventanaUsuario,
+                            @Value("${auth.rate-limit.ip.limite:100}") int limiteIp,
+                            @Value("${auth.rate-limit.ip.ventana:1m}") Duration ventanaIp,
+                            @Value("${auth.rate-limit.max-claves:100000}") long maxClaves) {
+        this.enabled = enabled;
+        this.limiteUsuario = limiteUsuario;
+        this.ventanaUsuario = ventanaUsuario;
+        this.limiteIp = limiteIp;
+        this.ventanaIp = ventanaIp;
+        Duration inactividad = ventanaUsuario.compareTo(ventanaIp) > 0 ? ventanaUsuario : ventanaIp;
+        this.local = new TokenBucketRateLimitBackend(maxClaves, inactividad);
+        this.compartido = backendCompartido.getIfAvailable();
+    }
+
+    /**
+     * Verificar que el intento de login está dentro de los límites
+     *
+     * @throws LimiteTasaExcedidoException si se excede el límite del usuario o de la IP
+     */
+    public void verificar(String nombreUsuario, String ipCliente) {
+        if (!enabled) {
+            return;
+        }
+        if (ipCliente != null) {
+            verificarClave("ip:" + ipCliente, limiteIp, ventanaIp);
+        }
+        if (nombreUsuario != null) {
+            verificarClave("usuario:" + nombreUsuario.toLowerCase(Locale.ROOT), limiteUsuario, ventanaUsuario);
+        }
+    }
+
+    private void verificarClave(String clave, int limite, Duration ventana) {
+        long espera = local.registrarIntento(clave, limite, ventana);
+        if (espera == 0 && compartido != null) {
+            espera = compartido.registrarIntento(clave, limite, ventana);
+        }
+        if (espera > 0) {
+            log.warn("Límite de intentos de login excedido para {}", clave);
+            throw new LimiteTasaExcedidoException(
+                    "Demasiados intentos de inicio de sesión. Intente nuevamente más tarde.", espera);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package pe.edu.upeu.epp.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import pe.edu.upeu.epp.exception.ServicioSaturadoException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * PasswordEncoder que ejecuta el hashing (BCrypt) en un pool dedicado y acotado.
+ * Limita la CPU que pueden consumir los logins simultáneos: cuando el pool y su
+ * cola están llenos el login se rechaza de inmediato con 503 y Retry-After,
+ * en lugar de acaparar los hilos de Tomcat que atienden entregas e inventario.
+ */
+@Slf4j
+public class OffloadedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final long retryAfterSeconds;
+    private final Timer latencia;
+    private final Timer espera;
+    private final Counter rechazos;
+
+    public OffloadedPasswordEncoder(PasswordEncoder delegate,
+                                    int poolSize,
+                                    int queueCapacity,
+                                    Duration maxWait,
+                                    long retryAfterSeconds,
+                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWait = maxWait;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.latencia = Timer.builder("seguridad.hash.latencia")
+                .description("Tiempo de cómputo del hash de contraseña")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.espera = Timer.builder("seguridad.hash.espera")
+                .description("Tiempo en cola antes de calcular el hash")
+                .register(meterRegistry);
+        this.rechazos = Counter.builder("seguridad.hash.rechazos")
+                .description("Operaciones de hash rechazadas por saturación")
+                .register(meterRegistry);
+        Gauge.builder("seguridad.hash.cola", executor, e -> e.getQueue().size())
+                .description("Operaciones de hash en cola")
+                .register(meterRegistry);
+        Gauge.builder("seguridad.hash.activos", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hilos calculando hashes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T ejecutar(Callable<T> tarea) {
+        long encolado = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                espera.record(System.nanoTime() - encolado, TimeUnit.NANOSECONDS);
+                return latencia.recordCallable(tarea);
+            });
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new ServicioSaturadoException(
+                    "Demasiados inicios de sesión simultáneos. Intente nuevamente en unos segundos.",
+                    retryAfterSeconds);
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rechazos.increment();
+            throw new ServicioSaturadoException(
+                    "Tiempo de espera agotado al verificar credenciales. Intente nuevamente.",
+                    retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido mientras se calculaba el hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Error al calcular el hash", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package pe.edu.upeu.epp.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Límite compartido entre nodos en la tabla rate_limit_ventana.
+ * Ventana deslizante aproximada: contador de la ventana actual más la fracción
+ * aún vigente de la anterior. Una sola sentencia por intento (upsert atómico).
+ */
+@Component
+@ConditionalOnProperty(name = "auth.rate-limit.shared-backend", havingValue = "postgres")
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresRateLimitBackend implements RateLimitBackend {
+
+    private static final String SQL_REGISTRAR =
+            "WITH actual AS (" +
+            "  INSERT INTO epp.rate_limit_ventana (clave, ventana, contador, fecha_expiracion) " +
+            "  VALUES (?, ?, 1, ?) " +
+            "  ON CONFLICT (clave, ventana) DO UPDATE SET contador = epp.rate_limit_ventana.contador + 1 " +
+            "  RETURNING contador) " +
+            "SELECT actual.contador, COALESCE((SELECT r.contador FROM epp.rate_limit_ventana r " +
+            "  WHERE r.clave = ? AND r.ventana = ?), 0) AS anterior " +
+            "FROM actual";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long registrarIntento(String clave, int limite, Duration ventana) {
+        long ahoraMs = System.currentTimeMillis();
+        long duracionMs = ventana.toMillis();
+        long numeroVentana = ahoraMs / duracionMs;
+        long transcurridoMs = ahoraMs % duracionMs;
+        // La fila deja de servir cuando termina la ventana siguiente
+        Timestamp expiracion = new Timestamp((numeroVentana + 2) * duracionMs);
+
+        long[] contadores = jdbcTemplate.queryForObject(SQL_REGISTRAR,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                clave, numeroVentana, expiracion, clave, numeroVentana - 1);
+
+        double estimado = contadores[1] * (1 - (double) transcurridoMs / duracionMs) + contadores[0];
+        if (estimado <= limite) {
+            return 0;
+        }
+        return Math.max(1, (duracionMs - transcurridoMs) / 1000);
+    }
+
+    /**
+     * Eliminar los contadores de ventanas vencidas
+     */
+    @Scheduled(fixedDelayString = "${auth.rate-limit.purge-interval:600000}")
+    public void purgarVencidos() {
+        int eliminados = jdbcTemplate.update(
+                "DELETE FROM epp.rate_limit_ventana WHERE fecha_expiracion < ?",
+                Timestamp.valueOf(LocalDateTime.now()));
+        log.debug("Purga de contadores de login: {} eliminados", eliminados);
+    }
+}
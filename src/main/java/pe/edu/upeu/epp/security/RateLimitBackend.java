@@ -0,0 +1,15 @@
+package pe.edu.upeu.epp.security;
+
+import java.time.Duration;
+
+/**
+ * Almacén de contadores para el límite de intentos de login.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Registrar un intento para la clave.
+     * Retorna 0 si está dentro del límite, o los segundos que el cliente debe esperar.
+     */
+    long registrarIntento(String clave, int limite, Duration ventana);
+}
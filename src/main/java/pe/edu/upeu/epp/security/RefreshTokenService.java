@@ -0,0 +1,146 @@
+package pe.edu.upeu.epp.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.entity.RefreshToken;
+import pe.edu.upeu.epp.entity.Usuario;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.repository.RefreshTokenRepository;
+import pe.edu.upeu.epp.repository.projection.RefreshTokenInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opacos con rotación.
+ * Cada uso entrega un token nuevo de la misma familia; si un token ya usado
+ * vuelve a presentarse se asume robo y se revoca la familia completa.
+ * La rotación no extiende la sesión más allá de jwt.refresh-max-session desde el login.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    @Value("${jwt.refresh-max-session}")
+    private long maxSesion;
+
+    /**
+     * Resultado de una rotación: token nuevo y usuario dueño
+     */
+    public record Rotacion(String refreshToken, Integer usuarioId, String nombreUsuario) {
+    }
+
+    /**
+     * Emitir el primer refresh token de una familia (login)
+     */
+    @Transactional
+    public String emitir(Usuario usuario) {
+        String token = generarToken();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .familiaId(UUID.randomUUID().toString())
+                .usuario(usuario)
+                .fechaExpiracion(LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration)))
+                .usado(false)
+                .revocado(false)
+                .build());
+        return token;
+    }
+
+    /**
+     * Validar el refresh token y reemplazarlo por uno nuevo.
+     * Una lectura indexada por hash y una única sentencia de escritura.
+     */
+    @Transactional(noRollbackFor = BusinessException.class)
+    public Rotacion rotar(String token) {
+        RefreshTokenInfo info = refreshTokenRepository.findInfoByTokenHash(hash(token))
+                .orElseThrow(() -> new BusinessException("Refresh token inválido o expirado"));
+
+        if (Boolean.TRUE.equals(info.revocado())) {
+            throw new BusinessException("Refresh token inválido o expirado");
+        }
+        if (Boolean.TRUE.equals(info.usado())) {
+            revocarFamiliaPorReuso(info);
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        if (!info.fechaExpiracion().isAfter(ahora)) {
+            throw new BusinessException("Refresh token inválido o expirado");
+        }
+        LocalDateTime finSesion = info.fechaInicioSesion().plus(Duration.ofMillis(maxSesion));
+        if (!finSesion.isAfter(ahora)) {
+            throw new BusinessException("Sesión expirada. Inicie sesión nuevamente.");
+        }
+        if (!Boolean.TRUE.equals(info.usuarioActivo())) {
+            throw new BusinessException("Usuario inactivo");
+        }
+
+        String nuevoToken = generarToken();
+        LocalDateTime expiracion = ahora.plus(Duration.ofMillis(refreshExpiration));
+        int rotados = refreshTokenRepository.rotar(info.refreshTokenId(), hash(nuevoToken), ahora,
+                expiracion.isAfter(finSesion) ? finSesion : expiracion);
+        if (rotados == 0) {
+            // Otro request usó el mismo token entre la lectura y la escritura
+            revocarFamiliaPorReuso(info);
+        }
+        return new Rotacion(nuevoToken, info.usuarioId(), info.nombreUsuario());
+    }
+
+    /**
+     * Revocar todos los refresh tokens del usuario (logout)
+     */
+    @Transactional
+    public void revocarPorUsuario(Integer usuarioId) {
+        refreshTokenRepository.revocarPorUsuario(usuarioId);
+    }
+
+    /**
+     * Eliminar los refresh tokens expirados
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval:3600000}")
+    @Transactional
+    public void purgarExpirados() {
+        int eliminados = refreshTokenRepository.deleteExpirados(LocalDateTime.now());
+        log.info("Purga de refresh tokens: {} eliminados", eliminados);
+    }
+
+    private void revocarFamiliaPorReuso(RefreshTokenInfo info) {
+        int revocados = refreshTokenRepository.revocarFamilia(info.familiaId());
+        log.warn("Reuso de refresh token detectado para usuario {}: {} tokens de la familia revocados",
+                info.nombreUsuario(), revocados);
+        throw new BusinessException("Refresh token inválido o expirado");
+    }
+
+    private static String generarToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
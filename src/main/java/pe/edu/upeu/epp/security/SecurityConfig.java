@@ -1,5 +1,8 @@
 package pe.edu.upeu.epp.config;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,7 +15,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -21,6 +23,9 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import pe.edu.upeu.epp.security.JwtAuthenticationFilter;
+import pe.edu.upeu.epp.security.OffloadedPasswordEncoder;
+import pe.edu.upeu.epp.security.UserDetailsServiceImpl;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 /**
@@ -34,7 +39,24 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
-    private final UserDetailsService userDetailsService;
+    // Sin cache: el login siempre valida contra la BD (ver CachingUserDetailsService)
+    private final UserDetailsServiceImpl userDetailsService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.password-hashing.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${auth.password-hashing.pool-size:0}")
+    private int hashingPoolSize;
+
+    @Value("${auth.password-hashing.queue-capacity:50}")
+    private int hashingQueueCapacity;
+
+    @Value("${auth.password-hashing.max-wait:5s}")
+    private Duration hashingMaxWait;
+
+    @Value("${auth.password-hashing.retry-after-seconds:2}")
+    private long hashingRetryAfterSeconds;
     /**
 
      Configura la cadena de filtros de seguridad.
@@ -49,10 +71,13 @@ public class SecurityConfig {
 
                 // Configurar autorización de endpoints
                 .authorizeHttpRequests(auth -> auth
+                        // Re-despacho de respuestas en streaming: la petición original ya fue autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Endpoints públicos (sin autenticación)
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMINISTRADOR_SISTEMA")
 
                         // Endpoints de administración (solo ADMINISTRADOR_SISTEMA)
                         .requestMatchers("/api/v1/admin/**").hasRole("ADMINISTRADOR_SISTEMA")
@@ -62,11 +87,15 @@ public class SecurityConfig {
 
                         // Endpoints de gestión de inventario central
                         .requestMatchers("/api/v1/inventario-central/**").hasAnyRole("SUPERVISOR_SST", "ADMINISTRADOR_SISTEMA")
+                        .requestMatchers(HttpMethod.POST, "/api/v1/inventario/**").hasAnyRole("SUPERVISOR_SST", "ADMINISTRADOR_SISTEMA")
 
                         // Endpoints de entregas (JEFE_AREA y SUPERVISOR_SST)
                         .requestMatchers(HttpMethod.POST, "/api/v1/entregas/**").hasAnyRole("JEFE_AREA", "SUPERVISOR_SST")
                         .requestMatchers(HttpMethod.GET, "/api/v1/entregas/**").hasAnyRole("JEFE_AREA", "SUPERVISOR_SST", "COORDINADOR_SST")
 
+                        // Trabajadores: escaneo de photochecks en puntos de entrega y búsqueda
+                        .requestMatchers("/api/v1/trabajadores/**").hasAnyRole("JEFE_AREA", "SUPERVISOR_SST", "COORDINADOR_SST")
+
                         // Endpoints de solicitudes de reposición
                         .requestMatchers(HttpMethod.POST, "/api/v1/solicitudes-reposicion").hasRole("JEFE_AREA")
                         .requestMatchers(HttpMethod.PUT, "/api/v1/solicitudes-reposicion/*/aprobar").hasRole("SUPERVISOR_SST")
@@ -76,6 +105,9 @@ public class SecurityConfig {
                         // Endpoints de reportes (accesibles para roles con permisos de lectura)
                         .requestMatchers("/api/v1/reportes/**").hasAnyRole("SUPERVISOR_SST", "COORDINADOR_SST", "ADMINISTRADOR_SISTEMA")
 
+                        // Tableros de alertas de vencimiento e inspección
+                        .requestMatchers(HttpMethod.GET, "/api/v1/alertas/**").hasAnyRole("JEFE_AREA", "SUPERVISOR_SST", "COORDINADOR_SST")
+
                         // Todos los demás endpoints requieren autenticación
                         .anyRequest().authenticated()
                 )
@@ -114,11 +146,22 @@ public class SecurityConfig {
 
     /**
 
-     Encoder de contraseñas BCrypt.
+     Encoder de contraseñas BCrypt, ejecutado en un pool acotado.
+     Por defecto el pool usa la mitad de los núcleos para dejar CPU al resto de endpoints.
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int poolSize = hashingPoolSize > 0
+                ? hashingPoolSize
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new OffloadedPasswordEncoder(
+                new BCryptPasswordEncoder(bcryptStrength),
+                poolSize,
+                hashingQueueCapacity,
+                hashingMaxWait,
+                hashingRetryAfterSeconds,
+                meterRegistry
+        );
     }
 
     /**
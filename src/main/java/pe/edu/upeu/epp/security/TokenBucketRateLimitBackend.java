@@ -0,0 +1,32 @@
+package pe.edu.upeu.epp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import pe.edu.upeu.epp.util.TokenBucket;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Límite en memoria del nodo: un token bucket por clave.
+ * Las claves inactivas se descartan para acotar la memoria ante barridos de IPs o usuarios.
+ */
+public class TokenBucketRateLimitBackend implements RateLimitBackend {
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public TokenBucketRateLimitBackend(long maxClaves, Duration inactividad) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClaves)
+                .expireAfterAccess(inactividad)
+                .build();
+    }
+
+    @Override
+    public long registrarIntento(String clave, int limite, Duration ventana) {
+        long ahora = System.nanoTime();
+        TokenBucket bucket = buckets.get(clave, k -> new TokenBucket(limite, ventana, ahora));
+        long esperaNanos = bucket.intentarConsumir(ahora);
+        return esperaNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos) + 1);
+    }
+}
@@ -0,0 +1,135 @@
+package pe.edu.upeu.epp.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.entity.TokenRevocado;
+import pe.edu.upeu.epp.repository.TokenRevocadoRepository;
+import pe.edu.upeu.epp.util.BloomFilter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de tokens revocados (logout y cierre forzado de sesión).
+ * Los jti revocados se guardan en la tabla token_revocado y cada nodo mantiene
+ * en memoria un filtro de Bloom más el conjunto exacto de los que aún no expiran,
+ * así el filtro JWT resuelve la consulta sin E/S en el caso común.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private final TokenRevocadoRepository tokenRevocadoRepository;
+
+    @Value("${jwt.revocation.expected-tokens:10000}")
+    private int expectedTokens;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    /**
+     * jti revocados que aún no expiran, con su fecha de expiración
+     */
+    private final Map<String, Instant> revocados = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * Última fecha de revocación sincronizada desde la BD
+     */
+    private volatile LocalDateTime ultimaSincronizacion = LocalDateTime.now();
+
+    @PostConstruct
+    void cargarRevocados() {
+        LocalDateTime ahora = LocalDateTime.now();
+        tokenRevocadoRepository.findByFechaExpiracionAfter(ahora)
+                .forEach(this::registrarLocal);
+        ultimaSincronizacion = ahora;
+        reconstruirFiltro();
+        log.info("Lista de revocación cargada con {} tokens vigentes", revocados.size());
+    }
+
+    /**
+     * Verificar si un token fue revocado
+     */
+    public boolean isRevocado(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        Instant expiracion = revocados.get(jti);
+        return expiracion != null && expiracion.isAfter(Instant.now());
+    }
+
+    /**
+     * Revocar un token hasta su expiración
+     */
+    @Transactional
+    public void revocar(JwtClaims claims) {
+        if (claims.id() == null || claims.expiration() == null || isRevocado(claims.id())) {
+            return;
+        }
+        TokenRevocado tokenRevocado = TokenRevocado.builder()
+                .jti(claims.id())
+                .nombreUsuario(claims.subject())
+                .fechaExpiracion(LocalDateTime.ofInstant(claims.expiration(), ZoneId.systemDefault()))
+                .build();
+        tokenRevocadoRepository.save(tokenRevocado);
+        registrarLocal(tokenRevocado);
+        log.info("Token revocado para usuario: {}", claims.subject());
+    }
+
+    /**
+     * Incorporar las revocaciones hechas en otros nodos
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval:15000}")
+    public void sincronizar() {
+        LocalDateTime desde = ultimaSincronizacion.minusSeconds(5);
+        ultimaSincronizacion = LocalDateTime.now();
+        List<TokenRevocado> nuevos = tokenRevocadoRepository.findRevocadosDesde(desde, LocalDateTime.now());
+        nuevos.forEach(this::registrarLocal);
+        if (!nuevos.isEmpty()) {
+            log.debug("Sincronizados {} tokens revocados", nuevos.size());
+        }
+    }
+
+    /**
+     * Eliminar los tokens ya expirados de la BD y de memoria.
+     * El filtro de Bloom se reconstruye porque no admite borrados.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:3600000}")
+    @Transactional
+    public void purgarExpirados() {
+        int eliminados = tokenRevocadoRepository.deleteExpirados(LocalDateTime.now());
+        Instant ahora = Instant.now();
+        revocados.values().removeIf(expiracion -> !expiracion.isAfter(ahora));
+        reconstruirFiltro();
+        log.info("Purga de tokens revocados: {} eliminados, {} vigentes", eliminados, revocados.size());
+    }
+
+    private void registrarLocal(TokenRevocado tokenRevocado) {
+        revocados.put(tokenRevocado.getJti(),
+                tokenRevocado.getFechaExpiracion().atZone(ZoneId.systemDefault()).toInstant());
+        BloomFilter filtro = bloomFilter;
+        if (filtro != null) {
+            filtro.put(tokenRevocado.getJti());
+        }
+    }
+
+    private void reconstruirFiltro() {
+        BloomFilter filtro = BloomFilter.create(Math.max(expectedTokens, revocados.size() * 2), falsePositiveRate);
+        revocados.keySet().forEach(filtro::put);
+        bloomFilter = filtro;
+        // Revocaciones registradas mientras se reconstruía
+        revocados.keySet().forEach(filtro::put);
+    }
+}
@@ -0,0 +1,69 @@
+package pe.edu.upeu.epp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pe.edu.upeu.epp.event.UsuarioModificadoEvent;
+import pe.edu.upeu.epp.repository.UsuarioRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Verificación ligera de la versión de token de un usuario para el modo stateless.
+ * En lugar de cargar el usuario con sus roles, consulta solo la versión vigente
+ * (usuario activo y no bloqueado) y la mantiene en memoria un tiempo acotado.
+ * Ese tiempo es el retraso máximo con el que una desactivación, un bloqueo o
+ * un cambio de roles se aplica a los tokens ya emitidos.
+ */
+@Service
+@Slf4j
+public class TokenVersionService {
+
+    /**
+     * Marca para usuarios inexistentes, inactivos o bloqueados
+     */
+    private static final int SIN_VERSION = -1;
+
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<String, Integer> versiones;
+
+    public TokenVersionService(UsuarioRepository usuarioRepository,
+                               @Value("${jwt.stateless.version-check-ttl:30s}") Duration versionCheckTtl,
+                               @Value("${jwt.stateless.cache-max-size:10000}") long cacheMaxSize) {
+        this.usuarioRepository = usuarioRepository;
+        this.versiones = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(versionCheckTtl)
+                .build();
+    }
+
+    /**
+     * Verificar si la versión embebida en el token sigue vigente
+     */
+    public boolean isVigente(String username, int versionToken) {
+        int actual = versiones.get(username, this::cargarVersion);
+        return actual != SIN_VERSION && actual == versionToken;
+    }
+
+    /**
+     * Descartar la versión en memoria para que el próximo request la vuelva a consultar
+     */
+    public void invalidar(String username) {
+        versiones.invalidate(username);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioModificado(UsuarioModificadoEvent event) {
+        invalidar(event.nombreUsuario());
+    }
+
+    private Integer cargarVersion(String username) {
+        log.debug("Consultando versión de token para: {}", username);
+        return usuarioRepository.findVersionTokenVigente(username, LocalDateTime.now())
+                .orElse(SIN_VERSION);
+    }
+}
@@ -2,9 +2,6 @@ package pe.edu.upeu.epp.security;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -14,8 +11,6 @@ import pe.edu.upeu.epp.entity.Usuario;
 import pe.edu.upeu.epp.repository.UsuarioRepository;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
-import java.util.stream.Collectors;
 
 /**
  * Implementación de UserDetailsService para Spring Security.
@@ -33,8 +28,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.debug("Cargando usuario: {}", username);
 
-        // Buscar usuario con sus roles (usando el query optimizado)
-        Usuario usuario = usuarioRepository.findByNombreUsuarioWithRoles(username)
+        // Los roles se resuelven desde la cache de segundo nivel (un JOIN FETCH la omitiría)
+        Usuario usuario = usuarioRepository.findByNombreUsuario(username)
                 .orElseThrow(() -> {
                     log.error("Usuario no encontrado: {}", username);
                     return new UsernameNotFoundException("Usuario no encontrado: " + username);
@@ -54,22 +49,11 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         }
 
         // Convertir roles a authorities de Spring Security
-        Collection<GrantedAuthority> authorities = usuario.getRoles().stream()
-                .map(rol -> new SimpleGrantedAuthority("ROLE_" + rol.getNombreRol()))
-                .collect(Collectors.toList());
+        // IMPORTANTE: el principal conserva la contraseña hasheada de la BD
+        UsuarioPrincipal principal = UsuarioPrincipal.from(usuario);
 
-        log.debug("Usuario {} cargado con {} roles", username, authorities.size());
+        log.debug("Usuario {} cargado con {} roles", username, principal.getAuthorities().size());
 
-        // IMPORTANTE: Retornar el User de Spring Security con la contraseña hasheada de la BD
-        return User.builder()
-                .username(usuario.getNombreUsuario())
-                .password(usuario.getContrasenaHash())  // ⚠️ CRÍTICO: usar el hash de la BD
-                .authorities(authorities)
-                .accountExpired(false)
-                .accountLocked(usuario.getBloqueadoHasta() != null &&
-                        usuario.getBloqueadoHasta().isAfter(LocalDateTime.now()))
-                .credentialsExpired(false)
-                .disabled(!usuario.getActivo())
-                .build();
+        return principal;
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package pe.edu.upeu.epp.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import pe.edu.upeu.epp.entity.Usuario;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * UserDetails de Spring Security con los datos del Usuario
+ * que se embeben en el JWT (id y versión de token).
+ */
+@Getter
+public class UsuarioPrincipal extends User {
+
+    private final Integer usuarioId;
+    private final int versionToken;
+
+    public UsuarioPrincipal(Integer usuarioId,
+                            String username,
+                            String password,
+                            boolean enabled,
+                            boolean accountNonLocked,
+                            Collection<? extends GrantedAuthority> authorities,
+                            int versionToken) {
+        super(username, password, enabled, true, true, accountNonLocked, authorities);
+        this.usuarioId = usuarioId;
+        this.versionToken = versionToken;
+    }
+
+    /**
+     * Construir el principal a partir del Usuario cargado con sus roles
+     */
+    public static UsuarioPrincipal from(Usuario usuario) {
+        Collection<GrantedAuthority> authorities = usuario.getRoles().stream()
+                .map(rol -> new SimpleGrantedAuthority("ROLE_" + rol.getNombreRol()))
+                .collect(Collectors.toList());
+
+        boolean bloqueado = usuario.getBloqueadoHasta() != null &&
+                usuario.getBloqueadoHasta().isAfter(LocalDateTime.now());
+
+        return new UsuarioPrincipal(
+                usuario.getUsuarioId(),
+                usuario.getNombreUsuario(),
+                usuario.getContrasenaHash(),
+                Boolean.TRUE.equals(usuario.getActivo()),
+                !bloqueado,
+                authorities,
+                usuario.getVersionToken() != null ? usuario.getVersionToken() : 0
+        );
+    }
+}
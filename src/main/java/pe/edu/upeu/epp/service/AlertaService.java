@@ -0,0 +1,338 @@
+package pe.edu.upeu.epp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.upeu.epp.dto.response.AlertaResponseDTO;
+import pe.edu.upeu.epp.dto.response.AlertaResumenResponseDTO;
+import pe.edu.upeu.epp.entity.Alerta.TipoAlerta;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alertas precalculadas de vencimiento e inspección (tabla alerta) para los tableros.
+ * Por cada tipo se guarda en rollup_estado una marca de fecha (materializado_hasta:
+ * fechas límite ya escaneadas, exclusivo) y una marca de modificación
+ * (ultima_actualizacion). Cada ejecución:
+ * <ol>
+ *   <li>revisa solo las filas de origen modificadas desde la última marca: resuelve las
+ *       alertas que dejaron de cumplirse (baja, sin stock, nueva fecha) y crea las de
+ *       fechas ya escaneadas;</li>
+ *   <li>avanza la marca de fecha hasta hoy + días de anticipación, en tramos de
+ *       {@code alertas.dias-por-lote} días con una transacción por tramo.</li>
+ * </ol>
+ * Las consultas repiten los predicados de los índices parciales de V3 (el id de BAJA
+ * como literal) para que ningún paso recorra la tabla completa.
+ * Las alertas nuevas se avisan por correo (NotificacionService) en la misma transacción.
+ */
+@Service
+@Slf4j
+public class AlertaService {
+
+    private static final String ROLLUP = "alertas:";
+
+    /**
+     * %s: id, fecha, epp, área, descripción, origen y predicado de vigencia
+     */
+    private static final String SQL_INSERTAR =
+            "INSERT INTO epp.alerta (tipo, referencia_id, fecha_limite, epp_id, area_id, descripcion, estado, fecha_creacion) " +
+            "SELECT ?, %s, %s, %s, %s, %s, 'ACTIVA', LOCALTIMESTAMP FROM %s WHERE %s AND %s " +
+            "ON CONFLICT (tipo, referencia_id, fecha_limite) DO UPDATE " +
+            "SET estado = 'ACTIVA', fecha_resolucion = NULL, epp_id = EXCLUDED.epp_id, " +
+            "area_id = EXCLUDED.area_id, descripcion = EXCLUDED.descripcion " +
+            "WHERE (alerta.estado, alerta.epp_id, alerta.area_id, alerta.descripcion) IS DISTINCT FROM " +
+            "('ACTIVA', EXCLUDED.epp_id, EXCLUDED.area_id, EXCLUDED.descripcion) " +
+            "RETURNING alerta_id";
+
+    /**
+     * %s: origen, id, modificación, predicado de vigencia y fecha
+     */
+    private static final String SQL_RESOLVER =
+            "UPDATE epp.alerta a SET estado = 'RESUELTA', fecha_resolucion = LOCALTIMESTAMP " +
+            "FROM %s WHERE a.tipo = ? AND a.estado = 'ACTIVA' AND a.referencia_id = %s AND %s >= ? " +
+            "AND NOT COALESCE(%s AND %s = a.fecha_limite, false)";
+
+    private static final String SQL_LISTAR =
+            "SELECT a.alerta_id, a.tipo, a.referencia_id, a.fecha_limite, a.epp_id, c.nombre_epp, " +
+            "a.area_id, ar.nombre_area, a.descripcion, a.fecha_creacion " +
+            "FROM epp.alerta a " +
+            "LEFT JOIN epp.catalogo_epp c ON c.epp_id = a.epp_id " +
+            "LEFT JOIN epp.area ar ON ar.area_id = a.area_id " +
+            "WHERE a.estado = 'ACTIVA'%s ORDER BY a.fecha_limite, a.alerta_id LIMIT ?";
+
+    private static final String SQL_RESUMEN =
+            "SELECT a.tipo, COUNT(*) FILTER (WHERE a.fecha_limite < ?) AS vencidas, " +
+            "COUNT(*) FILTER (WHERE a.fecha_limite >= ?) AS por_vencer " +
+            "FROM epp.alerta a WHERE a.estado = 'ACTIVA'%s GROUP BY a.tipo ORDER BY a.tipo";
+
+    /**
+     * Origen de un tipo de alerta; %d en vigente: id del estado BAJA
+     */
+    private record Escaneo(TipoAlerta tipo, String origen, String id, String fecha, String modificacion,
+                           String vigente, String epp, String area, String descripcion) {
+
+        String vigente(int baja) {
+            return String.format(vigente, baja);
+        }
+    }
+
+    private static final List<Escaneo> ESCANEOS = List.of(
+            new Escaneo(TipoAlerta.VENCIMIENTO_EPP, "epp.instancia_epp i", "i.instancia_epp_id",
+                    "i.fecha_vencimiento", "i.fecha_actualizacion",
+                    "i.estado_id <> %d AND i.fecha_vencimiento IS NOT NULL",
+                    "i.epp_id", "i.area_actual_id", "i.codigo_serie"),
+            new Escaneo(TipoAlerta.INSPECCION_EPP, "epp.instancia_epp i", "i.instancia_epp_id",
+                    "i.fecha_proxima_inspeccion", "i.fecha_actualizacion",
+                    "i.estado_id <> %d AND i.fecha_proxima_inspeccion IS NOT NULL",
+                    "i.epp_id", "i.area_actual_id", "i.codigo_serie"),
+            new Escaneo(TipoAlerta.VENCIMIENTO_LOTE, "epp.inventario_central i", "i.inventario_central_id",
+                    "i.fecha_vencimiento", "i.ultima_actualizacion",
+                    "i.cantidad_actual > 0 AND i.fecha_vencimiento IS NOT NULL",
+                    "i.epp_id", "CAST(NULL AS integer)", "i.lote"));
+
+    private record Marca(LocalDate materializadoHasta, LocalDateTime ultimaActualizacion) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificacionService notificacionService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${alertas.dias-por-lote:31}")
+    private int diasPorLote;
+
+    @Value("${alertas.margen-modificacion:5m}")
+    private Duration margenModificacion;
+
+    @Value("${alertas.anticipacion.vencimiento-epp:30}")
+    private int anticipacionVencimientoEpp;
+
+    @Value("${alertas.anticipacion.inspeccion-epp:7}")
+    private int anticipacionInspeccionEpp;
+
+    @Value("${alertas.anticipacion.vencimiento-lote:60}")
+    private int anticipacionVencimientoLote;
+
+    public AlertaService(JdbcTemplate jdbcTemplate, NotificacionService notificacionService,
+                         PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificacionService = notificacionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Crear los índices parciales si BAJA se cargó después de la migración y hacer el primer escaneo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        try {
+            jdbcTemplate.execute("SELECT epp.crear_indices_alertas()");
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron crear los índices parciales de alertas: {}", e.getMessage());
+        }
+        escanear();
+    }
+
+    @Scheduled(initialDelayString = "${alertas.scan-interval:600000}",
+            fixedDelayString = "${alertas.scan-interval:600000}")
+    public void escanear() {
+        int baja = idEstadoBaja();
+        LocalDate hoy = LocalDate.now();
+        for (Escaneo escaneo : ESCANEOS) {
+            try {
+                escanear(escaneo, baja, hoy);
+            } catch (DataAccessException e) {
+                log.error("Error al escanear alertas {}", escaneo.tipo(), e);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<AlertaResponseDTO> listar(TipoAlerta tipo, Integer areaId, int limite) {
+        List<Object> parametros = new ArrayList<>();
+        String filtros = filtros(tipo, areaId, parametros);
+        parametros.add(limite);
+        LocalDate hoy = LocalDate.now();
+
+        return jdbcTemplate.query(String.format(SQL_LISTAR, filtros), (rs, n) -> {
+            LocalDate fechaLimite = rs.getObject("fecha_limite", LocalDate.class);
+            long dias = ChronoUnit.DAYS.between(hoy, fechaLimite);
+            return AlertaResponseDTO.builder()
+                    .alertaId(rs.getLong("alerta_id"))
+                    .tipo(TipoAlerta.valueOf(rs.getString("tipo")))
+                    .referenciaId(rs.getInt("referencia_id"))
+                    .fechaLimite(fechaLimite)
+                    .diasRestantes(dias)
+                    .vencida(dias < 0)
+                    .eppId(rs.getObject("epp_id", Integer.class))
+                    .nombreEpp(rs.getString("nombre_epp"))
+                    .areaId(rs.getObject("area_id", Integer.class))
+                    .nombreArea(rs.getString("nombre_area"))
+                    .descripcion(rs.getString("descripcion"))
+                    .fechaCreacion(rs.getObject("fecha_creacion", LocalDateTime.class))
+                    .build();
+        }, parametros.toArray());
+    }
+
+    @Transactional(readOnly = true)
+    public List<AlertaResumenResponseDTO> resumen(Integer areaId) {
+        Date hoy = Date.valueOf(LocalDate.now());
+        List<Object> parametros = new ArrayList<>(List.of(hoy, hoy));
+        String filtros = filtros(null, areaId, parametros);
+
+        return jdbcTemplate.query(String.format(SQL_RESUMEN, filtros), (rs, n) -> AlertaResumenResponseDTO.builder()
+                        .tipo(TipoAlerta.valueOf(rs.getString("tipo")))
+                        .vencidas(rs.getLong("vencidas"))
+                        .porVencer(rs.getLong("por_vencer"))
+                        .build(),
+                parametros.toArray());
+    }
+
+    /**
+     * Condiciones fijas en lugar de "? IS NULL OR ...": así el planner elige el índice parcial que corresponde
+     */
+    private static String filtros(TipoAlerta tipo, Integer areaId, List<Object> parametros) {
+        StringBuilder filtros = new StringBuilder();
+        if (tipo != null) {
+            filtros.append(" AND a.tipo = ?");
+            parametros.add(tipo.name());
+        }
+        if (areaId != null) {
+            filtros.append(" AND a.area_id = ?");
+            parametros.add(areaId);
+        }
+        return filtros.toString();
+    }
+
+    private void escanear(Escaneo escaneo, int baja, LocalDate hoy) {
+        String rollup = ROLLUP + escaneo.tipo().name();
+        String vigente = escaneo.vigente(baja);
+
+        // 1. Filas modificadas desde la última marca
+        LocalDateTime inicio = LocalDateTime.now();
+        int[] modificadas = transactionTemplate.execute(status -> {
+            Marca marca = bloquearEstado(rollup);
+            int resueltas = 0;
+            int creadas = 0;
+            if (marca.ultimaActualizacion() != null) {
+                Timestamp desde = Timestamp.valueOf(marca.ultimaActualizacion().minus(margenModificacion));
+                resueltas = jdbcTemplate.update(String.format(SQL_RESOLVER, escaneo.origen(), escaneo.id(),
+                        escaneo.modificacion(), vigente, escaneo.fecha()), escaneo.tipo().name(), desde);
+                if (marca.materializadoHasta() != null) {
+                    creadas = insertar(escaneo, vigente,
+                            escaneo.modificacion() + " >= ? AND " + escaneo.fecha() + " < ?",
+                            desde, Date.valueOf(marca.materializadoHasta()));
+                }
+            }
+            guardarEstado(rollup, marca.materializadoHasta(), inicio);
+            return new int[]{resueltas, creadas};
+        });
+
+        // 2. Fechas límite nuevas, hasta hoy + anticipación
+        LocalDate limite = hoy.plusDays(anticipacion(escaneo.tipo()) + 1L);
+        int nuevas = 0;
+        LocalDate[] tramo;
+        while ((tramo = siguienteTramo(escaneo, vigente, rollup, limite)) != null) {
+            LocalDate[] rango = tramo;
+            nuevas += transactionTemplate.execute(status -> {
+                Marca marca = bloquearEstado(rollup);
+                // Otro nodo pudo avanzar la marca entre la lectura y el bloqueo
+                LocalDate desde = marca.materializadoHasta() != null && marca.materializadoHasta().isAfter(rango[0])
+                        ? marca.materializadoHasta() : rango[0];
+                if (!desde.isBefore(rango[1])) {
+                    return 0;
+                }
+                int filas = insertar(escaneo, vigente, escaneo.fecha() + " >= ? AND " + escaneo.fecha() + " < ?",
+                        Date.valueOf(desde), Date.valueOf(rango[1]));
+                guardarEstado(rollup, rango[1], marca.ultimaActualizacion());
+                return filas;
+            });
+        }
+
+        if (modificadas[0] + modificadas[1] + nuevas > 0) {
+            log.info("Alertas {}: {} resueltas, {} por filas modificadas, {} nuevas",
+                    escaneo.tipo(), modificadas[0], modificadas[1], nuevas);
+        }
+    }
+
+    /**
+     * [desde, hasta) del próximo tramo por escanear, o null si la marca ya alcanzó el límite
+     */
+    private LocalDate[] siguienteTramo(Escaneo escaneo, String vigente, String rollup, LocalDate limite) {
+        List<LocalDate> marca = jdbcTemplate.queryForList(
+                "SELECT materializado_hasta FROM epp.rollup_estado WHERE rollup = ?", LocalDate.class, rollup);
+        LocalDate desde = marca.isEmpty() ? null : marca.get(0);
+        if (desde == null) {
+            // Primer escaneo: desde la fecha más antigua vigente (primer valor del índice parcial)
+            desde = jdbcTemplate.queryForObject(String.format("SELECT MIN(%s) FROM %s WHERE %s",
+                    escaneo.fecha(), escaneo.origen(), vigente), LocalDate.class);
+            if (desde == null) {
+                desde = limite;
+            }
+        }
+        // La marca puede quedar después del límite si se reduce la anticipación
+        if (!desde.isBefore(limite)) {
+            return null;
+        }
+        LocalDate hasta = desde.plusDays(diasPorLote);
+        return new LocalDate[]{desde, hasta.isAfter(limite) ? limite : hasta};
+    }
+
+    private int insertar(Escaneo escaneo, String vigente, String condicion, Object... parametros) {
+        String sql = String.format(SQL_INSERTAR, escaneo.id(), escaneo.fecha(), escaneo.epp(), escaneo.area(),
+                escaneo.descripcion(), escaneo.origen(), vigente, condicion);
+        Object[] argumentos = new Object[parametros.length + 1];
+        argumentos[0] = escaneo.tipo().name();
+        System.arraycopy(parametros, 0, argumentos, 1, parametros.length);
+        // Incluye las reactivadas y las que cambiaron de área; el aviso se deduplica por alerta
+        List<Long> alertaIds = jdbcTemplate.queryForList(sql, Long.class, argumentos);
+        notificacionService.registrarAlertas(alertaIds);
+        return alertaIds.size();
+    }
+
+    private int anticipacion(TipoAlerta tipo) {
+        return switch (tipo) {
+            case VENCIMIENTO_EPP -> anticipacionVencimientoEpp;
+            case INSPECCION_EPP -> anticipacionInspeccionEpp;
+            case VENCIMIENTO_LOTE -> anticipacionVencimientoLote;
+        };
+    }
+
+    /**
+     * Id del estado BAJA; -1 si no existe (ninguna instancia está dada de baja)
+     */
+    private int idEstadoBaja() {
+        return jdbcTemplate.queryForList("SELECT estado_id FROM epp.estado_epp WHERE nombre = 'BAJA'", Integer.class)
+                .stream().findFirst().orElse(-1);
+    }
+
+    /**
+     * Serializa los escaneos entre nodos; retorna las marcas actuales
+     */
+    private Marca bloquearEstado(String rollup) {
+        jdbcTemplate.update("INSERT INTO epp.rollup_estado (rollup) VALUES (?) ON CONFLICT DO NOTHING", rollup);
+        return jdbcTemplate.queryForObject(
+                "SELECT materializado_hasta, ultima_actualizacion FROM epp.rollup_estado WHERE rollup = ? FOR UPDATE",
+                (rs, n) -> new Marca(rs.getObject(1, LocalDate.class), rs.getObject(2, LocalDateTime.class)), rollup);
+    }
+
+    private void guardarEstado(String rollup, LocalDate materializadoHasta, LocalDateTime ultimaActualizacion) {
+        jdbcTemplate.update("UPDATE epp.rollup_estado SET materializado_hasta = ?, ultima_actualizacion = ? WHERE rollup = ?",
+                materializadoHasta == null ? null : Date.valueOf(materializadoHasta),
+                ultimaActualizacion == null ? null : Timestamp.valueOf(ultimaActualizacion), rollup);
+    }
+}
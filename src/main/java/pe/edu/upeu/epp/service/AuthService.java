@@ -1,6 +1,8 @@
 package pe.edu.upeu.epp.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import io.jsonwebtoken.JwtException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -13,9 +15,15 @@ import pe.edu.upeu.epp.dto.request.LoginRequestDTO;
 import pe.edu.upeu.epp.dto.request.RefreshTokenRequestDTO;
 import pe.edu.upeu.epp.dto.response.AuthResponseDTO;
 import pe.edu.upeu.epp.entity.Usuario;
+import pe.edu.upeu.epp.event.UsuarioModificadoEvent;
 import pe.edu.upeu.epp.exception.BusinessException;
 import pe.edu.upeu.epp.repository.UsuarioRepository;
+import pe.edu.upeu.epp.security.JwtClaims;
 import pe.edu.upeu.epp.security.JwtService;
+import pe.edu.upeu.epp.security.LoginRateLimiter;
+import pe.edu.upeu.epp.security.RefreshTokenService;
+import pe.edu.upeu.epp.security.TokenRevocationService;
+import pe.edu.upeu.epp.security.UsuarioPrincipal;
 import java.time.LocalDateTime;
 import java.util.stream.Collectors;
 /**
@@ -27,17 +35,29 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class AuthService {
+    private static final int MAX_INTENTOS_FALLIDOS = 5;
+    private static final int MINUTOS_BLOQUEO = 15;
+
     private final AuthenticationManager authenticationManager;
     private final UsuarioRepository usuarioRepository;
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoginActivityRecorder loginActivityRecorder;
+    private final LoginRateLimiter loginRateLimiter;
     /**
 
      Autentica un usuario y genera tokens JWT.
+     Antes de autenticar se aplica el límite de intentos por usuario y por IP.
+     Los intentos fallidos y el bloqueo se confirman aunque se lance la excepción.
      */
-    @Transactional
-    public AuthResponseDTO login(LoginRequestDTO request) {
+    @Transactional(noRollbackFor = {BadCredentialsException.class, BusinessException.class})
+    public AuthResponseDTO login(LoginRequestDTO request, String ipCliente) {
 
         log.info("Intento de login para usuario: {}", request.getNombreUsuario());
+// Rechazar tráfico abusivo antes de consultar la BD y calcular el hash
+        loginRateLimiter.verificar(request.getNombreUsuario(), ipCliente);
 // Buscar usuario
         Usuario usuario = usuarioRepository.findByNombreUsuario(request.getNombreUsuario())
                 .orElseThrow(() -> new BadCredentialsException("Credenciales inválidas"));
@@ -61,86 +81,90 @@ public class AuthService {
             // Obtener UserDetails del resultado de autenticación
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
 
-            // Resetear intentos fallidos
-            usuario.setIntentosFallidos(0);
-            usuario.setBloqueadoHasta(null);
-            usuario.setUltimoAcceso(LocalDateTime.now());
-            usuarioRepository.save(usuario);
+            // Resetear intentos fallidos (solo escribe si había alguno); el último acceso se escribe en lote
+            if (loginActivityRecorder.registrarExito(usuario.getUsuarioId())) {
+                eventPublisher.publishEvent(new UsuarioModificadoEvent(usuario.getNombreUsuario()));
+            }
 
             // Generar tokens
             String token = jwtService.generateToken(userDetails);
-            String refreshToken = jwtService.generateRefreshToken(userDetails);
+            String refreshToken = refreshTokenService.emitir(usuario);
 
             log.info("Login exitoso para usuario: {}", request.getNombreUsuario());
 
             // Construir respuesta
             return buildAuthResponse(usuario, token, refreshToken);
         } catch (BadCredentialsException e) {
-// Incrementar intentos fallidos
-            usuario.setIntentosFallidos(usuario.getIntentosFallidos() + 1);
+// Incrementar intentos fallidos de forma atómica en la BD
             // Bloquear después de 5 intentos fallidos (por 15 minutos)
-            if (usuario.getIntentosFallidos() >= 5) {
-                usuario.setBloqueadoHasta(LocalDateTime.now().plusMinutes(15));
-                usuarioRepository.save(usuario);
+            int intentos = loginActivityRecorder.registrarFallo(usuario.getUsuarioId(),
+                    MAX_INTENTOS_FALLIDOS, LocalDateTime.now().plusMinutes(MINUTOS_BLOQUEO));
+            if (intentos >= MAX_INTENTOS_FALLIDOS) {
+                eventPublisher.publishEvent(new UsuarioModificadoEvent(usuario.getNombreUsuario()));
                 throw new BusinessException("Usuario bloqueado por múltiples intentos fallidos. Intente en 15 minutos.");
             }
-
-            usuarioRepository.save(usuario);
             throw new BadCredentialsException("Credenciales inválidas");
         }
     }
 
     /**
 
-     Refresca el token JWT.
+     Refresca el token JWT rotando el refresh token.
+     Retorna los mismos datos que el login, incluidos los del trabajador.
      */
-    @Transactional(readOnly = true)
+    @Transactional(noRollbackFor = BusinessException.class)
     public AuthResponseDTO refreshToken(RefreshTokenRequestDTO request) {
         log.info("Solicitud de refresh token");
-// Extraer username del refresh token
-        String username = jwtService.extractUsername(request.getRefreshToken());
-// Buscar usuario
-        Usuario usuario = usuarioRepository.findByNombreUsuarioWithRoles(username)
-                .orElseThrow(() -> new BusinessException("Usuario no encontrado"));
-// Verificar si el usuario está activo
-        if (!usuario.getActivo()) {
-            throw new BusinessException("Usuario inactivo");
-        }
-// Cargar UserDetails
-        UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-                .username(usuario.getNombreUsuario())
-                .password(usuario.getContrasenaHash())
-                .authorities(usuario.getRoles().stream()
-                        .map(rol -> "ROLE_" + rol.getNombreRol())
-                        .toArray(String[]::new))
-                .build();
-// Validar el refresh token
-        if (!jwtService.isTokenValid(request.getRefreshToken(), userDetails)) {
-            throw new BusinessException("Refresh token inválido o expirado");
+// Validar y rotar el refresh token
+        RefreshTokenService.Rotacion rotacion = refreshTokenService.rotar(request.getRefreshToken());
+// Una sola consulta con roles, trabajador y área: sirve para los claims y para la respuesta
+        Usuario usuario = usuarioRepository.findByIdWithRolesAndTrabajador(rotacion.usuarioId())
+                .orElseThrow(() -> new BusinessException("Refresh token inválido o expirado"));
+        if (usuario.getBloqueadoHasta() != null &&
+                usuario.getBloqueadoHasta().isAfter(LocalDateTime.now())) {
+            throw new BusinessException("Usuario bloqueado temporalmente. Intente más tarde.");
         }
 // Generar nuevo access token
-        String newToken = jwtService.generateToken(userDetails);
-        log.info("Refresh token exitoso para usuario: {}", username);
-// Construir respuesta (reutilizar el mismo refresh token)
-        return buildAuthResponse(usuario, newToken, request.getRefreshToken());
+        String newToken = jwtService.generateToken(UsuarioPrincipal.from(usuario));
+        log.info("Refresh token exitoso para usuario: {}", rotacion.nombreUsuario());
+        return buildAuthResponse(usuario, newToken, rotacion.refreshToken());
     }
 
     /**
 
-     Logout (invalidar token del lado del cliente).
-     En JWT, el logout se maneja típicamente en el cliente eliminando el token.
-     Opcionalmente, se puede implementar una lista negra de tokens en Redis.
+     Logout: revoca el access token usado en la petición hasta su expiración
+     y los refresh tokens del usuario.
      */
     @Transactional
-    public void logout(String username) {
+    public void logout(String username, String token) {
         log.info("Logout para usuario: {}", username);
-// Actualizar último acceso
-        usuarioRepository.findByNombreUsuario(username)
-                .ifPresent(usuario -> {
-                    usuario.setUltimoAcceso(LocalDateTime.now());
-                    usuarioRepository.save(usuario);
+// Actualizar último acceso (diferido) y revocar refresh tokens
+        usuarioRepository.findIdByNombreUsuario(username)
+                .ifPresent(usuarioId -> {
+                    loginActivityRecorder.registrarAcceso(usuarioId);
+                    refreshTokenService.revocarPorUsuario(usuarioId);
+                    eventPublisher.publishEvent(new UsuarioModificadoEvent(username));
                 });
-// TODO: Si se implementa lista negra de tokens, agregar el token aquí
+// Agregar el token a la lista de revocación
+        if (token != null) {
+            tokenRevocationService.revocar(jwtService.parseToken(token));
+        }
+    }
+
+    /**
+
+     Cierre forzado de una sesión por un administrador.
+     */
+    @Transactional
+    public void forzarLogout(String token) {
+        JwtClaims claims;
+        try {
+            claims = jwtService.parseToken(token);
+        } catch (JwtException e) {
+            throw new BusinessException("Token inválido o expirado");
+        }
+        log.info("Cierre forzado de sesión para usuario: {}", claims.subject());
+        tokenRevocationService.revocar(claims);
     }
 
     /**
@@ -0,0 +1,216 @@
+package pe.edu.upeu.epp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pe.edu.upeu.epp.dto.response.CatalogoBusquedaResponseDTO;
+import pe.edu.upeu.epp.dto.response.TrabajadorBusquedaResponseDTO;
+import pe.edu.upeu.epp.event.CatalogoEppModificadoEvent;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.util.IndiceNgramas;
+
+import java.util.List;
+
+/**
+ * Búsqueda de trabajadores y del catálogo de EPP por nombre, sin distinguir
+ * mayúsculas ni tildes (epp.normalizar) y sobre índices GIN de trigramas
+ * (ver V2__busqueda_trigram.sql):
+ * - buscar: por similitud de palabras (pg_trgm word_similarity), tolera errores de tipeo
+ * - sugerir: por prefijo de palabra, para autocompletar mientras se escribe
+ * Las sugerencias del catálogo salen de un índice de trigramas en memoria si está habilitado.
+ */
+@Service
+@Slf4j
+public class BusquedaService {
+
+    private static final int LIMITE_MAXIMO = 50;
+    private static final int MIN_CARACTERES = 3;
+
+    private static final String NOMBRE_TRABAJADOR = "epp.normalizar(t.nombres || ' ' || t.apellidos)";
+
+    private static final String SELECT_TRABAJADOR =
+            "SELECT t.trabajador_id, t.dni, t.nombres, t.apellidos, t.area_id, a.nombre_area, t.estado, %s AS puntaje " +
+            "FROM epp.trabajador t JOIN epp.area a ON a.area_id = t.area_id ";
+
+    private static final String SQL_BUSCAR_TRABAJADORES =
+            String.format(SELECT_TRABAJADOR, "word_similarity(epp.normalizar(?), " + NOMBRE_TRABAJADOR + ")::float8") +
+            "WHERE epp.normalizar(?) <% " + NOMBRE_TRABAJADOR + " " +
+            "ORDER BY puntaje DESC, t.apellidos, t.nombres LIMIT ?";
+
+    /**
+     * Prefijo del nombre completo o de cualquier palabra; el parámetro va escapado para LIKE
+     */
+    private static final String SQL_SUGERIR_TRABAJADORES =
+            String.format(SELECT_TRABAJADOR, "NULL::float8") +
+            "WHERE " + NOMBRE_TRABAJADOR + " LIKE epp.normalizar(?) || '%' " +
+            "OR " + NOMBRE_TRABAJADOR + " LIKE '% ' || epp.normalizar(?) || '%' " +
+            "ORDER BY t.apellidos, t.nombres LIMIT ?";
+
+    private static final String SQL_SUGERIR_TRABAJADORES_DNI =
+            String.format(SELECT_TRABAJADOR, "NULL::float8") +
+            "WHERE t.dni LIKE ? || '%' ORDER BY t.dni LIMIT ?";
+
+    private static final String SELECT_CATALOGO =
+            "SELECT c.epp_id, c.codigo_identificacion, c.nombre_epp, c.tipo_uso, %s AS puntaje " +
+            "FROM epp.catalogo_epp c WHERE c.activo = true ";
+
+    private static final String SQL_BUSCAR_CATALOGO =
+            String.format(SELECT_CATALOGO, "word_similarity(epp.normalizar(?), epp.normalizar(c.nombre_epp))::float8") +
+            "AND epp.normalizar(?) <% epp.normalizar(c.nombre_epp) " +
+            "ORDER BY puntaje DESC, c.nombre_epp LIMIT ?";
+
+    private static final String SQL_SUGERIR_CATALOGO =
+            String.format(SELECT_CATALOGO, "NULL::float8") +
+            "AND (epp.normalizar(c.nombre_epp) LIKE epp.normalizar(?) || '%' " +
+            "OR epp.normalizar(c.nombre_epp) LIKE '% ' || epp.normalizar(?) || '%') " +
+            "ORDER BY c.nombre_epp LIMIT ?";
+
+    private static final String SQL_CATALOGO_ACTIVO =
+            String.format(SELECT_CATALOGO, "NULL::float8") + "ORDER BY c.epp_id";
+
+    private static final RowMapper<TrabajadorBusquedaResponseDTO> TRABAJADOR = (rs, i) ->
+            TrabajadorBusquedaResponseDTO.builder()
+                    .trabajadorId(rs.getInt("trabajador_id"))
+                    .dni(rs.getString("dni"))
+                    .nombres(rs.getString("nombres"))
+                    .apellidos(rs.getString("apellidos"))
+                    .areaId(rs.getInt("area_id"))
+                    .nombreArea(rs.getString("nombre_area"))
+                    .estado(rs.getString("estado"))
+                    .puntaje(rs.getObject("puntaje", Double.class))
+                    .build();
+
+    private static final RowMapper<CatalogoBusquedaResponseDTO> CATALOGO = (rs, i) ->
+            CatalogoBusquedaResponseDTO.builder()
+                    .eppId(rs.getInt("epp_id"))
+                    .codigoIdentificacion(rs.getString("codigo_identificacion"))
+                    .nombreEpp(rs.getString("nombre_epp"))
+                    .tipoUso(rs.getString("tipo_uso"))
+                    .puntaje(rs.getObject("puntaje", Double.class))
+                    .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final double umbralSimilitud;
+    private final boolean indiceMemoria;
+
+    /**
+     * Se reemplaza el índice completo al cambiar el catálogo
+     */
+    private volatile IndiceNgramas<EppIndexado> indiceCatalogo;
+
+    private record EppIndexado(Integer eppId, String codigoIdentificacion, String nombreEpp, String tipoUso) {
+    }
+
+    public BusquedaService(JdbcTemplate jdbcTemplate,
+                           @Value("${busqueda.umbral-similitud:0.4}") double umbralSimilitud,
+                           @Value("${busqueda.catalogo.indice-memoria:true}") boolean indiceMemoria) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.umbralSimilitud = umbralSimilitud;
+        this.indiceMemoria = indiceMemoria;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TrabajadorBusquedaResponseDTO> buscarTrabajadores(String texto, int limite) {
+        String consulta = validar(texto);
+        fijarUmbral();
+        return jdbcTemplate.query(SQL_BUSCAR_TRABAJADORES, TRABAJADOR, consulta, consulta, limite(limite));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TrabajadorBusquedaResponseDTO> sugerirTrabajadores(String prefijo, int limite) {
+        String consulta = validar(prefijo);
+        if (consulta.chars().allMatch(Character::isDigit)) {
+            return jdbcTemplate.query(SQL_SUGERIR_TRABAJADORES_DNI, TRABAJADOR, consulta, limite(limite));
+        }
+        String patron = escaparLike(consulta);
+        return jdbcTemplate.query(SQL_SUGERIR_TRABAJADORES, TRABAJADOR, patron, patron, limite(limite));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CatalogoBusquedaResponseDTO> buscarCatalogo(String texto, int limite) {
+        String consulta = validar(texto);
+        fijarUmbral();
+        return jdbcTemplate.query(SQL_BUSCAR_CATALOGO, CATALOGO, consulta, consulta, limite(limite));
+    }
+
+    /**
+     * Autocompletado del catálogo: desde memoria admite desde un carácter
+     */
+    public List<CatalogoBusquedaResponseDTO> sugerirCatalogo(String prefijo, int limite) {
+        IndiceNgramas<EppIndexado> indice = indiceCatalogo;
+        if (indice != null) {
+            if (prefijo == null || prefijo.isBlank()) {
+                throw new BusinessException("Ingrese el texto a buscar");
+            }
+            return indice.buscarPrefijo(prefijo, limite(limite)).stream()
+                    .map(epp -> CatalogoBusquedaResponseDTO.builder()
+                            .eppId(epp.eppId())
+                            .codigoIdentificacion(epp.codigoIdentificacion())
+                            .nombreEpp(epp.nombreEpp())
+                            .tipoUso(epp.tipoUso())
+                            .build())
+                    .toList();
+        }
+        String patron = escaparLike(validar(prefijo));
+        return jdbcTemplate.query(SQL_SUGERIR_CATALOGO, CATALOGO, patron, patron, limite(limite));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarIndiceCatalogo() {
+        recargarIndiceCatalogo();
+    }
+
+    /**
+     * El catálogo es pequeño: se reconstruye completo en cada cambio y periódicamente
+     * (cambios hechos fuera de JPA)
+     */
+    @Scheduled(initialDelayString = "${busqueda.catalogo.recarga-interval:300000}",
+            fixedDelayString = "${busqueda.catalogo.recarga-interval:300000}")
+    public void recargarIndiceCatalogo() {
+        if (!indiceMemoria) {
+            return;
+        }
+        List<EppIndexado> activos = jdbcTemplate.query(SQL_CATALOGO_ACTIVO, (rs, i) -> new EppIndexado(
+                rs.getInt("epp_id"), rs.getString("codigo_identificacion"), rs.getString("nombre_epp"),
+                rs.getString("tipo_uso")));
+        indiceCatalogo = IndiceNgramas.construir(activos,
+                epp -> epp.nombreEpp() + " " + (epp.codigoIdentificacion() != null ? epp.codigoIdentificacion() : ""));
+        log.debug("Índice de autocompletado del catálogo: {} EPP", activos.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogoModificado(CatalogoEppModificadoEvent event) {
+        recargarIndiceCatalogo();
+    }
+
+    /**
+     * Umbral de los operadores de similitud solo para la transacción actual
+     */
+    private void fijarUmbral() {
+        jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)",
+                String.class, Double.toString(umbralSimilitud));
+    }
+
+    private static String validar(String texto) {
+        String consulta = texto != null ? texto.trim() : "";
+        if (consulta.length() < MIN_CARACTERES) {
+            throw new BusinessException("Ingrese al menos " + MIN_CARACTERES + " caracteres");
+        }
+        return consulta;
+    }
+
+    private static int limite(int limite) {
+        return Math.min(Math.max(limite, 1), LIMITE_MAXIMO);
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
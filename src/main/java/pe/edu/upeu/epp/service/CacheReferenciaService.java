@@ -0,0 +1,62 @@
+package pe.edu.upeu.epp.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Service;
+import pe.edu.upeu.epp.entity.Area;
+import pe.edu.upeu.epp.entity.CatalogoEpp;
+import pe.edu.upeu.epp.entity.EstadoEpp;
+import pe.edu.upeu.epp.entity.Rol;
+import pe.edu.upeu.epp.entity.Usuario;
+
+/**
+ * Invalidación manual del cache de segundo nivel de los datos de referencia.
+ * Las escrituras por JPA ya invalidan sus entradas y los resultados de consultas
+ * sobre la tabla; esto es para cambios hechos fuera de Hibernate (SQL directo,
+ * cargas masivas), que de otro modo se verían recién al expirar la región.
+ */
+@Service
+@Slf4j
+public class CacheReferenciaService {
+
+    private static final String ROLES_USUARIO = Usuario.class.getName() + ".roles";
+
+    private final Cache cache;
+
+    public CacheReferenciaService(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    public enum EntidadReferencia {
+        ROL(Rol.class), ESTADO_EPP(EstadoEpp.class), AREA(Area.class), CATALOGO_EPP(CatalogoEpp.class);
+
+        private final Class<?> entidad;
+
+        EntidadReferencia(Class<?> entidad) {
+            this.entidad = entidad;
+        }
+    }
+
+    /**
+     * Descartar las entradas de una entidad y todos los resultados de consultas en cache
+     */
+    public void invalidar(EntidadReferencia referencia) {
+        cache.evictEntityData(referencia.entidad);
+        if (referencia == EntidadReferencia.ROL) {
+            cache.evictCollectionData(ROLES_USUARIO);
+        }
+        cache.evictQueryRegions();
+        log.info("Cache de segundo nivel invalidado: {}", referencia);
+    }
+
+    public void invalidarTodo() {
+        for (EntidadReferencia referencia : EntidadReferencia.values()) {
+            cache.evictEntityData(referencia.entidad);
+        }
+        cache.evictCollectionData(ROLES_USUARIO);
+        cache.evictQueryRegions();
+        log.info("Cache de segundo nivel de datos de referencia invalidado");
+    }
+}
@@ -0,0 +1,189 @@
+package pe.edu.upeu.epp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.response.ConsumoResponseDTO;
+import pe.edu.upeu.epp.exception.BusinessException;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rollup diario del consumo de EPP (consumo_diario) y reportes sobre él.
+ * La actualización es incremental: se recalculan los días desde la última marca
+ * menos una ventana (cubre entregas registradas con fecha pasada) hasta ayer.
+ * Las consultas leen el rollup hasta la marca y agregan al vuelo solo la cola
+ * aún no materializada.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConsumoRollupService {
+
+    private static final String ROLLUP = "consumo_diario";
+
+    private static final String SQL_AGREGAR_ENTREGAS =
+            "SELECT CAST(e.fecha_entrega AS date) AS dia, d.epp_id, t.area_id, e.tipo_entrega, " +
+            "SUM(COALESCE(d.cantidad, 1)) AS cantidad, COUNT(*) AS detalles " +
+            "FROM epp.entrega_epp e " +
+            "JOIN epp.detalle_entrega_epp d ON d.entrega_id = e.entrega_id " +
+            "JOIN epp.trabajador t ON t.trabajador_id = e.trabajador_id " +
+            "WHERE e.fecha_entrega >= ? AND e.fecha_entrega < ? " +
+            "GROUP BY 1, 2, 3, 4";
+
+    private static final String SQL_MATERIALIZAR =
+            "INSERT INTO epp.consumo_diario (dia, epp_id, area_id, tipo_entrega, cantidad, detalles) " +
+            SQL_AGREGAR_ENTREGAS;
+
+    /**
+     * Rollup hasta la marca + cola calculada sobre las entregas, con las primeras filas
+     * de cada período; %s: período, clave, nombre y join
+     */
+    private static final String SQL_CONSUMO =
+            "WITH base AS (" +
+            "  SELECT dia, epp_id, area_id, tipo_entrega, cantidad, detalles FROM epp.consumo_diario " +
+            "  WHERE dia >= ? AND dia < ? " +
+            "  UNION ALL " + SQL_AGREGAR_ENTREGAS + "), " +
+            "agregado AS (" +
+            "  SELECT %s AS periodo, %s AS clave, %s AS nombre, SUM(b.cantidad) AS cantidad, SUM(b.detalles) AS detalles " +
+            "  FROM base b %s " +
+            "  GROUP BY 1, 2, 3) " +
+            "SELECT periodo, clave, nombre, cantidad, detalles FROM (" +
+            "  SELECT a.*, ROW_NUMBER() OVER (PARTITION BY periodo ORDER BY cantidad DESC, clave) AS puesto " +
+            "  FROM agregado a) r " +
+            "WHERE puesto <= ? ORDER BY periodo, puesto";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${reportes.consumo.recompute-window:7d}")
+    private Duration ventanaRecalculo;
+
+    public enum Granularidad {
+        DIA("day"), SEMANA("week"), MES("month"), TOTAL(null);
+
+        private final String unidad;
+
+        Granularidad(String unidad) {
+            this.unidad = unidad;
+        }
+    }
+
+    public enum Dimension {
+        EPP("b.epp_id::text", "c.nombre_epp", "JOIN epp.catalogo_epp c ON c.epp_id = b.epp_id"),
+        AREA("b.area_id::text", "a.nombre_area", "JOIN epp.area a ON a.area_id = b.area_id"),
+        TIPO_ENTREGA("b.tipo_entrega", "b.tipo_entrega", "");
+
+        private final String clave;
+        private final String nombre;
+        private final String join;
+
+        Dimension(String clave, String nombre, String join) {
+            this.clave = clave;
+            this.nombre = nombre;
+            this.join = join;
+        }
+    }
+
+    /**
+     * Materializar los días completos pendientes (el día en curso queda en la cola)
+     */
+    @Scheduled(fixedDelayString = "${reportes.consumo.refresh-interval:300000}")
+    @Transactional
+    public void actualizar() {
+        LocalDate materializado = bloquearEstado();
+        LocalDate hasta = LocalDate.now();
+        LocalDate desde = materializado != null
+                ? materializado.minusDays(ventanaRecalculo.toDays())
+                : jdbcTemplate.queryForObject("SELECT CAST(MIN(fecha_entrega) AS date) FROM epp.entrega_epp",
+                        LocalDate.class);
+        if (desde == null || !desde.isBefore(hasta)) {
+            desde = hasta;
+        }
+        int filas = materializar(desde, hasta);
+        guardarEstado(hasta);
+        log.debug("Rollup {} actualizado: días {} a {} ({} filas)", ROLLUP, desde, hasta.minusDays(1), filas);
+    }
+
+    /**
+     * Recalcular un rango de días ya materializado (correcciones fuera de la ventana)
+     */
+    @Transactional
+    public int recalcular(LocalDate desde, LocalDate hasta) {
+        LocalDate materializado = bloquearEstado();
+        if (materializado == null) {
+            throw new BusinessException("El rollup de consumo aún no se ha materializado");
+        }
+        LocalDate hastaExclusivo = hasta.plusDays(1).isAfter(materializado) ? materializado : hasta.plusDays(1);
+        if (!desde.isBefore(hastaExclusivo)) {
+            return 0;
+        }
+        int filas = materializar(desde, hastaExclusivo);
+        log.info("Rollup {} recalculado: días {} a {} ({} filas)", ROLLUP, desde, hastaExclusivo.minusDays(1), filas);
+        return filas;
+    }
+
+    /**
+     * Consumo en el rango de días [desde, hasta] agrupado por período y dimensión;
+     * limite acota las filas de cada período, no las del resultado
+     */
+    @Transactional(readOnly = true)
+    public List<ConsumoResponseDTO> consumo(Granularidad granularidad, Dimension dimension,
+                                           LocalDate desde, LocalDate hasta, int limite) {
+        if (hasta.isBefore(desde)) {
+            throw new BusinessException("La fecha final no puede ser anterior a la inicial");
+        }
+        LocalDate hastaExclusivo = hasta.plusDays(1);
+        LocalDate marca = jdbcTemplate.queryForList(
+                "SELECT materializado_hasta FROM epp.rollup_estado WHERE rollup = ?", LocalDate.class, ROLLUP)
+                .stream().findFirst().orElse(null);
+
+        // [desde, corte) desde el rollup; [corte, hasta] sobre las entregas
+        LocalDate corte = marca == null || marca.isBefore(desde) ? desde
+                : marca.isAfter(hastaExclusivo) ? hastaExclusivo : marca;
+
+        String periodo = granularidad.unidad == null ? "CAST(NULL AS date)"
+                : "CAST(date_trunc('" + granularidad.unidad + "', b.dia) AS date)";
+        String sql = String.format(SQL_CONSUMO, periodo, dimension.clave, dimension.nombre, dimension.join);
+
+        return jdbcTemplate.query(sql, (rs, n) -> ConsumoResponseDTO.builder()
+                        .periodo(rs.getObject("periodo", LocalDate.class))
+                        .clave(rs.getString("clave"))
+                        .nombre(rs.getString("nombre"))
+                        .cantidad(rs.getLong("cantidad"))
+                        .detalles(rs.getLong("detalles"))
+                        .build(),
+                Date.valueOf(desde), Date.valueOf(corte),
+                Timestamp.valueOf(corte.atStartOfDay()), Timestamp.valueOf(hastaExclusivo.atStartOfDay()),
+                limite);
+    }
+
+    private int materializar(LocalDate desde, LocalDate hastaExclusivo) {
+        jdbcTemplate.update("DELETE FROM epp.consumo_diario WHERE dia >= ? AND dia < ?",
+                Date.valueOf(desde), Date.valueOf(hastaExclusivo));
+        return jdbcTemplate.update(SQL_MATERIALIZAR,
+                Timestamp.valueOf(desde.atStartOfDay()), Timestamp.valueOf(hastaExclusivo.atStartOfDay()));
+    }
+
+    /**
+     * Serializa las actualizaciones entre nodos; retorna la marca actual
+     */
+    private LocalDate bloquearEstado() {
+        jdbcTemplate.update("INSERT INTO epp.rollup_estado (rollup) VALUES (?) ON CONFLICT DO NOTHING", ROLLUP);
+        return jdbcTemplate.queryForObject(
+                "SELECT materializado_hasta FROM epp.rollup_estado WHERE rollup = ? FOR UPDATE",
+                LocalDate.class, ROLLUP);
+    }
+
+    private void guardarEstado(LocalDate materializadoHasta) {
+        jdbcTemplate.update("UPDATE epp.rollup_estado SET materializado_hasta = ?, ultima_actualizacion = LOCALTIMESTAMP " +
+                "WHERE rollup = ?", Date.valueOf(materializadoHasta), ROLLUP);
+    }
+}
@@ -0,0 +1,275 @@
+package pe.edu.upeu.epp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.request.DetalleEntregaRequestDTO;
+import pe.edu.upeu.epp.dto.request.EntregaMasivaRequestDTO;
+import pe.edu.upeu.epp.dto.request.EntregaRequestDTO;
+import pe.edu.upeu.epp.dto.response.EntregaMasivaResponseDTO;
+import pe.edu.upeu.epp.entity.Rol;
+import pe.edu.upeu.epp.entity.Usuario;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.repository.CatalogoEppRepository;
+import pe.edu.upeu.epp.repository.TrabajadorRepository;
+import pe.edu.upeu.epp.repository.UsuarioRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registro masivo de entregas (entrega de EPP a toda una cuadrilla).
+ * EntregaEpp y DetalleEntregaEpp usan IDENTITY, que impide el batching de Hibernate;
+ * aquí los ids se reservan en bloque de las secuencias de esas columnas y las filas
+ * se insertan con batches JDBC (reWriteBatchedInserts los convierte en INSERT multi-fila).
+ * El stock del área se descuenta a través de StockEngine, agregando las cantidades por EPP,
+ * y cada detalle queda registrado como salida en el libro de movimientos.
+ *
+ * Un JEFE_AREA solo puede entregar desde el área de su trabajador; SUPERVISOR_SST y
+ * ADMINISTRADOR_SISTEMA pueden hacerlo desde cualquiera. Todas las referencias se
+ * validan antes de descontar stock para que ninguna llegue como violación de FK al batch.
+ * Las instancias entregadas pasan a ENTREGADO con un solo UPDATE condicionado a EN_STOCK:
+ * si otra entrega se llevó alguna entre la validación y el UPDATE, se rechaza la solicitud.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntregaMasivaService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SQL_RESERVAR_IDS =
+            "SELECT nextval(pg_get_serial_sequence(?, ?)) FROM generate_series(1, ?)";
+
+    private static final String SQL_INSERT_ENTREGA =
+            "INSERT INTO epp.entrega_epp (entrega_id, trabajador_id, jefe_area_id, fecha_entrega, " +
+            "tipo_entrega, observaciones, firma_digital, status) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_INSERT_DETALLE =
+            "INSERT INTO epp.detalle_entrega_epp (detalle_id, entrega_id, epp_id, instancia_epp_id, " +
+            "cantidad, motivo) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final Set<String> ROLES_CUALQUIER_AREA = Set.of("SUPERVISOR_SST", "ADMINISTRADOR_SISTEMA");
+
+    private static final String SQL_INSTANCIAS =
+            "SELECT ie.instancia_epp_id, ie.epp_id, ee.nombre AS estado FROM epp.instancia_epp ie " +
+            "JOIN epp.estado_epp ee ON ee.estado_id = ie.estado_id WHERE ie.instancia_epp_id = ANY(?)";
+
+    private static final String SQL_MARCAR_ENTREGADAS =
+            "UPDATE epp.instancia_epp ie SET estado_id = entregado.estado_id, " +
+            "trabajador_actual_id = v.trabajador_id, fecha_actualizacion = ? " +
+            "FROM unnest(?::int[], ?::int[]) AS v(instancia_epp_id, trabajador_id), " +
+            "epp.estado_epp entregado, epp.estado_epp en_stock " +
+            "WHERE entregado.nombre = 'ENTREGADO' AND en_stock.nombre = 'EN_STOCK' " +
+            "AND ie.instancia_epp_id = v.instancia_epp_id AND ie.estado_id = en_stock.estado_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UsuarioRepository usuarioRepository;
+    private final TrabajadorRepository trabajadorRepository;
+    private final CatalogoEppRepository catalogoEppRepository;
+    private final StockEngine stockEngine;
+    private final MovimientoInventarioService movimientoInventarioService;
+
+    /**
+     * Registrar todas las entregas de la solicitud en una transacción.
+     * Si algún EPP no tiene stock suficiente no se registra ninguna.
+     */
+    @Transactional
+    public EntregaMasivaResponseDTO registrar(EntregaMasivaRequestDTO request, String nombreUsuario) {
+        long inicio = System.nanoTime();
+        Usuario usuario = usuarioRepository.findByNombreUsuarioWithRoles(nombreUsuario)
+                .orElseThrow(() -> new BusinessException("Usuario no encontrado: " + nombreUsuario));
+        if (usuario.getTrabajador() == null) {
+            throw new BusinessException("El usuario no está asociado a un trabajador");
+        }
+        Integer jefeAreaId = usuario.getTrabajador().getTrabajadorId();
+        verificarArea(usuario, request.getAreaId());
+
+        List<EntregaRequestDTO> entregas = request.getEntregas();
+        validarReferencias(entregas);
+        Map<Integer, Integer> trabajadorPorInstancia = validarInstancias(entregas);
+
+        // Descontar stock primero: si no alcanza, no se inserta nada
+        stockEngine.descontarArea(request.getAreaId(), totalesPorEpp(entregas));
+        marcarEntregadas(trabajadorPorInstancia);
+
+        int totalDetalles = entregas.stream().mapToInt(e -> e.getDetalles().size()).sum();
+        List<Integer> entregaIds = reservarIds("epp.entrega_epp", "entrega_id", entregas.size());
+        List<Integer> detalleIds = reservarIds("epp.detalle_entrega_epp", "detalle_id", totalDetalles);
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Object[]> filasEntrega = new ArrayList<>(entregas.size());
+        List<Object[]> filasDetalle = new ArrayList<>(totalDetalles);
+        int d = 0;
+        for (int i = 0; i < entregas.size(); i++) {
+            EntregaRequestDTO entrega = entregas.get(i);
+            Integer entregaId = entregaIds.get(i);
+            filasEntrega.add(new Object[]{
+                    entregaId,
+                    entrega.getTrabajadorId(),
+                    jefeAreaId,
+                    Timestamp.valueOf(entrega.getFechaEntrega() != null ? entrega.getFechaEntrega() : ahora),
+                    entrega.getTipoEntrega().name(),
+                    entrega.getObservaciones(),
+                    entrega.getFirmaDigital(),
+                    "COMPLETADA"
+            });
+            for (DetalleEntregaRequestDTO detalle : entrega.getDetalles()) {
+                filasDetalle.add(new Object[]{
+                        detalleIds.get(d++),
+                        entregaId,
+                        detalle.getEppId(),
+                        detalle.getInstanciaEppId(),
+                        detalle.getCantidad(),
+                        detalle.getMotivo()
+                });
+            }
+        }
+
+        insertarEnLotes(SQL_INSERT_ENTREGA, filasEntrega);
+        insertarEnLotes(SQL_INSERT_DETALLE, filasDetalle);
+        movimientoInventarioService.registrarEntregas(request.getAreaId(), entregaIds);
+
+        log.info("Entrega masiva en área {}: {} entregas, {} detalles en {} ms",
+                request.getAreaId(), entregas.size(), totalDetalles, (System.nanoTime() - inicio) / 1_000_000);
+
+        return EntregaMasivaResponseDTO.builder()
+                .entregasRegistradas(entregas.size())
+                .detallesRegistrados(totalDetalles)
+                .entregaIds(entregaIds)
+                .build();
+    }
+
+    /**
+     * Verificar en una consulta por tabla que existan los trabajadores y EPP referenciados
+     */
+    private void validarReferencias(List<EntregaRequestDTO> entregas) {
+        Set<Integer> trabajadorIds = entregas.stream()
+                .map(EntregaRequestDTO::getTrabajadorId)
+                .collect(Collectors.toSet());
+        if (trabajadorRepository.countByTrabajadorIdIn(trabajadorIds) != trabajadorIds.size()) {
+            throw new BusinessException("Uno o más trabajadores no existen");
+        }
+
+        Set<Integer> eppIds = new HashSet<>();
+        entregas.forEach(e -> e.getDetalles().forEach(detalle -> eppIds.add(detalle.getEppId())));
+        if (catalogoEppRepository.countByEppIdIn(eppIds) != eppIds.size()) {
+            throw new BusinessException("Uno o más EPP no existen en el catálogo");
+        }
+    }
+
+    /**
+     * Un usuario sin rol de alcance general solo entrega desde el área de su trabajador
+     */
+    private void verificarArea(Usuario usuario, Integer areaId) {
+        boolean cualquierArea = usuario.getRoles().stream()
+                .map(Rol::getNombreRol)
+                .anyMatch(ROLES_CUALQUIER_AREA::contains);
+        if (!cualquierArea && !areaId.equals(usuario.getTrabajador().getArea().getAreaId())) {
+            throw new AccessDeniedException("No puede registrar entregas del área " + areaId);
+        }
+    }
+
+    /**
+     * Cada instancia indicada debe existir, estar EN_STOCK, ser del EPP de su detalle
+     * y aparecer una sola vez en la solicitud; retorna el trabajador que recibe cada una
+     */
+    private Map<Integer, Integer> validarInstancias(List<EntregaRequestDTO> entregas) {
+        Map<Integer, Integer> eppPorInstancia = new HashMap<>();
+        Map<Integer, Integer> trabajadorPorInstancia = new HashMap<>();
+        for (EntregaRequestDTO entrega : entregas) {
+            for (DetalleEntregaRequestDTO detalle : entrega.getDetalles()) {
+                Integer instanciaId = detalle.getInstanciaEppId();
+                if (instanciaId == null) {
+                    continue;
+                }
+                if (eppPorInstancia.put(instanciaId, detalle.getEppId()) != null) {
+                    throw new BusinessException("La instancia " + instanciaId + " figura en más de un detalle");
+                }
+                trabajadorPorInstancia.put(instanciaId, entrega.getTrabajadorId());
+            }
+        }
+        if (eppPorInstancia.isEmpty()) {
+            return trabajadorPorInstancia;
+        }
+
+        Map<Integer, Integer> eppEncontrado = new HashMap<>();
+        Map<Integer, String> estadoEncontrado = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_INSTANCIAS);
+            ps.setArray(1, con.createArrayOf("integer", eppPorInstancia.keySet().toArray(Integer[]::new)));
+            return ps;
+        }, rs -> {
+            eppEncontrado.put(rs.getInt("instancia_epp_id"), rs.getInt("epp_id"));
+            estadoEncontrado.put(rs.getInt("instancia_epp_id"), rs.getString("estado"));
+        });
+
+        eppPorInstancia.forEach((instanciaId, eppId) -> {
+            if (!eppEncontrado.containsKey(instanciaId)) {
+                throw new BusinessException("La instancia " + instanciaId + " no existe");
+            }
+            if (!eppId.equals(eppEncontrado.get(instanciaId))) {
+                throw new BusinessException("La instancia " + instanciaId + " no corresponde al EPP " + eppId);
+            }
+            String estado = estadoEncontrado.get(instanciaId);
+            if (!"EN_STOCK".equals(estado)) {
+                throw new BusinessException("La instancia " + instanciaId + " no está disponible (" + estado + ")");
+            }
+        });
+        return trabajadorPorInstancia;
+    }
+
+    /**
+     * Pasar las instancias a ENTREGADO con su trabajador. El UPDATE solo toca las que siguen
+     * EN_STOCK, así que una entrega concurrente de la misma instancia deja la cuenta corta
+     */
+    private void marcarEntregadas(Map<Integer, Integer> trabajadorPorInstancia) {
+        if (trabajadorPorInstancia.isEmpty()) {
+            return;
+        }
+        Integer[] instancias = trabajadorPorInstancia.keySet().toArray(Integer[]::new);
+        Integer[] trabajadores = new Integer[instancias.length];
+        for (int i = 0; i < instancias.length; i++) {
+            trabajadores[i] = trabajadorPorInstancia.get(instancias[i]);
+        }
+        int marcadas = jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_MARCAR_ENTREGADAS);
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setArray(2, con.createArrayOf("integer", instancias));
+            ps.setArray(3, con.createArrayOf("integer", trabajadores));
+            return ps;
+        });
+        if (marcadas != instancias.length) {
+            throw new BusinessException("Una o más instancias ya no están disponibles");
+        }
+    }
+
+    private static Map<Integer, Integer> totalesPorEpp(List<EntregaRequestDTO> entregas) {
+        Map<Integer, Integer> totales = new TreeMap<>();
+        entregas.forEach(e -> e.getDetalles()
+                .forEach(detalle -> totales.merge(detalle.getEppId(), detalle.getCantidad(), Integer::sum)));
+        return totales;
+    }
+
+    private List<Integer> reservarIds(String tabla, String columna, int cantidad) {
+        return jdbcTemplate.queryForList(SQL_RESERVAR_IDS, Integer.class, tabla, columna, cantidad);
+    }
+
+    private void insertarEnLotes(String sql, List<Object[]> filas) {
+        for (int desde = 0; desde < filas.size(); desde += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, filas.subList(desde, Math.min(desde + BATCH_SIZE, filas.size())));
+        }
+    }
+}
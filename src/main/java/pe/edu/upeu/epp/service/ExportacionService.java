@@ -0,0 +1,158 @@
+package pe.edu.upeu.epp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.repository.AuditoriaRepository;
+import pe.edu.upeu.epp.repository.DetalleEntregaEppRepository;
+import pe.edu.upeu.epp.repository.InspeccionRepository;
+import pe.edu.upeu.epp.repository.InventarioAreaRepository;
+import pe.edu.upeu.epp.repository.InventarioCentralRepository;
+import pe.edu.upeu.epp.util.ExcelStreamWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Exportación de reportes a .xlsx en streaming.
+ * Las filas se leen con un cursor (fetch size) como proyecciones escalares, sin
+ * entidades en el contexto de persistencia, y se escriben con SXSSF directamente
+ * en la respuesta: la memoria usada no depende del número de filas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportacionService {
+
+    /**
+     * Cada cuántas filas se informa el avance
+     */
+    private static final long INTERVALO_PROGRESO = 10_000;
+
+    private static final List<String> ENCABEZADOS_ENTREGAS = List.of("Fecha", "Entrega", "Tipo", "Estado", "DNI",
+            "Trabajador", "Área", "Código EPP", "EPP", "Cantidad", "Motivo", "Entregado por");
+    private static final List<String> ENCABEZADOS_INSPECCIONES = List.of("Fecha", "Inspección", "Serie", "Código EPP",
+            "EPP", "Inspector", "Resultado", "Observaciones", "Acción correctiva", "Próxima inspección");
+    private static final List<String> ENCABEZADOS_STOCK_AREAS = List.of("Área", "Código EPP", "EPP", "Cantidad",
+            "Mínimo", "Máximo", "Ubicación", "Última actualización");
+    private static final List<String> ENCABEZADOS_STOCK_CENTRAL = List.of("Código EPP", "EPP", "Lote", "Cantidad",
+            "Mínimo", "Ubicación", "Vencimiento", "Proveedor", "Costo unitario", "Última actualización");
+    private static final List<String> ENCABEZADOS_AUDITORIA = List.of("Fecha", "Auditoría", "Tabla", "Operación",
+            "Registro", "Usuario", "IP", "Datos anteriores", "Datos nuevos");
+
+    private final DetalleEntregaEppRepository detalleEntregaEppRepository;
+    private final InspeccionRepository inspeccionRepository;
+    private final InventarioAreaRepository inventarioAreaRepository;
+    private final InventarioCentralRepository inventarioCentralRepository;
+    private final AuditoriaRepository auditoriaRepository;
+
+    /**
+     * Filas que SXSSF mantiene en memoria por hoja
+     */
+    @Value("${reportes.exportacion.row-window:100}")
+    private int ventanaFilas;
+
+    public enum TipoExportacion {
+        ENTREGAS(true), INSPECCIONES(true), STOCK(false), AUDITORIA(true);
+
+        private final boolean requiereRango;
+
+        TipoExportacion(boolean requiereRango) {
+            this.requiereRango = requiereRango;
+        }
+    }
+
+    /**
+     * Validar los parámetros antes de empezar a escribir la respuesta
+     */
+    public void validar(TipoExportacion tipo, LocalDate desde, LocalDate hasta) {
+        if (!tipo.requiereRango) {
+            return;
+        }
+        if (desde == null || hasta == null) {
+            throw new BusinessException("Indique el rango de fechas (desde y hasta) para exportar " + tipo);
+        }
+        if (hasta.isBefore(desde)) {
+            throw new BusinessException("La fecha final no puede ser anterior a la inicial");
+        }
+    }
+
+    /**
+     * Escribir el reporte en la salida; el rango de días es inclusivo
+     */
+    @Transactional(readOnly = true)
+    public void exportar(TipoExportacion tipo, LocalDate desde, LocalDate hasta, OutputStream salida) throws IOException {
+        exportar(tipo, desde, hasta, salida, filas -> { });
+    }
+
+    /**
+     * Escribir el reporte informando las filas escritas cada INTERVALO_PROGRESO filas.
+     * Retorna el total de filas exportadas.
+     */
+    @Transactional(readOnly = true)
+    public long exportar(TipoExportacion tipo, LocalDate desde, LocalDate hasta, OutputStream salida,
+                         LongConsumer progreso) throws IOException {
+        long inicio = System.nanoTime();
+        LocalDateTime desdeFecha = desde != null ? desde.atStartOfDay() : null;
+        LocalDateTime hastaFecha = hasta != null ? hasta.plusDays(1).atStartOfDay() : null;
+        long[] escritas = {0};
+        long filas;
+
+        try (ExcelStreamWriter excel = new ExcelStreamWriter(ventanaFilas)) {
+            switch (tipo) {
+                case ENTREGAS -> {
+                    try (Stream<Object[]> datos = detalleEntregaEppRepository.streamParaExportacion(desdeFecha, hastaFecha)) {
+                        filas = excel.escribirHoja("Entregas", ENCABEZADOS_ENTREGAS, contar(datos.map(f -> new Object[]{
+                                f[0], f[1], f[2], f[3], f[4], nombre(f[5], f[6]), f[7], f[8], f[9], f[10], f[11],
+                                nombre(f[12], f[13])}), escritas, progreso));
+                    }
+                }
+                case INSPECCIONES -> {
+                    try (Stream<Object[]> datos = inspeccionRepository.streamParaExportacion(desdeFecha, hastaFecha)) {
+                        filas = excel.escribirHoja("Inspecciones", ENCABEZADOS_INSPECCIONES, contar(datos.map(f -> new Object[]{
+                                f[0], f[1], f[2], f[3], f[4], nombre(f[5], f[6]), f[7], f[8], f[9], f[10]}), escritas, progreso));
+                    }
+                }
+                case STOCK -> {
+                    try (Stream<Object[]> datos = inventarioAreaRepository.streamParaExportacion()) {
+                        filas = excel.escribirHoja("Stock áreas", ENCABEZADOS_STOCK_AREAS, contar(datos, escritas, progreso));
+                    }
+                    try (Stream<Object[]> datos = inventarioCentralRepository.streamParaExportacion()) {
+                        filas += excel.escribirHoja("Stock central", ENCABEZADOS_STOCK_CENTRAL, contar(datos, escritas, progreso));
+                    }
+                }
+                case AUDITORIA -> {
+                    try (Stream<Object[]> datos = auditoriaRepository.streamParaExportacion(desdeFecha, hastaFecha)) {
+                        filas = excel.escribirHoja("Auditoría", ENCABEZADOS_AUDITORIA, contar(datos, escritas, progreso));
+                    }
+                }
+                default -> throw new IllegalStateException("Tipo de exportación no soportado: " + tipo);
+            }
+            excel.escribir(salida);
+        }
+
+        log.info("Exportación {} ({} a {}): {} filas en {} ms",
+                tipo, desde, hasta, filas, (System.nanoTime() - inicio) / 1_000_000);
+        return filas;
+    }
+
+    private static Stream<Object[]> contar(Stream<Object[]> filas, long[] escritas, LongConsumer progreso) {
+        return filas.peek(f -> {
+            if (++escritas[0] % INTERVALO_PROGRESO == 0) {
+                progreso.accept(escritas[0]);
+            }
+        });
+    }
+
+    private static String nombre(Object apellidos, Object nombres) {
+        return apellidos + ", " + nombres;
+    }
+}
@@ -0,0 +1,784 @@
+package pe.edu.upeu.epp.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import pe.edu.upeu.epp.dto.response.ImportacionResponseDTO;
+import pe.edu.upeu.epp.dto.response.RechazoImportacionDTO;
+import pe.edu.upeu.epp.entity.CatalogoEpp.TipoUso;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.service.CacheReferenciaService.EntidadReferencia;
+import pe.edu.upeu.epp.util.IndiceNgramas;
+import pe.edu.upeu.epp.util.LectorTabular;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Importación masiva de trabajadores y del catálogo de EPP desde .csv o .xlsx.
+ * El archivo se lee en streaming (LectorTabular) y se valida por bloques en paralelo;
+ * cada bloque consulta en una sola sentencia qué claves únicas (DNI, código QR, código
+ * del EPP) ya existen. Las filas válidas se cargan con COPY a una tabla temporal y pasan
+ * a la tabla final con un único INSERT ... SELECT ... ON CONFLICT DO NOTHING, todo en una
+ * transacción. Las filas descartadas se reportan con su número de fila y el motivo.
+ *
+ * Las filas no pasan por JPA: al terminar se recargan el índice de escaneo de
+ * trabajadores, o el cache de segundo nivel y el autocompletado del catálogo.
+ */
+@Service
+@Slf4j
+public class ImportacionService {
+
+    private static final int TAMANO_BLOQUE = 5000;
+    private static final Pattern DNI = Pattern.compile("\\d{8,10}");
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+    private static final DateTimeFormatter FECHA_DIA_MES_ANIO = DateTimeFormatter.ofPattern("d/M/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    private static final String SQL_AREAS = "SELECT area_id, nombre_area, codigo_area FROM epp.area";
+
+    private static final String SQL_STAGING_TRABAJADOR =
+            "CREATE TEMP TABLE imp_trabajador (fila integer, dni varchar(10), nombres varchar(100), " +
+            "apellidos varchar(100), codigo_qr_photocheck varchar(50), area_id integer, puesto varchar(100), " +
+            "fecha_ingreso date, telefono varchar(20), email varchar(100)) ON COMMIT DROP";
+
+    /**
+     * Retorna las filas que no se insertaron por conflicto de clave única: registradas
+     * por otra operación entre la validación del bloque y el merge
+     */
+    private static final String SQL_MERGE_TRABAJADOR =
+            "WITH insertados AS (" +
+            "  INSERT INTO epp.trabajador (dni, nombres, apellidos, codigo_qr_photocheck, area_id, puesto, " +
+            "    fecha_ingreso, telefono, email, estado, fecha_creacion, fecha_actualizacion) " +
+            "  SELECT dni, nombres, apellidos, codigo_qr_photocheck, area_id, puesto, fecha_ingreso, telefono, email, " +
+            "    'ACTIVO', LOCALTIMESTAMP, LOCALTIMESTAMP " +
+            "  FROM imp_trabajador ORDER BY fila " +
+            "  ON CONFLICT DO NOTHING RETURNING dni) " +
+            "SELECT s.fila, s.dni AS clave FROM imp_trabajador s " +
+            "WHERE NOT EXISTS (SELECT 1 FROM insertados i WHERE i.dni = s.dni) ORDER BY s.fila";
+
+    private static final String SQL_EXISTENTES_TRABAJADOR =
+            "SELECT dni, codigo_qr_photocheck FROM epp.trabajador " +
+            "WHERE dni = ANY(?) OR codigo_qr_photocheck = ANY(?)";
+
+    private static final String SQL_STAGING_CATALOGO =
+            "CREATE TEMP TABLE imp_catalogo_epp (fila integer, codigo_identificacion varchar(50), " +
+            "nombre_epp varchar(100), tipo_uso varchar(20), vida_util_meses integer, nivel_proteccion varchar(50), " +
+            "especificaciones_tecnicas text) ON COMMIT DROP";
+
+    private static final String SQL_MERGE_CATALOGO =
+            "WITH insertados AS (" +
+            "  INSERT INTO epp.catalogo_epp (codigo_identificacion, nombre_epp, tipo_uso, vida_util_meses, " +
+            "    nivel_proteccion, especificaciones_tecnicas, activo, fecha_creacion, fecha_actualizacion) " +
+            "  SELECT codigo_identificacion, nombre_epp, tipo_uso, vida_util_meses, nivel_proteccion, " +
+            "    especificaciones_tecnicas, true, LOCALTIMESTAMP, LOCALTIMESTAMP " +
+            "  FROM imp_catalogo_epp ORDER BY fila " +
+            "  ON CONFLICT DO NOTHING RETURNING codigo_identificacion) " +
+            "SELECT s.fila, s.codigo_identificacion AS clave FROM imp_catalogo_epp s " +
+            "WHERE s.codigo_identificacion IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM insertados i WHERE i.codigo_identificacion = s.codigo_identificacion) " +
+            "ORDER BY s.fila";
+
+    private static final String SQL_EXISTENTES_CATALOGO =
+            "SELECT codigo_identificacion FROM epp.catalogo_epp WHERE codigo_identificacion = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IndiceTrabajadorService indiceTrabajadorService;
+    private final BusquedaService busquedaService;
+    private final CacheReferenciaService cacheReferenciaService;
+    private final ThreadPoolExecutor executor;
+    private final int maxBloquesPendientes;
+    private final int maxFilas;
+
+    public ImportacionService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              IndiceTrabajadorService indiceTrabajadorService,
+                              BusquedaService busquedaService,
+                              CacheReferenciaService cacheReferenciaService,
+                              @Value("${importacion.paralelismo:4}") int paralelismo,
+                              @Value("${importacion.max-filas:200000}") int maxFilas) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.indiceTrabajadorService = indiceTrabajadorService;
+        this.busquedaService = busquedaService;
+        this.cacheReferenciaService = cacheReferenciaService;
+        this.maxFilas = maxFilas;
+        // Bloques en vuelo por importación: la lectura se detiene mientras COPY no los consuma
+        this.maxBloquesPendientes = paralelismo * 2;
+        this.executor = new ThreadPoolExecutor(paralelismo, paralelismo, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("importacion-"));
+    }
+
+    /**
+     * Columnas: dni, nombres, apellidos, area (id, código o nombre) y opcionales
+     * codigo_qr, puesto, fecha_ingreso, telefono, email
+     */
+    public ImportacionResponseDTO importarTrabajadores(MultipartFile archivo) {
+        ImportacionResponseDTO resultado = importar(archivo, new PlantillaTrabajador(cargarAreas()));
+        if (resultado.getInsertadas() > 0) {
+            indiceTrabajadorService.recargar();
+        }
+        return resultado;
+    }
+
+    /**
+     * Columnas: nombre, tipo_uso y opcionales codigo, vida_util_meses, nivel_proteccion, especificaciones
+     */
+    public ImportacionResponseDTO importarCatalogo(MultipartFile archivo) {
+        ImportacionResponseDTO resultado = importar(archivo, new PlantillaCatalogo());
+        if (resultado.getInsertadas() > 0) {
+            cacheReferenciaService.invalidar(EntidadReferencia.CATALOGO_EPP);
+            busquedaService.recargarIndiceCatalogo();
+        }
+        return resultado;
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    private ImportacionResponseDTO importar(MultipartFile archivo, Plantilla plantilla) {
+        String nombre = archivo.getOriginalFilename() != null ? archivo.getOriginalFilename() : "";
+        String minusculas = nombre.toLowerCase(Locale.ROOT);
+        boolean xlsx = minusculas.endsWith(".xlsx");
+        if (!xlsx && !minusculas.endsWith(".csv")) {
+            throw new BusinessException("Formato no soportado: use un archivo .csv o .xlsx");
+        }
+        if (archivo.isEmpty()) {
+            throw new BusinessException("El archivo está vacío");
+        }
+
+        long inicio = System.nanoTime();
+        Path temporal = null;
+        try {
+            // Multipart puede estar en memoria; POI necesita un archivo para no cargar el .xlsx completo
+            temporal = Files.createTempFile("epp-importacion-", xlsx ? ".xlsx" : ".csv");
+            archivo.transferTo(temporal);
+            Path ruta = temporal;
+            Carga carga = transactionTemplate.execute(status -> jdbcTemplate.execute(
+                    (ConnectionCallback<Carga>) con -> cargar(con, ruta, xlsx, plantilla)));
+
+            List<RechazoImportacionDTO> rechazos = new ArrayList<>(carga.rechazos());
+            rechazos.sort(Comparator.comparing(RechazoImportacionDTO::getFila));
+            int insertadas = carga.copiadas() - carga.conflictos();
+            long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("Importación de {} ({}): {} filas, {} insertadas, {} rechazadas en {} ms",
+                    plantilla.tipo(), nombre, carga.leidas(), insertadas, rechazos.size(), duracionMs);
+
+            return ImportacionResponseDTO.builder()
+                    .tipo(plantilla.tipo())
+                    .archivo(nombre)
+                    .filasLeidas(carga.leidas())
+                    .insertadas(insertadas)
+                    .rechazadas(rechazos.size())
+                    .duracionMs(duracionMs)
+                    .rechazos(rechazos)
+                    .build();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("No se pudo leer el archivo {}: {}", nombre, e.getMessage());
+            throw new BusinessException("No se pudo leer el archivo: " + e.getMessage());
+        } finally {
+            if (temporal != null) {
+                try {
+                    Files.deleteIfExists(temporal);
+                } catch (IOException e) {
+                    log.warn("No se pudo eliminar el temporal {}: {}", temporal, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private record Carga(int leidas, int copiadas, int conflictos, List<RechazoImportacionDTO> rechazos) {
+    }
+
+    /**
+     * Lectura, validación y COPY a la tabla temporal; luego el merge. La conexión es la de la transacción.
+     */
+    private Carga cargar(Connection con, Path archivo, boolean xlsx, Plantilla plantilla) throws SQLException {
+        try (Statement statement = con.createStatement()) {
+            statement.execute(plantilla.sqlStaging());
+        }
+        CopyIn copia = con.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY " + plantilla.destinoCopy() + " FROM STDIN (FORMAT csv)");
+        Lectura lectura = new Lectura(plantilla, copia);
+        try {
+            if (xlsx) {
+                LectorTabular.leerXlsx(archivo, lectura::fila);
+            } else {
+                LectorTabular.leerCsv(archivo, lectura::fila);
+            }
+            lectura.terminar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lectura.cancelar();
+            if (copia.isActive()) {
+                copia.cancelCopy();
+            }
+        }
+
+        List<RechazoImportacionDTO> rechazos = lectura.rechazos;
+        int conflictos = 0;
+        try (Statement statement = con.createStatement();
+             ResultSet rs = statement.executeQuery(plantilla.sqlMerge())) {
+            while (rs.next()) {
+                rechazos.add(rechazo(rs.getInt("fila"), rs.getString("clave"),
+                        "Registrado por otra operación durante la importación"));
+                conflictos++;
+            }
+        }
+        return new Carga(lectura.leidas, lectura.copiadas, conflictos, rechazos);
+    }
+
+    private record Fila(int numero, String[] valores) {
+    }
+
+    private record FilaValida(int numero, String clave, List<String> claves, String lineaCopy) {
+    }
+
+    private record Bloque(List<FilaValida> validas, List<RechazoImportacionDTO> rechazos) {
+    }
+
+    /**
+     * Estado de una importación. Los bloques se validan en el pool y se escriben a COPY
+     * en el orden del archivo, así el primer registro de una clave repetida es el que queda.
+     */
+    private final class Lectura {
+
+        private final Plantilla plantilla;
+        private final Writer salida;
+        private final Deque<Future<Bloque>> pendientes = new ArrayDeque<>();
+        private final Map<String, Integer> vistas = new HashMap<>();
+        private final List<RechazoImportacionDTO> rechazos = new ArrayList<>();
+        private int[] posiciones;
+        private List<Fila> bloque = new ArrayList<>(TAMANO_BLOQUE);
+        private int leidas;
+        private int copiadas;
+
+        private Lectura(Plantilla plantilla, CopyIn copia) {
+            this.plantilla = plantilla;
+            this.salida = new BufferedWriter(new OutputStreamWriter(new PGCopyOutputStream(copia), StandardCharsets.UTF_8));
+        }
+
+        void fila(int numero, String[] valores) {
+            if (vacia(valores)) {
+                return;
+            }
+            if (posiciones == null) {
+                posiciones = encabezado(valores);
+                return;
+            }
+            if (++leidas > maxFilas) {
+                throw new BusinessException("El archivo supera el máximo de " + maxFilas + " filas");
+            }
+            String[] proyectados = new String[posiciones.length];
+            for (int i = 0; i < posiciones.length; i++) {
+                int posicion = posiciones[i];
+                proyectados[i] = posicion >= 0 && posicion < valores.length ? valorOpcional(valores[posicion]) : null;
+            }
+            bloque.add(new Fila(numero, proyectados));
+            if (bloque.size() == TAMANO_BLOQUE) {
+                enviar();
+            }
+        }
+
+        /**
+         * Procesar lo que queda y cerrar el COPY
+         */
+        void terminar() throws IOException {
+            if (posiciones == null) {
+                throw new BusinessException("El archivo no tiene fila de encabezado");
+            }
+            if (!bloque.isEmpty()) {
+                enviar();
+            }
+            while (!pendientes.isEmpty()) {
+                escribir(pendientes.poll());
+            }
+            salida.close();
+        }
+
+        void cancelar() {
+            pendientes.forEach(futuro -> futuro.cancel(true));
+        }
+
+        private int[] encabezado(String[] valores) {
+            List<String> columnas = plantilla.columnas();
+            int[] resultado = new int[columnas.size()];
+            Arrays.fill(resultado, -1);
+            for (int i = 0; i < valores.length; i++) {
+                String nombre = NO_ALFANUMERICO.matcher(IndiceNgramas.normalizar(valores[i]).trim()).replaceAll("_");
+                int columna = columnas.indexOf(nombre);
+                if (columna >= 0 && resultado[columna] < 0) {
+                    resultado[columna] = i;
+                }
+            }
+            List<String> faltantes = new ArrayList<>();
+            for (int i = 0; i < plantilla.obligatorias(); i++) {
+                if (resultado[i] < 0) {
+                    faltantes.add(columnas.get(i));
+                }
+            }
+            if (!faltantes.isEmpty()) {
+                throw new BusinessException("Faltan columnas obligatorias en el encabezado: " + String.join(", ", faltantes));
+            }
+            return resultado;
+        }
+
+        private void enviar() {
+            List<Fila> filas = bloque;
+            bloque = new ArrayList<>(TAMANO_BLOQUE);
+            pendientes.add(executor.submit(() -> validarBloque(plantilla, filas)));
+            while (pendientes.size() > maxBloquesPendientes) {
+                escribir(pendientes.poll());
+            }
+        }
+
+        private void escribir(Future<Bloque> futuro) {
+            Bloque resultado = esperar(futuro);
+            rechazos.addAll(resultado.rechazos());
+            try {
+                for (FilaValida fila : resultado.validas()) {
+                    String repetida = null;
+                    for (String clave : fila.claves()) {
+                        if (vistas.containsKey(clave)) {
+                            repetida = clave;
+                            break;
+                        }
+                    }
+                    if (repetida != null) {
+                        rechazos.add(rechazo(fila.numero(), fila.clave(),
+                                repetida + " repetido en el archivo (fila " + vistas.get(repetida) + ")"));
+                        continue;
+                    }
+                    fila.claves().forEach(clave -> vistas.put(clave, fila.numero()));
+                    salida.write(fila.lineaCopy());
+                    copiadas++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Validación de formato y consulta de claves existentes, en un hilo del pool
+     */
+    private static Bloque validarBloque(Plantilla plantilla, List<Fila> filas) {
+        List<RechazoImportacionDTO> rechazos = new ArrayList<>();
+        List<Fila> origen = new ArrayList<>(filas.size());
+        List<Object[]> validos = new ArrayList<>(filas.size());
+        for (Fila fila : filas) {
+            try {
+                validos.add(plantilla.validar(fila.valores()));
+                origen.add(fila);
+            } catch (FilaInvalida e) {
+                rechazos.add(rechazo(fila.numero(), plantilla.clave(fila.valores()), e.getMessage()));
+            }
+        }
+
+        Set<String> existentes = validos.isEmpty() ? Set.of() : plantilla.existentes(validos);
+        List<FilaValida> resultado = new ArrayList<>(validos.size());
+        for (int i = 0; i < validos.size(); i++) {
+            Fila fila = origen.get(i);
+            Object[] valores = validos.get(i);
+            List<String> claves = plantilla.claves(valores);
+            String existente = claves.stream().filter(existentes::contains).findFirst().orElse(null);
+            if (existente != null) {
+                rechazos.add(rechazo(fila.numero(), plantilla.clave(fila.valores()), existente + " ya registrado"));
+            } else {
+                resultado.add(new FilaValida(fila.numero(), plantilla.clave(fila.valores()), claves,
+                        lineaCopy(fila.numero(), valores)));
+            }
+        }
+        return new Bloque(resultado, rechazos);
+    }
+
+    private static Bloque esperar(Future<Bloque> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importación interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Línea CSV de COPY: el número de fila y los valores; null como campo vacío sin comillas
+     */
+    private static String lineaCopy(int numero, Object[] valores) {
+        StringBuilder linea = new StringBuilder(128).append(numero);
+        for (Object valor : valores) {
+            linea.append(',');
+            if (valor instanceof String texto) {
+                linea.append('"').append(texto.replace("\"", "\"\"")).append('"');
+            } else if (valor != null) {
+                linea.append(valor);
+            }
+        }
+        return linea.append('\n').toString();
+    }
+
+    private static RechazoImportacionDTO rechazo(int fila, String clave, String motivo) {
+        return RechazoImportacionDTO.builder().fila(fila).clave(clave).motivo(motivo).build();
+    }
+
+    /**
+     * Área por id, código o nombre (sin distinguir mayúsculas ni tildes)
+     */
+    private Map<String, Integer> cargarAreas() {
+        Map<String, Integer> areas = new HashMap<>();
+        jdbcTemplate.query(SQL_AREAS, rs -> {
+            Integer areaId = rs.getInt("area_id");
+            areas.put(String.valueOf(areaId), areaId);
+            areas.putIfAbsent(IndiceNgramas.normalizar(rs.getString("nombre_area")).trim(), areaId);
+            if (rs.getString("codigo_area") != null) {
+                areas.putIfAbsent(IndiceNgramas.normalizar(rs.getString("codigo_area")).trim(), areaId);
+            }
+        });
+        return areas;
+    }
+
+    private static boolean vacia(String[] valores) {
+        for (String valor : valores) {
+            if (valor != null && !valor.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String valorOpcional(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    private static String texto(String valor, String columna, int maximo, boolean obligatorio) {
+        if (valor == null) {
+            if (obligatorio) {
+                throw new FilaInvalida("Falta " + columna);
+            }
+            return null;
+        }
+        if (valor.length() > maximo) {
+            throw new FilaInvalida(columna + " excede " + maximo + " caracteres");
+        }
+        return valor;
+    }
+
+    private static LocalDate fecha(String valor, String columna) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return valor.contains("/") ? LocalDate.parse(valor, FECHA_DIA_MES_ANIO) : LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new FilaInvalida(columna + " inválida: " + valor);
+        }
+    }
+
+    /**
+     * Rechazo de una fila; sin stack trace porque puede haber miles por archivo
+     */
+    private static final class FilaInvalida extends RuntimeException {
+        private FilaInvalida(String mensaje) {
+            super(mensaje, null, false, false);
+        }
+    }
+
+    /**
+     * Formato de archivo de una entidad: columnas, validación y SQL de staging y merge
+     */
+    private interface Plantilla {
+
+        String tipo();
+
+        /**
+         * Columnas del archivo en el orden de la tabla de staging; las primeras obligatorias() son obligatorias
+         */
+        List<String> columnas();
+
+        int obligatorias();
+
+        String destinoCopy();
+
+        String sqlStaging();
+
+        String sqlMerge();
+
+        /**
+         * Identificación de la fila en el reporte de rechazos (valores sin validar)
+         */
+        String clave(String[] valores);
+
+        /**
+         * Valores para la tabla de staging; lanza FilaInvalida
+         */
+        Object[] validar(String[] valores);
+
+        /**
+         * Claves únicas de una fila válida, con su nombre (por ejemplo "DNI 12345678")
+         */
+        List<String> claves(Object[] fila);
+
+        /**
+         * Claves de las filas (mismo formato que claves()) que ya existen, en una consulta
+         */
+        Set<String> existentes(List<Object[]> filas);
+    }
+
+    private final class PlantillaTrabajador implements Plantilla {
+
+        private static final List<String> COLUMNAS = List.of("dni", "nombres", "apellidos", "area",
+                "codigo_qr", "puesto", "fecha_ingreso", "telefono", "email");
+
+        private final Map<String, Integer> areas;
+
+        private PlantillaTrabajador(Map<String, Integer> areas) {
+            this.areas = areas;
+        }
+
+        @Override
+        public String tipo() {
+            return "TRABAJADORES";
+        }
+
+        @Override
+        public List<String> columnas() {
+            return COLUMNAS;
+        }
+
+        @Override
+        public int obligatorias() {
+            return 4;
+        }
+
+        @Override
+        public String destinoCopy() {
+            return "imp_trabajador (fila, dni, nombres, apellidos, area_id, codigo_qr_photocheck, puesto, " +
+                    "fecha_ingreso, telefono, email)";
+        }
+
+        @Override
+        public String sqlStaging() {
+            return SQL_STAGING_TRABAJADOR;
+        }
+
+        @Override
+        public String sqlMerge() {
+            return SQL_MERGE_TRABAJADOR;
+        }
+
+        @Override
+        public String clave(String[] valores) {
+            return valores[0];
+        }
+
+        @Override
+        public Object[] validar(String[] v) {
+            String dni = texto(v[0], "dni", 10, true);
+            if (dni.length() < 8 && dni.chars().allMatch(Character::isDigit)) {
+                // Excel guarda el DNI como número y pierde los ceros a la izquierda
+                dni = "0".repeat(8 - dni.length()) + dni;
+            }
+            if (!DNI.matcher(dni).matches()) {
+                throw new FilaInvalida("DNI inválido: " + v[0]);
+            }
+            String nombres = texto(v[1], "nombres", 100, true);
+            String apellidos = texto(v[2], "apellidos", 100, true);
+            String area = texto(v[3], "area", 100, true);
+            Integer areaId = areas.get(IndiceNgramas.normalizar(area));
+            if (areaId == null) {
+                throw new FilaInvalida("Área no encontrada: " + area);
+            }
+            String email = texto(v[8], "email", 100, false);
+            if (email != null && !EMAIL.matcher(email).matches()) {
+                throw new FilaInvalida("Email inválido: " + email);
+            }
+            return new Object[]{
+                    dni,
+                    nombres,
+                    apellidos,
+                    areaId,
+                    texto(v[4], "codigo_qr", 50, false),
+                    texto(v[5], "puesto", 100, false),
+                    fecha(v[6], "fecha_ingreso"),
+                    texto(v[7], "telefono", 20, false),
+                    email
+            };
+        }
+
+        @Override
+        public List<String> claves(Object[] fila) {
+            return fila[4] != null
+                    ? List.of("DNI " + fila[0], "Código QR " + fila[4])
+                    : List.of("DNI " + fila[0]);
+        }
+
+        @Override
+        public Set<String> existentes(List<Object[]> filas) {
+            String[] dnis = filas.stream().map(f -> (String) f[0]).toArray(String[]::new);
+            String[] codigosQr = filas.stream().map(f -> (String) f[4]).filter(Objects::nonNull).toArray(String[]::new);
+            Set<String> buscados = new HashSet<>(List.of(codigosQr));
+            Set<String> existentes = new HashSet<>();
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_EXISTENTES_TRABAJADOR);
+                ps.setArray(1, con.createArrayOf("varchar", dnis));
+                ps.setArray(2, con.createArrayOf("varchar", codigosQr));
+                return ps;
+            }, rs -> {
+                existentes.add("DNI " + rs.getString("dni"));
+                String codigoQr = rs.getString("codigo_qr_photocheck");
+                if (codigoQr != null && buscados.contains(codigoQr)) {
+                    existentes.add("Código QR " + codigoQr);
+                }
+            });
+            return existentes;
+        }
+    }
+
+    private final class PlantillaCatalogo implements Plantilla {
+
+        private static final List<String> COLUMNAS = List.of("nombre", "tipo_uso",
+                "codigo", "vida_util_meses", "nivel_proteccion", "especificaciones");
+
+        @Override
+        public String tipo() {
+            return "CATALOGO_EPP";
+        }
+
+        @Override
+        public List<String> columnas() {
+            return COLUMNAS;
+        }
+
+        @Override
+        public int obligatorias() {
+            return 2;
+        }
+
+        @Override
+        public String destinoCopy() {
+            return "imp_catalogo_epp (fila, nombre_epp, tipo_uso, codigo_identificacion, vida_util_meses, " +
+                    "nivel_proteccion, especificaciones_tecnicas)";
+        }
+
+        @Override
+        public String sqlStaging() {
+            return SQL_STAGING_CATALOGO;
+        }
+
+        @Override
+        public String sqlMerge() {
+            return SQL_MERGE_CATALOGO;
+        }
+
+        @Override
+        public String clave(String[] valores) {
+            return valores[2] != null ? valores[2] : valores[0];
+        }
+
+        @Override
+        public Object[] validar(String[] v) {
+            String nombre = texto(v[0], "nombre", 100, true);
+            String tipoUso = texto(v[1], "tipo_uso", 20, true);
+            TipoUso tipo;
+            try {
+                tipo = TipoUso.valueOf(IndiceNgramas.normalizar(tipoUso).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new FilaInvalida("tipo_uso inválido (CONSUMIBLE o DURADERO): " + tipoUso);
+            }
+            Integer vidaUtil = null;
+            if (v[3] != null) {
+                try {
+                    vidaUtil = Integer.valueOf(v[3]);
+                } catch (NumberFormatException e) {
+                    vidaUtil = -1;
+                }
+                if (vidaUtil < 0) {
+                    throw new FilaInvalida("vida_util_meses inválido: " + v[3]);
+                }
+            }
+            return new Object[]{
+                    nombre,
+                    tipo.name(),
+                    texto(v[2], "codigo", 50, false),
+                    vidaUtil,
+                    texto(v[4], "nivel_proteccion", 50, false),
+                    v[5]
+            };
+        }
+
+        @Override
+        public List<String> claves(Object[] fila) {
+            return fila[2] != null ? List.of("Código " + fila[2]) : List.of();
+        }
+
+        @Override
+        public Set<String> existentes(List<Object[]> filas) {
+            String[] codigos = filas.stream().map(f -> (String) f[2]).filter(Objects::nonNull).toArray(String[]::new);
+            if (codigos.length == 0) {
+                return Set.of();
+            }
+            Set<String> existentes = new HashSet<>();
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_EXISTENTES_CATALOGO);
+                ps.setArray(1, con.createArrayOf("varchar", codigos));
+                return ps;
+            }, rs -> {
+                existentes.add("Código " + rs.getString("codigo_identificacion"));
+            });
+            return existentes;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package pe.edu.upeu.epp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.upeu.epp.dto.request.EscaneoLoteRequestDTO;
+import pe.edu.upeu.epp.dto.response.EscaneoResponseDTO;
+import pe.edu.upeu.epp.entity.Trabajador.EstadoTrabajador;
+import pe.edu.upeu.epp.event.TrabajadorModificadoEvent;
+import pe.edu.upeu.epp.repository.TrabajadorRepository;
+import pe.edu.upeu.epp.repository.projection.TrabajadorIndice;
+import pe.edu.upeu.epp.util.MapaHashAbierto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria de trabajadores por código QR del photocheck y por DNI, para
+ * resolver escaneos en puntos de entrega y torniquetes sin consultar la base de datos.
+ * Cada entrada guarda trabajador, área y estado empaquetados en un long; un índice
+ * inverso por trabajador guarda sus claves actuales para reemplazarlas sin recorrer
+ * las tablas.
+ *
+ * Se carga al arrancar y se mantiene con los eventos de TrabajadorModificadoEvent
+ * (cambios por JPA). La recarga periódica cubre cambios hechos fuera de Hibernate.
+ * Las lecturas son optimistas (StampedLock): no bloquean y solo se repiten con
+ * bloqueo de lectura si coincidieron con una escritura.
+ */
+@Service
+@Slf4j
+public class IndiceTrabajadorService {
+
+    private static final EstadoTrabajador[] ESTADOS = EstadoTrabajador.values();
+
+    private static final int BITS_ESTADO = 3;
+    private static final long MAX_AREA_ID = (1L << (32 - BITS_ESTADO)) - 1;
+
+    private final TrabajadorRepository trabajadorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StampedLock lock = new StampedLock();
+
+    private MapaHashAbierto porQr = new MapaHashAbierto(0);
+    private MapaHashAbierto porDni = new MapaHashAbierto(0);
+    private Map<Integer, Claves> clavesPorTrabajador = new HashMap<>();
+    private volatile boolean cargado;
+    private boolean recargando;
+    private final List<TrabajadorModificadoEvent> pendientes = new ArrayList<>();
+
+    public IndiceTrabajadorService(TrabajadorRepository trabajadorRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.trabajadorRepository = trabajadorRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        Gauge.builder("trabajadores.indice.tamano", this, IndiceTrabajadorService::tamano)
+                .description("Trabajadores en el índice de escaneo")
+                .register(meterRegistry);
+    }
+
+    public record TrabajadorEscaneado(Integer trabajadorId, Integer areaId, EstadoTrabajador estado) {
+    }
+
+    /**
+     * Claves con las que un trabajador está en el índice (QR null si no tiene)
+     */
+    private record Claves(String qr, String dni) {
+    }
+
+    /**
+     * Resolver un código escaneado: primero como QR de photocheck y luego como DNI
+     */
+    public Optional<TrabajadorEscaneado> resolver(String codigo) {
+        if (codigo == null || codigo.isBlank()) {
+            return Optional.empty();
+        }
+        String clave = codigo.trim();
+        if (!cargado) {
+            return desdeBaseDeDatos(clave);
+        }
+
+        long stamp = lock.tryOptimisticRead();
+        long valor;
+        try {
+            valor = buscar(clave);
+        } catch (RuntimeException e) {
+            // Estado intermedio de una escritura concurrente; se descarta abajo
+            valor = MapaHashAbierto.AUSENTE;
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                valor = buscar(clave);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return valor == MapaHashAbierto.AUSENTE ? Optional.empty() : Optional.of(decodificar(valor));
+    }
+
+    public EscaneoResponseDTO escanear(String codigo, LocalDateTime fechaEscaneo) {
+        Optional<TrabajadorEscaneado> trabajador = resolver(codigo);
+        return EscaneoResponseDTO.builder()
+                .codigo(codigo)
+                .fechaEscaneo(fechaEscaneo)
+                .reconocido(trabajador.isPresent())
+                .habilitado(trabajador.map(t -> t.estado() == EstadoTrabajador.ACTIVO).orElse(false))
+                .trabajadorId(trabajador.map(TrabajadorEscaneado::trabajadorId).orElse(null))
+                .areaId(trabajador.map(TrabajadorEscaneado::areaId).orElse(null))
+                .estado(trabajador.map(TrabajadorEscaneado::estado).map(Enum::name).orElse(null))
+                .build();
+    }
+
+    /**
+     * Escaneos acumulados por un lector sin conexión; se responden en el mismo orden
+     */
+    public List<EscaneoResponseDTO> escanearLote(EscaneoLoteRequestDTO request) {
+        return request.getEscaneos().stream()
+                .map(e -> escanear(e.getCodigo(), e.getFechaEscaneo()))
+                .toList();
+    }
+
+    public int tamano() {
+        long stamp = lock.readLock();
+        try {
+            return porDni.tamano();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        recargar();
+    }
+
+    /**
+     * Reconstruir el índice desde la base de datos sin bloquear las lecturas mientras se lee.
+     * Los cambios que llegan durante la lectura se aplican también al índice nuevo.
+     */
+    @Scheduled(initialDelayString = "${trabajadores.indice.recarga-interval:900000}",
+            fixedDelayString = "${trabajadores.indice.recarga-interval:900000}")
+    public void recargar() {
+        long inicio = System.nanoTime();
+        long stamp = lock.writeLock();
+        try {
+            recargando = true;
+            pendientes.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        MapaHashAbierto nuevoPorQr;
+        MapaHashAbierto nuevoPorDni;
+        Map<Integer, Claves> nuevasClaves;
+        try {
+            int esperados = (int) trabajadorRepository.count();
+            nuevoPorQr = new MapaHashAbierto(esperados);
+            nuevoPorDni = new MapaHashAbierto(esperados);
+            nuevasClaves = new HashMap<>(Math.max(16, (int) (esperados / 0.75f) + 1));
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<TrabajadorIndice> trabajadores = trabajadorRepository.streamParaIndice()) {
+                    trabajadores.forEach(t -> poner(nuevoPorQr, nuevoPorDni, nuevasClaves, t.trabajadorId(),
+                            t.codigoQrPhotocheck(), t.dni(), codificar(t.trabajadorId(), t.areaId(), t.estado())));
+                }
+            });
+        } catch (RuntimeException e) {
+            stamp = lock.writeLock();
+            try {
+                recargando = false;
+                pendientes.clear();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            throw e;
+        }
+
+        stamp = lock.writeLock();
+        try {
+            for (TrabajadorModificadoEvent event : pendientes) {
+                aplicar(nuevoPorQr, nuevoPorDni, nuevasClaves, event);
+            }
+            porQr = nuevoPorQr;
+            porDni = nuevoPorDni;
+            clavesPorTrabajador = nuevasClaves;
+            pendientes.clear();
+            recargando = false;
+            cargado = true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.info("Índice de trabajadores cargado: {} trabajadores en {} ms",
+                nuevoPorDni.tamano(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Aplicar el cambio una vez confirmada la transacción que lo hizo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrabajadorModificado(TrabajadorModificadoEvent event) {
+        long stamp = lock.writeLock();
+        try {
+            aplicar(porQr, porDni, clavesPorTrabajador, event);
+            if (recargando) {
+                pendientes.add(event);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private long buscar(String clave) {
+        long valor = porQr.obtener(clave);
+        return valor != MapaHashAbierto.AUSENTE ? valor : porDni.obtener(clave);
+    }
+
+    /**
+     * Las claves anteriores del trabajador (QR o DNI cambiados) salen del índice inverso
+     */
+    private static void aplicar(MapaHashAbierto qr, MapaHashAbierto dni, Map<Integer, Claves> claves,
+                                TrabajadorModificadoEvent event) {
+        int trabajadorId = event.trabajadorId();
+        // Se codifica antes de tocar el índice: un área fuera de rango no deja al trabajador a medias
+        long valor = event.eliminado() ? MapaHashAbierto.AUSENTE
+                : codificar(trabajadorId, event.areaId(), event.estado());
+        Claves anteriores = claves.remove(trabajadorId);
+        if (anteriores != null) {
+            quitar(qr, anteriores.qr(), trabajadorId);
+            quitar(dni, anteriores.dni(), trabajadorId);
+        }
+        if (!event.eliminado()) {
+            poner(qr, dni, claves, trabajadorId, event.codigoQrPhotocheck(), event.dni(), valor);
+        }
+    }
+
+    private static void poner(MapaHashAbierto qr, MapaHashAbierto dni, Map<Integer, Claves> claves,
+                              Integer trabajadorId, String codigoQr, String numeroDni, long valor) {
+        String claveQr = codigoQr != null && !codigoQr.isBlank() ? codigoQr.trim() : null;
+        String claveDni = numeroDni.trim();
+        if (claveQr != null) {
+            qr.poner(claveQr, valor);
+        }
+        dni.poner(claveDni, valor);
+        claves.put(trabajadorId, new Claves(claveQr, claveDni));
+    }
+
+    /**
+     * Quitar la clave solo si sigue siendo del trabajador (otro pudo tomarla después)
+     */
+    private static void quitar(MapaHashAbierto mapa, String clave, int trabajadorId) {
+        if (clave == null) {
+            return;
+        }
+        long valor = mapa.obtener(clave);
+        if (valor != MapaHashAbierto.AUSENTE && (int) (valor >>> 32) == trabajadorId) {
+            mapa.eliminar(clave);
+        }
+    }
+
+    private Optional<TrabajadorEscaneado> desdeBaseDeDatos(String clave) {
+        return transactionTemplate.execute(status -> trabajadorRepository.findByCodigoQrPhotocheck(clave)
+                .or(() -> trabajadorRepository.findByDni(clave))
+                .map(t -> decodificar(codificar(t.getTrabajadorId(), t.getArea().getAreaId(), t.getEstado()))));
+    }
+
+    /**
+     * Bits 63-32: trabajador_id; 31-3: area_id; 2-0: estado (ordinal + 1, 0 = sin estado)
+     */
+    private static long codificar(Integer trabajadorId, Integer areaId, EstadoTrabajador estado) {
+        long area = areaId != null ? areaId : 0;
+        if (area < 0 || area > MAX_AREA_ID) {
+            throw new IllegalArgumentException("area_id " + areaId + " no cabe en el índice de trabajadores (máximo "
+                    + MAX_AREA_ID + ")");
+        }
+        return ((long) trabajadorId << 32)
+                | area << BITS_ESTADO
+                | (estado != null ? estado.ordinal() + 1 : 0);
+    }
+
+    private static TrabajadorEscaneado decodificar(long valor) {
+        int areaId = (int) ((valor & 0xFFFFFFFFL) >>> BITS_ESTADO);
+        int estado = (int) (valor & ((1 << BITS_ESTADO) - 1));
+        return new TrabajadorEscaneado((int) (valor >>> 32), areaId != 0 ? areaId : null,
+                estado != 0 ? ESTADOS[estado - 1] : null);
+    }
+}
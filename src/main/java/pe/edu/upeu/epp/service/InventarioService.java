@@ -0,0 +1,52 @@
+package pe.edu.upeu.epp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.request.BajaInventarioRequestDTO;
+import pe.edu.upeu.epp.entity.MovimientoInventario.Origen;
+import pe.edu.upeu.epp.entity.MovimientoInventario.TipoMovimiento;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.repository.InventarioCentralRepository;
+import pe.edu.upeu.epp.service.MovimientoInventarioService.Movimiento;
+
+import java.util.List;
+
+/**
+ * Operaciones sobre el stock que no provienen de entregas ni reposiciones
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventarioService {
+
+    private final InventarioCentralRepository inventarioCentralRepository;
+    private final StockEngine stockEngine;
+    private final MovimientoInventarioService movimientoInventarioService;
+
+    /**
+     * Dar de baja stock (vencido, dañado, extraviado) de un área o de un lote central
+     */
+    @Transactional
+    public void registrarBaja(BajaInventarioRequestDTO request) {
+        int cantidad = request.getCantidad();
+        Movimiento movimiento;
+        if (request.getInventarioCentralId() != null) {
+            Integer loteId = request.getInventarioCentralId();
+            Integer eppId = inventarioCentralRepository.findEppIdById(loteId)
+                    .orElseThrow(() -> new BusinessException("Lote del inventario central no encontrado: " + loteId));
+            stockEngine.descontarCentral(loteId, cantidad);
+            movimiento = new Movimiento(TipoMovimiento.AJUSTE, Origen.BAJA, eppId, null, loteId,
+                    -cantidad, null, request.getMotivo());
+        } else if (request.getAreaId() != null && request.getEppId() != null) {
+            stockEngine.descontarArea(request.getAreaId(), request.getEppId(), cantidad);
+            movimiento = new Movimiento(TipoMovimiento.AJUSTE, Origen.BAJA, request.getEppId(), request.getAreaId(),
+                    null, -cantidad, null, request.getMotivo());
+        } else {
+            throw new BusinessException("Indique el lote del inventario central o el área y el EPP");
+        }
+        movimientoInventarioService.registrar(List.of(movimiento));
+        log.info("Baja de {} unidades del EPP {}: {}", cantidad, movimiento.eppId(), request.getMotivo());
+    }
+}
@@ -0,0 +1,204 @@
+package pe.edu.upeu.epp.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.response.DetalleEntregaResponseDTO;
+import pe.edu.upeu.epp.dto.response.HistorialEntregaResponseDTO;
+import pe.edu.upeu.epp.dto.response.PaginaResponseDTO;
+import pe.edu.upeu.epp.entity.DetalleEntregaEpp;
+import pe.edu.upeu.epp.entity.EntregaEpp;
+import pe.edu.upeu.epp.entity.Inspeccion;
+import pe.edu.upeu.epp.entity.SolicitudReposicion;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.repository.AuditoriaRepository;
+import pe.edu.upeu.epp.repository.EntregaEppRepository;
+import pe.edu.upeu.epp.repository.InspeccionRepository;
+import pe.edu.upeu.epp.repository.InventarioAreaRepository;
+import pe.edu.upeu.epp.repository.SolicitudReposicionRepository;
+import pe.edu.upeu.epp.repository.projection.AuditoriaResumen;
+import pe.edu.upeu.epp.repository.projection.EntregaClave;
+import pe.edu.upeu.epp.repository.projection.EntregaResumen;
+import pe.edu.upeu.epp.repository.projection.InspeccionResumen;
+import pe.edu.upeu.epp.repository.projection.InventarioAreaResumen;
+import pe.edu.upeu.epp.repository.projection.SolicitudReposicionResumen;
+import pe.edu.upeu.epp.util.KeysetCursor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Listados paginados por cursor (keyset): cada página se lee con
+ * WHERE (fecha, id) < cursor ORDER BY fecha DESC, id DESC LIMIT n, sobre el índice
+ * (fecha, id), y solo las columnas del resumen. El costo de una página no depende
+ * de cuántas filas haya antes, a diferencia de OFFSET.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ListadoService {
+
+    private static final int TAMANO_MAXIMO = 200;
+
+    /**
+     * Días hacia atrás cuando no se indica desde en listados por fecha
+     */
+    private static final int DIAS_POR_DEFECTO = 90;
+
+    private final EntregaEppRepository entregaEppRepository;
+    private final InspeccionRepository inspeccionRepository;
+    private final AuditoriaRepository auditoriaRepository;
+    private final SolicitudReposicionRepository solicitudReposicionRepository;
+    private final InventarioAreaRepository inventarioAreaRepository;
+
+    public PaginaResponseDTO<EntregaResumen> entregas(Integer areaId, Integer trabajadorId,
+                                                      LocalDate desde, LocalDate hasta,
+                                                      String cursor, int tamano) {
+        Rango rango = rango(desde, hasta);
+        KeysetCursor inicio = inicio(cursor, rango.hasta());
+        List<EntregaResumen> filas = entregaEppRepository.findPagina(rango.desde(), rango.hasta(),
+                inicio.fecha(), inicio.id(), areaId, trabajadorId, limite(tamano));
+        return pagina(filas, tamano, e -> new KeysetCursor(e.fechaEntrega(), e.entregaId()));
+    }
+
+    /**
+     * Historial de entregas de un trabajador con sus detalles, en dos consultas por página
+     * sin importar cuántas entregas o detalles tenga: primero las claves de la página
+     * (LIMIT en SQL) y luego esas entregas con su grafo. Paginar directamente sobre un
+     * JOIN FETCH de la colección obligaría a Hibernate a paginar en memoria.
+     */
+    public PaginaResponseDTO<HistorialEntregaResponseDTO> historialTrabajador(Integer trabajadorId,
+                                                                              String cursor, int tamano) {
+        KeysetCursor inicio = inicio(cursor, LocalDateTime.now().plusDays(1));
+        List<EntregaClave> claves = entregaEppRepository.findClavesHistorial(
+                trabajadorId, inicio.fecha(), inicio.id(), limite(tamano));
+        PaginaResponseDTO<EntregaClave> pagina = pagina(claves, tamano,
+                c -> new KeysetCursor(c.fechaEntrega(), c.entregaId()));
+
+        List<EntregaClave> contenido = pagina.getContenido();
+        List<HistorialEntregaResponseDTO> entregas = contenido.isEmpty() ? List.of()
+                : entregaEppRepository.findConHistorial(
+                        contenido.stream().map(EntregaClave::entregaId).toList(),
+                        contenido.get(contenido.size() - 1).fechaEntrega(),
+                        contenido.get(0).fechaEntrega())
+                .stream().map(ListadoService::aHistorial).toList();
+
+        return PaginaResponseDTO.<HistorialEntregaResponseDTO>builder()
+                .contenido(entregas)
+                .siguienteCursor(pagina.getSiguienteCursor())
+                .tamano(entregas.size())
+                .build();
+    }
+
+    public PaginaResponseDTO<InspeccionResumen> inspecciones(Integer instanciaEppId,
+                                                             Inspeccion.ResultadoInspeccion resultado,
+                                                             LocalDate desde, LocalDate hasta,
+                                                             String cursor, int tamano) {
+        Rango rango = rango(desde, hasta);
+        KeysetCursor inicio = inicio(cursor, rango.hasta());
+        List<InspeccionResumen> filas = inspeccionRepository.findPagina(rango.desde(), rango.hasta(),
+                inicio.fecha(), inicio.id(), instanciaEppId, resultado, limite(tamano));
+        return pagina(filas, tamano, i -> new KeysetCursor(i.fechaInspeccion(), i.inspeccionId()));
+    }
+
+    public PaginaResponseDTO<AuditoriaResumen> auditoria(String tabla, Integer registroId,
+                                                         LocalDate desde, LocalDate hasta,
+                                                         String cursor, int tamano) {
+        Rango rango = rango(desde, hasta);
+        KeysetCursor inicio = inicio(cursor, rango.hasta());
+        List<AuditoriaResumen> filas = auditoriaRepository.findPagina(rango.desde(), rango.hasta(),
+                inicio.fecha(), inicio.id(), tabla, registroId, limite(tamano));
+        return pagina(filas, tamano, a -> new KeysetCursor(a.fechaOperacion(), a.auditoriaId()));
+    }
+
+    public PaginaResponseDTO<SolicitudReposicionResumen> solicitudes(SolicitudReposicion.EstadoSolicitud estado,
+                                                                     Integer areaId, String cursor, int tamano) {
+        KeysetCursor inicio = inicio(cursor, LocalDateTime.now().plusDays(1));
+        List<SolicitudReposicionResumen> filas = solicitudReposicionRepository.findPagina(
+                inicio.fecha(), inicio.id(), estado, areaId, limite(tamano));
+        return pagina(filas, tamano, s -> new KeysetCursor(s.fechaSolicitud(), s.solicitudId()));
+    }
+
+    public PaginaResponseDTO<InventarioAreaResumen> inventarioArea(Integer areaId, boolean soloCritico,
+                                                                   String cursor, int tamano) {
+        KeysetCursor inicio = KeysetCursor.decodificar(cursor);
+        List<InventarioAreaResumen> filas = inventarioAreaRepository.findPagina(
+                inicio != null ? inicio.id() : 0, areaId, soloCritico, limite(tamano));
+        return pagina(filas, tamano, ia -> new KeysetCursor(null, ia.inventarioAreaId()));
+    }
+
+    private static HistorialEntregaResponseDTO aHistorial(EntregaEpp entrega) {
+        return HistorialEntregaResponseDTO.builder()
+                .entregaId(entrega.getEntregaId())
+                .fechaEntrega(entrega.getFechaEntrega())
+                .tipoEntrega(entrega.getTipoEntrega().name())
+                .status(entrega.getStatus())
+                .observaciones(entrega.getObservaciones())
+                .trabajadorId(entrega.getTrabajador().getTrabajadorId())
+                .trabajador(entrega.getTrabajador().getNombres() + " " + entrega.getTrabajador().getApellidos())
+                .jefeAreaId(entrega.getJefeArea().getTrabajadorId())
+                .jefeArea(entrega.getJefeArea().getNombres() + " " + entrega.getJefeArea().getApellidos())
+                .detalles(entrega.getDetalles().stream()
+                        .map(ListadoService::aDetalle)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static DetalleEntregaResponseDTO aDetalle(DetalleEntregaEpp detalle) {
+        return DetalleEntregaResponseDTO.builder()
+                .detalleId(detalle.getDetalleId())
+                .eppId(detalle.getEpp().getEppId())
+                .nombreEpp(detalle.getEpp().getNombreEpp())
+                .codigoIdentificacion(detalle.getEpp().getCodigoIdentificacion())
+                .instanciaEppId(detalle.getInstanciaEpp() != null ? detalle.getInstanciaEpp().getInstanciaEppId() : null)
+                .codigoSerie(detalle.getInstanciaEpp() != null ? detalle.getInstanciaEpp().getCodigoSerie() : null)
+                .cantidad(detalle.getCantidad())
+                .motivo(detalle.getMotivo())
+                .build();
+    }
+
+    private record Rango(LocalDateTime desde, LocalDateTime hasta) {
+    }
+
+    /**
+     * Rango de días inclusivo como [desde, hasta + 1 día)
+     */
+    private static Rango rango(LocalDate desde, LocalDate hasta) {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin.minusDays(DIAS_POR_DEFECTO);
+        if (fin.isBefore(inicio)) {
+            throw new BusinessException("La fecha final no puede ser anterior a la inicial");
+        }
+        return new Rango(inicio.atStartOfDay(), fin.plusDays(1).atStartOfDay());
+    }
+
+    private static KeysetCursor inicio(String cursor, LocalDateTime hasta) {
+        KeysetCursor decodificado = KeysetCursor.decodificar(cursor);
+        if (decodificado != null && decodificado.fecha() == null) {
+            throw new BusinessException("Cursor de paginación inválido");
+        }
+        return decodificado != null ? decodificado : KeysetCursor.inicio(hasta);
+    }
+
+    /**
+     * Se lee una fila extra para saber si hay página siguiente sin un COUNT
+     */
+    private static PageRequest limite(int tamano) {
+        return PageRequest.ofSize(Math.min(Math.max(tamano, 1), TAMANO_MAXIMO) + 1);
+    }
+
+    private static <T> PaginaResponseDTO<T> pagina(List<T> filas, int tamano, Function<T, KeysetCursor> clave) {
+        int efectivo = Math.min(Math.max(tamano, 1), TAMANO_MAXIMO);
+        boolean hayMas = filas.size() > efectivo;
+        List<T> contenido = hayMas ? filas.subList(0, efectivo) : filas;
+        return PaginaResponseDTO.<T>builder()
+                .contenido(contenido)
+                .siguienteCursor(hayMas ? clave.apply(contenido.get(efectivo - 1)).codificar() : null)
+                .tamano(contenido.size())
+                .build();
+    }
+}
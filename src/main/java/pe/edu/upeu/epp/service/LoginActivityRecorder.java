@@ -0,0 +1,88 @@
+package pe.edu.upeu.epp.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.repository.UsuarioRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de la actividad de login sobre la tabla usuario.
+ * Los contadores de bloqueo se actualizan de forma atómica en la BD dentro de la
+ * transacción del login; ultimo_acceso se acumula en memoria y se escribe en lote.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LoginActivityRecorder {
+
+    private final UsuarioRepository usuarioRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Último acceso pendiente de escribir por usuario (se conserva el más reciente)
+     */
+    private final Map<Integer, LocalDateTime> accesosPendientes = new ConcurrentHashMap<>();
+
+    /**
+     * Registrar un intento fallido y bloquear al llegar al máximo.
+     * Retorna el número de intentos fallidos tras el incremento.
+     */
+    @Transactional
+    public int registrarFallo(Integer usuarioId, int maxIntentos, LocalDateTime bloqueadoHasta) {
+        Integer intentos = usuarioRepository.registrarIntentoFallido(usuarioId, maxIntentos, bloqueadoHasta);
+        return intentos != null ? intentos : 0;
+    }
+
+    /**
+     * Registrar un login exitoso.
+     * Retorna true si había intentos fallidos o bloqueo que se reiniciaron.
+     */
+    @Transactional
+    public boolean registrarExito(Integer usuarioId) {
+        registrarAcceso(usuarioId);
+        return usuarioRepository.reiniciarIntentosFallidos(usuarioId) > 0;
+    }
+
+    /**
+     * Registrar el último acceso; se escribe en el próximo volcado
+     */
+    public void registrarAcceso(Integer usuarioId) {
+        accesosPendientes.merge(usuarioId, LocalDateTime.now(),
+                (anterior, nuevo) -> nuevo.isAfter(anterior) ? nuevo : anterior);
+    }
+
+    /**
+     * Volcar los últimos accesos pendientes en un único UPDATE por lotes
+     */
+    @Scheduled(fixedDelayString = "${auth.login-activity.flush-interval:10000}")
+    @PreDestroy
+    public void volcarAccesos() {
+        if (accesosPendientes.isEmpty()) {
+            return;
+        }
+        List<Object[]> lote = new ArrayList<>();
+        for (Integer usuarioId : List.copyOf(accesosPendientes.keySet())) {
+            LocalDateTime acceso = accesosPendientes.remove(usuarioId);
+            if (acceso != null) {
+                Timestamp ts = Timestamp.valueOf(acceso);
+                lote.add(new Object[]{ts, usuarioId, ts});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "UPDATE epp.usuario SET ultimo_acceso = ? " +
+                        "WHERE usuario_id = ? AND (ultimo_acceso IS NULL OR ultimo_acceso < ?)",
+                lote);
+        log.debug("Último acceso actualizado para {} usuarios", lote.size());
+    }
+}
@@ -0,0 +1,232 @@
+package pe.edu.upeu.epp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.response.StockHistoricoResponseDTO;
+import pe.edu.upeu.epp.entity.MovimientoInventario.Origen;
+import pe.edu.upeu.epp.entity.MovimientoInventario.TipoMovimiento;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Libro de movimientos de inventario (movimiento_inventario) y sus snapshots.
+ * Cada cambio de stock agrega su movimiento en la misma transacción; la compactación
+ * periódica guarda el stock de cada ubicación con movimientos en inventario_snapshot,
+ * de modo que el stock a una fecha es el snapshot más cercano más una cola corta
+ * de movimientos, sin recorrer todo el historial.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MovimientoInventarioService {
+
+    private static final String SQL_INSERT_MOVIMIENTO =
+            "INSERT INTO epp.movimiento_inventario (fecha_movimiento, tipo_movimiento, origen, epp_id, area_id, " +
+            "inventario_central_id, cantidad, referencia_id, observaciones) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SQL_INSERT_MOVIMIENTOS_ENTREGA =
+            "INSERT INTO epp.movimiento_inventario (fecha_movimiento, tipo_movimiento, origen, epp_id, area_id, " +
+            "cantidad, referencia_id) " +
+            "SELECT ?, 'SALIDA', 'ENTREGA', d.epp_id, ?, -d.cantidad, d.entrega_id " +
+            "FROM epp.detalle_entrega_epp d WHERE d.entrega_id = ANY(?)";
+
+    /**
+     * Nuevo snapshot para las ubicaciones que ya tienen uno y tuvieron movimientos
+     * desde el último corte
+     */
+    private static final String SQL_COMPACTAR =
+            "WITH delta AS (" +
+            "  SELECT epp_id, area_id, SUM(cantidad) AS cantidad FROM epp.movimiento_inventario " +
+            "  WHERE fecha_movimiento > ? AND fecha_movimiento <= ? GROUP BY epp_id, area_id) " +
+            "INSERT INTO epp.inventario_snapshot (epp_id, area_id, fecha_corte, cantidad) " +
+            "SELECT d.epp_id, d.area_id, ?, s.cantidad + d.cantidad FROM delta d " +
+            "JOIN LATERAL (" +
+            "  SELECT cantidad FROM epp.inventario_snapshot s " +
+            "  WHERE s.epp_id = d.epp_id AND s.area_id IS NOT DISTINCT FROM d.area_id " +
+            "  ORDER BY s.fecha_corte DESC LIMIT 1) s ON TRUE";
+
+    /**
+     * Primer snapshot de cada ubicación, a partir del stock actual menos los
+     * movimientos posteriores al corte
+     */
+    private static final String SQL_SNAPSHOT_INICIAL =
+            "INSERT INTO epp.inventario_snapshot (epp_id, area_id, fecha_corte, cantidad) " +
+            "SELECT i.epp_id, i.area_id, ?, i.cantidad - COALESCE((" +
+            "  SELECT SUM(m.cantidad) FROM epp.movimiento_inventario m " +
+            "  WHERE m.epp_id = i.epp_id AND m.area_id IS NOT DISTINCT FROM i.area_id " +
+            "  AND m.fecha_movimiento > ?), 0) " +
+            "FROM (" +
+            "  SELECT ia.epp_id, ia.area_id, ia.cantidad_actual - COALESCE((" +
+            "    SELECT SUM(f.consumido) FROM epp.inventario_area_franja f " +
+            "    WHERE f.inventario_area_id = ia.inventario_area_id), 0) AS cantidad " +
+            "  FROM epp.inventario_area ia " +
+            "  UNION ALL " +
+            "  SELECT ic.epp_id, NULL, SUM(ic.cantidad_actual) FROM epp.inventario_central ic GROUP BY ic.epp_id) i " +
+            "WHERE NOT EXISTS (SELECT 1 FROM epp.inventario_snapshot s " +
+            "  WHERE s.epp_id = i.epp_id AND s.area_id IS NOT DISTINCT FROM i.area_id)";
+
+    private static final String SQL_SNAPSHOT_ANTERIOR =
+            "SELECT fecha_corte, cantidad FROM epp.inventario_snapshot " +
+            "WHERE epp_id = ? AND area_id IS NOT DISTINCT FROM ? AND fecha_corte <= ? " +
+            "ORDER BY fecha_corte DESC LIMIT 1";
+
+    private static final String SQL_SNAPSHOT_POSTERIOR =
+            "SELECT fecha_corte, cantidad FROM epp.inventario_snapshot " +
+            "WHERE epp_id = ? AND area_id IS NOT DISTINCT FROM ? AND fecha_corte > ? " +
+            "ORDER BY fecha_corte ASC LIMIT 1";
+
+    private static final String SQL_SUMA_MOVIMIENTOS =
+            "SELECT COALESCE(SUM(cantidad), 0), COUNT(*) FROM epp.movimiento_inventario " +
+            "WHERE epp_id = ? AND area_id IS NOT DISTINCT FROM ? AND fecha_movimiento > ? AND fecha_movimiento <= ?";
+
+    private static final String SQL_SUMA_MOVIMIENTOS_DESDE =
+            "SELECT COALESCE(SUM(cantidad), 0), COUNT(*) FROM epp.movimiento_inventario " +
+            "WHERE epp_id = ? AND area_id IS NOT DISTINCT FROM ? AND fecha_movimiento > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Antigüedad mínima de los movimientos que se compactan; cubre las transacciones
+     * que aún no confirman movimientos con fecha anterior al corte
+     */
+    @Value("${inventario.ledger.snapshot-lag:5m}")
+    private Duration snapshotLag;
+
+    /**
+     * Movimiento a registrar. areaId null = inventario central (inventarioCentralId = lote)
+     */
+    public record Movimiento(TipoMovimiento tipo, Origen origen, Integer eppId, Integer areaId,
+                             Integer inventarioCentralId, int cantidad, Integer referenciaId,
+                             String observaciones) {
+    }
+
+    private record Corte(Timestamp fecha, long cantidad) {
+    }
+
+    /**
+     * Registrar movimientos en un solo batch (debe llamarse en la transacción que mueve el stock)
+     */
+    @Transactional
+    public void registrar(List<Movimiento> movimientos) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(SQL_INSERT_MOVIMIENTO, movimientos, movimientos.size(), (ps, m) -> {
+            ps.setTimestamp(1, ahora);
+            ps.setString(2, m.tipo().name());
+            ps.setString(3, m.origen().name());
+            ps.setInt(4, m.eppId());
+            ps.setObject(5, m.areaId(), Types.INTEGER);
+            ps.setObject(6, m.inventarioCentralId(), Types.INTEGER);
+            ps.setInt(7, m.cantidad());
+            ps.setObject(8, m.referenciaId(), Types.INTEGER);
+            ps.setString(9, m.observaciones());
+        });
+    }
+
+    /**
+     * Registrar una salida por cada detalle de las entregas indicadas (una sola sentencia)
+     */
+    @Transactional
+    public void registrarEntregas(Integer areaId, List<Integer> entregaIds) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_INSERT_MOVIMIENTOS_ENTREGA);
+            ps.setTimestamp(1, ahora);
+            ps.setInt(2, areaId);
+            ps.setArray(3, con.createArrayOf("integer", entregaIds.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Compactar el libro: snapshot de cada ubicación con movimientos hasta el corte
+     */
+    @Scheduled(fixedDelayString = "${inventario.ledger.snapshot-interval:3600000}",
+            initialDelayString = "${inventario.ledger.snapshot-interval:3600000}")
+    @Transactional
+    public void compactar() {
+        Timestamp corte = Timestamp.valueOf(LocalDateTime.now().minus(snapshotLag));
+        Timestamp ultimoCorte = jdbcTemplate.queryForObject(
+                "SELECT MAX(fecha_corte) FROM epp.inventario_snapshot", Timestamp.class);
+        if (ultimoCorte != null && !ultimoCorte.before(corte)) {
+            return;
+        }
+
+        int actualizados = ultimoCorte == null ? 0
+                : jdbcTemplate.update(SQL_COMPACTAR, ultimoCorte, corte, corte);
+        int iniciales = jdbcTemplate.update(SQL_SNAPSHOT_INICIAL, corte, corte);
+        log.info("Compactación de inventario al {}: {} snapshots nuevos, {} ubicaciones iniciales",
+                corte, actualizados, iniciales);
+    }
+
+    /**
+     * Stock de un EPP en un área (o en el inventario central si areaId es null) a una fecha
+     */
+    @Transactional(readOnly = true)
+    public StockHistoricoResponseDTO stockEn(Integer eppId, Integer areaId, LocalDateTime fecha) {
+        Timestamp ts = Timestamp.valueOf(fecha);
+
+        Corte anterior = buscarCorte(SQL_SNAPSHOT_ANTERIOR, eppId, areaId, ts);
+        if (anterior != null) {
+            long[] cola = sumarMovimientos(eppId, areaId, anterior.fecha(), ts);
+            return respuesta(eppId, areaId, fecha, anterior.cantidad() + cola[0], anterior.fecha(), cola[1]);
+        }
+
+        // Fecha anterior al primer snapshot: se retrocede desde el siguiente
+        Corte posterior = buscarCorte(SQL_SNAPSHOT_POSTERIOR, eppId, areaId, ts);
+        if (posterior != null) {
+            long[] cola = sumarMovimientos(eppId, areaId, ts, posterior.fecha());
+            return respuesta(eppId, areaId, fecha, posterior.cantidad() - cola[0], posterior.fecha(), cola[1]);
+        }
+
+        // Sin snapshots todavía: se retrocede desde el stock actual
+        long[] cola = jdbcTemplate.queryForObject(SQL_SUMA_MOVIMIENTOS_DESDE,
+                (rs, n) -> new long[]{rs.getLong(1), rs.getLong(2)}, eppId, areaId, ts);
+        return respuesta(eppId, areaId, fecha, stockActual(eppId, areaId) - cola[0], null, cola[1]);
+    }
+
+    private Corte buscarCorte(String sql, Integer eppId, Integer areaId, Timestamp fecha) {
+        List<Corte> cortes = jdbcTemplate.query(sql,
+                (rs, n) -> new Corte(rs.getTimestamp(1), rs.getLong(2)), eppId, areaId, fecha);
+        return cortes.isEmpty() ? null : cortes.get(0);
+    }
+
+    private long[] sumarMovimientos(Integer eppId, Integer areaId, Timestamp desde, Timestamp hasta) {
+        return jdbcTemplate.queryForObject(SQL_SUMA_MOVIMIENTOS,
+                (rs, n) -> new long[]{rs.getLong(1), rs.getLong(2)}, eppId, areaId, desde, hasta);
+    }
+
+    private long stockActual(Integer eppId, Integer areaId) {
+        Long stock = areaId == null
+                ? jdbcTemplate.queryForObject(
+                        "SELECT COALESCE(SUM(cantidad_actual), 0) FROM epp.inventario_central WHERE epp_id = ?",
+                        Long.class, eppId)
+                : jdbcTemplate.queryForObject(
+                        "SELECT COALESCE(SUM(ia.cantidad_actual - COALESCE((SELECT SUM(f.consumido) " +
+                        "FROM epp.inventario_area_franja f WHERE f.inventario_area_id = ia.inventario_area_id), 0)), 0) " +
+                        "FROM epp.inventario_area ia WHERE ia.epp_id = ? AND ia.area_id = ?",
+                        Long.class, eppId, areaId);
+        return stock != null ? stock : 0;
+    }
+
+    private static StockHistoricoResponseDTO respuesta(Integer eppId, Integer areaId, LocalDateTime fecha,
+                                                       long cantidad, Timestamp corte, long movimientos) {
+        return StockHistoricoResponseDTO.builder()
+                .eppId(eppId)
+                .areaId(areaId)
+                .fecha(fecha)
+                .cantidad(cantidad)
+                .fechaSnapshot(corte != null ? corte.toLocalDateTime() : null)
+                .movimientosAplicados(movimientos)
+                .build();
+    }
+}
@@ -0,0 +1,257 @@
+package pe.edu.upeu.epp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import pe.edu.upeu.epp.entity.Notificacion.TipoNotificacion;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envío de la bandeja de salida de notificaciones.
+ * Cada ronda reserva lotes de avisos vencidos con SKIP LOCKED (varios nodos no envían
+ * el mismo aviso), arma un resumen por destinatario y envía todos los correos del lote
+ * por una sola conexión SMTP. Los avisos de un correo que falla se reintentan con espera
+ * exponencial hasta el máximo de intentos; si el nodo cae con avisos reservados, vuelven
+ * a estar disponibles al vencer la reserva.
+ *
+ * Corre en su propio hilo para que un servidor SMTP lento no retrase las demás
+ * tareas programadas; ninguna petición espera al SMTP.
+ */
+@Service
+@ConditionalOnProperty(name = "notificaciones.envio.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class NotificacionDispatcher {
+
+    /**
+     * Reserva avisos pendientes ordenados por destinatario (resúmenes completos en el lote)
+     */
+    private static final String SQL_RESERVAR =
+            "UPDATE epp.notificacion n SET proximo_intento = LOCALTIMESTAMP + make_interval(secs => ?) " +
+            "FROM (SELECT notificacion_id FROM epp.notificacion " +
+            "  WHERE estado = 'PENDIENTE' AND proximo_intento <= LOCALTIMESTAMP " +
+            "  ORDER BY destinatario, notificacion_id LIMIT ? FOR UPDATE SKIP LOCKED) r " +
+            "WHERE n.notificacion_id = r.notificacion_id " +
+            "RETURNING n.notificacion_id, n.destinatario, n.tipo, n.texto";
+
+    private static final String SQL_ENVIADAS =
+            "UPDATE epp.notificacion SET estado = 'ENVIADA', fecha_envio = LOCALTIMESTAMP, ultimo_error = NULL " +
+            "WHERE notificacion_id = ANY(?)";
+
+    /**
+     * Espera base · 2^intentos, acotada; FALLIDA al agotar los intentos
+     */
+    private static final String SQL_FALLIDAS =
+            "UPDATE epp.notificacion SET intentos = intentos + 1, ultimo_error = left(?, 500), " +
+            "estado = CASE WHEN intentos + 1 >= ? THEN 'FALLIDA' ELSE 'PENDIENTE' END, " +
+            "proximo_intento = LOCALTIMESTAMP + make_interval(secs => LEAST(? * power(2, intentos), ?)) " +
+            "WHERE notificacion_id = ANY(?)";
+
+    private static final Map<TipoNotificacion, String> SECCIONES = new EnumMap<>(Map.of(
+            TipoNotificacion.STOCK_BAJO, "Stock en o bajo el mínimo",
+            TipoNotificacion.VENCIMIENTO, "Vencimientos",
+            TipoNotificacion.INSPECCION, "Inspecciones próximas",
+            TipoNotificacion.SOLICITUD_PENDIENTE, "Solicitudes de reposición pendientes"));
+
+    private record Aviso(Long notificacionId, TipoNotificacion tipo, String texto) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JavaMailSender mailSender;
+    private final ThreadPoolExecutor executor;
+    private final Counter enviados;
+    private final Counter fallidos;
+
+    @Value("${notificaciones.remitente}")
+    private String remitente;
+
+    @Value("${notificaciones.lote:500}")
+    private int lote;
+
+    @Value("${notificaciones.reserva:5m}")
+    private Duration reserva;
+
+    @Value("${notificaciones.max-lineas-por-seccion:50}")
+    private int maxLineasPorSeccion;
+
+    @Value("${notificaciones.reintento.espera-base:1m}")
+    private Duration esperaBase;
+
+    @Value("${notificaciones.reintento.espera-maxima:6h}")
+    private Duration esperaMaxima;
+
+    @Value("${notificaciones.reintento.max-intentos:8}")
+    private int maxIntentos;
+
+    public NotificacionDispatcher(JdbcTemplate jdbcTemplate, JavaMailSender mailSender, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mailSender = mailSender;
+        // Una ronda a la vez y a lo sumo otra en espera
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                new CustomizableThreadFactory("notificacion-"),
+                new ThreadPoolExecutor.DiscardPolicy());
+
+        this.enviados = Counter.builder("notificaciones.correos.enviados")
+                .description("Correos de resumen enviados")
+                .register(meterRegistry);
+        this.fallidos = Counter.builder("notificaciones.correos.fallidos")
+                .description("Correos de resumen que fallaron y se reintentarán o se dieron por fallidos")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${notificaciones.dispatch-interval:30000}",
+            fixedDelayString = "${notificaciones.dispatch-interval:30000}")
+    public void programar() {
+        executor.execute(this::despachar);
+    }
+
+    /**
+     * Enviar lotes hasta vaciar los avisos vencidos; retorna los correos enviados
+     */
+    public int despachar() {
+        int total = 0;
+        try {
+            List<Map<String, Object>> reservados;
+            do {
+                reservados = jdbcTemplate.queryForList(SQL_RESERVAR, reserva.toSeconds(), lote);
+                if (!reservados.isEmpty()) {
+                    total += enviarLote(reservados);
+                }
+            } while (reservados.size() == lote);
+        } catch (RuntimeException e) {
+            log.error("Error al despachar notificaciones", e);
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    private int enviarLote(List<Map<String, Object>> reservados) {
+        Map<String, List<Aviso>> porDestinatario = new LinkedHashMap<>();
+        for (Map<String, Object> fila : reservados) {
+            porDestinatario.computeIfAbsent((String) fila.get("destinatario"), d -> new ArrayList<>())
+                    .add(new Aviso(((Number) fila.get("notificacion_id")).longValue(),
+                            TipoNotificacion.valueOf((String) fila.get("tipo")), (String) fila.get("texto")));
+        }
+
+        Map<MimeMessage, String> mensajes = new IdentityHashMap<>();
+        Map<String, String> errores = new LinkedHashMap<>();
+        porDestinatario.forEach((destinatario, avisos) -> {
+            try {
+                mensajes.put(armarCorreo(destinatario, avisos), destinatario);
+            } catch (MessagingException e) {
+                errores.put(destinatario, e.getMessage());
+            }
+        });
+
+        // JavaMailSenderImpl usa una sola conexión para todos los mensajes de la llamada
+        try {
+            if (!mensajes.isEmpty()) {
+                mailSender.send(mensajes.keySet().toArray(MimeMessage[]::new));
+            }
+        } catch (MailSendException e) {
+            // Sin mensajes fallidos: se enviaron todos y falló solo el cierre de la conexión
+            e.getFailedMessages().forEach((mensaje, error) -> {
+                String destinatario = mensajes.get(mensaje);
+                if (destinatario != null) {
+                    errores.put(destinatario, error.getMessage());
+                }
+            });
+        } catch (MailException e) {
+            mensajes.values().forEach(destinatario -> errores.put(destinatario, e.getMessage()));
+        }
+
+        List<Long> enviadas = new ArrayList<>();
+        porDestinatario.forEach((destinatario, avisos) -> {
+            String error = errores.get(destinatario);
+            Long[] ids = avisos.stream().map(Aviso::notificacionId).toArray(Long[]::new);
+            if (error == null) {
+                enviadas.addAll(List.of(ids));
+            } else {
+                jdbcTemplate.update(con -> {
+                    PreparedStatement ps = con.prepareStatement(SQL_FALLIDAS);
+                    ps.setString(1, error);
+                    ps.setInt(2, maxIntentos);
+                    ps.setLong(3, esperaBase.toSeconds());
+                    ps.setLong(4, esperaMaxima.toSeconds());
+                    ps.setArray(5, con.createArrayOf("bigint", ids));
+                    return ps;
+                });
+            }
+        });
+        if (!enviadas.isEmpty()) {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_ENVIADAS);
+                ps.setArray(1, con.createArrayOf("bigint", enviadas.toArray(Long[]::new)));
+                return ps;
+            });
+        }
+
+        int correos = porDestinatario.size() - errores.size();
+        enviados.increment(correos);
+        fallidos.increment(errores.size());
+        if (!errores.isEmpty()) {
+            log.warn("Notificaciones: {} correos enviados, {} fallidos (primer error: {})",
+                    correos, errores.size(), errores.values().iterator().next());
+        } else {
+            log.debug("Notificaciones: {} avisos enviados en {} correos", enviadas.size(), correos);
+        }
+        return correos;
+    }
+
+    private MimeMessage armarCorreo(String destinatario, List<Aviso> avisos) throws MessagingException {
+        MimeMessage mensaje = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mensaje, "UTF-8");
+        helper.setFrom(remitente);
+        helper.setTo(destinatario);
+        helper.setSubject("SST EPP: " + avisos.size() + (avisos.size() == 1 ? " aviso" : " avisos"));
+        helper.setText(armarResumen(avisos));
+        return mensaje;
+    }
+
+    /**
+     * Texto del resumen: una sección por tipo, con a lo sumo maxLineasPorSeccion líneas cada una
+     */
+    private String armarResumen(List<Aviso> avisos) {
+        Map<TipoNotificacion, List<String>> porTipo = new EnumMap<>(TipoNotificacion.class);
+        avisos.forEach(aviso -> porTipo.computeIfAbsent(aviso.tipo(), t -> new ArrayList<>()).add(aviso.texto()));
+
+        StringBuilder texto = new StringBuilder();
+        porTipo.forEach((tipo, lineas) -> {
+            texto.append(SECCIONES.get(tipo)).append(" (").append(lineas.size()).append(")\n");
+            lineas.stream().limit(maxLineasPorSeccion).forEach(linea -> texto.append("  - ").append(linea).append('\n'));
+            if (lineas.size() > maxLineasPorSeccion) {
+                texto.append("  ... y ").append(lineas.size() - maxLineasPorSeccion).append(" más\n");
+            }
+            texto.append('\n');
+        });
+        return texto.toString();
+    }
+}
@@ -0,0 +1,125 @@
+package pe.edu.upeu.epp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+
+/**
+ * Registro de avisos en la bandeja de salida (notificacion), siempre dentro de la
+ * transacción del evento: si ésta se revierte, el aviso desaparece con ella. Cada
+ * aviso se resuelve a sus destinatarios con un solo INSERT ... SELECT:
+ * SUPERVISOR_SST siempre y JEFE_AREA del área del evento cuando corresponde.
+ * El envío lo hace NotificacionDispatcher, nunca el hilo de la petición.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificacionService {
+
+    /**
+     * %s: consulta de eventos (tipo, clave, area_id, texto). Parámetros: los de la
+     * consulta y si se avisa a los jefes del área
+     */
+    private static final String SQL_REGISTRAR =
+            "WITH evento AS (%s) " +
+            "INSERT INTO epp.notificacion (tipo, clave, destinatario, texto, estado, intentos, proximo_intento, fecha_creacion) " +
+            "SELECT e.tipo, e.clave, u.email, left(e.texto, 500), 'PENDIENTE', 0, LOCALTIMESTAMP, LOCALTIMESTAMP " +
+            "FROM evento e " +
+            "JOIN epp.usuario u ON u.activo AND u.email IS NOT NULL " +
+            "LEFT JOIN epp.trabajador t ON t.trabajador_id = u.trabajador_id " +
+            "WHERE EXISTS (SELECT 1 FROM epp.usuario_rol ur JOIN epp.rol r ON r.rol_id = ur.rol_id " +
+            "  WHERE ur.usuario_id = u.usuario_id " +
+            "  AND (r.nombre_rol = 'SUPERVISOR_SST' OR (r.nombre_rol = 'JEFE_AREA' AND ? AND t.area_id = e.area_id))) " +
+            // Evita consumir ids de la secuencia en los barridos repetidos; ON CONFLICT cubre la carrera
+            "AND NOT EXISTS (SELECT 1 FROM epp.notificacion n WHERE n.clave = e.clave AND n.destinatario = u.email) " +
+            "ON CONFLICT (clave, destinatario) DO NOTHING";
+
+    /**
+     * Un aviso por inventario y día: si el stock se repone y vuelve a cruzar el mínimo
+     * el mismo día, el destinatario no recibe la línea repetida
+     */
+    private static final String SQL_STOCK_BAJO =
+            "SELECT 'STOCK_BAJO' AS tipo, 'stock_bajo:' || ia.inventario_area_id || ':' || CURRENT_DATE AS clave, " +
+            "ia.area_id, " +
+            "format('%s en %s: %s unidades (mínimo %s)', c.nombre_epp, a.nombre_area, " +
+            "ia.cantidad_actual, ia.cantidad_minima) AS texto " +
+            "FROM epp.inventario_area ia " +
+            "JOIN epp.catalogo_epp c ON c.epp_id = ia.epp_id " +
+            "JOIN epp.area a ON a.area_id = ia.area_id " +
+            "WHERE ia.inventario_area_id = ANY(?)";
+
+    private static final String SQL_ALERTAS =
+            "SELECT CASE WHEN al.tipo = 'INSPECCION_EPP' THEN 'INSPECCION' ELSE 'VENCIMIENTO' END AS tipo, " +
+            "'alerta:' || al.alerta_id AS clave, al.area_id, " +
+            "format('%s (%s%s)%s: %s %s', c.nombre_epp, " +
+            "CASE WHEN al.tipo = 'VENCIMIENTO_LOTE' THEN 'lote ' ELSE '' END, al.descripcion, " +
+            "COALESCE(', ' || ar.nombre_area, ''), " +
+            "CASE WHEN al.tipo = 'INSPECCION_EPP' THEN 'inspección' ELSE 'vencimiento' END, " +
+            "to_char(al.fecha_limite, 'DD/MM/YYYY')) AS texto " +
+            "FROM epp.alerta al " +
+            "JOIN epp.catalogo_epp c ON c.epp_id = al.epp_id " +
+            "LEFT JOIN epp.area ar ON ar.area_id = al.area_id " +
+            "WHERE al.alerta_id = ANY(?)";
+
+    private static final String SQL_SOLICITUDES_PENDIENTES =
+            "SELECT 'SOLICITUD_PENDIENTE' AS tipo, 'solicitud:' || s.solicitud_id AS clave, s.area_id, " +
+            "format('Solicitud %s: %s unidades de %s para %s (prioridad %s)', s.solicitud_id, " +
+            "s.cantidad_solicitada, c.nombre_epp, a.nombre_area, s.prioridad) AS texto " +
+            "FROM epp.solicitud_reposicion s " +
+            "JOIN epp.catalogo_epp c ON c.epp_id = s.epp_id " +
+            "JOIN epp.area a ON a.area_id = s.area_id " +
+            "WHERE s.estado_solicitud = 'PENDIENTE'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inventarios de área que acaban de quedar en o bajo su mínimo
+     * (InventarioArea.necesitaReposicion pasó de false a true)
+     */
+    @Transactional
+    public int registrarStockBajo(Collection<Integer> inventarioAreaIds) {
+        if (inventarioAreaIds.isEmpty()) {
+            return 0;
+        }
+        return registrar(SQL_STOCK_BAJO, "integer", inventarioAreaIds.toArray(Integer[]::new), true);
+    }
+
+    /**
+     * Alertas de vencimiento e inspección nuevas; una alerta se avisa una sola vez
+     */
+    @Transactional
+    public int registrarAlertas(Collection<Long> alertaIds) {
+        if (alertaIds.isEmpty()) {
+            return 0;
+        }
+        return registrar(SQL_ALERTAS, "bigint", alertaIds.toArray(Long[]::new), true);
+    }
+
+    /**
+     * Avisar a los supervisores de las solicitudes de reposición pendientes aún no avisadas
+     */
+    @Scheduled(fixedDelayString = "${notificaciones.solicitudes-interval:60000}")
+    @Transactional
+    public void registrarSolicitudesPendientes() {
+        int filas = jdbcTemplate.update(String.format(SQL_REGISTRAR, SQL_SOLICITUDES_PENDIENTES), false);
+        if (filas > 0) {
+            log.debug("{} avisos de solicitudes de reposición pendientes registrados", filas);
+        }
+    }
+
+    private int registrar(String eventos, String tipoArreglo, Object[] ids, boolean jefesDeArea) {
+        String sql = String.format(SQL_REGISTRAR, eventos);
+        return jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf(tipoArreglo, ids));
+            ps.setBoolean(2, jefesDeArea);
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,375 @@
+package pe.edu.upeu.epp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.upeu.epp.dto.request.ReporteJobRequestDTO;
+import pe.edu.upeu.epp.dto.response.ReporteJobResponseDTO;
+import pe.edu.upeu.epp.entity.ReporteJob;
+import pe.edu.upeu.epp.entity.ReporteJob.Estado;
+import pe.edu.upeu.epp.entity.Usuario;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.exception.LimiteTasaExcedidoException;
+import pe.edu.upeu.epp.exception.ServicioSaturadoException;
+import pe.edu.upeu.epp.repository.ReporteJobRepository;
+import pe.edu.upeu.epp.repository.UsuarioRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola de exportaciones en segundo plano. Los jobs se registran en reporte_job y se
+ * ejecutan en un pool acotado (el request solo encola); el archivo queda en disco
+ * local hasta su expiración. Un job del mismo usuario con los mismos parámetros creado
+ * dentro de la ventana de deduplicación se reutiliza en lugar de ejecutarse otra vez.
+ * Cada usuario solo ve y descarga sus propios jobs.
+ * Cada job reserva un lugar del pool antes de registrarse y lo libera al terminar: con
+ * la cola llena se rechaza el envío sin dejar una fila PENDIENTE que nadie ejecutará.
+ * Los archivos son locales al nodo: los jobs deben atenderse en un único nodo de reportes.
+ */
+@Service
+@Slf4j
+public class ReporteJobService {
+
+    private static final Set<Estado> ACTIVOS = Set.of(Estado.PENDIENTE, Estado.EN_PROCESO);
+    private static final Set<Estado> REUTILIZABLES = Set.of(Estado.PENDIENTE, Estado.EN_PROCESO, Estado.COMPLETADO);
+    private static final int MAX_MENSAJE_ERROR = 500;
+
+    private final ReporteJobRepository reporteJobRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final ExportacionService exportacionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore cupos;
+    private final Path directorio;
+    private final int maxPorUsuario;
+    private final Duration ventanaDeduplicacion;
+    private final Duration ttl;
+    private final long retryAfterSeconds;
+
+    public ReporteJobService(ReporteJobRepository reporteJobRepository,
+                             UsuarioRepository usuarioRepository,
+                             ExportacionService exportacionService,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${reportes.jobs.pool-size:2}") int poolSize,
+                             @Value("${reportes.jobs.queue-capacity:20}") int queueCapacity,
+                             @Value("${reportes.jobs.max-por-usuario:2}") int maxPorUsuario,
+                             @Value("${reportes.jobs.dedupe-window:10m}") Duration ventanaDeduplicacion,
+                             @Value("${reportes.jobs.ttl:24h}") Duration ttl,
+                             @Value("${reportes.jobs.retry-after-seconds:30}") long retryAfterSeconds,
+                             @Value("${reportes.jobs.directorio:${java.io.tmpdir}/epp-reportes}") String directorio)
+            throws IOException {
+        this.reporteJobRepository = reporteJobRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.exportacionService = exportacionService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxPorUsuario = maxPorUsuario;
+        this.ventanaDeduplicacion = ventanaDeduplicacion;
+        this.ttl = ttl;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.directorio = Files.createDirectories(Paths.get(directorio));
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("reporte-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Un cupo por hilo y por lugar en la cola: con un cupo reservado execute() no rechaza
+        this.cupos = new Semaphore(poolSize + queueCapacity);
+
+        Gauge.builder("reportes.jobs.cola", executor, e -> e.getQueue().size())
+                .description("Exportaciones en cola")
+                .register(meterRegistry);
+        Gauge.builder("reportes.jobs.activos", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Exportaciones en ejecución")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registrar un job (o reutilizar uno idéntico reciente); se encola al confirmar la transacción
+     */
+    @Transactional
+    public ReporteJobResponseDTO enviar(ReporteJobRequestDTO request, String nombreUsuario) {
+        exportacionService.validar(request.getTipo(), request.getDesde(), request.getHasta());
+        Usuario usuario = usuarioRepository.findByNombreUsuario(nombreUsuario)
+                .orElseThrow(() -> new BusinessException("Usuario no encontrado: " + nombreUsuario));
+        String clave = clave(request);
+
+        // Serializa los envíos del usuario: límite y deduplicación son por usuario
+        bloquear("reporte_job:usuario:" + usuario.getUsuarioId());
+
+        var existente = reporteJobRepository
+                .findFirstByUsuarioUsuarioIdAndClaveAndEstadoInAndFechaCreacionAfterOrderByFechaCreacionDesc(
+                        usuario.getUsuarioId(), clave, REUTILIZABLES, LocalDateTime.now().minus(ventanaDeduplicacion));
+        if (existente.isPresent()) {
+            log.debug("Job de reporte {} reutilizado para {}", existente.get().getReporteJobId(), nombreUsuario);
+            return toDTO(existente.get(), true);
+        }
+
+        if (reporteJobRepository.countByUsuarioUsuarioIdAndEstadoIn(usuario.getUsuarioId(), ACTIVOS) >= maxPorUsuario) {
+            throw new LimiteTasaExcedidoException(
+                    "Tiene " + maxPorUsuario + " reportes en proceso. Espere a que terminen para solicitar otro.",
+                    retryAfterSeconds);
+        }
+        if (!cupos.tryAcquire()) {
+            throw new ServicioSaturadoException(
+                    "La cola de reportes está llena. Intente nuevamente en unos minutos.", retryAfterSeconds);
+        }
+
+        ReporteJob job;
+        try {
+            job = reporteJobRepository.save(ReporteJob.builder()
+                    .tipo(request.getTipo())
+                    .desde(request.getDesde())
+                    .hasta(request.getHasta())
+                    .clave(clave)
+                    .estado(Estado.PENDIENTE)
+                    .usuario(usuario)
+                    .filasProcesadas(0L)
+                    .build());
+        } catch (RuntimeException e) {
+            cupos.release();
+            throw e;
+        }
+
+        Long jobId = job.getReporteJobId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    encolar(jobId);
+                } else {
+                    cupos.release();
+                }
+            }
+        });
+        return toDTO(job, false);
+    }
+
+    @Transactional(readOnly = true)
+    public ReporteJobResponseDTO consultar(Long jobId, String nombreUsuario) {
+        return toDTO(buscar(jobId, nombreUsuario), false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReporteJobResponseDTO> listar(String nombreUsuario) {
+        return reporteJobRepository.findTop50ByUsuarioNombreUsuarioOrderByFechaCreacionDesc(nombreUsuario).stream()
+                .map(job -> toDTO(job, false))
+                .toList();
+    }
+
+    /**
+     * Archivo de un job completado y aún no expirado
+     */
+    @Transactional(readOnly = true)
+    public Resource archivo(Long jobId, String nombreUsuario) {
+        ReporteJob job = buscar(jobId, nombreUsuario);
+        if (job.getEstado() != Estado.COMPLETADO) {
+            throw new BusinessException("El reporte " + jobId + " no está disponible (estado " + job.getEstado() + ")");
+        }
+        Path archivo = directorio.resolve(job.getArchivo());
+        if (!Files.isReadable(archivo)) {
+            throw new BusinessException("El archivo del reporte " + jobId + " ya no existe");
+        }
+        return new FileSystemResource(archivo);
+    }
+
+    /**
+     * Eliminar los archivos expirados y los temporales huérfanos
+     */
+    @Scheduled(fixedDelayString = "${reportes.jobs.cleanup-interval:600000}")
+    public void limpiar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<ReporteJob> expirados = reporteJobRepository.findByEstadoAndFechaExpiracionLessThanEqual(
+                Estado.COMPLETADO, ahora);
+        for (ReporteJob job : expirados) {
+            eliminar(directorio.resolve(job.getArchivo()));
+            job.setEstado(Estado.EXPIRADO);
+        }
+        if (!expirados.isEmpty()) {
+            reporteJobRepository.saveAll(expirados);
+            log.info("Reportes expirados eliminados: {}", expirados.size());
+        }
+
+        Instant limite = Instant.now().minus(ttl);
+        try (DirectoryStream<Path> temporales = Files.newDirectoryStream(directorio, "*.part")) {
+            for (Path temporal : temporales) {
+                if (Files.getLastModifiedTime(temporal).toInstant().isBefore(limite)) {
+                    eliminar(temporal);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo revisar el directorio de reportes {}: {}", directorio, e.getMessage());
+        }
+    }
+
+    /**
+     * Los jobs pendientes al arrancar quedaron huérfanos (la cola es en memoria)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recuperar() {
+        Integer interrumpidos = transactionTemplate.execute(status ->
+                reporteJobRepository.interrumpir(ACTIVOS, Estado.ERROR,
+                        "Interrumpido por reinicio del servidor", LocalDateTime.now()));
+        if (interrumpidos != null && interrumpidos > 0) {
+            log.warn("Jobs de reporte interrumpidos por reinicio: {}", interrumpidos);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ejecutar el job con el cupo que reservó. Ya confirmado, solo se rechaza si el pool se
+     * está deteniendo: el job queda en ERROR (fuera de la deduplicación) sin lanzar nada
+     */
+    private void encolar(Long jobId) {
+        try {
+            executor.execute(() -> {
+                try {
+                    ejecutar(jobId);
+                } finally {
+                    cupos.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            cupos.release();
+            log.warn("Job de reporte {} no encolado: el pool está detenido", jobId);
+            transactionTemplate.executeWithoutResult(status ->
+                    reporteJobRepository.fallar(jobId, Estado.ERROR, "Cola de reportes no disponible",
+                            LocalDateTime.now()));
+        }
+    }
+
+    private void ejecutar(Long jobId) {
+        Integer iniciado = transactionTemplate.execute(status ->
+                reporteJobRepository.iniciar(jobId, Estado.PENDIENTE, Estado.EN_PROCESO, LocalDateTime.now()));
+        if (iniciado == null || iniciado == 0) {
+            return;
+        }
+        ReporteJob job = reporteJobRepository.findById(jobId).orElseThrow();
+        String nombre = "reporte_" + jobId + ".xlsx";
+        Path temporal = directorio.resolve(nombre + ".part");
+        long inicio = System.nanoTime();
+
+        try {
+            long filas;
+            try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(temporal))) {
+                filas = exportacionService.exportar(job.getTipo(), job.getDesde(), job.getHasta(), salida,
+                        procesadas -> transactionTemplate.executeWithoutResult(status ->
+                                reporteJobRepository.actualizarProgreso(jobId, procesadas)));
+            }
+            Path archivo = Files.move(temporal, directorio.resolve(nombre),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long tamano = Files.size(archivo);
+            LocalDateTime ahora = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status ->
+                    reporteJobRepository.completar(jobId, Estado.COMPLETADO, filas, nombre, tamano,
+                            ahora, ahora.plus(ttl)));
+            log.info("Job de reporte {} completado: {} filas, {} bytes en {} ms",
+                    jobId, filas, tamano, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Job de reporte {} fallido", jobId, e);
+            eliminar(temporal);
+            String mensaje = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            transactionTemplate.executeWithoutResult(status -> reporteJobRepository.fallar(jobId, Estado.ERROR,
+                    mensaje.length() > MAX_MENSAJE_ERROR ? mensaje.substring(0, MAX_MENSAJE_ERROR) : mensaje,
+                    LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Job del usuario; el de otro usuario se reporta como inexistente
+     */
+    private ReporteJob buscar(Long jobId, String nombreUsuario) {
+        return reporteJobRepository.findByReporteJobIdAndUsuarioNombreUsuario(jobId, nombreUsuario)
+                .orElseThrow(() -> new BusinessException("Reporte no encontrado: " + jobId));
+    }
+
+    /**
+     * Lock de transacción de Postgres sobre una clave lógica
+     */
+    private void bloquear(String recurso) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> { }, recurso);
+    }
+
+    private static String clave(ReporteJobRequestDTO request) {
+        String parametros = request.getTipo() + "|" + request.getDesde() + "|" + request.getHasta();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(parametros.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private void eliminar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    private ReporteJobResponseDTO toDTO(ReporteJob job, boolean reutilizado) {
+        return ReporteJobResponseDTO.builder()
+                .reporteJobId(job.getReporteJobId())
+                .tipo(job.getTipo())
+                .desde(job.getDesde())
+                .hasta(job.getHasta())
+                .estado(job.getEstado())
+                .filasProcesadas(job.getFilasProcesadas())
+                .tamanoBytes(job.getTamanoBytes())
+                .mensajeError(job.getMensajeError())
+                .fechaCreacion(job.getFechaCreacion())
+                .fechaInicio(job.getFechaInicio())
+                .fechaFin(job.getFechaFin())
+                .fechaExpiracion(job.getFechaExpiracion())
+                .reutilizado(reutilizado)
+                .urlDescarga(job.getEstado() == Estado.COMPLETADO
+                        ? "/api/v1/reportes/jobs/" + job.getReporteJobId() + "/archivo"
+                        : null)
+                .build();
+    }
+}
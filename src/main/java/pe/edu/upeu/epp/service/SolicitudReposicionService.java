@@ -0,0 +1,79 @@
+package pe.edu.upeu.epp.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.request.AprobarSolicitudRequestDTO;
+import pe.edu.upeu.epp.entity.MovimientoInventario.Origen;
+import pe.edu.upeu.epp.entity.MovimientoInventario.TipoMovimiento;
+import pe.edu.upeu.epp.entity.SolicitudReposicion;
+import pe.edu.upeu.epp.entity.SolicitudReposicion.EstadoSolicitud;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.repository.SolicitudReposicionRepository;
+import pe.edu.upeu.epp.repository.TrabajadorRepository;
+import pe.edu.upeu.epp.repository.UsuarioRepository;
+import pe.edu.upeu.epp.service.MovimientoInventarioService.Movimiento;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gestión de solicitudes de reposición de stock de un área
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SolicitudReposicionService {
+
+    private final SolicitudReposicionRepository solicitudReposicionRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final TrabajadorRepository trabajadorRepository;
+    private final StockEngine stockEngine;
+    private final MovimientoInventarioService movimientoInventarioService;
+
+    /**
+     * Aprobar una solicitud pendiente: transfiere la cantidad aprobada del inventario
+     * central (lotes FEFO) al área y registra los movimientos. Se puede aprobar menos
+     * de lo solicitado, nunca más
+     */
+    @Transactional
+    public void aprobar(Integer solicitudId, AprobarSolicitudRequestDTO request, String nombreUsuario) {
+        Integer supervisorId = usuarioRepository.findTrabajadorIdByNombreUsuario(nombreUsuario)
+                .orElseThrow(() -> new BusinessException("El usuario no está asociado a un trabajador"));
+        SolicitudReposicion solicitud = solicitudReposicionRepository.findByIdParaActualizar(solicitudId)
+                .orElseThrow(() -> new BusinessException("Solicitud de reposición no encontrada: " + solicitudId));
+        if (solicitud.getEstadoSolicitud() != EstadoSolicitud.PENDIENTE) {
+            throw new BusinessException("La solicitud ya fue procesada: " + solicitud.getEstadoSolicitud());
+        }
+
+        Integer eppId = solicitud.getEpp().getEppId();
+        Integer areaId = solicitud.getArea().getAreaId();
+        int cantidad = request.getCantidadAprobada();
+        if (cantidad < 1 || cantidad > solicitud.getCantidadSolicitada()) {
+            throw new BusinessException("La cantidad aprobada debe estar entre 1 y la cantidad solicitada ("
+                    + solicitud.getCantidadSolicitada() + ")");
+        }
+
+        Map<Integer, Integer> porLote = stockEngine.descontarCentralFefo(eppId, cantidad);
+        stockEngine.incrementarArea(areaId, eppId, cantidad);
+
+        List<Movimiento> movimientos = new ArrayList<>();
+        porLote.forEach((loteId, tomado) -> movimientos.add(new Movimiento(TipoMovimiento.TRANSFERENCIA,
+                Origen.SOLICITUD_REPOSICION, eppId, null, loteId, -tomado, solicitudId, null)));
+        movimientos.add(new Movimiento(TipoMovimiento.TRANSFERENCIA,
+                Origen.SOLICITUD_REPOSICION, eppId, areaId, null, cantidad, solicitudId, null));
+        movimientoInventarioService.registrar(movimientos);
+
+        solicitud.setEstadoSolicitud(EstadoSolicitud.APROBADA);
+        solicitud.setCantidadAprobada(cantidad);
+        solicitud.setSupervisor(trabajadorRepository.getReferenceById(supervisorId));
+        solicitud.setComentariosSupervisor(request.getComentarios());
+        solicitud.setFechaAprobacion(LocalDateTime.now());
+
+        log.info("Solicitud {} aprobada por {}: {} unidades del EPP {} al área {} desde {} lotes",
+                solicitudId, nombreUsuario, cantidad, eppId, areaId, porLote.size());
+    }
+}
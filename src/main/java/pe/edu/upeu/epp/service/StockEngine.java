@@ -0,0 +1,384 @@
+package pe.edu.upeu.epp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.exception.StockInsuficienteException;
+import pe.edu.upeu.epp.repository.InventarioAreaRepository;
+import pe.edu.upeu.epp.repository.InventarioCentralRepository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Motor de movimientos de stock.
+ * Todas las salidas son un UPDATE atómico con guarda (cantidad_actual >= n), sin
+ * leer-modificar-escribir en Java, así no se pierden actualizaciones concurrentes.
+ *
+ * Para los ítems de área más concurrentes (p. ej. guantes al inicio de turno) el
+ * stock puede repartirse en franjas (inventario_area_franja): cada salida toma una
+ * franja libre con SKIP LOCKED, de modo que varios jefes de área descontando el
+ * mismo EPP no hacen cola sobre una sola fila. La consolidación periódica aplica
+ * lo consumido a inventario_area.cantidad_actual y redistribuye el stock.
+ *
+ * Cuando una salida deja cantidad_actual en o bajo el mínimo (antes estaba por encima)
+ * se registra el aviso de stock bajo en la misma transacción. Con franjas el cruce se
+ * detecta al aplicar lo consumido, a lo sumo un intervalo de consolidación después.
+ */
+@Service
+@Slf4j
+public class StockEngine {
+
+    /**
+     * Bloquea en orden de epp_id (evita deadlocks entre salidas concurrentes) y
+     * descuenta solo donde el stock alcanza. Retorna los epp_id descontados y si
+     * cantidad_actual acaba de cruzar el mínimo.
+     */
+    private static final String SQL_DESCONTAR_AREA_LOTE =
+            "WITH bloqueo AS (" +
+            "  SELECT inventario_area_id FROM epp.inventario_area " +
+            "  WHERE area_id = ? AND epp_id = ANY(?) AND franjas IS NULL ORDER BY epp_id FOR UPDATE) " +
+            "UPDATE epp.inventario_area ia " +
+            "SET cantidad_actual = ia.cantidad_actual - v.cantidad, ultima_actualizacion = LOCALTIMESTAMP " +
+            "FROM unnest(?::int[], ?::int[]) AS v(epp_id, cantidad) " +
+            "WHERE ia.inventario_area_id IN (SELECT inventario_area_id FROM bloqueo) " +
+            "AND ia.epp_id = v.epp_id AND ia.cantidad_actual >= v.cantidad " +
+            "RETURNING ia.epp_id, ia.inventario_area_id, " + cruceMinimo("ia.", "v.cantidad") + " AS bajo_minimo";
+
+    private static final String SQL_BUSCAR_CON_FRANJAS =
+            "SELECT epp_id, inventario_area_id, franjas FROM epp.inventario_area " +
+            "WHERE area_id = ? AND epp_id = ANY(?) AND franjas IS NOT NULL";
+
+    /**
+     * Toma cualquier franja con stock suficiente que no esté bloqueada por otra
+     * transacción, empezando por una franja al azar
+     */
+    private static final String SQL_DESCONTAR_FRANJA =
+            "UPDATE epp.inventario_area_franja f " +
+            "SET cantidad = f.cantidad - ?, consumido = f.consumido + ? " +
+            "WHERE (f.inventario_area_id, f.franja) = (" +
+            "  SELECT inventario_area_id, franja FROM epp.inventario_area_franja " +
+            "  WHERE inventario_area_id = ? AND cantidad >= ? " +
+            "  ORDER BY (franja + ?) % ? LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "AND f.cantidad >= ?";
+
+    /**
+     * Descuento del stock no asignado a franjas (cantidad + consumido de las franjas
+     * es constante fuera de la consolidación, por eso la guarda es segura)
+     */
+    private static final String SQL_DESCONTAR_LIBRE =
+            "UPDATE epp.inventario_area SET cantidad_actual = cantidad_actual - ?, " +
+            "ultima_actualizacion = LOCALTIMESTAMP " +
+            "WHERE inventario_area_id = ? AND cantidad_actual - (" +
+            "  SELECT COALESCE(SUM(cantidad + consumido), 0) FROM epp.inventario_area_franja " +
+            "  WHERE inventario_area_id = ?) >= ? " +
+            "RETURNING " + cruceMinimo("", "?");
+
+    /**
+     * Crea el inventario del EPP en el área si aún no existe
+     */
+    private static final String SQL_INCREMENTAR_AREA =
+            "INSERT INTO epp.inventario_area (epp_id, area_id, cantidad_actual, cantidad_minima, ultima_actualizacion) " +
+            "VALUES (?, ?, ?, 0, LOCALTIMESTAMP) " +
+            "ON CONFLICT (epp_id, area_id) DO UPDATE " +
+            "SET cantidad_actual = inventario_area.cantidad_actual + EXCLUDED.cantidad_actual, " +
+            "ultima_actualizacion = EXCLUDED.ultima_actualizacion";
+
+    /**
+     * Lotes con stock del EPP, primero el que vence antes (FEFO)
+     */
+    private static final String SQL_LOTES_FEFO =
+            "SELECT inventario_central_id, cantidad_actual FROM epp.inventario_central " +
+            "WHERE epp_id = ? AND cantidad_actual > 0 " +
+            "ORDER BY fecha_vencimiento NULLS LAST, inventario_central_id FOR UPDATE";
+
+    private static final String SQL_BLOQUEAR_INVENTARIO =
+            "SELECT franjas FROM epp.inventario_area WHERE inventario_area_id = ? FOR UPDATE";
+
+    private static final String SQL_BLOQUEAR_FRANJAS =
+            "SELECT COALESCE(SUM(consumido), 0) FROM (" +
+            "  SELECT consumido FROM epp.inventario_area_franja WHERE inventario_area_id = ? FOR UPDATE) f";
+
+    private static final String SQL_APLICAR_CONSUMIDO =
+            "UPDATE epp.inventario_area SET cantidad_actual = cantidad_actual - ?, " +
+            "ultima_actualizacion = LOCALTIMESTAMP WHERE inventario_area_id = ? " +
+            "RETURNING " + cruceMinimo("", "?");
+
+    private static final String SQL_REDISTRIBUIR =
+            "UPDATE epp.inventario_area_franja SET consumido = 0, " +
+            "cantidad = ? / ? + CASE WHEN franja < ? % ? THEN 1 ELSE 0 END " +
+            "WHERE inventario_area_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventarioAreaRepository inventarioAreaRepository;
+    private final InventarioCentralRepository inventarioCentralRepository;
+    private final NotificacionService notificacionService;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockEngine(JdbcTemplate jdbcTemplate,
+                       InventarioAreaRepository inventarioAreaRepository,
+                       InventarioCentralRepository inventarioCentralRepository,
+                       NotificacionService notificacionService,
+                       PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventarioAreaRepository = inventarioAreaRepository;
+        this.inventarioCentralRepository = inventarioCentralRepository;
+        this.notificacionService = notificacionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Expresión para RETURNING: la nueva cantidad_actual está en o bajo el mínimo y la
+     * anterior (nueva + descontado) estaba por encima
+     */
+    private static String cruceMinimo(String alias, String descontado) {
+        return "(" + alias + "cantidad_actual <= " + alias + "cantidad_minima AND " +
+                alias + "cantidad_actual + " + descontado + " > " + alias + "cantidad_minima)";
+    }
+
+    // ==================== INVENTARIO DE ÁREA ====================
+
+    /**
+     * Descontar un EPP del inventario de un área
+     *
+     * @throws StockInsuficienteException si no alcanza
+     */
+    @Transactional
+    public void descontarArea(Integer areaId, Integer eppId, int cantidad) {
+        descontarArea(areaId, Map.of(eppId, cantidad));
+    }
+
+    /**
+     * Descontar varios EPP del inventario de un área (cantidades totales por EPP).
+     * Los EPP sin franjas se descuentan en una sola sentencia.
+     *
+     * @throws StockInsuficienteException con todos los EPP que no alcanzan
+     */
+    @Transactional
+    public void descontarArea(Integer areaId, Map<Integer, Integer> cantidadesPorEpp) {
+        Map<Integer, Integer> pendientes = new TreeMap<>(cantidadesPorEpp);
+        List<Integer> faltantes = new ArrayList<>();
+
+        Map<Integer, int[]> conFranjas = buscarConFranjas(areaId, pendientes.keySet().toArray(Integer[]::new));
+        conFranjas.forEach((eppId, inventario) -> {
+            if (!descontarConFranjas(inventario[0], inventario[1], pendientes.remove(eppId))) {
+                faltantes.add(eppId);
+            }
+        });
+
+        if (!pendientes.isEmpty()) {
+            List<Integer> descontados = descontarLote(areaId, pendientes);
+            pendientes.keySet().stream()
+                    .filter(eppId -> !descontados.contains(eppId))
+                    .forEach(faltantes::add);
+        }
+
+        if (!faltantes.isEmpty()) {
+            throw new StockInsuficienteException(areaId, faltantes);
+        }
+    }
+
+    /**
+     * Ingresar stock a un área (reposición, devolución); crea el inventario si no existe
+     */
+    @Transactional
+    public void incrementarArea(Integer areaId, Integer eppId, int cantidad) {
+        jdbcTemplate.update(SQL_INCREMENTAR_AREA, eppId, areaId, cantidad);
+    }
+
+    // ==================== INVENTARIO CENTRAL ====================
+
+    /**
+     * Descontar stock de un lote del inventario central
+     */
+    @Transactional
+    public void descontarCentral(Integer inventarioCentralId, int cantidad) {
+        if (inventarioCentralRepository.descontar(inventarioCentralId, cantidad) == 0) {
+            throw new BusinessException("Stock insuficiente en el lote " + inventarioCentralId + " del inventario central");
+        }
+    }
+
+    /**
+     * Descontar un EPP del inventario central tomando primero los lotes que vencen antes.
+     * Retorna lo descontado por lote (inventario_central_id -> cantidad).
+     */
+    @Transactional
+    public Map<Integer, Integer> descontarCentralFefo(Integer eppId, int cantidad) {
+        Map<Integer, Integer> porLote = new LinkedHashMap<>();
+        int pendiente = cantidad;
+        for (Map<String, Object> lote : jdbcTemplate.queryForList(SQL_LOTES_FEFO, eppId)) {
+            if (pendiente == 0) {
+                break;
+            }
+            int tomar = Math.min(pendiente, ((Number) lote.get("cantidad_actual")).intValue());
+            porLote.put(((Number) lote.get("inventario_central_id")).intValue(), tomar);
+            pendiente -= tomar;
+        }
+        if (pendiente > 0) {
+            throw new BusinessException("Stock insuficiente en el inventario central para el EPP " + eppId
+                    + ": faltan " + pendiente);
+        }
+        porLote.forEach(this::descontarCentral);
+        return porLote;
+    }
+
+    /**
+     * Ingresar stock a un lote del inventario central
+     */
+    @Transactional
+    public void incrementarCentral(Integer inventarioCentralId, int cantidad) {
+        if (inventarioCentralRepository.incrementar(inventarioCentralId, cantidad) == 0) {
+            throw new BusinessException("No existe el lote " + inventarioCentralId + " del inventario central");
+        }
+    }
+
+    // ==================== FRANJAS ====================
+
+    /**
+     * Repartir el stock de un inventario de área en franjas (0 o 1 las deshabilita)
+     */
+    @Transactional
+    public void configurarFranjas(Integer inventarioAreaId, int franjas) {
+        List<Integer> actual = jdbcTemplate.queryForList(SQL_BLOQUEAR_INVENTARIO, Integer.class, inventarioAreaId);
+        if (actual.isEmpty()) {
+            throw new BusinessException("Inventario de área no encontrado: " + inventarioAreaId);
+        }
+        aplicarConsumido(inventarioAreaId);
+        jdbcTemplate.update("DELETE FROM epp.inventario_area_franja WHERE inventario_area_id = ?", inventarioAreaId);
+
+        if (franjas <= 1) {
+            jdbcTemplate.update("UPDATE epp.inventario_area SET franjas = NULL WHERE inventario_area_id = ?",
+                    inventarioAreaId);
+            log.info("Franjas deshabilitadas para inventario de área {}", inventarioAreaId);
+            return;
+        }
+        jdbcTemplate.update("UPDATE epp.inventario_area SET franjas = ? WHERE inventario_area_id = ?",
+                franjas, inventarioAreaId);
+        jdbcTemplate.update("INSERT INTO epp.inventario_area_franja (inventario_area_id, franja, cantidad, consumido) " +
+                "SELECT ?, g, 0, 0 FROM generate_series(0, ? - 1) g", inventarioAreaId, franjas);
+        redistribuir(inventarioAreaId, franjas);
+        log.info("Inventario de área {} repartido en {} franjas", inventarioAreaId, franjas);
+    }
+
+    /**
+     * Aplicar lo consumido en las franjas a cantidad_actual y redistribuir el stock
+     */
+    @Scheduled(fixedDelayString = "${inventario.franjas.consolidation-interval:5000}")
+    public void consolidarFranjas() {
+        for (Integer inventarioAreaId : inventarioAreaRepository.findIdsConFranjas()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Integer franjas = jdbcTemplate.queryForObject(SQL_BLOQUEAR_INVENTARIO, Integer.class, inventarioAreaId);
+                if (franjas != null) {
+                    aplicarConsumido(inventarioAreaId);
+                    redistribuir(inventarioAreaId, franjas);
+                }
+            });
+        }
+    }
+
+    private boolean descontarConFranjas(Integer inventarioAreaId, int franjas, int cantidad) {
+        int inicio = ThreadLocalRandom.current().nextInt(franjas);
+        if (jdbcTemplate.update(SQL_DESCONTAR_FRANJA,
+                cantidad, cantidad, inventarioAreaId, cantidad, inicio, franjas, cantidad) == 1) {
+            return true;
+        }
+        // Ninguna franja libre alcanza: usar el stock no asignado
+        if (descontarLibre(inventarioAreaId, cantidad)) {
+            return true;
+        }
+        // Último recurso: recoger todo el stock de las franjas en la fila principal
+        jdbcTemplate.queryForList(SQL_BLOQUEAR_INVENTARIO, Integer.class, inventarioAreaId);
+        aplicarConsumido(inventarioAreaId);
+        jdbcTemplate.update("UPDATE epp.inventario_area_franja SET cantidad = 0 WHERE inventario_area_id = ?",
+                inventarioAreaId);
+        log.debug("Franjas de inventario de área {} recogidas", inventarioAreaId);
+        return descontarLibre(inventarioAreaId, cantidad);
+    }
+
+    /**
+     * Bloquea la fila antes del UPDATE: si éste esperara el lock de una consolidación,
+     * READ COMMITTED volvería a evaluar la guarda con la suma de franjas de su snapshot
+     * (anterior a la redistribución) y podría descontar stock ya repartido.
+     */
+    private boolean descontarLibre(Integer inventarioAreaId, int cantidad) {
+        jdbcTemplate.queryForList(SQL_BLOQUEAR_INVENTARIO, Integer.class, inventarioAreaId);
+        List<Boolean> cruce = jdbcTemplate.queryForList(SQL_DESCONTAR_LIBRE, Boolean.class,
+                cantidad, inventarioAreaId, inventarioAreaId, cantidad, cantidad);
+        if (cruce.isEmpty()) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(cruce.get(0))) {
+            notificacionService.registrarStockBajo(List.of(inventarioAreaId));
+        }
+        return true;
+    }
+
+    /**
+     * Requiere la fila de inventario_area bloqueada. Bloquea las franjas y descuenta lo
+     * consumido de cantidad_actual.
+     */
+    private void aplicarConsumido(Integer inventarioAreaId) {
+        Integer consumido = jdbcTemplate.queryForObject(SQL_BLOQUEAR_FRANJAS, Integer.class, inventarioAreaId);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(SQL_APLICAR_CONSUMIDO, Boolean.class,
+                consumido, inventarioAreaId, consumido))) {
+            notificacionService.registrarStockBajo(List.of(inventarioAreaId));
+        }
+        jdbcTemplate.update("UPDATE epp.inventario_area_franja SET consumido = 0 WHERE inventario_area_id = ?",
+                inventarioAreaId);
+    }
+
+    private void redistribuir(Integer inventarioAreaId, int franjas) {
+        Integer total = jdbcTemplate.queryForObject(
+                "SELECT cantidad_actual FROM epp.inventario_area WHERE inventario_area_id = ?",
+                Integer.class, inventarioAreaId);
+        jdbcTemplate.update(SQL_REDISTRIBUIR, total, franjas, total, franjas, inventarioAreaId);
+    }
+
+    /**
+     * epp_id -> {inventario_area_id, franjas}
+     */
+    private Map<Integer, int[]> buscarConFranjas(Integer areaId, Integer[] eppIds) {
+        Map<Integer, int[]> conFranjas = new TreeMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_BUSCAR_CON_FRANJAS);
+            ps.setInt(1, areaId);
+            ps.setArray(2, con.createArrayOf("integer", eppIds));
+            return ps;
+        }, rs -> {
+            conFranjas.put(rs.getInt("epp_id"), new int[]{rs.getInt("inventario_area_id"), rs.getInt("franjas")});
+        });
+        return conFranjas;
+    }
+
+    private List<Integer> descontarLote(Integer areaId, Map<Integer, Integer> cantidades) {
+        Integer[] eppIds = cantidades.keySet().toArray(Integer[]::new);
+        Integer[] valores = cantidades.values().toArray(Integer[]::new);
+        List<Integer> descontados = new ArrayList<>();
+        List<Integer> bajoMinimo = new ArrayList<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_DESCONTAR_AREA_LOTE);
+            ps.setInt(1, areaId);
+            ps.setArray(2, con.createArrayOf("integer", eppIds));
+            ps.setArray(3, con.createArrayOf("integer", eppIds));
+            ps.setArray(4, con.createArrayOf("integer", valores));
+            return ps;
+        }, rs -> {
+            descontados.add(rs.getInt("epp_id"));
+            if (rs.getBoolean("bajo_minimo")) {
+                bajoMinimo.add(rs.getInt("inventario_area_id"));
+            }
+        });
+        notificacionService.registrarStockBajo(bajoMinimo);
+        return descontados;
+    }
+}
@@ -0,0 +1,121 @@
+package pe.edu.upeu.epp.util;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Escritura de .xlsx en streaming (SXSSF): solo se mantienen en memoria las últimas
+ * filas de la ventana; el resto se vuelca a archivos temporales comprimidos. Si una
+ * hoja llega al máximo de filas de Excel se continúa en una hoja nueva.
+ */
+public class ExcelStreamWriter implements AutoCloseable {
+
+    private static final int MAX_FILAS_HOJA = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final int MAX_CARACTERES_CELDA = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    private final SXSSFWorkbook workbook;
+    private final CellStyle estiloEncabezado;
+    private final CellStyle estiloFecha;
+    private final CellStyle estiloFechaHora;
+
+    public ExcelStreamWriter(int ventanaFilas) {
+        this.workbook = new SXSSFWorkbook(ventanaFilas);
+        this.workbook.setCompressTempFiles(true);
+
+        Font negrita = workbook.createFont();
+        negrita.setBold(true);
+        this.estiloEncabezado = workbook.createCellStyle();
+        this.estiloEncabezado.setFont(negrita);
+
+        short formatoFecha = workbook.createDataFormat().getFormat("yyyy-mm-dd");
+        this.estiloFecha = workbook.createCellStyle();
+        this.estiloFecha.setDataFormat(formatoFecha);
+
+        short formatoFechaHora = workbook.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss");
+        this.estiloFechaHora = workbook.createCellStyle();
+        this.estiloFechaHora.setDataFormat(formatoFechaHora);
+    }
+
+    /**
+     * Escribir una hoja (o varias, si supera el máximo de filas) consumiendo el stream.
+     * Retorna el número de filas de datos escritas.
+     */
+    public long escribirHoja(String nombre, List<String> encabezados, Stream<Object[]> filas) {
+        long[] total = {0};
+        int[] hojas = {1};
+        Sheet[] hoja = {crearHoja(nombre, encabezados)};
+        filas.forEach(valores -> {
+            if (hoja[0].getLastRowNum() + 1 >= MAX_FILAS_HOJA) {
+                hoja[0] = crearHoja(nombre + " (" + ++hojas[0] + ")", encabezados);
+            }
+            Row row = hoja[0].createRow(hoja[0].getLastRowNum() + 1);
+            for (int i = 0; i < valores.length; i++) {
+                escribirCelda(row.createCell(i), valores[i]);
+            }
+            total[0]++;
+        });
+        return total[0];
+    }
+
+    public void escribir(OutputStream salida) throws IOException {
+        workbook.write(salida);
+        salida.flush();
+    }
+
+    /**
+     * Elimina los archivos temporales de SXSSF
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private Sheet crearHoja(String nombre, List<String> encabezados) {
+        SXSSFSheet sheet = workbook.createSheet(nombre);
+        Row row = sheet.createRow(0);
+        for (int i = 0; i < encabezados.size(); i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(encabezados.get(i));
+            cell.setCellStyle(estiloEncabezado);
+            sheet.setColumnWidth(i, Math.max(12, encabezados.get(i).length() + 4) * 256);
+        }
+        sheet.createFreezePane(0, 1);
+        return sheet;
+    }
+
+    private void escribirCelda(Cell cell, Object valor) {
+        if (valor == null) {
+            return;
+        }
+        if (valor instanceof Number numero) {
+            cell.setCellValue(numero.doubleValue());
+        } else if (valor instanceof LocalDateTime fechaHora) {
+            cell.setCellValue(fechaHora);
+            cell.setCellStyle(estiloFechaHora);
+        } else if (valor instanceof LocalDate fecha) {
+            cell.setCellValue(fecha);
+            cell.setCellStyle(estiloFecha);
+        } else if (valor instanceof Boolean booleano) {
+            cell.setCellValue(booleano);
+        } else if (valor instanceof Enum<?> enumerado) {
+            cell.setCellValue(enumerado.name());
+        } else {
+            String texto = valor.toString();
+            cell.setCellValue(texto.length() > MAX_CARACTERES_CELDA ? texto.substring(0, MAX_CARACTERES_CELDA) : texto);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package pe.edu.upeu.epp.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Índice inmutable de trigramas para autocompletar por prefijo de palabra.
+ * Cada término de la consulta debe ser prefijo de alguna palabra del texto; los
+ * candidatos salen de intersecar las listas de los trigramas de los términos de
+ * 3 o más caracteres y luego se verifican. La normalización (minúsculas, sin tildes)
+ * equivale a epp.normalizar en la base de datos.
+ */
+public final class IndiceNgramas<T> {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int[] VACIO = new int[0];
+
+    private final List<T> elementos;
+    private final String[] textos;
+    private final String[][] palabras;
+    private final Map<String, int[]> trigramas;
+
+    private IndiceNgramas(List<T> elementos, String[] textos, String[][] palabras, Map<String, int[]> trigramas) {
+        this.elementos = elementos;
+        this.textos = textos;
+        this.palabras = palabras;
+        this.trigramas = trigramas;
+    }
+
+    public static <T> IndiceNgramas<T> construir(List<T> elementos, Function<T, String> texto) {
+        List<T> copia = List.copyOf(elementos);
+        String[] textos = new String[copia.size()];
+        String[][] palabras = new String[copia.size()][];
+        Map<String, List<Integer>> listas = new HashMap<>();
+        for (int i = 0; i < copia.size(); i++) {
+            textos[i] = normalizar(texto.apply(copia.get(i)));
+            palabras[i] = terminos(textos[i]);
+            for (String palabra : palabras[i]) {
+                for (int j = 0; j + 3 <= palabra.length(); j++) {
+                    List<Integer> lista = listas.computeIfAbsent(palabra.substring(j, j + 3), k -> new ArrayList<>());
+                    if (lista.isEmpty() || lista.get(lista.size() - 1) != i) {
+                        lista.add(i);
+                    }
+                }
+            }
+        }
+        Map<String, int[]> trigramas = new HashMap<>(listas.size() * 2);
+        listas.forEach((trigrama, lista) -> trigramas.put(trigrama, lista.stream().mapToInt(Integer::intValue).toArray()));
+        return new IndiceNgramas<>(copia, textos, palabras, trigramas);
+    }
+
+    /**
+     * Elementos cuyas palabras empiezan con los términos de la consulta. Primero los que
+     * empiezan con la consulta completa, luego los de texto más corto.
+     */
+    public List<T> buscarPrefijo(String consulta, int limite) {
+        String[] buscados = terminos(normalizar(consulta));
+        if (buscados.length == 0 || limite <= 0) {
+            return List.of();
+        }
+        int[] candidatos = candidatos(buscados);
+        String completa = String.join(" ", buscados);
+        List<Integer> coincidencias = new ArrayList<>();
+        for (int i : candidatos) {
+            if (coincide(palabras[i], buscados)) {
+                coincidencias.add(i);
+            }
+        }
+        return coincidencias.stream()
+                .sorted(Comparator.<Integer>comparingInt(i -> textos[i].startsWith(completa) ? 0 : 1)
+                        .thenComparingInt(i -> textos[i].length())
+                        .thenComparing(i -> textos[i]))
+                .limit(limite)
+                .map(elementos::get)
+                .toList();
+    }
+
+    public int tamano() {
+        return elementos.size();
+    }
+
+    /**
+     * Minúsculas y sin tildes ni diéresis (la ñ queda como n, igual que unaccent)
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        return MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private int[] candidatos(String[] buscados) {
+        int[] resultado = null;
+        for (String termino : buscados) {
+            for (int j = 0; j + 3 <= termino.length(); j++) {
+                int[] lista = trigramas.getOrDefault(termino.substring(j, j + 3), VACIO);
+                resultado = resultado == null ? lista : interseccion(resultado, lista);
+                if (resultado.length == 0) {
+                    return VACIO;
+                }
+            }
+        }
+        if (resultado == null) {
+            // Solo términos cortos: se verifican todos
+            resultado = new int[elementos.size()];
+            Arrays.setAll(resultado, i -> i);
+        }
+        return resultado;
+    }
+
+    private static boolean coincide(String[] palabras, String[] buscados) {
+        for (String termino : buscados) {
+            boolean encontrado = false;
+            for (String palabra : palabras) {
+                if (palabra.startsWith(termino)) {
+                    encontrado = true;
+                    break;
+                }
+            }
+            if (!encontrado) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] terminos(String texto) {
+        return Arrays.stream(SEPARADORES.split(texto)).filter(t -> !t.isEmpty()).toArray(String[]::new);
+    }
+
+    private static int[] interseccion(int[] a, int[] b) {
+        int[] resultado = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                resultado[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+}
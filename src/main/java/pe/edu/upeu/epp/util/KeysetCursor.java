@@ -0,0 +1,46 @@
+package pe.edu.upeu.epp.util;
+
+import pe.edu.upeu.epp.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de una página en un listado ordenado por (fecha, id) descendente.
+ * Se envía al cliente como texto opaco; la siguiente página empieza después de esta fila.
+ * En listados sin fecha solo se usa el id.
+ */
+public record KeysetCursor(LocalDateTime fecha, Integer id) {
+
+    /**
+     * Inicio de un listado por fecha: antes de cualquier fila hasta la fecha indicada
+     */
+    public static KeysetCursor inicio(LocalDateTime hasta) {
+        return new KeysetCursor(hasta, Integer.MAX_VALUE);
+    }
+
+    public String codificar() {
+        String valor = (fecha != null ? fecha.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodificar el cursor recibido; null si no se envió
+     */
+    public static KeysetCursor decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf('|');
+            String fecha = valor.substring(0, separador);
+            return new KeysetCursor(fecha.isEmpty() ? null : LocalDateTime.parse(fecha),
+                    Integer.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BusinessException("Cursor de paginación inválido");
+        }
+    }
+}
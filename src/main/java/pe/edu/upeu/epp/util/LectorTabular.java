@@ -0,0 +1,220 @@
+package pe.edu.upeu.epp.util;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lectura fila por fila de archivos .csv y .xlsx sin cargarlos completos en memoria.
+ * El .xlsx se lee con el modelo de eventos de POI (SAX sobre la primera hoja): no se
+ * construye el árbol de celdas. Los valores se entregan como texto; las fechas de
+ * Excel como yyyy-MM-dd y los números sin separador de miles.
+ */
+public final class LectorTabular {
+
+    private LectorTabular() {
+    }
+
+    @FunctionalInterface
+    public interface ManejadorFila {
+        /**
+         * @param numero Número de fila en el archivo (1 = primera fila)
+         * @param valores Celdas de la fila; las vacías quedan como ""
+         */
+        void fila(int numero, String[] valores);
+    }
+
+    /**
+     * CSV en UTF-8 (con o sin BOM). El separador (coma o punto y coma, como lo exporta
+     * Excel en español) se detecta en la primera línea. Admite campos entre comillas
+     * con comillas dobladas y saltos de línea.
+     */
+    public static void leerCsv(Path archivo, ManejadorFila manejador) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            leerCsv(reader, manejador);
+        }
+    }
+
+    public static void leerCsv(Reader entrada, ManejadorFila manejador) throws IOException {
+        BufferedReader reader = entrada instanceof BufferedReader b ? b : new BufferedReader(entrada);
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        reader.mark(64 * 1024);
+        char separador = detectarSeparador(reader.readLine());
+        reader.reset();
+
+        List<String> valores = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        boolean filaIniciada = false;
+        int numero = 1;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (entreComillas) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        campo.append('"');
+                    } else {
+                        reader.reset();
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+                filaIniciada = true;
+            } else if (c == separador) {
+                valores.add(campo.toString());
+                campo.setLength(0);
+                filaIniciada = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (filaIniciada || campo.length() > 0) {
+                    valores.add(campo.toString());
+                    manejador.fila(numero, valores.toArray(String[]::new));
+                }
+                valores.clear();
+                campo.setLength(0);
+                filaIniciada = false;
+                numero++;
+            } else {
+                campo.append((char) c);
+            }
+        }
+        if (filaIniciada || campo.length() > 0) {
+            valores.add(campo.toString());
+            manejador.fila(numero, valores.toArray(String[]::new));
+        }
+    }
+
+    /**
+     * Primera hoja del libro
+     */
+    public static void leerXlsx(Path archivo, ManejadorFila manejador) throws IOException {
+        try (OPCPackage paquete = OPCPackage.open(archivo.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(paquete);
+            ReadOnlySharedStringsTable textos = new ReadOnlySharedStringsTable(paquete, false);
+            Iterator<InputStream> hojas = reader.getSheetsData();
+            if (!hojas.hasNext()) {
+                return;
+            }
+            try (InputStream hoja = hojas.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, textos,
+                        new ContenidoHoja(manejador), new FormatoIso(), false));
+                parser.parse(new InputSource(hoja));
+            }
+        } catch (SAXException e) {
+            // Las excepciones del manejador llegan envueltas por el parser
+            if (e.getException() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IOException("Hoja de cálculo inválida: " + e.getMessage(), e);
+        } catch (OpenXML4JException | ParserConfigurationException e) {
+            throw new IOException("Archivo .xlsx inválido: " + e.getMessage(), e);
+        }
+    }
+
+    private static char detectarSeparador(String primeraLinea) {
+        if (primeraLinea == null) {
+            return ',';
+        }
+        long comas = primeraLinea.chars().filter(c -> c == ',').count();
+        long puntoYComa = primeraLinea.chars().filter(c -> c == ';').count();
+        return puntoYComa > comas ? ';' : ',';
+    }
+
+    /**
+     * Acumula las celdas de cada fila por columna (las celdas vacías no generan eventos)
+     */
+    private static final class ContenidoHoja implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final ManejadorFila manejador;
+        private String[] valores = new String[16];
+        private int columnas;
+        private int siguiente;
+
+        private ContenidoHoja(ManejadorFila manejador) {
+            this.manejador = manejador;
+        }
+
+        @Override
+        public void startRow(int fila) {
+            columnas = 0;
+            siguiente = 0;
+        }
+
+        @Override
+        public void cell(String referencia, String valor, XSSFComment comentario) {
+            int columna = referencia != null ? new CellReference(referencia).getCol() : siguiente;
+            if (columna >= valores.length) {
+                valores = Arrays.copyOf(valores, Math.max(columna + 1, valores.length * 2));
+            }
+            if (columna > columnas) {
+                Arrays.fill(valores, columnas, columna, "");
+            }
+            valores[columna] = valor != null ? valor : "";
+            columnas = Math.max(columnas, columna + 1);
+            siguiente = columna + 1;
+        }
+
+        @Override
+        public void endRow(int fila) {
+            if (columnas > 0) {
+                manejador.fila(fila + 1, Arrays.copyOf(valores, columnas));
+            }
+        }
+    }
+
+    /**
+     * Fechas en ISO y números con el formato de Locale.ROOT, independientes del idioma del servidor
+     */
+    private static final class FormatoIso extends DataFormatter {
+
+        private FormatoIso() {
+            super(Locale.ROOT);
+        }
+
+        @Override
+        public String formatRawCellContents(double valor, int indiceFormato, String formato) {
+            if (DateUtil.isADateFormat(indiceFormato, formato) && DateUtil.isValidExcelDate(valor)) {
+                return DateUtil.getLocalDateTime(valor).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(valor, indiceFormato, formato);
+        }
+    }
+}
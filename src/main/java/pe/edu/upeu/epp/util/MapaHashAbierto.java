@@ -0,0 +1,157 @@
+package pe.edu.upeu.epp.util;
+
+/**
+ * Mapa de cadena a long con direccionamiento abierto (sondeo lineal) sobre dos
+ * arreglos paralelos: sin objetos Entry ni boxing por elemento. Los borrados
+ * desplazan hacia atrás las claves siguientes del mismo grupo, así que no quedan
+ * marcas de borrado que alarguen las búsquedas.
+ *
+ * No es thread-safe. Un lector concurrente sin bloqueo puede ver un estado
+ * intermedio o lanzar una excepción de índice; obtener() acota el sondeo para
+ * que siempre termine, y quien lo use así debe validar la lectura (p. ej. con
+ * StampedLock) y descartar el resultado si hubo una escritura.
+ */
+public class MapaHashAbierto {
+
+    public static final long AUSENTE = Long.MIN_VALUE;
+
+    private static final float CARGA_MAXIMA = 0.5f;
+
+    private String[] claves;
+    private long[] valores;
+    private int tamano;
+
+    public MapaHashAbierto(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(16, (int) (capacidadEsperada / CARGA_MAXIMA)) - 1) << 1;
+        this.claves = new String[capacidad];
+        this.valores = new long[capacidad];
+    }
+
+    /**
+     * Valor asociado a la clave, o AUSENTE
+     */
+    public long obtener(String clave) {
+        String[] tabla = claves;
+        long[] datos = valores;
+        int mascara = tabla.length - 1;
+        int i = indice(clave, mascara);
+        for (int sondeos = 0; sondeos < tabla.length; sondeos++) {
+            String actual = tabla[i];
+            if (actual == null) {
+                return AUSENTE;
+            }
+            if (actual.equals(clave)) {
+                return datos[i];
+            }
+            i = (i + 1) & mascara;
+        }
+        return AUSENTE;
+    }
+
+    /**
+     * Asociar el valor a la clave; retorna el valor anterior o AUSENTE
+     */
+    public long poner(String clave, long valor) {
+        if (valor == AUSENTE) {
+            throw new IllegalArgumentException("Valor reservado");
+        }
+        if (tamano + 1 > claves.length * CARGA_MAXIMA) {
+            redimensionar(claves.length << 1);
+        }
+        int mascara = claves.length - 1;
+        int i = indice(clave, mascara);
+        while (claves[i] != null) {
+            if (claves[i].equals(clave)) {
+                long anterior = valores[i];
+                valores[i] = valor;
+                return anterior;
+            }
+            i = (i + 1) & mascara;
+        }
+        valores[i] = valor;
+        claves[i] = clave;
+        tamano++;
+        return AUSENTE;
+    }
+
+    /**
+     * Quitar la clave; retorna su valor o AUSENTE si no estaba
+     */
+    public long eliminar(String clave) {
+        int mascara = claves.length - 1;
+        int i = indice(clave, mascara);
+        while (claves[i] != null) {
+            if (claves[i].equals(clave)) {
+                long anterior = valores[i];
+                desplazarDesde(i, mascara);
+                tamano--;
+                return anterior;
+            }
+            i = (i + 1) & mascara;
+        }
+        return AUSENTE;
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Deja vacío el hueco i moviendo hacia él las claves siguientes del grupo
+     * que no pueden quedar después de un hueco (su posición ideal está antes).
+     */
+    private void desplazarDesde(int hueco, int mascara) {
+        int i = hueco;
+        while (true) {
+            i = (i + 1) & mascara;
+            String clave = claves[i];
+            if (clave == null) {
+                break;
+            }
+            int ideal = indice(clave, mascara);
+            // La clave puede moverse al hueco si su posición ideal no está en (hueco, i]
+            boolean mover = hueco <= i ? (ideal <= hueco || ideal > i) : (ideal <= hueco && ideal > i);
+            if (mover) {
+                claves[hueco] = clave;
+                valores[hueco] = valores[i];
+                hueco = i;
+            }
+        }
+        claves[hueco] = null;
+        valores[hueco] = 0;
+    }
+
+    private void redimensionar(int capacidad) {
+        String[] anteriores = claves;
+        long[] anterioresValores = valores;
+        String[] nuevas = new String[capacidad];
+        long[] nuevosValores = new long[capacidad];
+        int mascara = capacidad - 1;
+        for (int j = 0; j < anteriores.length; j++) {
+            if (anteriores[j] != null) {
+                int i = indice(anteriores[j], mascara);
+                while (nuevas[i] != null) {
+                    i = (i + 1) & mascara;
+                }
+                nuevas[i] = anteriores[j];
+                nuevosValores[i] = anterioresValores[j];
+            }
+        }
+        valores = nuevosValores;
+        claves = nuevas;
+    }
+
+    /**
+     * Mezcla el hashCode (fmix32 de MurmurHash3): códigos y DNI con prefijos
+     * comunes dan hashCode poco dispersos en los bits bajos
+     */
+    private static int indice(String clave, int mascara) {
+        int h = clave.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & mascara;
+    }
+}
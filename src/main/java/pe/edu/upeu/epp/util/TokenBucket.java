@@ -0,0 +1,44 @@
+package pe.edu.upeu.epp.util;
+
+import java.time.Duration;
+
+/**
+ * Token bucket: admite ráfagas de hasta "capacidad" operaciones y se recarga
+ * de forma continua a razón de capacidad / periodo. Los tiempos se reciben
+ * en nanosegundos (System.nanoTime) para poder probarlo sin esperar.
+ */
+public class TokenBucket {
+
+    private final double capacidad;
+    private final double tokensPorNano;
+    private double tokens;
+    private long ultimaRecarga;
+
+    public TokenBucket(int capacidad, Duration periodoRecarga, long ahoraNanos) {
+        this.capacidad = capacidad;
+        this.tokensPorNano = capacidad / (double) periodoRecarga.toNanos();
+        this.tokens = capacidad;
+        this.ultimaRecarga = ahoraNanos;
+    }
+
+    /**
+     * Consumir un token.
+     * Retorna 0 si se consumió, o los nanosegundos que faltan para el siguiente token.
+     */
+    public synchronized long intentarConsumir(long ahoraNanos) {
+        recargar(ahoraNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPorNano);
+    }
+
+    private void recargar(long ahoraNanos) {
+        long transcurrido = ahoraNanos - ultimaRecarga;
+        if (transcurrido > 0) {
+            tokens = Math.min(capacidad, tokens + transcurrido * tokensPorNano);
+            ultimaRecarga = ahoraNanos;
+        }
+    }
+}
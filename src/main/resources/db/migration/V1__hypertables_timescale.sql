@@ -0,0 +1,74 @@
+-- ============================================
+-- HYPERTABLES TIMESCALEDB
+-- entrega_epp, inspeccion y auditoria son series de tiempo consultadas por rango.
+-- Se convierten en hypertables con compresión y retención. Si la extensión
+-- timescaledb no está instalada (entornos de desarrollo) la migración no hace nada.
+-- ============================================
+
+CREATE OR REPLACE FUNCTION epp.convertir_hypertable(
+    tabla regclass,
+    columna_id text,
+    columna_tiempo text,
+    intervalo_chunk interval,
+    segmentar_por text,
+    comprimir_despues interval,
+    retener interval)
+RETURNS void AS $$
+DECLARE
+    restriccion record;
+BEGIN
+    IF EXISTS (SELECT 1 FROM timescaledb_information.hypertables
+               WHERE format('%I.%I', hypertable_schema, hypertable_name)::regclass = tabla) THEN
+        RETURN;
+    END IF;
+
+    -- Las hypertables no admiten claves foráneas que las referencien
+    FOR restriccion IN
+        SELECT conname, conrelid::regclass AS origen FROM pg_constraint
+        WHERE confrelid = tabla AND contype = 'f'
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', restriccion.origen, restriccion.conname);
+    END LOOP;
+
+    -- Toda clave única debe incluir la columna de tiempo
+    FOR restriccion IN
+        SELECT conname FROM pg_constraint WHERE conrelid = tabla AND contype = 'p'
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', tabla, restriccion.conname);
+    END LOOP;
+    EXECUTE format('ALTER TABLE %s ADD PRIMARY KEY (%I, %I)', tabla, columna_id, columna_tiempo);
+
+    -- Hibernate ya crea el índice sobre la columna de tiempo
+    PERFORM create_hypertable(tabla, columna_tiempo::name,
+                              chunk_time_interval => intervalo_chunk,
+                              create_default_indexes => false,
+                              migrate_data => true);
+
+    EXECUTE format('ALTER TABLE %s SET (timescaledb.compress, timescaledb.compress_segmentby = %L, '
+                   'timescaledb.compress_orderby = %L)',
+                   tabla, segmentar_por, format('%I DESC, %I', columna_tiempo, columna_id));
+    PERFORM add_compression_policy(tabla, comprimir_despues, if_not_exists => true);
+    PERFORM add_retention_policy(tabla, retener, if_not_exists => true);
+END;
+$$ LANGUAGE plpgsql;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'timescaledb') THEN
+        RAISE NOTICE 'Extensión timescaledb no instalada: se omite la conversión a hypertables';
+        RETURN;
+    END IF;
+
+    PERFORM epp.convertir_hypertable('epp.entrega_epp', 'entrega_id', 'fecha_entrega',
+            INTERVAL '${chunk_entregas}', 'trabajador_id',
+            INTERVAL '${compresion_despues}', INTERVAL '${retencion_entregas}');
+    PERFORM epp.convertir_hypertable('epp.inspeccion', 'inspeccion_id', 'fecha_inspeccion',
+            INTERVAL '${chunk_inspecciones}', 'instancia_epp_id',
+            INTERVAL '${compresion_despues}', INTERVAL '${retencion_inspecciones}');
+    PERFORM epp.convertir_hypertable('epp.auditoria', 'auditoria_id', 'fecha_operacion',
+            INTERVAL '${chunk_auditoria}', 'tabla_afectada',
+            INTERVAL '${compresion_despues}', INTERVAL '${retencion_auditoria}');
+END;
+$$;
+
+DROP FUNCTION epp.convertir_hypertable(regclass, text, text, interval, text, interval, interval);
@@ -0,0 +1,37 @@
+-- ============================================
+-- BÚSQUEDA POR SIMILITUD (pg_trgm + unaccent)
+-- Nombres de trabajadores y del catálogo de EPP sin distinguir mayúsculas ni tildes,
+-- con índices GIN de trigramas para LIKE '%x%', prefijos por palabra y similitud.
+-- Ambas extensiones vienen en contrib y son "trusted" desde PostgreSQL 13.
+-- ============================================
+
+-- En public: las consultas de la aplicación usan los operadores de pg_trgm sin calificar
+CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA public;
+CREATE EXTENSION IF NOT EXISTS unaccent SCHEMA public;
+
+-- unaccent(text) es STABLE (resuelve el diccionario con el search_path); con el
+-- diccionario calificado el resultado es fijo y la función puede usarse en índices.
+DO $$
+DECLARE
+    esquema text;
+BEGIN
+    SELECT n.nspname INTO esquema
+    FROM pg_extension e JOIN pg_namespace n ON n.oid = e.extnamespace
+    WHERE e.extname = 'unaccent';
+
+    EXECUTE format(
+        'CREATE OR REPLACE FUNCTION epp.normalizar(texto text) RETURNS text '
+        'LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE AS '
+        '%L',
+        format('SELECT lower(%I.unaccent(%L::regdictionary, texto))', esquema, esquema || '.unaccent'));
+END;
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_trabajador_nombre_trgm ON epp.trabajador
+    USING gin (epp.normalizar(nombres || ' ' || apellidos) public.gin_trgm_ops);
+
+-- Prefijo de DNI (LIKE '123%') con el índice btree
+CREATE INDEX IF NOT EXISTS idx_trabajador_dni_patron ON epp.trabajador (dni text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_catalogo_epp_nombre_trgm ON epp.catalogo_epp
+    USING gin (epp.normalizar(nombre_epp) public.gin_trgm_ops);
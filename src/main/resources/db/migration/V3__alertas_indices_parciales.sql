@@ -0,0 +1,41 @@
+-- ============================================
+-- ALERTAS DE VENCIMIENTO E INSPECCIÓN
+-- Índices parciales para el escaneo incremental de AlertaService: solo EPP vigentes
+-- (estado distinto de BAJA) con fecha, lotes del almacén central con stock y
+-- alertas activas. Las filas dadas de baja o sin stock no ocupan espacio en ellos.
+-- ============================================
+
+-- El predicado usa el id del estado BAJA, que depende de los datos de estado_epp; el
+-- escáner repite el mismo literal en sus consultas para que el planner use estos índices.
+-- Si BAJA aún no existe, ejecutar SELECT epp.crear_indices_alertas() después de cargar los estados.
+CREATE OR REPLACE FUNCTION epp.crear_indices_alertas() RETURNS void AS $$
+DECLARE
+    baja integer;
+BEGIN
+    SELECT estado_id INTO baja FROM epp.estado_epp WHERE nombre = 'BAJA';
+    IF baja IS NULL THEN
+        RAISE NOTICE 'No existe el estado BAJA: índices parciales de instancia_epp no creados';
+        RETURN;
+    END IF;
+
+    EXECUTE format('CREATE INDEX IF NOT EXISTS idx_instancia_vencimiento_vigente ON epp.instancia_epp '
+                   '(fecha_vencimiento) WHERE estado_id <> %s AND fecha_vencimiento IS NOT NULL', baja);
+    EXECUTE format('CREATE INDEX IF NOT EXISTS idx_instancia_inspeccion_vigente ON epp.instancia_epp '
+                   '(fecha_proxima_inspeccion) WHERE estado_id <> %s AND fecha_proxima_inspeccion IS NOT NULL', baja);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT epp.crear_indices_alertas();
+
+CREATE INDEX IF NOT EXISTS idx_inv_central_vencimiento_con_stock ON epp.inventario_central (fecha_vencimiento)
+    WHERE cantidad_actual > 0 AND fecha_vencimiento IS NOT NULL;
+
+-- Filas modificadas desde el último escaneo (fechas ya cubiertas por la marca)
+CREATE INDEX IF NOT EXISTS idx_instancia_actualizacion ON epp.instancia_epp (fecha_actualizacion);
+CREATE INDEX IF NOT EXISTS idx_inv_central_actualizacion ON epp.inventario_central (ultima_actualizacion);
+
+-- Tablero: alertas activas por área o por tipo, las más urgentes primero
+CREATE INDEX IF NOT EXISTS idx_alerta_activa_area ON epp.alerta (area_id, fecha_limite)
+    WHERE estado = 'ACTIVA';
+CREATE INDEX IF NOT EXISTS idx_alerta_activa_tipo ON epp.alerta (tipo, fecha_limite)
+    WHERE estado = 'ACTIVA';
@@ -0,0 +1,8 @@
+-- ============================================
+-- BANDEJA DE SALIDA DE NOTIFICACIONES
+-- El dispatcher solo lee las pendientes cuyo próximo intento ya llegó; las enviadas
+-- y fallidas (la gran mayoría con el tiempo) quedan fuera del índice.
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_notificacion_pendiente ON epp.notificacion (proximo_intento)
+    WHERE estado = 'PENDIENTE';
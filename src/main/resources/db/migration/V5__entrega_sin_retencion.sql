@@ -0,0 +1,16 @@
+-- ============================================
+-- ENTREGAS SIN POLÍTICA DE RETENCIÓN
+-- detalle_entrega_epp perdió su clave foránea a entrega_epp al convertirla en hypertable
+-- (V1), así que la retención borraría los chunks de entregas dejando sus detalles
+-- huérfanos. Las entregas se conservan y siguen comprimiéndose como las demás.
+-- ============================================
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'timescaledb') THEN
+        RETURN;
+    END IF;
+
+    PERFORM remove_retention_policy('epp.entrega_epp', if_exists => true);
+END;
+$$;
@@ -0,0 +1,10 @@
+-- ============================================
+-- ÍNDICES DE FECHA REEMPLAZADOS
+-- La paginación por keyset usa índices (fecha, id); ddl-auto=update los crea pero no
+-- borra los de solo fecha que reemplazan, que quedaban duplicando cada escritura.
+-- ============================================
+
+DROP INDEX IF EXISTS epp.idx_entrega_fecha;
+DROP INDEX IF EXISTS epp.idx_inspeccion_fecha;
+DROP INDEX IF EXISTS epp.idx_auditoria_fecha;
+DROP INDEX IF EXISTS epp.idx_solicitud_fecha;
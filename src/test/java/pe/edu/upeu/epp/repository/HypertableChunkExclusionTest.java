@@ -0,0 +1,195 @@
+package pe.edu.upeu.epp.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que la migración convierta entrega_epp, inspeccion y auditoria en hypertables
+ * y que las consultas por rango de los repositorios solo recorran los chunks del rango.
+ * El SQL que se analiza es el que Hibernate genera para cada método del repositorio.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "pe.edu.upeu.epp.repository.HypertableChunkExclusionTest$CapturaSql",
+        "auth.rate-limit.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class HypertableChunkExclusionTest {
+
+    private static final Pattern CHUNK = Pattern.compile("_hyper_\\d+_\\d+_chunk");
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(
+            DockerImageName.parse("timescale/timescaledb:2.11.0-pg15").asCompatibleSubstituteFor("postgres"));
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws Exception {
+        try (Connection con = POSTGRES.createConnection(""); Statement st = con.createStatement()) {
+            st.execute("CREATE EXTENSION IF NOT EXISTS timescaledb");
+            st.execute("CREATE SCHEMA IF NOT EXISTS epp");
+        }
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntregaEppRepository entregaEppRepository;
+    @Autowired
+    private InspeccionRepository inspeccionRepository;
+    @Autowired
+    private AuditoriaRepository auditoriaRepository;
+
+    private final LocalDateTime ahora = LocalDateTime.now();
+
+    /**
+     * Registra el SQL que ejecuta Hibernate
+     */
+    public static class CapturaSql implements StatementInspector {
+        static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void cargarSerieDeTiempo() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM epp.auditoria", Long.class) > 0) {
+            return;
+        }
+        // Filas mensuales de los últimos 24 meses; sin validar claves foráneas
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL session_replication_role = replica");
+            jdbcTemplate.update("INSERT INTO epp.entrega_epp (trabajador_id, jefe_area_id, fecha_entrega, tipo_entrega, status) " +
+                    "SELECT 1, 1, now() - make_interval(months => g), 'REPOSICION', 'COMPLETADA' FROM generate_series(0, 23) g");
+            jdbcTemplate.update("INSERT INTO epp.inspeccion (instancia_epp_id, inspector_id, fecha_inspeccion, resultado) " +
+                    "SELECT 1, 1, now() - make_interval(months => g), 'APTO' FROM generate_series(0, 23) g");
+            jdbcTemplate.update("INSERT INTO epp.auditoria (tabla_afectada, operacion, registro_id, fecha_operacion) " +
+                    "SELECT 'entrega_epp', 'INSERT', g, now() - make_interval(months => g) FROM generate_series(0, 23) g");
+        });
+    }
+
+    @Test
+    void tablasDeSerieDeTiempoSonHypertables() {
+        List<String> hypertables = jdbcTemplate.queryForList(
+                "SELECT hypertable_name FROM timescaledb_information.hypertables " +
+                "WHERE hypertable_schema = 'epp' AND compression_enabled ORDER BY 1", String.class);
+        assertEquals(List.of("auditoria", "entrega_epp", "inspeccion"), hypertables);
+
+        long politicas = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM timescaledb_information.jobs WHERE hypertable_schema = 'epp' " +
+                "AND proc_name IN ('policy_compression', 'policy_retention')", Long.class);
+        assertEquals(5, politicas);
+
+        // Sin retención en entregas: sus detalles no tienen FK que los borre en cascada
+        assertEquals(List.of("auditoria", "inspeccion"), jdbcTemplate.queryForList(
+                "SELECT hypertable_name FROM timescaledb_information.jobs WHERE hypertable_schema = 'epp' " +
+                "AND proc_name = 'policy_retention' ORDER BY 1", String.class));
+    }
+
+    @Test
+    void findByFechaRangeExcluyeChunks() {
+        LocalDateTime inicio = ahora.minusMonths(2);
+        String sql = sqlDe(() -> entregaEppRepository.findByFechaRange(inicio, ahora));
+
+        assertChunksExcluidos("entrega_epp", sql, inicio, ahora);
+    }
+
+    @Test
+    void findByAreaAndFechaRangeExcluyeChunks() {
+        LocalDateTime inicio = ahora.minusMonths(2);
+        String sql = sqlDe(() -> entregaEppRepository.findByAreaAndFechaRange(1, inicio, ahora));
+
+        assertChunksExcluidos("entrega_epp", sql, 1, inicio, ahora);
+    }
+
+    @Test
+    void findByTrabajadorLast6MonthsExcluyeChunks() {
+        LocalDateTime desde = ahora.minusMonths(6);
+        String sql = sqlDe(() -> inspeccionRepository.findByTrabajadorLast6Months(1, desde));
+
+        assertChunksExcluidos("inspeccion", sql, 1, desde);
+    }
+
+    @Test
+    void findByFechaRangoExcluyeChunks() {
+        LocalDateTime inicio = ahora.minusMonths(1);
+        String sql = sqlDe(() -> assertFalse(auditoriaRepository.findByFechaRango(inicio, ahora).isEmpty()));
+
+        assertChunksExcluidos("auditoria", sql, inicio, ahora);
+    }
+
+    private static String sqlDe(Runnable consulta) {
+        CapturaSql.SENTENCIAS.clear();
+        consulta.run();
+        return CapturaSql.SENTENCIAS.stream()
+                .filter(s -> s.trim().toLowerCase().startsWith("select"))
+                .reduce((primera, segunda) -> primera)
+                .orElseThrow();
+    }
+
+    /**
+     * Prepara el SQL de Hibernate con los parámetros y compara los chunks del plan
+     * con el total de chunks de la hypertable
+     */
+    private void assertChunksExcluidos(String tabla, String sql, Object... parametros) {
+        long totalChunks = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM timescaledb_information.chunks " +
+                "WHERE hypertable_schema = 'epp' AND hypertable_name = ?", Long.class, tabla);
+
+        Set<String> chunksEnPlan = jdbcTemplate.execute((ConnectionCallback<Set<String>>) con -> {
+            Set<String> chunks = new HashSet<>();
+            try (var ps = con.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parametros.length; i++) {
+                    ps.setObject(i + 1, parametros[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Matcher m = CHUNK.matcher(rs.getString(1));
+                        while (m.find()) {
+                            chunks.add(m.group());
+                        }
+                    }
+                }
+            }
+            return chunks;
+        });
+
+        assertTrue(totalChunks > 3, "La serie debe ocupar varios chunks: " + totalChunks);
+        assertFalse(chunksEnPlan.isEmpty(), "El plan no recorre chunks de " + tabla + ":\n" + sql);
+        assertTrue(chunksEnPlan.size() <= 3,
+                "Se recorren " + chunksEnPlan.size() + " de " + totalChunks + " chunks de " + tabla);
+    }
+}
@@ -0,0 +1,109 @@
+package pe.edu.upeu.epp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.edu.upeu.epp.entity.Rol;
+import pe.edu.upeu.epp.entity.Usuario;
+import pe.edu.upeu.epp.support.DatosPrueba;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Los roles de un usuario se leen de la región usuario_roles en cargas posteriores
+ * y dejan de servirse desde ella en cuanto se modifican por JPA.
+ * Cada carga usa su propio EntityManager: READ_WRITE no entrega a una sesión las
+ * entradas puestas después de que ésta empezó, así que los datos se confirman y se
+ * eliminan al terminar.
+ */
+@SpringBootTest
+class UsuarioRolesCacheTest {
+
+    private static final String REGION = "usuario_roles";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Integer usuarioId;
+
+    @BeforeEach
+    void datos() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        DatosPrueba datos = new DatosPrueba(jdbcTemplate);
+        usuarioId = datos.usuario(datos.unico("cache"), null, "JEFE_AREA");
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM epp.usuario_rol WHERE usuario_id = ?", usuarioId);
+        jdbcTemplate.update("DELETE FROM epp.usuario WHERE usuario_id = ?", usuarioId);
+        entityManagerFactory.getCache().evict(Usuario.class, usuarioId);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                .evictCollectionData(Usuario.class.getName() + ".roles", usuarioId);
+    }
+
+    @Test
+    void segundaCargaLeeLosRolesDeLaCache() {
+        assertEquals(Set.of("JEFE_AREA"), nombresDeRoles());
+
+        statistics.clear();
+        assertEquals(Set.of("JEFE_AREA"), nombresDeRoles());
+
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(REGION);
+        assertEquals(1, region.getHitCount());
+        assertEquals(0, region.getMissCount());
+    }
+
+    @Test
+    void modificarLosRolesInvalidaLaEntrada() {
+        nombresDeRoles();
+
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Rol supervisor = em.createQuery("SELECT r FROM Rol r WHERE r.nombreRol = 'SUPERVISOR_SST'", Rol.class)
+                    .getSingleResult();
+            em.find(Usuario.class, usuarioId).setRoles(new HashSet<>(Set.of(supervisor)));
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+
+        statistics.clear();
+        assertEquals(Set.of("SUPERVISOR_SST"), nombresDeRoles());
+
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(REGION);
+        assertEquals(0, region.getHitCount(), "la colección modificada no se sirve desde la cache");
+        assertEquals(1, region.getMissCount());
+    }
+
+    /**
+     * Roles del usuario cargados en un EntityManager nuevo
+     */
+    private Set<String> nombresDeRoles() {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            return em.find(Usuario.class, usuarioId).getRoles().stream()
+                    .map(Rol::getNombreRol)
+                    .collect(Collectors.toSet());
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package pe.edu.upeu.epp.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+
+    private final UserDetails admin = User.withUsername("admin")
+            .password("x")
+            .roles("ADMINISTRADOR_SISTEMA")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxSize", 100L);
+        jwtService.init();
+    }
+
+    @Test
+    void parseTokenDevuelveClaimsVerificados() {
+        String token = jwtService.generateToken(admin);
+
+        JwtClaims claims = jwtService.parseToken(token);
+
+        assertEquals("admin", claims.subject());
+        assertNotNull(claims.expiration());
+        assertTrue(jwtService.isTokenValid(token, admin));
+        assertSame(claims, jwtService.parseToken(token));
+    }
+
+    @Test
+    void tokenAlteradoEsRechazado() {
+        String token = jwtService.generateToken(admin);
+        String alterado = token.substring(0, token.length() - 2) + "xx";
+
+        assertThrows(JwtException.class, () -> jwtService.parseToken(alterado));
+    }
+}
@@ -0,0 +1,154 @@
+package pe.edu.upeu.epp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.entity.CatalogoEpp;
+import pe.edu.upeu.epp.support.DatosPrueba;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Escaneo de alertas contra PostgreSQL: el primer escaneo recorre todas las fechas
+ * vigentes, los siguientes solo las filas modificadas desde la marca, una condición
+ * ya alertada no se duplica ni se vuelve a avisar y la baja de la instancia o el lote
+ * sin stock resuelven la alerta. Las marcas de rollup_estado se borran dentro de la
+ * transacción de la prueba, que se revierte al terminar.
+ */
+@SpringBootTest
+@Transactional
+class AlertaServiceTest {
+
+    @Autowired
+    private AlertaService alertaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DatosPrueba datos;
+    private LocalDate hoy;
+    private Integer areaId;
+    private Integer eppId;
+    private Integer enStock;
+    private Integer baja;
+
+    @BeforeEach
+    void datos() {
+        hoy = LocalDate.now();
+        datos = new DatosPrueba(jdbcTemplate);
+        areaId = datos.area("Alertas");
+        eppId = datos.epp("Arnés", CatalogoEpp.TipoUso.DURADERO);
+        enStock = datos.estado("EN_STOCK");
+        baja = datos.estado("BAJA");
+        jdbcTemplate.update("DELETE FROM epp.rollup_estado WHERE rollup LIKE 'alertas:%'");
+    }
+
+    @Test
+    void primerEscaneoRecorreTodasLasFechasVigentes() {
+        Integer proxima = instancia(hoy.plusDays(10), LocalDateTime.now().minusYears(1));
+        Integer vencida = instancia(hoy.minusDays(400), LocalDateTime.now().minusYears(1));
+        Integer lejana = instancia(hoy.plusDays(90), LocalDateTime.now().minusYears(1));
+        Integer loteId = lote(5, hoy.plusDays(45), LocalDateTime.now().minusYears(1));
+
+        alertaService.escanear();
+
+        assertEquals("ACTIVA", estadoAlerta("VENCIMIENTO_EPP", proxima));
+        assertEquals("ACTIVA", estadoAlerta("VENCIMIENTO_EPP", vencida));
+        assertNull(estadoAlerta("VENCIMIENTO_EPP", lejana), "fuera de la anticipación");
+        assertEquals("ACTIVA", estadoAlerta("VENCIMIENTO_LOTE", loteId));
+        assertEquals(hoy.plusDays(31), jdbcTemplate.queryForObject(
+                "SELECT materializado_hasta FROM epp.rollup_estado WHERE rollup = 'alertas:VENCIMIENTO_EPP'",
+                LocalDate.class));
+    }
+
+    @Test
+    void escaneoIncrementalSoloTomaLasFilasModificadasDesdeLaMarca() {
+        // Sin filas vigentes la marca de fecha no avanza y el siguiente escaneo vuelve a ser completo
+        instancia(hoy.plusDays(20), LocalDateTime.now().minusYears(1));
+        alertaService.escanear();
+        assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT materializado_hasta FROM epp.rollup_estado WHERE rollup = 'alertas:VENCIMIENTO_EPP'",
+                LocalDate.class));
+
+        // Fechas ya escaneadas: solo las modificadas desde la marca entran en el siguiente escaneo
+        Integer modificada = instancia(hoy.plusDays(5), LocalDateTime.now());
+        Integer sinCambios = instancia(hoy.plusDays(5), LocalDateTime.now().minusDays(1));
+
+        alertaService.escanear();
+
+        assertEquals("ACTIVA", estadoAlerta("VENCIMIENTO_EPP", modificada));
+        assertNull(estadoAlerta("VENCIMIENTO_EPP", sinCambios));
+    }
+
+    @Test
+    void laMismaCondicionNoDuplicaLaAlertaNiElAviso() {
+        Integer instanciaId = instancia(hoy.plusDays(10), LocalDateTime.now());
+        alertaService.escanear();
+        Long alertaId = alertaId("VENCIMIENTO_EPP", instanciaId);
+        int avisos = avisos(alertaId);
+
+        // La fila vuelve a modificarse sin cambiar su fecha límite
+        tocarInstancia(instanciaId, enStock);
+        alertaService.escanear();
+
+        assertEquals(List.of(alertaId), jdbcTemplate.queryForList(
+                "SELECT alerta_id FROM epp.alerta WHERE tipo = 'VENCIMIENTO_EPP' AND referencia_id = ?",
+                Long.class, instanciaId));
+        assertEquals("ACTIVA", estadoAlerta("VENCIMIENTO_EPP", instanciaId));
+        assertEquals(avisos, avisos(alertaId));
+    }
+
+    @Test
+    void laBajaOElLoteSinStockResuelvenLaAlerta() {
+        Integer instanciaId = instancia(hoy.plusDays(10), LocalDateTime.now());
+        Integer loteId = lote(5, hoy.plusDays(20), LocalDateTime.now());
+        alertaService.escanear();
+        assertEquals("ACTIVA", estadoAlerta("VENCIMIENTO_EPP", instanciaId));
+        assertEquals("ACTIVA", estadoAlerta("VENCIMIENTO_LOTE", loteId));
+
+        tocarInstancia(instanciaId, baja);
+        jdbcTemplate.update("UPDATE epp.inventario_central SET cantidad_actual = 0, ultima_actualizacion = ? " +
+                "WHERE inventario_central_id = ?", Timestamp.valueOf(LocalDateTime.now()), loteId);
+        alertaService.escanear();
+
+        assertEquals("RESUELTA", estadoAlerta("VENCIMIENTO_EPP", instanciaId));
+        assertEquals("RESUELTA", estadoAlerta("VENCIMIENTO_LOTE", loteId));
+        assertEquals(0, alertaService.listar(null, areaId, 100).size());
+    }
+
+    private Integer instancia(LocalDate vencimiento, LocalDateTime modificacion) {
+        return datos.instancia(eppId, enStock, areaId, vencimiento, modificacion);
+    }
+
+    private Integer lote(int cantidad, LocalDate vencimiento, LocalDateTime modificacion) {
+        return datos.lote(eppId, cantidad, vencimiento, modificacion);
+    }
+
+    private void tocarInstancia(Integer instanciaId, Integer estadoId) {
+        jdbcTemplate.update("UPDATE epp.instancia_epp SET estado_id = ?, fecha_actualizacion = ? WHERE instancia_epp_id = ?",
+                estadoId, Timestamp.valueOf(LocalDateTime.now()), instanciaId);
+    }
+
+    private String estadoAlerta(String tipo, Integer referenciaId) {
+        return jdbcTemplate.queryForList("SELECT estado FROM epp.alerta WHERE tipo = ? AND referencia_id = ?",
+                String.class, tipo, referenciaId).stream().findFirst().orElse(null);
+    }
+
+    private Long alertaId(String tipo, Integer referenciaId) {
+        return jdbcTemplate.queryForObject("SELECT alerta_id FROM epp.alerta WHERE tipo = ? AND referencia_id = ?",
+                Long.class, tipo, referenciaId);
+    }
+
+    private int avisos(Long alertaId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM epp.notificacion WHERE clave = ?",
+                Integer.class, "alerta:" + alertaId);
+    }
+}
@@ -0,0 +1,129 @@
+package pe.edu.upeu.epp.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.request.RefreshTokenRequestDTO;
+import pe.edu.upeu.epp.dto.response.AuthResponseDTO;
+import pe.edu.upeu.epp.entity.Usuario;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.repository.UsuarioRepository;
+import pe.edu.upeu.epp.security.RefreshTokenService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El refresh rota el token conservando el inicio de sesión de la familia, no extiende
+ * la sesión más allá de jwt.refresh-max-session y responde con los mismos datos que el
+ * login, leyendo el usuario con una sola consulta. Usa el usuario admin de los datos de desarrollo (con trabajador y área).
+ */
+@SpringBootTest
+@Transactional
+class AuthServiceRefreshTest {
+
+    private static final String USUARIO = "admin";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${jwt.refresh-max-session}")
+    private long maxSesion;
+
+    @Test
+    void refreshRespondeComoElLoginYConservaElInicioDeSesion() {
+        Usuario usuario = usuarioRepository.findByNombreUsuario(USUARIO).orElseThrow();
+        String token = refreshTokenService.emitir(usuario);
+        LocalDateTime inicio = LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.SECONDS);
+        jdbcTemplate.update("UPDATE epp.refresh_token SET fecha_inicio_sesion = ? WHERE familia_id = " +
+                "(SELECT familia_id FROM epp.refresh_token ORDER BY refresh_token_id DESC LIMIT 1)", Timestamp.valueOf(inicio));
+
+        AuthResponseDTO primero = authService.refreshToken(new RefreshTokenRequestDTO(token));
+        AuthResponseDTO segundo = authService.refreshToken(new RefreshTokenRequestDTO(primero.getRefreshToken()));
+
+        assertEquals(usuario.getUsuarioId(), segundo.getUsuarioId());
+        assertEquals(usuario.getEmail(), segundo.getEmail());
+        assertNotNull(segundo.getTrabajadorId());
+        assertNotNull(segundo.getNombreCompleto());
+        assertNotNull(segundo.getAreaId());
+        assertNotNull(segundo.getAreaNombre());
+        assertFalse(segundo.getRoles().isEmpty());
+
+        List<LocalDateTime> inicios = jdbcTemplate.queryForList(
+                "SELECT fecha_inicio_sesion FROM epp.refresh_token WHERE familia_id = " +
+                        "(SELECT familia_id FROM epp.refresh_token ORDER BY refresh_token_id DESC LIMIT 1)",
+                LocalDateTime.class);
+        assertEquals(3, inicios.size());
+        inicios.forEach(valor -> assertEquals(inicio, valor));
+    }
+
+    @Test
+    void refreshLeeElUsuarioUnaSolaVez() {
+        Usuario usuario = usuarioRepository.findByNombreUsuario(USUARIO).orElseThrow();
+        String token = refreshTokenService.emitir(usuario);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AuthResponseDTO respuesta = authService.refreshToken(new RefreshTokenRequestDTO(token));
+
+        assertNotNull(respuesta.getAreaNombre());
+        // Lectura y rotación del refresh token, más el usuario con roles, trabajador y área
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void laRotacionNoPasaDeLaEdadMaximaDeLaSesion() {
+        Usuario usuario = usuarioRepository.findByNombreUsuario(USUARIO).orElseThrow();
+        Duration maxima = Duration.ofMillis(maxSesion);
+
+        // Queda una hora de sesión: el token nuevo vence con ella, no con jwt.refresh-expiration
+        String token = refreshTokenService.emitir(usuario);
+        LocalDateTime inicio = LocalDateTime.now().minus(maxima).plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        iniciarSesionEn(inicio);
+        refreshTokenService.rotar(token);
+        assertEquals(Timestamp.valueOf(inicio.plus(maxima)), jdbcTemplate.queryForObject(
+                "SELECT fecha_expiracion FROM epp.refresh_token ORDER BY refresh_token_id DESC LIMIT 1", Timestamp.class));
+
+        String vencido = refreshTokenService.emitir(usuario);
+        iniciarSesionEn(LocalDateTime.now().minus(maxima).minusMinutes(1));
+        BusinessException error = assertThrows(BusinessException.class, () -> refreshTokenService.rotar(vencido));
+        assertTrue(error.getMessage().startsWith("Sesión expirada"));
+    }
+
+    /**
+     * Fecha de login del último token emitido
+     */
+    private void iniciarSesionEn(LocalDateTime inicio) {
+        jdbcTemplate.update("UPDATE epp.refresh_token SET fecha_inicio_sesion = ? WHERE refresh_token_id = " +
+                "(SELECT max(refresh_token_id) FROM epp.refresh_token)", Timestamp.valueOf(inicio));
+    }
+}
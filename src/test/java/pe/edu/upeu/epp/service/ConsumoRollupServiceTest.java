@@ -0,0 +1,122 @@
+package pe.edu.upeu.epp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.response.ConsumoResponseDTO;
+import pe.edu.upeu.epp.entity.CatalogoEpp;
+import pe.edu.upeu.epp.service.ConsumoRollupService.Dimension;
+import pe.edu.upeu.epp.service.ConsumoRollupService.Granularidad;
+import pe.edu.upeu.epp.support.DatosPrueba;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El reporte de consumo lee consumo_diario antes de la marca y las entregas desde ella,
+ * y el límite se aplica dentro de cada período. Los datos van en 2001, fuera de los
+ * rangos que usan los datos de desarrollo.
+ */
+@SpringBootTest
+@Transactional
+class ConsumoRollupServiceTest {
+
+    private static final LocalDate MARCA = LocalDate.of(2001, 3, 15);
+    private static final LocalDate DESDE = LocalDate.of(2001, 2, 1);
+    private static final LocalDate HASTA = LocalDate.of(2001, 4, 30);
+
+    @Autowired
+    private ConsumoRollupService consumoRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DatosPrueba datos;
+    private Integer areaId;
+    private Integer trabajadorId;
+    private String e1;
+    private String e2;
+    private String e3;
+
+    @BeforeEach
+    void datos() {
+        datos = new DatosPrueba(jdbcTemplate);
+        areaId = datos.area("Consumo");
+        trabajadorId = datos.trabajador("Consumo", areaId);
+        e1 = datos.epp("Guantes", CatalogoEpp.TipoUso.CONSUMIBLE).toString();
+        e2 = datos.epp("Lentes", CatalogoEpp.TipoUso.CONSUMIBLE).toString();
+        e3 = datos.epp("Tapones", CatalogoEpp.TipoUso.CONSUMIBLE).toString();
+
+        jdbcTemplate.update("INSERT INTO epp.rollup_estado (rollup) VALUES ('consumo_diario') ON CONFLICT DO NOTHING");
+        jdbcTemplate.update("UPDATE epp.rollup_estado SET materializado_hasta = ? WHERE rollup = 'consumo_diario'",
+                Date.valueOf(MARCA));
+
+        // Materializado (antes de la marca)
+        rollup(LocalDate.of(2001, 2, 10), e1, 5);
+        rollup(LocalDate.of(2001, 3, 10), e1, 4);
+        rollup(LocalDate.of(2001, 3, 10), e2, 9);
+        // Cola (desde la marca)
+        entrega(LocalDate.of(2001, 3, 20), e1, 3);
+        entrega(LocalDate.of(2001, 3, 20), e3, 2);
+        entrega(LocalDate.of(2001, 4, 5), e2, 7);
+    }
+
+    @Test
+    void combinaElRollupConLaColaSinMaterializar() {
+        // Antes de la marca solo cuenta el rollup, aunque haya entregas no materializadas
+        entrega(LocalDate.of(2001, 3, 12), e3, 100);
+
+        List<ConsumoResponseDTO> consumo = consumoRollupService.consumo(Granularidad.MES, Dimension.EPP, DESDE, HASTA, 10);
+
+        assertEquals(List.of(
+                fila(LocalDate.of(2001, 2, 1), e1, 5),
+                fila(LocalDate.of(2001, 3, 1), e2, 9),
+                fila(LocalDate.of(2001, 3, 1), e1, 7),
+                fila(LocalDate.of(2001, 3, 1), e3, 2),
+                fila(LocalDate.of(2001, 4, 1), e2, 7)), resumen(consumo));
+    }
+
+    @Test
+    void rangoCompletamenteEnLaColaLeeSoloEntregas() {
+        List<ConsumoResponseDTO> consumo = consumoRollupService.consumo(Granularidad.TOTAL, Dimension.EPP,
+                LocalDate.of(2001, 3, 16), HASTA, 10);
+
+        assertEquals(List.of(fila(null, e2, 7), fila(null, e1, 3), fila(null, e3, 2)), resumen(consumo));
+    }
+
+    @Test
+    void elLimiteSeAplicaDentroDeCadaPeriodo() {
+        List<ConsumoResponseDTO> consumo = consumoRollupService.consumo(Granularidad.MES, Dimension.EPP, DESDE, HASTA, 1);
+
+        assertEquals(List.of(
+                fila(LocalDate.of(2001, 2, 1), e1, 5),
+                fila(LocalDate.of(2001, 3, 1), e2, 9),
+                fila(LocalDate.of(2001, 4, 1), e2, 7)), resumen(consumo));
+    }
+
+    private void rollup(LocalDate dia, String eppId, int cantidad) {
+        jdbcTemplate.update(
+                "INSERT INTO epp.consumo_diario (dia, epp_id, area_id, tipo_entrega, cantidad, detalles) " +
+                        "VALUES (?, ?, ?, 'REPOSICION', ?, 1)",
+                Date.valueOf(dia), Integer.valueOf(eppId), areaId, cantidad);
+    }
+
+    private void entrega(LocalDate dia, String eppId, int cantidad) {
+        Integer entregaId = datos.entrega(trabajadorId, trabajadorId, dia.atTime(10, 0));
+        datos.detalle(entregaId, Integer.valueOf(eppId), null, cantidad);
+    }
+
+    private static String fila(LocalDate periodo, String clave, long cantidad) {
+        return periodo + " " + clave + " " + cantidad;
+    }
+
+    private static List<String> resumen(List<ConsumoResponseDTO> consumo) {
+        return consumo.stream().map(c -> fila(c.getPeriodo(), c.getClave(), c.getCantidad())).toList();
+    }
+}
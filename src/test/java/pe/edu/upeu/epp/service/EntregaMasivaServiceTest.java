@@ -0,0 +1,105 @@
+package pe.edu.upeu.epp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.request.DetalleEntregaRequestDTO;
+import pe.edu.upeu.epp.dto.request.EntregaMasivaRequestDTO;
+import pe.edu.upeu.epp.dto.request.EntregaRequestDTO;
+import pe.edu.upeu.epp.dto.response.EntregaMasivaResponseDTO;
+import pe.edu.upeu.epp.entity.CatalogoEpp;
+import pe.edu.upeu.epp.entity.EntregaEpp;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.support.DatosPrueba;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Entrega masiva con instancias: cada instancia entregada pasa a ENTREGADO con el
+ * trabajador que la recibe, y una segunda entrega de la misma instancia se rechaza sin
+ * descontar stock. Registra como el usuario admin de los datos de desarrollo, que por
+ * ser SUPERVISOR_SST puede entregar desde cualquier área.
+ */
+@SpringBootTest
+@Transactional
+class EntregaMasivaServiceTest {
+
+    private static final String USUARIO = "admin";
+
+    @Autowired
+    private EntregaMasivaService entregaMasivaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DatosPrueba datos;
+    private Integer areaId;
+    private Integer eppId;
+    private Integer inventarioAreaId;
+    private Integer enStock;
+
+    @BeforeEach
+    void datos() {
+        datos = new DatosPrueba(jdbcTemplate);
+        areaId = datos.area("Masiva");
+        eppId = datos.epp("Casco", CatalogoEpp.TipoUso.DURADERO);
+        inventarioAreaId = datos.inventarioArea(areaId, eppId, 5, 0);
+        enStock = datos.estado("EN_STOCK");
+        datos.estado("ENTREGADO");
+    }
+
+    @Test
+    void laInstanciaEntregadaQuedaAsignadaAlTrabajador() {
+        Integer trabajadorId = datos.trabajador("A", areaId);
+        Integer instanciaId = datos.instancia(eppId, enStock, areaId);
+
+        EntregaMasivaResponseDTO respuesta = entregaMasivaService.registrar(solicitud(trabajadorId, instanciaId), USUARIO);
+
+        assertEquals(1, respuesta.getDetallesRegistrados());
+        Map<String, Object> instancia = jdbcTemplate.queryForMap(
+                "SELECT ee.nombre AS estado, ie.trabajador_actual_id FROM epp.instancia_epp ie " +
+                        "JOIN epp.estado_epp ee ON ee.estado_id = ie.estado_id WHERE ie.instancia_epp_id = ?", instanciaId);
+        assertEquals("ENTREGADO", instancia.get("estado"));
+        assertEquals(trabajadorId, instancia.get("trabajador_actual_id"));
+        assertEquals(4, stockArea());
+    }
+
+    @Test
+    void entregarDosVecesLaMismaInstanciaSeRechaza() {
+        Integer instanciaId = datos.instancia(eppId, enStock, areaId);
+        entregaMasivaService.registrar(solicitud(datos.trabajador("A", areaId), instanciaId), USUARIO);
+
+        EntregaMasivaRequestDTO segunda = solicitud(datos.trabajador("B", areaId), instanciaId);
+        BusinessException error = assertThrows(BusinessException.class,
+                () -> entregaMasivaService.registrar(segunda, USUARIO));
+
+        assertTrue(error.getMessage().contains("no está disponible"), error.getMessage());
+        assertEquals(4, stockArea(), "la segunda entrega no descuenta");
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM epp.detalle_entrega_epp WHERE instancia_epp_id = ?", Integer.class, instanciaId));
+    }
+
+    private EntregaMasivaRequestDTO solicitud(Integer trabajadorId, Integer instanciaId) {
+        return EntregaMasivaRequestDTO.builder()
+                .areaId(areaId)
+                .entregas(List.of(EntregaRequestDTO.builder()
+                        .trabajadorId(trabajadorId)
+                        .tipoEntrega(EntregaEpp.TipoEntrega.PRIMERA_ENTREGA)
+                        .detalles(List.of(DetalleEntregaRequestDTO.builder()
+                                .eppId(eppId).instanciaEppId(instanciaId).cantidad(1).build()))
+                        .build()))
+                .build();
+    }
+
+    private int stockArea() {
+        return jdbcTemplate.queryForObject(
+                "SELECT cantidad_actual FROM epp.inventario_area WHERE inventario_area_id = ?",
+                Integer.class, inventarioAreaId);
+    }
+}
@@ -0,0 +1,98 @@
+package pe.edu.upeu.epp.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.response.HistorialEntregaResponseDTO;
+import pe.edu.upeu.epp.dto.response.PaginaResponseDTO;
+import pe.edu.upeu.epp.entity.CatalogoEpp;
+import pe.edu.upeu.epp.support.DatosPrueba;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El historial de entregas debe leerse con el mismo número de sentencias SQL
+ * sin importar cuántas entregas y detalles tenga el trabajador (sin N+1).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class HistorialEntregaQueryCountTest {
+
+    @Autowired
+    private ListadoService listadoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private DatosPrueba datos;
+    private Integer areaId;
+    private Integer jefeId;
+    private Integer eppId;
+    private Integer estadoId;
+
+    @BeforeEach
+    void datos() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        datos = new DatosPrueba(jdbcTemplate);
+        areaId = datos.area("Historial");
+        jefeId = datos.trabajador("J", areaId);
+        eppId = datos.epp("Casco", CatalogoEpp.TipoUso.DURADERO);
+        estadoId = datos.estado("ENTREGADO");
+    }
+
+    @Test
+    void historialUsaLasMismasConsultasSinImportarSuLongitud() {
+        Integer corto = datos.trabajador("C", areaId);
+        Integer largo = datos.trabajador("L", areaId);
+        entregas(corto, 3);
+        entregas(largo, 40);
+
+        long consultasCorto = consultas(corto, 3);
+        long consultasLargo = consultas(largo, 40);
+
+        assertEquals(2, consultasCorto, "claves de la página y entregas con su grafo");
+        assertEquals(consultasCorto, consultasLargo);
+    }
+
+    private long consultas(Integer trabajadorId, int esperadas) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        PaginaResponseDTO<HistorialEntregaResponseDTO> pagina =
+                listadoService.historialTrabajador(trabajadorId, null, 50);
+
+        assertEquals(esperadas, pagina.getTamano());
+        assertNull(pagina.getSiguienteCursor());
+        pagina.getContenido().forEach(entrega -> {
+            assertEquals(2, entrega.getDetalles().size());
+            assertNotNull(entrega.getJefeArea());
+            assertTrue(entrega.getDetalles().stream().anyMatch(d -> d.getCodigoSerie() != null));
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void entregas(Integer trabajadorId, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            Integer entregaId = datos.entrega(trabajadorId, jefeId, LocalDateTime.now().minusDays(i));
+            datos.detalle(entregaId, eppId, datos.instancia(eppId, estadoId, null), 1);
+            datos.detalle(entregaId, eppId, null, 2);
+        }
+    }
+}
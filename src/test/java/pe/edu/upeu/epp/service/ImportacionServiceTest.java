@@ -0,0 +1,139 @@
+package pe.edu.upeu.epp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import pe.edu.upeu.epp.dto.response.ImportacionResponseDTO;
+import pe.edu.upeu.epp.dto.response.RechazoImportacionDTO;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.support.DatosPrueba;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Importación de trabajadores contra PostgreSQL: filas inválidas, claves repetidas en el
+ * archivo y claves ya registradas se reportan sin detener la carga; un error a mitad del
+ * archivo revierte todo sin dejar la tabla de staging. La importación confirma su propia
+ * transacción, así que los datos se crean en un área nueva y se eliminan al terminar.
+ */
+@SpringBootTest(properties = "importacion.max-filas=6000")
+class ImportacionServiceTest {
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer areaId;
+    private String codigoArea;
+    private long base;
+
+    @BeforeEach
+    void datos() {
+        DatosPrueba datos = new DatosPrueba(jdbcTemplate);
+        String sufijo = datos.sufijo();
+        codigoArea = "IMP" + sufijo.substring(Math.max(0, sufijo.length() - 6)).toUpperCase();
+        areaId = datos.area("Importacion", codigoArea);
+        // DNI de 10 dígitos que no usan los datos de desarrollo
+        base = 7_000_000_000L + (System.nanoTime() % 100_000_000L) * 10;
+        jdbcTemplate.update(
+                "INSERT INTO epp.trabajador (dni, nombres, apellidos, codigo_qr_photocheck, area_id, estado, fecha_creacion) " +
+                        "VALUES (?, 'Existente', 'Prueba', ?, ?, 'ACTIVO', ?)",
+                dni(0), "QR-IMP-" + base, areaId, LocalDateTime.now());
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM epp.trabajador WHERE area_id = ?", areaId);
+        jdbcTemplate.update("DELETE FROM epp.area WHERE area_id = ?", areaId);
+    }
+
+    @Test
+    void reportaInvalidasRepetidasYExistentesEInsertaElResto() {
+        String csv = String.join("\n",
+                "DNI,Nombres,Apellidos,Área,Código QR,Email",
+                fila(dni(1), "Ana", codigoArea, qr(1), "ana@upeu.edu.pe"),
+                fila("12AB", "Beto", codigoArea, "", ""),
+                fila(dni(2), "Carla", "Área que no existe", "", ""),
+                fila(dni(1), "Dario", codigoArea, "", ""),
+                fila(dni(3), "Elena", codigoArea, qr(1), ""),
+                fila(dni(0), "Fabio", codigoArea, "", ""),
+                fila(dni(4), "Gina", codigoArea, "QR-IMP-" + base, ""),
+                fila(dni(5), "Hugo", codigoArea, "", "sin-arroba"),
+                fila(dni(6), "Irene", codigoArea, qr(6), ""));
+
+        ImportacionResponseDTO resultado = importacionService.importarTrabajadores(csv("trabajadores.csv", csv));
+
+        assertEquals(9, resultado.getFilasLeidas());
+        assertEquals(2, resultado.getInsertadas());
+        assertEquals(7, resultado.getRechazadas());
+        assertEquals(List.of(
+                "3 DNI inválido: 12AB",
+                "4 Área no encontrada: Área que no existe",
+                "5 DNI " + dni(1) + " repetido en el archivo (fila 2)",
+                "6 Código QR " + qr(1) + " repetido en el archivo (fila 2)",
+                "7 DNI " + dni(0) + " ya registrado",
+                "8 Código QR QR-IMP-" + base + " ya registrado",
+                "9 Email inválido: sin-arroba"), resultado.getRechazos().stream().map(this::motivo).toList());
+
+        assertEquals(List.of("Ana", "Existente", "Irene"), jdbcTemplate.queryForList(
+                "SELECT nombres FROM epp.trabajador WHERE area_id = ? ORDER BY nombres", String.class, areaId));
+        assertEquals(qr(1), jdbcTemplate.queryForObject(
+                "SELECT codigo_qr_photocheck FROM epp.trabajador WHERE dni = ?", String.class, dni(1)));
+    }
+
+    @Test
+    void unErrorAMitadDelArchivoRevierteTodoSinDejarStaging() {
+        // El primer bloque (5000 filas) ya pasó por COPY cuando se supera el máximo
+        StringBuilder csv = new StringBuilder("dni,nombres,apellidos,area\n");
+        for (int i = 1; i <= 6001; i++) {
+            csv.append(fila(dni(i), "Masivo", codigoArea)).append('\n');
+        }
+
+        assertThrows(BusinessException.class,
+                () -> importacionService.importarTrabajadores(csv("masivo.csv", csv.toString())));
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM epp.trabajador WHERE area_id = ?", Integer.class, areaId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_class WHERE relname = 'imp_trabajador' AND relpersistence = 't'", Integer.class));
+
+        // La conexión vuelve al pool utilizable (sin un COPY abierto)
+        ImportacionResponseDTO siguiente = importacionService.importarTrabajadores(
+                csv("uno.csv", "dni,nombres,apellidos,area\n" + fila(dni(1), "Despues", codigoArea)));
+        assertEquals(1, siguiente.getInsertadas());
+    }
+
+    private String dni(int n) {
+        return Long.toString(base + n);
+    }
+
+    private String qr(int n) {
+        return "QR-IMP-" + (base + n);
+    }
+
+    private static String fila(String dni, String nombre, String area, String... opcionales) {
+        StringBuilder linea = new StringBuilder(dni).append(',').append(nombre).append(",Prueba,").append(area);
+        for (String valor : opcionales) {
+            linea.append(',').append(valor);
+        }
+        return linea.toString();
+    }
+
+    private String motivo(RechazoImportacionDTO rechazo) {
+        return rechazo.getFila() + " " + rechazo.getMotivo();
+    }
+
+    private static MockMultipartFile csv(String nombre, String contenido) {
+        return new MockMultipartFile("archivo", nombre, "text/csv", contenido.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,83 @@
+package pe.edu.upeu.epp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pe.edu.upeu.epp.entity.Trabajador.EstadoTrabajador;
+import pe.edu.upeu.epp.event.TrabajadorModificadoEvent;
+import pe.edu.upeu.epp.service.IndiceTrabajadorService.TrabajadorEscaneado;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Los cambios de QR, DNI, área o estado reemplazan las claves anteriores del trabajador
+ * en el índice de escaneo. Los eventos usan ids que no existen en la base de datos y
+ * solo tocan el índice en memoria.
+ */
+@SpringBootTest
+class IndiceTrabajadorServiceTest {
+
+    private static final int TRABAJADOR = 2_000_000_001;
+    private static final int OTRO = 2_000_000_002;
+
+    @Autowired
+    private IndiceTrabajadorService indice;
+
+    @AfterEach
+    void limpiar() {
+        indice.onTrabajadorModificado(evento(TRABAJADOR, null, "0", null, null, true));
+        indice.onTrabajadorModificado(evento(OTRO, null, "0", null, null, true));
+    }
+
+    @Test
+    void unCambioReemplazaLasClavesAnteriores() {
+        int tamano = indice.tamano();
+        indice.onTrabajadorModificado(evento(TRABAJADOR, "QR-IDX-1", "9900000001", 12, EstadoTrabajador.ACTIVO, false));
+        assertEquals(Optional.of(new TrabajadorEscaneado(TRABAJADOR, 12, EstadoTrabajador.ACTIVO)),
+                indice.resolver("QR-IDX-1"));
+
+        indice.onTrabajadorModificado(evento(TRABAJADOR, "QR-IDX-2", "9900000002", 11, EstadoTrabajador.SUSPENDIDO, false));
+
+        assertTrue(indice.resolver("QR-IDX-1").isEmpty());
+        assertTrue(indice.resolver("9900000001").isEmpty());
+        assertEquals(Optional.of(new TrabajadorEscaneado(TRABAJADOR, 11, EstadoTrabajador.SUSPENDIDO)),
+                indice.resolver("9900000002"));
+        assertEquals(tamano + 1, indice.tamano());
+
+        indice.onTrabajadorModificado(evento(TRABAJADOR, null, "9900000002", 11, EstadoTrabajador.SUSPENDIDO, true));
+        assertTrue(indice.resolver("QR-IDX-2").isEmpty());
+        assertEquals(tamano, indice.tamano());
+    }
+
+    @Test
+    void noQuitaUnaClaveQueYaTomoOtroTrabajador() {
+        indice.onTrabajadorModificado(evento(TRABAJADOR, "QR-IDX-3", "9900000003", 12, EstadoTrabajador.ACTIVO, false));
+        indice.onTrabajadorModificado(evento(OTRO, "QR-IDX-3", "9900000004", 12, EstadoTrabajador.ACTIVO, false));
+
+        indice.onTrabajadorModificado(evento(TRABAJADOR, null, "9900000003", 12, EstadoTrabajador.INACTIVO, false));
+
+        assertEquals(OTRO, indice.resolver("QR-IDX-3").orElseThrow().trabajadorId());
+        assertEquals(EstadoTrabajador.INACTIVO, indice.resolver("9900000003").orElseThrow().estado());
+    }
+
+    @Test
+    void conservaAreasGrandesYRechazaLasQueNoCaben() {
+        int areaGrande = (1 << 29) - 1;
+        indice.onTrabajadorModificado(evento(TRABAJADOR, null, "9900000005", areaGrande, EstadoTrabajador.ACTIVO, false));
+        assertEquals(areaGrande, indice.resolver("9900000005").orElseThrow().areaId());
+
+        assertThrows(IllegalArgumentException.class, () -> indice.onTrabajadorModificado(
+                evento(TRABAJADOR, null, "9900000006", 1 << 29, EstadoTrabajador.ACTIVO, false)));
+        // El trabajador conserva su entrada anterior
+        assertEquals(areaGrande, indice.resolver("9900000005").orElseThrow().areaId());
+        assertTrue(indice.resolver("9900000006").isEmpty());
+    }
+
+    private static TrabajadorModificadoEvent evento(int trabajadorId, String qr, String dni, Integer areaId,
+                                                    EstadoTrabajador estado, boolean eliminado) {
+        return new TrabajadorModificadoEvent(trabajadorId, qr, dni, areaId, estado, eliminado);
+    }
+}
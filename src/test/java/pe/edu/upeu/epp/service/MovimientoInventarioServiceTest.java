@@ -0,0 +1,168 @@
+package pe.edu.upeu.epp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.request.BajaInventarioRequestDTO;
+import pe.edu.upeu.epp.dto.response.StockHistoricoResponseDTO;
+import pe.edu.upeu.epp.entity.CatalogoEpp;
+import pe.edu.upeu.epp.support.DatosPrueba;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Libro de movimientos: las bajas quedan registradas, la compactación agrega al último
+ * snapshot lo movido desde su corte y el stock a una fecha se reconstruye desde el
+ * snapshot anterior, el siguiente o el stock actual según los que existan.
+ */
+@SpringBootTest(properties = "inventario.ledger.snapshot-lag=5m")
+@Transactional
+class MovimientoInventarioServiceTest {
+
+    @Autowired
+    private MovimientoInventarioService movimientoInventarioService;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DatosPrueba datos;
+    private LocalDateTime ahora;
+    private Integer areaId;
+    private Integer eppId;
+
+    @BeforeEach
+    void datos() {
+        ahora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        datos = new DatosPrueba(jdbcTemplate);
+        areaId = datos.area("Ledger");
+        eppId = datos.epp("Mascarilla", CatalogoEpp.TipoUso.CONSUMIBLE);
+    }
+
+    @Test
+    void bajaDeUnLoteDescuentaYQuedaEnElLibro() {
+        Integer loteId = datos.lote(eppId, 20, null);
+
+        inventarioService.registrarBaja(BajaInventarioRequestDTO.builder()
+                .inventarioCentralId(loteId).cantidad(6).motivo("Empaque dañado").build());
+
+        assertEquals(14, jdbcTemplate.queryForObject(
+                "SELECT cantidad_actual FROM epp.inventario_central WHERE inventario_central_id = ?",
+                Integer.class, loteId));
+        Map<String, Object> movimiento = jdbcTemplate.queryForMap(
+                "SELECT tipo_movimiento, origen, area_id, cantidad, observaciones FROM epp.movimiento_inventario " +
+                        "WHERE inventario_central_id = ?", loteId);
+        assertEquals("AJUSTE", movimiento.get("tipo_movimiento"));
+        assertEquals("BAJA", movimiento.get("origen"));
+        assertNull(movimiento.get("area_id"));
+        assertEquals(-6, movimiento.get("cantidad"));
+        assertEquals("Empaque dañado", movimiento.get("observaciones"));
+
+        // Central sin snapshot: 20 antes de la baja
+        assertEquals(20, movimientoInventarioService.stockEn(eppId, null, ahora.minusMinutes(1)).getCantidad());
+    }
+
+    @Test
+    void compactacionAgregaAlUltimoSnapshotLoMovidoHastaElCorte() {
+        jdbcTemplate.update("DELETE FROM epp.inventario_snapshot");
+        datos.inventarioArea(areaId, eppId, 47, 0);
+        snapshot(ahora.minusHours(3), 40);
+        movimiento(ahora.minusHours(2), 15);
+        movimiento(ahora.minusHours(1), -5);
+        movimiento(ahora.minusMinutes(1), -3);
+
+        movimientoInventarioService.compactar();
+
+        Map<String, Object> ultimo = jdbcTemplate.queryForMap(
+                "SELECT fecha_corte, cantidad FROM epp.inventario_snapshot WHERE epp_id = ? AND area_id = ? " +
+                        "ORDER BY fecha_corte DESC LIMIT 1", eppId, areaId);
+        assertEquals(50, ultimo.get("cantidad"), "40 + 15 - 5; el movimiento posterior al corte queda en la cola");
+        LocalDateTime corte = ((Timestamp) ultimo.get("fecha_corte")).toLocalDateTime();
+        assertTrue(corte.isAfter(ahora.minusMinutes(6)) && corte.isBefore(ahora.minusMinutes(4)), corte.toString());
+
+        StockHistoricoResponseDTO actual = movimientoInventarioService.stockEn(eppId, areaId, LocalDateTime.now());
+        assertEquals(47, actual.getCantidad());
+        assertEquals(corte, actual.getFechaSnapshot());
+        assertEquals(1, actual.getMovimientosAplicados());
+    }
+
+    @Test
+    void compactacionCreaElPrimerSnapshotDesdeElStockActual() {
+        jdbcTemplate.update("DELETE FROM epp.inventario_snapshot");
+        datos.inventarioArea(areaId, eppId, 30, 0);
+        movimiento(ahora.minusHours(1), 32);
+        movimiento(ahora.minusMinutes(1), -2);
+
+        movimientoInventarioService.compactar();
+
+        assertEquals(32, jdbcTemplate.queryForObject(
+                "SELECT cantidad FROM epp.inventario_snapshot WHERE epp_id = ? AND area_id = ?",
+                Integer.class, eppId, areaId));
+    }
+
+    @Test
+    void stockEntreDosSnapshotsParteDelAnterior() {
+        datos.inventarioArea(areaId, eppId, 47, 0);
+        snapshot(ahora.minusHours(3), 40);
+        movimiento(ahora.minusHours(2), 15);
+        movimiento(ahora.minusHours(1), -5);
+        snapshot(ahora.minusMinutes(30), 50);
+
+        StockHistoricoResponseDTO stock = movimientoInventarioService.stockEn(eppId, areaId, ahora.minusMinutes(90));
+
+        assertEquals(55, stock.getCantidad());
+        assertEquals(ahora.minusHours(3), stock.getFechaSnapshot());
+        assertEquals(1, stock.getMovimientosAplicados());
+    }
+
+    @Test
+    void stockAntesDelPrimerSnapshotRetrocedeDesdeElSiguiente() {
+        datos.inventarioArea(areaId, eppId, 40, 0);
+        movimiento(ahora.minusHours(5), 25);
+        movimiento(ahora.minusHours(4), 15);
+        snapshot(ahora.minusHours(3), 40);
+
+        StockHistoricoResponseDTO stock = movimientoInventarioService.stockEn(eppId, areaId, ahora.minusMinutes(270));
+
+        assertEquals(25, stock.getCantidad());
+        assertEquals(ahora.minusHours(3), stock.getFechaSnapshot());
+        assertEquals(1, stock.getMovimientosAplicados());
+    }
+
+    @Test
+    void stockSinSnapshotsRetrocedeDesdeElStockActual() {
+        datos.inventarioArea(areaId, eppId, 20, 0);
+        movimiento(ahora.minusHours(2), 30);
+        movimiento(ahora.minusHours(1), -10);
+
+        StockHistoricoResponseDTO stock = movimientoInventarioService.stockEn(eppId, areaId, ahora.minusMinutes(90));
+
+        assertEquals(30, stock.getCantidad());
+        assertNull(stock.getFechaSnapshot());
+        assertEquals(1, stock.getMovimientosAplicados());
+    }
+
+    private void snapshot(LocalDateTime corte, int cantidad) {
+        jdbcTemplate.update(
+                "INSERT INTO epp.inventario_snapshot (epp_id, area_id, fecha_corte, cantidad) VALUES (?, ?, ?, ?)",
+                eppId, areaId, Timestamp.valueOf(corte), cantidad);
+    }
+
+    private void movimiento(LocalDateTime fecha, int cantidad) {
+        jdbcTemplate.update(
+                "INSERT INTO epp.movimiento_inventario (fecha_movimiento, tipo_movimiento, origen, epp_id, area_id, cantidad) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                Timestamp.valueOf(fecha), cantidad > 0 ? "ENTRADA" : "SALIDA", cantidad > 0 ? "AJUSTE_MANUAL" : "ENTREGA",
+                eppId, areaId, cantidad);
+    }
+}
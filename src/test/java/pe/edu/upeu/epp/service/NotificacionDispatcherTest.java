@@ -0,0 +1,107 @@
+package pe.edu.upeu.epp.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Message;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El dispatcher envía un resumen por destinatario a un servidor SMTP local (GreenMail)
+ * y deja los avisos en espera para reintento cuando el servidor no responde.
+ */
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "notificaciones.remitente=sst-epp@upeu.edu.pe",
+        "notificaciones.dispatch-interval=3600000",
+        "notificaciones.max-lineas-por-seccion=2"
+})
+@Transactional
+class NotificacionDispatcherTest {
+
+    private static final String JEFE = "jefe.prueba@upeu.edu.pe";
+    private static final String SUPERVISOR = "supervisor.prueba@upeu.edu.pe";
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private NotificacionDispatcher dispatcher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void enviaUnResumenPorDestinatario() throws Exception {
+        avisar(JEFE, "STOCK_BAJO", "Guantes de nitrilo en Taller: 3 unidades (mínimo 5)");
+        avisar(JEFE, "VENCIMIENTO", "Casco (S-1), Taller: vencimiento 01/11/2026");
+        avisar(JEFE, "VENCIMIENTO", "Casco (S-2), Taller: vencimiento 02/11/2026");
+        avisar(JEFE, "VENCIMIENTO", "Casco (S-3), Taller: vencimiento 03/11/2026");
+        avisar(SUPERVISOR, "SOLICITUD_PENDIENTE", "Solicitud 7: 20 unidades de Guantes para Taller (prioridad ALTA)");
+
+        dispatcher.despachar();
+
+        MimeMessage alJefe = recibido(JEFE);
+        assertEquals("SST EPP: 4 avisos", alJefe.getSubject());
+        String cuerpo = (String) alJefe.getContent();
+        assertTrue(cuerpo.contains("Vencimientos (3)"), cuerpo);
+        assertTrue(cuerpo.contains("... y 1 más"), cuerpo);
+        assertTrue(((String) recibido(SUPERVISOR).getContent()).contains("Solicitud 7"));
+
+        List<String> estados = jdbcTemplate.queryForList(
+                "SELECT DISTINCT estado FROM epp.notificacion WHERE destinatario IN (?, ?)", String.class, JEFE, SUPERVISOR);
+        assertEquals(List.of("ENVIADA"), estados);
+    }
+
+    @Test
+    void reintentaConEsperaSiElServidorNoResponde() {
+        greenMail.stop();
+        Long id = avisar(JEFE, "INSPECCION", "Arnés (A-1), Taller: inspección 20/10/2026");
+
+        dispatcher.despachar();
+
+        Map<String, Object> aviso = jdbcTemplate.queryForMap(
+                "SELECT estado, intentos, proximo_intento > LOCALTIMESTAMP AS en_espera, ultimo_error " +
+                "FROM epp.notificacion WHERE notificacion_id = ?", id);
+        assertEquals("PENDIENTE", aviso.get("estado"));
+        assertEquals(1, aviso.get("intentos"));
+        assertEquals(true, aviso.get("en_espera"));
+        assertNotNull(aviso.get("ultimo_error"));
+    }
+
+    private Long avisar(String destinatario, String tipo, String texto) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO epp.notificacion (tipo, destinatario, texto, estado, intentos, proximo_intento, fecha_creacion) " +
+                "VALUES (?, ?, ?, 'PENDIENTE', 0, LOCALTIMESTAMP, LOCALTIMESTAMP) RETURNING notificacion_id",
+                Long.class, tipo, destinatario, texto);
+    }
+
+    private MimeMessage recibido(String destinatario) {
+        List<MimeMessage> mensajes = Arrays.stream(greenMail.getReceivedMessages())
+                .filter(m -> {
+                    try {
+                        return destinatario.equals(m.getRecipients(Message.RecipientType.TO)[0].toString());
+                    } catch (Exception e) {
+                        return false;
+                    }
+                })
+                .toList();
+        assertEquals(1, mensajes.size(), "correos a " + destinatario);
+        return mensajes.get(0);
+    }
+}
@@ -0,0 +1,213 @@
+package pe.edu.upeu.epp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.edu.upeu.epp.dto.request.ReporteJobRequestDTO;
+import pe.edu.upeu.epp.dto.response.ReporteJobResponseDTO;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.exception.LimiteTasaExcedidoException;
+import pe.edu.upeu.epp.exception.ServicioSaturadoException;
+import pe.edu.upeu.epp.service.ExportacionService.TipoExportacion;
+import pe.edu.upeu.epp.support.DatosPrueba;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cola de exportaciones: un envío idéntico del mismo usuario reutiliza el job, el de
+ * otro usuario no y tampoco puede consultarlo; el límite de jobs activos es por
+ * usuario; con la cola llena el envío se rechaza sin registrar el job; la limpieza elimina los archivos expirados y los temporales huérfanos.
+ * enviar confirma su propia transacción y ejecuta el job en segundo plano, así que los
+ * usuarios se crean por prueba y se eliminan con sus jobs al terminar.
+ */
+@SpringBootTest(properties = {"reportes.jobs.pool-size=1", "reportes.jobs.queue-capacity=2"})
+class ReporteJobServiceTest {
+
+    // Mismo directorio por defecto que ReporteJobService (reportes.jobs.directorio)
+    private static final Path DIRECTORIO = Paths.get(System.getProperty("java.io.tmpdir"), "epp-reportes");
+
+    @Autowired
+    private ReporteJobService reporteJobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<Long> enviados = new ArrayList<>();
+    private final List<Path> archivos = new ArrayList<>();
+    private String sufijo;
+    private String usuarioA;
+    private String usuarioB;
+    private Integer usuarioAId;
+
+    @BeforeEach
+    void datos() {
+        DatosPrueba datos = new DatosPrueba(jdbcTemplate);
+        sufijo = datos.sufijo();
+        usuarioA = datos.unico("repa");
+        usuarioB = datos.unico("repb");
+        usuarioAId = datos.usuario(usuarioA, null);
+        datos.usuario(usuarioB, null);
+    }
+
+    @AfterEach
+    void limpiar() throws Exception {
+        // Los jobs encolados terminan antes de eliminar sus filas y archivos
+        long limite = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        for (Long jobId : enviados) {
+            while (System.nanoTime() < limite && List.of("PENDIENTE", "EN_PROCESO").contains(jdbcTemplate.queryForObject(
+                    "SELECT estado FROM epp.reporte_job WHERE reporte_job_id = ?", String.class, jobId))) {
+                Thread.sleep(50);
+            }
+            archivos.add(DIRECTORIO.resolve("reporte_" + jobId + ".xlsx"));
+        }
+        for (Path archivo : archivos) {
+            Files.deleteIfExists(archivo);
+        }
+        jdbcTemplate.update("DELETE FROM epp.reporte_job WHERE usuario_id IN " +
+                "(SELECT usuario_id FROM epp.usuario WHERE nombre_usuario IN (?, ?))", usuarioA, usuarioB);
+        jdbcTemplate.update("DELETE FROM epp.usuario WHERE nombre_usuario IN (?, ?)", usuarioA, usuarioB);
+    }
+
+    @Test
+    void envioIdenticoReutilizaElJobSoloParaElMismoUsuario() {
+        ReporteJobResponseDTO primero = enviar(usuarioA);
+        ReporteJobResponseDTO repetido = enviar(usuarioA);
+        ReporteJobResponseDTO otroUsuario = enviar(usuarioB);
+
+        assertFalse(primero.getReutilizado());
+        assertTrue(repetido.getReutilizado());
+        assertEquals(primero.getReporteJobId(), repetido.getReporteJobId());
+        assertFalse(otroUsuario.getReutilizado());
+        assertNotEquals(primero.getReporteJobId(), otroUsuario.getReporteJobId());
+
+        assertEquals(primero.getReporteJobId(),
+                reporteJobService.consultar(primero.getReporteJobId(), usuarioA).getReporteJobId());
+        assertThrows(BusinessException.class, () -> reporteJobService.consultar(primero.getReporteJobId(), usuarioB));
+        assertThrows(BusinessException.class, () -> reporteJobService.archivo(primero.getReporteJobId(), usuarioB));
+    }
+
+    @Test
+    void elLimiteDeJobsActivosEsPorUsuario() {
+        // reportes.jobs.max-por-usuario = 2; jobs que nunca se encolan para que sigan activos
+        job("PENDIENTE", null, null);
+        job("EN_PROCESO", null, null);
+
+        assertThrows(LimiteTasaExcedidoException.class, () -> enviar(usuarioA));
+        assertFalse(enviar(usuarioB).getReutilizado());
+    }
+
+    @Test
+    void conLaColaLlenaElEnvioSeRechazaSinRegistrarElJob() throws Exception {
+        // Con los detalles bloqueados la exportación no avanza: 1 job en ejecución y 2 en cola
+        try (Connection bloqueo = dataSource.getConnection()) {
+            bloqueo.setAutoCommit(false);
+            try (Statement sentencia = bloqueo.createStatement()) {
+                sentencia.execute("LOCK TABLE epp.detalle_entrega_epp IN ACCESS EXCLUSIVE MODE");
+            }
+            try {
+                enviar(usuarioA, 1);
+                enviar(usuarioA, 2);
+                enviar(usuarioB, 1);
+
+                assertThrows(ServicioSaturadoException.class, () -> enviar(usuarioB, 2));
+                assertEquals(1, jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM epp.reporte_job j JOIN epp.usuario u ON u.usuario_id = j.usuario_id " +
+                                "WHERE u.nombre_usuario = ?", Integer.class, usuarioB));
+            } finally {
+                bloqueo.rollback();
+            }
+        }
+
+        // Al terminar, los jobs devuelven su lugar en la cola
+        long limite = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        ReporteJobResponseDTO siguiente = null;
+        while (siguiente == null) {
+            try {
+                siguiente = enviar(usuarioB, 2);
+            } catch (ServicioSaturadoException e) {
+                assertTrue(System.nanoTime() < limite, "la cola no se liberó");
+                Thread.sleep(50);
+            }
+        }
+        assertFalse(siguiente.getReutilizado());
+    }
+
+    @Test
+    void limpiezaEliminaLosArchivosExpiradosYLosTemporalesHuerfanos() throws Exception {
+        Path expirado = archivo("expirado_" + sufijo + ".xlsx", Instant.now());
+        Path vigente = archivo("vigente_" + sufijo + ".xlsx", Instant.now());
+        // reportes.jobs.ttl = 24h
+        Path huerfano = archivo("huerfano_" + sufijo + ".xlsx.part", Instant.now().minus(Duration.ofHours(25)));
+        Path enCurso = archivo("en_curso_" + sufijo + ".xlsx.part", Instant.now());
+        Long expiradoId = job("COMPLETADO", expirado.getFileName().toString(), LocalDateTime.now().minusMinutes(1));
+        Long vigenteId = job("COMPLETADO", vigente.getFileName().toString(), LocalDateTime.now().plusHours(1));
+
+        reporteJobService.limpiar();
+
+        assertFalse(Files.exists(expirado));
+        assertFalse(Files.exists(huerfano));
+        assertTrue(Files.exists(vigente));
+        assertTrue(Files.exists(enCurso));
+        assertEquals("EXPIRADO", estado(expiradoId));
+        assertEquals("COMPLETADO", estado(vigenteId));
+        assertThrows(BusinessException.class, () -> reporteJobService.archivo(expiradoId, usuarioA));
+        assertTrue(Files.isSameFile(vigente, reporteJobService.archivo(vigenteId, usuarioA).getFile().toPath()));
+    }
+
+    private ReporteJobResponseDTO enviar(String nombreUsuario) {
+        return enviar(nombreUsuario, 1);
+    }
+
+    private ReporteJobResponseDTO enviar(String nombreUsuario, int mes) {
+        // Rango sin entregas: el job termina enseguida
+        LocalDate desde = LocalDate.of(2001, mes, 1);
+        ReporteJobResponseDTO job = reporteJobService.enviar(ReporteJobRequestDTO.builder()
+                .tipo(TipoExportacion.ENTREGAS)
+                .desde(desde)
+                .hasta(desde.plusMonths(1).minusDays(1))
+                .build(), nombreUsuario);
+        enviados.add(job.getReporteJobId());
+        return job;
+    }
+
+    private Long job(String estado, String archivo, LocalDateTime expiracion) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO epp.reporte_job (tipo, clave, estado, usuario_id, filas_procesadas, archivo, " +
+                        "fecha_creacion, fecha_expiracion) VALUES ('STOCK', ?, ?, ?, 0, ?, ?, ?) RETURNING reporte_job_id",
+                Long.class, "prueba-" + sufijo + "-" + System.nanoTime(), estado, usuarioAId, archivo,
+                Timestamp.valueOf(LocalDateTime.now()), expiracion == null ? null : Timestamp.valueOf(expiracion));
+    }
+
+    private Path archivo(String nombre, Instant modificacion) throws Exception {
+        Path archivo = Files.write(Files.createDirectories(DIRECTORIO).resolve(nombre), new byte[]{1});
+        Files.setLastModifiedTime(archivo, FileTime.from(modificacion));
+        archivos.add(archivo);
+        return archivo;
+    }
+
+    private String estado(Long jobId) {
+        return jdbcTemplate.queryForObject("SELECT estado FROM epp.reporte_job WHERE reporte_job_id = ?",
+                String.class, jobId);
+    }
+}
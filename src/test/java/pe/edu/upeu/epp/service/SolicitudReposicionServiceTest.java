@@ -0,0 +1,134 @@
+package pe.edu.upeu.epp.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.dto.request.AprobarSolicitudRequestDTO;
+import pe.edu.upeu.epp.entity.CatalogoEpp;
+import pe.edu.upeu.epp.exception.BusinessException;
+import pe.edu.upeu.epp.support.DatosPrueba;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La aprobación de una solicitud toma los lotes del inventario central en orden FEFO,
+ * ingresa lo aprobado al área y deja un movimiento por lote y otro por el área.
+ */
+@SpringBootTest
+@Transactional
+class SolicitudReposicionServiceTest {
+
+    private static final String SUPERVISOR = "admin";
+
+    @Autowired
+    private SolicitudReposicionService solicitudReposicionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private DatosPrueba datos;
+    private Integer areaId;
+    private Integer eppId;
+    private Integer solicitanteId;
+
+    @BeforeEach
+    void datos() {
+        datos = new DatosPrueba(jdbcTemplate);
+        areaId = datos.area("Reposicion");
+        eppId = datos.epp("Guantes", CatalogoEpp.TipoUso.CONSUMIBLE);
+        solicitanteId = datos.trabajador("Jefe", areaId);
+    }
+
+    @Test
+    void apruebaTomandoLosLotesQueVencenAntes() {
+        Integer sinVencimiento = datos.lote(eppId, 10, null);
+        Integer tardio = datos.lote(eppId, 5, LocalDate.now().plusMonths(6));
+        Integer proximo = datos.lote(eppId, 4, LocalDate.now().plusMonths(1));
+        Integer solicitudId = solicitud(15);
+
+        solicitudReposicionService.aprobar(solicitudId, aprobar(12), SUPERVISOR);
+        entityManager.flush();
+
+        assertEquals(0, cantidadLote(proximo));
+        assertEquals(0, cantidadLote(tardio));
+        assertEquals(7, cantidadLote(sinVencimiento));
+        assertEquals(12, jdbcTemplate.queryForObject(
+                "SELECT cantidad_actual FROM epp.inventario_area WHERE area_id = ? AND epp_id = ?",
+                Integer.class, areaId, eppId));
+
+        List<Map<String, Object>> movimientos = jdbcTemplate.queryForList(
+                "SELECT inventario_central_id, area_id, cantidad FROM epp.movimiento_inventario " +
+                        "WHERE origen = 'SOLICITUD_REPOSICION' AND referencia_id = ? ORDER BY movimiento_id",
+                solicitudId);
+        assertEquals(List.of(
+                Map.of("lote", proximo, "cantidad", -4),
+                Map.of("lote", tardio, "cantidad", -5),
+                Map.of("lote", sinVencimiento, "cantidad", -3)),
+                movimientos.subList(0, 3).stream()
+                        .map(m -> Map.of("lote", m.get("inventario_central_id"), "cantidad", m.get("cantidad")))
+                        .toList());
+        assertEquals(areaId, movimientos.get(3).get("area_id"));
+        assertEquals(12, movimientos.get(3).get("cantidad"));
+
+        Map<String, Object> solicitud = jdbcTemplate.queryForMap(
+                "SELECT estado_solicitud, cantidad_aprobada FROM epp.solicitud_reposicion WHERE solicitud_id = ?",
+                solicitudId);
+        assertEquals("APROBADA", solicitud.get("estado_solicitud"));
+        assertEquals(12, solicitud.get("cantidad_aprobada"));
+    }
+
+    @Test
+    void rechazaAprobarMasDeLoSolicitado() {
+        Integer loteId = datos.lote(eppId, 50, null);
+        Integer solicitudId = solicitud(10);
+
+        assertThrows(BusinessException.class,
+                () -> solicitudReposicionService.aprobar(solicitudId, aprobar(11), SUPERVISOR));
+
+        assertEquals(50, cantidadLote(loteId));
+        assertEquals("PENDIENTE", jdbcTemplate.queryForObject(
+                "SELECT estado_solicitud FROM epp.solicitud_reposicion WHERE solicitud_id = ?",
+                String.class, solicitudId));
+    }
+
+    @Test
+    void sinStockCentralSuficienteNoDescuentaNingunLote() {
+        Integer loteId = datos.lote(eppId, 3, LocalDate.now().plusMonths(1));
+        Integer solicitudId = solicitud(5);
+
+        assertThrows(BusinessException.class,
+                () -> solicitudReposicionService.aprobar(solicitudId, aprobar(5), SUPERVISOR));
+
+        assertEquals(3, cantidadLote(loteId));
+    }
+
+    private Integer solicitud(int cantidad) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO epp.solicitud_reposicion (area_id, epp_id, solicitante_id, cantidad_solicitada, " +
+                        "justificacion, prioridad, estado_solicitud, fecha_solicitud) " +
+                        "VALUES (?, ?, ?, ?, 'Reposición mensual', 'MEDIA', 'PENDIENTE', LOCALTIMESTAMP) " +
+                        "RETURNING solicitud_id",
+                Integer.class, areaId, eppId, solicitanteId, cantidad);
+    }
+
+    private Integer cantidadLote(Integer loteId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT cantidad_actual FROM epp.inventario_central WHERE inventario_central_id = ?",
+                Integer.class, loteId);
+    }
+
+    private static AprobarSolicitudRequestDTO aprobar(int cantidad) {
+        return AprobarSolicitudRequestDTO.builder().cantidadAprobada(cantidad).build();
+    }
+}
@@ -0,0 +1,137 @@
+package pe.edu.upeu.epp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.edu.upeu.epp.entity.CatalogoEpp;
+import pe.edu.upeu.epp.exception.StockInsuficienteException;
+import pe.edu.upeu.epp.support.DatosPrueba;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Varios hilos descuentan a la vez un inventario de área repartido en franjas, mientras
+ * otro consolida: ninguna lectura ve stock negativo y al final lo descontado coincide
+ * con lo que falta. Cada salida confirma su propia transacción, así que los datos se
+ * crean en un área nueva y se eliminan al terminar.
+ */
+@SpringBootTest
+class StockEngineFranjasConcurrenciaTest {
+
+    private static final int STOCK = 200;
+    private static final int FRANJAS = 4;
+    private static final int HILOS = 8;
+    private static final int SALIDAS_POR_HILO = 30;
+
+    private static final String SQL_STOCK =
+            "SELECT ia.cantidad_actual, " +
+            "ia.cantidad_actual - COALESCE(SUM(f.consumido), 0) AS disponible, " +
+            "COALESCE(MIN(f.cantidad), 0) AS minimo_franja " +
+            "FROM epp.inventario_area ia LEFT JOIN epp.inventario_area_franja f " +
+            "ON f.inventario_area_id = ia.inventario_area_id " +
+            "WHERE ia.inventario_area_id = ? GROUP BY ia.cantidad_actual";
+
+    @Autowired
+    private StockEngine stockEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Integer areaId;
+    private Integer eppId;
+    private Integer inventarioAreaId;
+
+    @BeforeEach
+    void datos() {
+        DatosPrueba datos = new DatosPrueba(jdbcTemplate);
+        areaId = datos.area("Franjas");
+        eppId = datos.epp("Guantes", CatalogoEpp.TipoUso.CONSUMIBLE);
+        inventarioAreaId = datos.inventarioArea(areaId, eppId, STOCK, 0);
+        stockEngine.configurarFranjas(inventarioAreaId, FRANJAS);
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM epp.notificacion WHERE clave LIKE ?", "stock_bajo:" + inventarioAreaId + ":%");
+        jdbcTemplate.update("DELETE FROM epp.inventario_area_franja WHERE inventario_area_id = ?", inventarioAreaId);
+        jdbcTemplate.update("DELETE FROM epp.inventario_area WHERE inventario_area_id = ?", inventarioAreaId);
+        jdbcTemplate.update("DELETE FROM epp.catalogo_epp WHERE epp_id = ?", eppId);
+        jdbcTemplate.update("DELETE FROM epp.area WHERE area_id = ?", areaId);
+    }
+
+    @Test
+    void salidasConcurrentesNuncaDejanStockNegativo() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS + 1);
+        CountDownLatch inicio = new CountDownLatch(1);
+        AtomicInteger descontado = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        AtomicBoolean terminado = new AtomicBoolean();
+        List<Future<?>> salidas = new ArrayList<>();
+        try {
+            for (int h = 0; h < HILOS; h++) {
+                salidas.add(executor.submit(() -> {
+                    inicio.await();
+                    for (int i = 0; i < SALIDAS_POR_HILO; i++) {
+                        // 8 hilos x 30 salidas de 1 o 3 unidades piden 480: más que el stock
+                        int cantidad = i % 2 == 0 ? 1 : 3;
+                        try {
+                            stockEngine.descontarArea(areaId, eppId, cantidad);
+                            descontado.addAndGet(cantidad);
+                        } catch (StockInsuficienteException e) {
+                            rechazadas.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<Integer> consolidacion = executor.submit(() -> {
+                int lecturas = 0;
+                inicio.await();
+                while (!terminado.get()) {
+                    stockEngine.consolidarFranjas();
+                    assertStockNoNegativo();
+                    lecturas++;
+                }
+                return lecturas;
+            });
+
+            inicio.countDown();
+            for (Future<?> salida : salidas) {
+                salida.get(2, TimeUnit.MINUTES);
+            }
+            terminado.set(true);
+            assertTrue(consolidacion.get(1, TimeUnit.MINUTES) > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        stockEngine.consolidarFranjas();
+        Map<String, Object> stock = assertStockNoNegativo();
+        assertEquals(STOCK - descontado.get(), ((Number) stock.get("cantidad_actual")).intValue());
+        assertTrue(rechazadas.get() > 0, "se pidió más que el stock");
+        // Con salidas de 1 unidad al final, lo que queda es menos que la salida más grande
+        assertTrue(STOCK - descontado.get() < 3, "quedaron " + (STOCK - descontado.get()) + " sin descontar");
+    }
+
+    private Map<String, Object> assertStockNoNegativo() {
+        Map<String, Object> stock = jdbcTemplate.queryForMap(SQL_STOCK, inventarioAreaId);
+        assertTrue(((Number) stock.get("cantidad_actual")).intValue() >= 0, stock.toString());
+        assertTrue(((Number) stock.get("disponible")).intValue() >= 0, stock.toString());
+        assertTrue(((Number) stock.get("minimo_franja")).intValue() >= 0, stock.toString());
+        return stock;
+    }
+}
@@ -0,0 +1,107 @@
+package pe.edu.upeu.epp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import pe.edu.upeu.epp.entity.CatalogoEpp;
+import pe.edu.upeu.epp.support.DatosPrueba;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Una salida que deja el inventario de un área en o bajo su mínimo registra un aviso por
+ * destinatario: los SUPERVISOR_SST y los JEFE_AREA de esa área, no los de otra. Volver a
+ * cruzar el mínimo el mismo día no repite el aviso.
+ */
+@SpringBootTest
+@Transactional
+class StockEngineStockBajoTest {
+
+    @Autowired
+    private StockEngine stockEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private DatosPrueba datos;
+    private Integer areaId;
+    private Integer eppId;
+    private Integer inventarioAreaId;
+    private String jefe;
+
+    @BeforeEach
+    void datos() {
+        datos = new DatosPrueba(jdbcTemplate);
+        areaId = datos.area("Stock bajo");
+        Integer otraArea = datos.area("Otra");
+        eppId = datos.epp("Guantes", CatalogoEpp.TipoUso.CONSUMIBLE);
+        inventarioAreaId = datos.inventarioArea(areaId, eppId, 10, 5);
+
+        jefe = usuario("J", "JEFE_AREA", areaId);
+        usuario("O", "JEFE_AREA", otraArea);
+        usuario("S", "SUPERVISOR_SST", null);
+    }
+
+    @Test
+    void cruzarElMinimoAvisaAUnaFilaPorDestinatario() {
+        stockEngine.descontarArea(areaId, eppId, 4);
+        assertEquals(List.of(), destinatarios(), "6 unidades sigue sobre el mínimo");
+
+        stockEngine.descontarArea(areaId, eppId, 2);
+
+        List<String> destinatarios = destinatarios();
+        Set<String> esperados = new HashSet<>(supervisores());
+        esperados.add(jefe);
+        assertEquals(esperados, new HashSet<>(destinatarios));
+        assertEquals(esperados.size(), destinatarios.size(), "una fila por destinatario");
+
+        // Ya bajo el mínimo: otra salida no es un cruce
+        stockEngine.descontarArea(areaId, eppId, 1);
+        assertEquals(esperados.size(), destinatarios().size());
+    }
+
+    @Test
+    void unSegundoCruceElMismoDiaNoDuplicaElAviso() {
+        stockEngine.descontarArea(areaId, eppId, 6);
+        int avisos = destinatarios().size();
+        assertTrue(avisos >= 2);
+
+        stockEngine.incrementarArea(areaId, eppId, 10);
+        stockEngine.descontarArea(areaId, eppId, 10);
+
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "SELECT cantidad_actual FROM epp.inventario_area WHERE inventario_area_id = ?",
+                Integer.class, inventarioAreaId));
+        assertEquals(avisos, destinatarios().size());
+    }
+
+    private List<String> destinatarios() {
+        return jdbcTemplate.queryForList(
+                "SELECT destinatario FROM epp.notificacion WHERE tipo = 'STOCK_BAJO' AND clave LIKE ?",
+                String.class, "stock_bajo:" + inventarioAreaId + ":%");
+    }
+
+    private List<String> supervisores() {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT u.email FROM epp.usuario u JOIN epp.usuario_rol ur ON ur.usuario_id = u.usuario_id " +
+                        "JOIN epp.rol r ON r.rol_id = ur.rol_id " +
+                        "WHERE r.nombre_rol = 'SUPERVISOR_SST' AND u.activo AND u.email IS NOT NULL",
+                String.class);
+    }
+
+    /**
+     * Usuario activo con el rol indicado y, si se da el área, un trabajador en ella; retorna su email
+     */
+    private String usuario(String prefijo, String rol, Integer area) {
+        String nombreUsuario = datos.unico(prefijo.toLowerCase());
+        datos.usuario(nombreUsuario, area == null ? null : datos.trabajador(prefijo, area), rol);
+        return DatosPrueba.email(nombreUsuario);
+    }
+}
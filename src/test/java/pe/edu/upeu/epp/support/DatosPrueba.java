@@ -0,0 +1,156 @@
+package pe.edu.upeu.epp.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.edu.upeu.epp.entity.CatalogoEpp;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Filas de prueba insertadas por JDBC contra la base de desarrollo. Nombres, códigos,
+ * DNI y series llevan el sufijo de la instancia (System.nanoTime() en base 36) para no
+ * chocar con los datos existentes ni con los de otra prueba. Las pruebas @Transactional
+ * las descartan al revertir; las que confirman su propia transacción las eliminan al
+ * terminar.
+ */
+public class DatosPrueba {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sufijo = Long.toString(System.nanoTime(), 36);
+    private int secuencia;
+
+    public DatosPrueba(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public String sufijo() {
+        return sufijo;
+    }
+
+    /**
+     * El prefijo seguido del sufijo de la instancia
+     */
+    public String unico(String prefijo) {
+        return prefijo + sufijo;
+    }
+
+    public static String email(String nombreUsuario) {
+        return nombreUsuario + "@prueba.upeu.edu.pe";
+    }
+
+    public Integer area(String nombre) {
+        return area(nombre, null);
+    }
+
+    public Integer area(String nombre, String codigo) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO epp.area (nombre_area, codigo_area, fecha_creacion) VALUES (?, ?, ?) RETURNING area_id",
+                Integer.class, nombre + " " + sufijo, codigo, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    public Integer epp(String nombre, CatalogoEpp.TipoUso tipoUso) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO epp.catalogo_epp (nombre_epp, codigo_identificacion, tipo_uso, fecha_creacion) " +
+                        "VALUES (?, ?, ?, ?) RETURNING epp_id",
+                Integer.class, nombre + " " + sufijo, "P-" + sufijo + "-" + siguiente(), tipoUso.name(),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Trabajador ACTIVO con un DNI de 10 caracteres propio de esta instancia
+     */
+    public Integer trabajador(String apellidos, Integer areaId) {
+        String dni = sufijo.substring(Math.max(0, sufijo.length() - 8)) + String.format("%02d", siguiente() % 100);
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO epp.trabajador (dni, nombres, apellidos, area_id, estado, fecha_creacion) " +
+                        "VALUES (?, 'Prueba', ?, ?, 'ACTIVO', ?) RETURNING trabajador_id",
+                Integer.class, dni, apellidos, areaId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Usuario activo con los roles indicados; su email es {@link #email(String)}
+     */
+    public Integer usuario(String nombreUsuario, Integer trabajadorId, String... roles) {
+        Integer usuarioId = jdbcTemplate.queryForObject(
+                "INSERT INTO epp.usuario (nombre_usuario, contrasena_hash, email, activo, trabajador_id, fecha_creacion, " +
+                        "version_token) VALUES (?, 'x', ?, true, ?, ?, 0) RETURNING usuario_id",
+                Integer.class, nombreUsuario, email(nombreUsuario), trabajadorId, Timestamp.valueOf(LocalDateTime.now()));
+        for (String rol : roles) {
+            jdbcTemplate.update("INSERT INTO epp.usuario_rol (usuario_id, rol_id) " +
+                    "SELECT ?, rol_id FROM epp.rol WHERE nombre_rol = ?", usuarioId, rol);
+        }
+        return usuarioId;
+    }
+
+    public Integer inventarioArea(Integer areaId, Integer eppId, int cantidad, int minima) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO epp.inventario_area (epp_id, area_id, cantidad_actual, cantidad_minima, ultima_actualizacion) " +
+                        "VALUES (?, ?, ?, ?, LOCALTIMESTAMP) RETURNING inventario_area_id",
+                Integer.class, eppId, areaId, cantidad, minima);
+    }
+
+    /**
+     * Lote del almacén central
+     */
+    public Integer lote(Integer eppId, int cantidad, LocalDate vencimiento) {
+        return lote(eppId, cantidad, vencimiento, LocalDateTime.now());
+    }
+
+    public Integer lote(Integer eppId, int cantidad, LocalDate vencimiento, LocalDateTime modificacion) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO epp.inventario_central (epp_id, cantidad_actual, cantidad_minima, lote, fecha_vencimiento, " +
+                        "ultima_actualizacion) VALUES (?, ?, 0, ?, ?, ?) RETURNING inventario_central_id",
+                Integer.class, eppId, cantidad, "L-" + sufijo + "-" + siguiente(),
+                vencimiento == null ? null : Date.valueOf(vencimiento), Timestamp.valueOf(modificacion));
+    }
+
+    /**
+     * Estado de EPP por nombre; la base de desarrollo puede no tenerlos sembrados
+     */
+    public Integer estado(String nombre) {
+        return jdbcTemplate.queryForList("SELECT estado_id FROM epp.estado_epp WHERE nombre = ?", Integer.class, nombre)
+                .stream().findFirst()
+                .orElseGet(() -> jdbcTemplate.queryForObject(
+                        "INSERT INTO epp.estado_epp (nombre) VALUES (?) RETURNING estado_id", Integer.class, nombre));
+    }
+
+    public Integer instancia(Integer eppId, Integer estadoId, Integer areaId) {
+        return instancia(eppId, estadoId, areaId, null, LocalDateTime.now());
+    }
+
+    /**
+     * Instancia adquirida y modificada por última vez en la fecha indicada
+     */
+    public Integer instancia(Integer eppId, Integer estadoId, Integer areaId, LocalDate vencimiento,
+                             LocalDateTime modificacion) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO epp.instancia_epp (codigo_serie, epp_id, estado_id, area_actual_id, fecha_adquisicion, " +
+                        "fecha_vencimiento, fecha_creacion, fecha_actualizacion) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING instancia_epp_id",
+                Integer.class, "S-" + sufijo + "-" + siguiente(), eppId, estadoId, areaId,
+                Date.valueOf(modificacion.toLocalDate()), vencimiento == null ? null : Date.valueOf(vencimiento),
+                Timestamp.valueOf(modificacion), Timestamp.valueOf(modificacion));
+    }
+
+    /**
+     * Entrega de reposición, sin detalles
+     */
+    public Integer entrega(Integer trabajadorId, Integer jefeAreaId, LocalDateTime fecha) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO epp.entrega_epp (trabajador_id, jefe_area_id, fecha_entrega, tipo_entrega) " +
+                        "VALUES (?, ?, ?, 'REPOSICION') RETURNING entrega_id",
+                Integer.class, trabajadorId, jefeAreaId, Timestamp.valueOf(fecha));
+    }
+
+    public void detalle(Integer entregaId, Integer eppId, Integer instanciaId, int cantidad) {
+        jdbcTemplate.update(
+                "INSERT INTO epp.detalle_entrega_epp (entrega_id, epp_id, instancia_epp_id, cantidad) VALUES (?, ?, ?, ?)",
+                entregaId, eppId, instanciaId, cantidad);
+    }
+
+    private int siguiente() {
+        return ++secuencia;
+    }
+}
@@ -0,0 +1,32 @@
+package pe.edu.upeu.epp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void sinFalsosNegativosYFalsosPositivosAcotados() {
+        BloomFilter filtro = BloomFilter.create(1000, 0.01);
+        String[] insertados = new String[1000];
+        for (int i = 0; i < insertados.length; i++) {
+            insertados[i] = UUID.randomUUID().toString();
+            filtro.put(insertados[i]);
+        }
+
+        for (String jti : insertados) {
+            assertTrue(filtro.mightContain(jti));
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filtro.mightContain(UUID.randomUUID().toString())) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 300, "falsos positivos: " + falsosPositivos);
+    }
+}
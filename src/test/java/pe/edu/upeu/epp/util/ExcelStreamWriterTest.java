@@ -0,0 +1,58 @@
+package pe.edu.upeu.epp.util;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelStreamWriterTest {
+
+    private static final int VENTANA = 10;
+    private static final int FILAS = 250;
+
+    @Test
+    void escribeMasFilasQueLaVentanaYSeLeenTodas() throws Exception {
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long escritas;
+        try (ExcelStreamWriter writer = new ExcelStreamWriter(VENTANA)) {
+            escritas = writer.escribirHoja("Entregas", List.of("n", "fecha", "registro", "nombre", "opcional"),
+                    IntStream.range(0, FILAS).mapToObj(i -> new Object[]{
+                            i, inicio.plusDays(i), inicio.plusDays(i).atTime(8, 30), "Fila " + i,
+                            i % 2 == 0 ? null : Boolean.TRUE}));
+            writer.escribir(salida);
+        }
+
+        assertEquals(FILAS, escritas);
+        try (XSSFWorkbook libro = new XSSFWorkbook(new ByteArrayInputStream(salida.toByteArray()))) {
+            assertEquals(1, libro.getNumberOfSheets());
+            Sheet hoja = libro.getSheet("Entregas");
+            assertEquals(FILAS, hoja.getLastRowNum());
+            assertEquals("fecha", hoja.getRow(0).getCell(1).getStringCellValue());
+            for (int i = 0; i < FILAS; i++) {
+                Row fila = hoja.getRow(i + 1);
+                assertEquals(i, (int) fila.getCell(0).getNumericCellValue());
+                assertEquals(inicio.plusDays(i).atStartOfDay(), fila.getCell(1).getLocalDateTimeCellValue());
+                assertEquals(LocalDateTime.of(inicio.plusDays(i), LocalTime.of(8, 30)),
+                        fila.getCell(2).getLocalDateTimeCellValue());
+                assertEquals("Fila " + i, fila.getCell(3).getStringCellValue());
+                if (i % 2 == 0) {
+                    assertEquals(CellType.BLANK, fila.getCell(4).getCellType());
+                } else {
+                    assertTrue(fila.getCell(4).getBooleanCellValue());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package pe.edu.upeu.epp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceNgramasTest {
+
+    private final IndiceNgramas<String> indice = IndiceNgramas.construir(List.of(
+            "Guantes de nitrilo",
+            "Guantes dieléctricos clase 0",
+            "Casco de seguridad",
+            "Protector auditivo tipo orejera",
+            "Lentes de protección",
+            "Arnés de cuerpo entero"), Function.identity());
+
+    @Test
+    void buscaPorPrefijoDePalabraSinTildes() {
+        assertEquals(List.of("Guantes de nitrilo", "Guantes dieléctricos clase 0"), indice.buscarPrefijo("guan", 10));
+        assertEquals(List.of("Guantes dieléctricos clase 0"), indice.buscarPrefijo("guantes DIELEC", 10));
+        assertEquals(List.of("Arnés de cuerpo entero"), indice.buscarPrefijo("arnes", 10));
+        assertEquals(List.of("Protector auditivo tipo orejera", "Lentes de protección"), indice.buscarPrefijo("prote", 10));
+    }
+
+    @Test
+    void terminosCortosYSinCoincidencias() {
+        assertEquals(List.of("Casco de seguridad"), indice.buscarPrefijo("ca se", 10));
+        assertEquals(1, indice.buscarPrefijo("g", 1).size());
+        assertTrue(indice.buscarPrefijo("botas", 10).isEmpty());
+        assertTrue(indice.buscarPrefijo("itrilo", 10).isEmpty());
+        assertTrue(indice.buscarPrefijo("  ", 10).isEmpty());
+    }
+}
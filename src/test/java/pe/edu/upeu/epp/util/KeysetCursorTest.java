@@ -0,0 +1,26 @@
+package pe.edu.upeu.epp.util;
+
+import org.junit.jupiter.api.Test;
+import pe.edu.upeu.epp.exception.BusinessException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void codificarYDecodificarConservanFechaEId() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_000), 42);
+
+        assertEquals(cursor, KeysetCursor.decodificar(cursor.codificar()));
+        assertEquals(new KeysetCursor(null, 7), KeysetCursor.decodificar(new KeysetCursor(null, 7).codificar()));
+        assertNull(KeysetCursor.decodificar(" "));
+    }
+
+    @Test
+    void cursorAlteradoSeRechaza() {
+        assertThrows(BusinessException.class, () -> KeysetCursor.decodificar("xx"));
+        assertThrows(BusinessException.class, () -> KeysetCursor.decodificar("no es base64!"));
+    }
+}
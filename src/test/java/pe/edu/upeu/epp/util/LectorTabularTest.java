@@ -0,0 +1,60 @@
+package pe.edu.upeu.epp.util;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectorTabularTest {
+
+    @Test
+    void leeCsvConComillasYPuntoYComa() throws Exception {
+        String csv = "\uFEFFdni;nombres;apellidos\r\n"
+                + "12345678;\"Ana; María\";\"Pérez \"\"la jefa\"\"\"\r\n"
+                + "\r\n"
+                + "87654321;\"Luis\nAlberto\";Ramos";
+        List<String> filas = new ArrayList<>();
+        LectorTabular.leerCsv(new StringReader(csv), (numero, valores) -> filas.add(numero + ":" + String.join("|", valores)));
+
+        assertEquals(List.of(
+                "1:dni|nombres|apellidos",
+                "2:12345678|Ana; María|Pérez \"la jefa\"",
+                "4:87654321|Luis\nAlberto|Ramos"), filas);
+    }
+
+    @Test
+    void leeXlsxConCeldasVaciasFechasYNumeros(@TempDir Path directorio) throws Exception {
+        Path archivo = directorio.resolve("trabajadores.xlsx");
+        try (XSSFWorkbook libro = new XSSFWorkbook(); OutputStream salida = Files.newOutputStream(archivo)) {
+            CellStyle fecha = libro.createCellStyle();
+            fecha.setDataFormat(libro.createDataFormat().getFormat("dd/mm/yyyy"));
+            Sheet hoja = libro.createSheet("Hoja1");
+            Row encabezado = hoja.createRow(0);
+            encabezado.createCell(0).setCellValue("dni");
+            encabezado.createCell(1).setCellValue("nombres");
+            encabezado.createCell(2).setCellValue("fecha_ingreso");
+            Row fila = hoja.createRow(2);
+            fila.createCell(0).setCellValue(1234567);
+            fila.createCell(2).setCellValue(LocalDate.of(2024, 3, 15));
+            fila.getCell(2).setCellStyle(fecha);
+            libro.write(salida);
+        }
+
+        List<String> filas = new ArrayList<>();
+        LectorTabular.leerXlsx(archivo, (numero, valores) -> filas.add(numero + ":" + String.join("|", valores)));
+
+        assertEquals(List.of("1:dni|nombres|fecha_ingreso", "3:1234567||2024-03-15"), filas);
+    }
+}
@@ -0,0 +1,37 @@
+package pe.edu.upeu.epp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaHashAbiertoTest {
+
+    @Test
+    void coincideConHashMapTrasAltasYBajasAleatorias() {
+        MapaHashAbierto mapa = new MapaHashAbierto(0);
+        Map<String, Long> esperado = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            String clave = "QR-" + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Long anterior = esperado.remove(clave);
+                assertEquals(anterior != null ? anterior : MapaHashAbierto.AUSENTE, mapa.eliminar(clave));
+            } else {
+                long valor = random.nextLong() & Long.MAX_VALUE;
+                Long anterior = esperado.put(clave, valor);
+                assertEquals(anterior != null ? anterior : MapaHashAbierto.AUSENTE, mapa.poner(clave, valor));
+            }
+        }
+
+        assertEquals(esperado.size(), mapa.tamano());
+        for (int i = 0; i < 5_000; i++) {
+            String clave = "QR-" + i;
+            assertEquals(esperado.getOrDefault(clave, MapaHashAbierto.AUSENTE), mapa.obtener(clave));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package pe.edu.upeu.epp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    @Test
+    void admiteRafagaYLuegoSeRecarga() {
+        long t0 = 0;
+        TokenBucket bucket = new TokenBucket(5, Duration.ofSeconds(50), t0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.intentarConsumir(t0));
+        }
+        long espera = bucket.intentarConsumir(t0);
+        assertTrue(espera > 0);
+        assertEquals(Duration.ofSeconds(10).toNanos(), espera, Duration.ofMillis(1).toNanos());
+
+        assertEquals(0, bucket.intentarConsumir(t0 + Duration.ofSeconds(10).toNanos()));
+        assertTrue(bucket.intentarConsumir(t0 + Duration.ofSeconds(10).toNanos()) > 0);
+    }
+}